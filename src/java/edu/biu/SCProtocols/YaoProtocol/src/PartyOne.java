@@ -1,4 +1,5 @@
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -20,6 +21,9 @@ import edu.biu.scapi.exceptions.NoSuchPartyException;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSender;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension.OTExtensionGeneralSInput;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension.OTExtensionSBlockHandler;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension.OTExtensionVersion;
+import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension.OTSemiHonestExtensionSender;
 
 /**
  * This is an implementation of party one of Yao protocol.
@@ -132,7 +136,7 @@ public class PartyOne {
 	 * @throws CheatAttemptException
 	 * @throws InvalidDlogGroupException
 	 */
-	private void runOTProtocol(Map<Integer, SecretKey[]> allInputWireValues) throws ClassNotFoundException, IOException, CheatAttemptException, InvalidDlogGroupException {
+	private void runOTProtocol(final Map<Integer, SecretKey[]> allInputWireValues) throws ClassNotFoundException, IOException, CheatAttemptException, InvalidDlogGroupException {
 		//Get the indices of p2 input wires.
 		List<Integer> partyTwoIndices = null;
 		int size = 0;
@@ -143,9 +147,30 @@ public class PartyOne {
 			// Should not occur since the given party number is valid.
 		}
 		
-		//Create and fill arrays with both keys of each input wire.
 		int otWordSize = allInputWireValues.get(partyTwoIndices.get(0))[0].getEncoded().length;
 		
+		//The OT extension sender can get the keys directly into its buffers, without creating the keys arrays.
+		//All the OTs are executed as one block, so the receiver can use the regular transfer function.
+		if (otSender instanceof OTSemiHonestExtensionSender){
+			final List<Integer> indices = partyTwoIndices;
+			((OTSemiHonestExtensionSender) otSender).transfer(OTExtensionVersion.GENERAL, size, otWordSize * 8, size, new OTExtensionSBlockHandler() {
+				
+				public void fillInputs(int firstOt, int numOfOts, ByteBuffer x0, ByteBuffer x1, ByteBuffer delta) {
+					for (int i = firstOt; i < firstOt + numOfOts; i++){
+						SecretKey[] keys = allInputWireValues.get(indices.get(i));
+						x0.put(keys[0].getEncoded());
+						x1.put(keys[1].getEncoded());
+					}
+				}
+				
+				public void consumeOutputs(int firstOt, int numOfOts, ByteBuffer x0, ByteBuffer x1) {
+					//The general version has no output.
+				}
+			});
+			return;
+		}
+		
+		//Create and fill arrays with both keys of each input wire.
 		byte[] x0Arr = new byte[size * otWordSize];
 		byte[] x1Arr = new byte[size * otWordSize];
 		
@@ -0,0 +1,163 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.generals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * This class splits a batch of independent computations into chunks and runs the chunks on an executor.<p>
+ * It is used by the batch functions of SCAPI (batch exponentiations, batch encryptions, batch proofs, etc.) 
+ * in order to spread the work across the available cores.<p>
+ * 
+ * The batch functions get the executor from the user. If the user does not give an executor, the computation is done in the calling thread.
+ * The user can also use the shared executor of SCAPI, that has one daemon thread per available processor. <p>
+ * 
+ * A task that is already running inside a chunk is executed in the calling thread, 
+ * so nested batch calls never wait for threads of the same executor.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public final class ParallelBatchExecution {
+
+	/**
+	 * A computation over the indices [from, to) of a batch.
+	 */
+	public interface BatchTask {
+		/**
+		 * Computes the batch items in the indices [from, to).
+		 * @param from the first index of the chunk (inclusive).
+		 * @param to the last index of the chunk (exclusive).
+		 */
+		public void run(int from, int to);
+	}
+	
+	//Number of chunks per available processor. More than one chunk per processor balances the load between the threads.
+	private static final int CHUNKS_PER_PROCESSOR = 4;
+	
+	//Marks threads that are currently running a chunk.
+	private static final ThreadLocal<Boolean> insideChunk = new ThreadLocal<Boolean>();
+	
+	private static ExecutorService sharedExecutor;
+	
+	private ParallelBatchExecution(){}
+	
+	/**
+	 * Returns an executor that is shared by all SCAPI batch functions.<p>
+	 * The executor has one daemon thread per available processor and is created on the first call to this function.
+	 * @return the shared executor.
+	 */
+	public static synchronized ExecutorService getSharedExecutor(){
+		if (sharedExecutor == null){
+			sharedExecutor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+				private int counter = 0;
+				
+				public synchronized Thread newThread(Runnable r) {
+					Thread thread = new Thread(r, "scapi-batch-" + (counter++));
+					thread.setDaemon(true);
+					return thread;
+				}
+			});
+		}
+		return sharedExecutor;
+	}
+	
+	/**
+	 * Runs the given task on all indices in [0, size).<p>
+	 * If the executor is null, the batch is small or the calling thread is already running a chunk, the task is executed in the calling thread.
+	 * Otherwise, the indices are split into chunks that are executed by the given executor, and this function waits until all of them are done.
+	 * @param executor the executor to use. May be null.
+	 * @param size number of items in the batch.
+	 * @param task the computation to execute.
+	 * @throws IllegalStateException if the thread was interrupted while waiting for the chunks.
+	 * @throws RuntimeException any runtime exception thrown by the task.
+	 */
+	public static void execute(ExecutorService executor, int size, final BatchTask task){
+		if (size <= 0){
+			return;
+		}
+		int numChunks = Math.min(size, Runtime.getRuntime().availableProcessors() * CHUNKS_PER_PROCESSOR);
+		if (executor == null || numChunks == 1 || insideChunk.get() != null){
+			task.run(0, size);
+			return;
+		}
+		
+		int chunkSize = (size + numChunks - 1) / numChunks;
+		List<Future<Object>> futures = new ArrayList<Future<Object>>();
+		for (int from = 0; from < size; from += chunkSize){
+			final int start = from;
+			final int end = Math.min(size, from + chunkSize);
+			futures.add(executor.submit(new Callable<Object>() {
+				public Object call() {
+					insideChunk.set(Boolean.TRUE);
+					try {
+						task.run(start, end);
+					} finally {
+						insideChunk.remove();
+					}
+					return null;
+				}
+			}));
+		}
+		
+		waitForAll(futures);
+	}
+	
+	/*
+	 * Waits for all the given futures and rethrows the first failure.
+	 */
+	private static void waitForAll(List<Future<Object>> futures){
+		RuntimeException failure = null;
+		for (Future<Object> future : futures){
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while waiting for the batch computation");
+			} catch (ExecutionException e) {
+				if (failure == null){
+					Throwable cause = e.getCause();
+					if (cause instanceof RuntimeException){
+						failure = (RuntimeException) cause;
+					} else if (cause instanceof Error){
+						throw (Error) cause;
+					} else {
+						failure = new IllegalStateException(cause);
+					}
+				}
+			}
+		}
+		if (failure != null){
+			throw failure;
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.generals;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Abstract class for bounded pools of precomputed values.<p>
+ * 
+ * In many schemes and protocols the expensive part of the online computation is an exponentiation of a random value that does not depend 
+ * on the input (g^r and h^r in ElGamal, r^N in Damgard-Jurik, g^k in DSA, the first message of the Dlog based sigma protocols). 
+ * These values can be computed offline and kept in a pool, so the online computation only combines a precomputed tuple with the input. 
+ * A concrete pool only defines how a tuple is computed.<p>
+ * 
+ * The pool has a bounded capacity. When the number of tuples drops to half of the capacity, the pool refills itself using the given executor.
+ * If there is no executor, the pool is filled only by {@link #fill()}. If the pool is empty, {@link #take()} computes a tuple in the calling thread.<p>
+ * 
+ * Each tuple is given to one caller only and is removed from the pool, since the tuples hold randomness that should not be reused.
+ * The pool can be used by several threads concurrently. Note that a background refill calls {@link #compute()} while the callers continue 
+ * their own computations, so a concrete pool should not be given an executor if its tuples are computed on an object that is not thread safe.
+ * 
+ * @param <T> the type of the precomputed tuples.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public abstract class PrecomputationPool<T> {
+	
+	private ExecutorService executor;		// Used to refill the pool in the background. May be null.
+	private ArrayBlockingQueue<T> entries;
+	private int capacity;
+	private AtomicBoolean refilling = new AtomicBoolean(false);
+	
+	//Metrics.
+	private AtomicLong generated = new AtomicLong();	// Number of tuples computed by the pool.
+	private AtomicLong taken = new AtomicLong();		// Number of tuples taken from the pool.
+	private AtomicLong misses = new AtomicLong();		// Number of calls to take that found the pool empty.
+	private AtomicLong refills = new AtomicLong();		// Number of background refills.
+	
+	/**
+	 * Constructor that sets the parameters of the pool. The pool is empty until it is filled.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param executor executor that refills the pool in the background, for example {@link ParallelBatchExecution#getSharedExecutor()}. May be null.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	protected PrecomputationPool(int capacity, ExecutorService executor){
+		if (capacity <= 0){
+			throw new IllegalArgumentException("the capacity of the pool should be positive");
+		}
+		this.capacity = capacity;
+		this.executor = executor;
+		entries = new ArrayBlockingQueue<T>(capacity);
+	}
+	
+	/**
+	 * Computes a new tuple. This function is called by the refilling threads and by take when the pool is empty, 
+	 * so it should be safe to call it concurrently.
+	 * @return the new tuple.
+	 */
+	protected abstract T compute();
+	
+	/**
+	 * Removes a tuple from the pool and returns it.<p>
+	 * If the pool is empty, the tuple is computed in the calling thread. If the pool is half empty, a background refill is started.
+	 * @return a tuple that was not given to any other caller.
+	 */
+	public T take(){
+		T entry = entries.poll();
+		taken.incrementAndGet();
+		if (entry == null){
+			misses.incrementAndGet();
+			entry = computeAndCount();
+		}
+		if (entries.size() <= capacity / 2){
+			startRefill();
+		}
+		return entry;
+	}
+	
+	/**
+	 * Fills the pool up to its capacity in the calling thread. This can be used to prepare the pool before the online phase.
+	 */
+	public void fill(){
+		while (entries.remainingCapacity() > 0){
+			if (!entries.offer(computeAndCount())){
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Removes all the tuples from the pool.
+	 */
+	public void clear(){
+		entries.clear();
+	}
+	
+	/**
+	 * Returns the number of tuples that are currently in the pool.
+	 */
+	public int size(){
+		return entries.size();
+	}
+	
+	/**
+	 * Returns the maximum number of tuples in the pool.
+	 */
+	public int getCapacity(){
+		return capacity;
+	}
+	
+	/**
+	 * Returns the fill level of the pool, that is, the number of tuples in the pool divided by its capacity.
+	 */
+	public double getFillLevel(){
+		return (double) entries.size() / capacity;
+	}
+	
+	/**
+	 * Returns the number of tuples that were computed by the pool, including the ones computed by take when the pool was empty.
+	 */
+	public long getGeneratedCount(){
+		return generated.get();
+	}
+	
+	/**
+	 * Returns the number of calls to take.
+	 */
+	public long getTakenCount(){
+		return taken.get();
+	}
+	
+	/**
+	 * Returns the number of calls to take that found the pool empty and computed the tuple online.
+	 */
+	public long getMissCount(){
+		return misses.get();
+	}
+	
+	/**
+	 * Returns the number of background refills that were started.
+	 */
+	public long getRefillCount(){
+		return refills.get();
+	}
+	
+	/*
+	 * Starts a background refill if there is an executor and no other refill is running.
+	 */
+	private void startRefill(){
+		if (executor == null || !refilling.compareAndSet(false, true)){
+			return;
+		}
+		try {
+			executor.execute(new Runnable() {
+				public void run() {
+					try {
+						fill();
+					} finally {
+						refilling.set(false);
+					}
+				}
+			});
+			refills.incrementAndGet();
+		} catch (RejectedExecutionException e) {
+			//The executor was shut down. The pool continues to work without background refills.
+			refilling.set(false);
+		}
+	}
+	
+	/*
+	 * Computes a tuple and updates the metrics.
+	 */
+	private T computeAndCount(){
+		T entry = compute();
+		generated.incrementAndGet();
+		return entry;
+	}
+}
@@ -0,0 +1,150 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.coinTossing;
+
+import java.io.IOException;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.exceptions.CommitValueException;
+import edu.biu.scapi.primitives.prg.PseudorandomGenerator;
+import edu.biu.scapi.primitives.prg.ScPrgFromPrf;
+
+/**
+ * Batched coin tossing protocol from party One's point of view.<p>
+ * 
+ * This class runs the given coin tossing protocol only once in order to agree on a short random seed, and then expands the seed
+ * using a pseudorandom generator into as many random strings or bits as needed. 
+ * This way the commitment and the round trips of the underlying protocol are paid once instead of once per toss. <p>
+ * 
+ * The seed agreement is executed on the first request for output, or explicitly by calling {@link #agreeOnSeed()}. 
+ * After that, all the outputs are computed locally with no communication. The outputs are taken from the prg stream in order, 
+ * so both parties must request the same sequence of outputs; this class should be used together with {@link CTBatchPartyTwo}.<p>
+ * 
+ * The security of the outputs is the security of the underlying protocol, reduced to the pseudorandomness of the prg.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CTBatchPartyOne implements CTPartyOne{
+
+	private CTPartyOne seedTosser;
+	private CTSeedExpander expander;
+	private int l;
+	
+	/**
+	 * Constructor that sets the given parameters.
+	 * @param seedTosser coin tossing protocol used to agree on the seed. Should output a CTStringOutput which is a valid key for the prg.
+	 * @param prg pseudorandom generator used to expand the seed.
+	 * @param l determining the length in bits of the output of each call to {@link #toss()}.
+	 */
+	public CTBatchPartyOne(CTPartyOne seedTosser, PseudorandomGenerator prg, int l){
+		if (l <= 0 || l % 8 != 0){
+			throw new IllegalArgumentException("l should be a positive multiple of 8");
+		}
+		this.seedTosser = seedTosser;
+		this.expander = new CTSeedExpander(prg);
+		this.l = l;
+	}
+	
+	/**
+	 * Default constructor that agrees on a 128-bit seed using CTStringPartyOne and expands it using a prg based on AES.
+	 * @param channel used to communicate between two parties.
+	 * @param l determining the length in bits of the output of each call to {@link #toss()}.
+	 * @throws CheatAttemptException 
+	 * @throws IOException 
+	 * @throws ClassNotFoundException 
+	 */
+	public CTBatchPartyOne(Channel channel, int l) throws ClassNotFoundException, IOException, CheatAttemptException {
+		this(new CTStringPartyOne(channel, 128), new ScPrgFromPrf(), l);
+	}
+	
+	/**
+	 * Runs the underlying coin tossing protocol and keys the prg with its output. 
+	 * Can be called again in order to replace the seed.
+	 * @throws IOException can occur in the commit phase.
+	 * @throws CommitValueException can occur in case the protocol uses an ElGamal committer.
+	 * @throws ClassNotFoundException if there was a problem in the serialization mechanism
+	 * @throws CheatAttemptException if the other party is trying to cheat.
+	 * @throws IllegalArgumentException if the tossed value is not a valid seed for the prg.
+	 */
+	public void agreeOnSeed() throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		expander.setSeed(seedTosser.toss());
+	}
+	
+	/**
+	 * @return true if the seed has already been agreed; false, otherwise.
+	 */
+	public boolean isSeeded(){
+		return expander.isSeeded();
+	}
+	
+	/**
+	 * Returns the next l-bit random string. Runs the seed agreement in case it was not executed yet.
+	 * @return CTStringOutput contains the tossed string.
+	 */
+	public CTOutput toss() throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		return tossMany(1)[0];
+	}
+	
+	/**
+	 * Returns count independent l-bit random strings, all derived from the same seed.
+	 * @param count number of strings to toss.
+	 * @return array of CTStringOutput.
+	 */
+	public CTOutput[] tossMany(int count) throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		ensureSeeded();
+		return expander.nextStrings(count, l/8);
+	}
+	
+	/**
+	 * Returns count independent random bits, all derived from the same seed.
+	 * @param count number of bits to toss.
+	 * @return array of CTBitOutput.
+	 */
+	public CTOutput[] tossBits(int count) throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		ensureSeeded();
+		return expander.nextBits(count);
+	}
+	
+	/**
+	 * Returns a random string of the given length, derived from the seed.
+	 * @param lengthInBytes the required length.
+	 * @return the random bytes.
+	 */
+	public byte[] tossBytes(int lengthInBytes) throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		ensureSeeded();
+		return expander.nextBytes(lengthInBytes);
+	}
+	
+	/**
+	 * Runs the seed agreement in case it was not executed yet.
+	 */
+	private void ensureSeeded() throws IOException, CommitValueException, CheatAttemptException, ClassNotFoundException {
+		if (!expander.isSeeded()){
+			agreeOnSeed();
+		}
+	}
+}
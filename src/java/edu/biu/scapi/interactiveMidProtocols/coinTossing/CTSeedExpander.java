@@ -0,0 +1,134 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.coinTossing;
+
+import java.security.InvalidKeyException;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import edu.biu.scapi.primitives.prg.PseudorandomGenerator;
+
+/**
+ * Expands the seed agreed by a coin tossing protocol into an arbitrary number of random strings and bits.<p>
+ * 
+ * Both parties of the batched coin tossing protocol hold an instance of this class, key the same prg with the same tossed seed
+ * and then draw their outputs from the prg stream. Since the stream is consumed in order, both parties must request the 
+ * same sequence of outputs in order to get the same coins.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CTSeedExpander {
+
+	private PseudorandomGenerator prg;
+	private boolean isSeeded;
+	
+	/**
+	 * Constructor that sets the prg used to expand the seed.
+	 * @param prg the underlying pseudorandom generator.
+	 */
+	CTSeedExpander(PseudorandomGenerator prg){
+		this.prg = prg;
+	}
+	
+	/**
+	 * Keys the underlying prg with the given tossed seed.
+	 * @param output the output of the underlying coin tossing protocol.
+	 * @throws IllegalArgumentException if the given output is not a string output or is not a valid key for the prg.
+	 */
+	void setSeed(CTOutput output){
+		if (!(output instanceof CTStringOutput)){
+			throw new IllegalArgumentException("The underlying coin tossing protocol should output a string");
+		}
+		byte[] seed = ((CTStringOutput) output).getOutput();
+		try {
+			prg.setKey(new SecretKeySpec(seed, ""));
+		} catch (InvalidKeyException e) {
+			throw new IllegalArgumentException("The tossed seed is not a valid key for the given prg. The thrown message is: " + e.getMessage());
+		}
+		isSeeded = true;
+	}
+	
+	/**
+	 * @return true if a seed has been set; false, otherwise.
+	 */
+	boolean isSeeded(){
+		return isSeeded;
+	}
+	
+	/**
+	 * Returns the next len bytes of the prg stream.
+	 * @param len the required number of bytes.
+	 * @return the generated bytes.
+	 */
+	byte[] nextBytes(int len){
+		if (len < 0){
+			throw new IllegalArgumentException("the required length should be non negative");
+		}
+		byte[] out = new byte[len];
+		if (len > 0){
+			prg.getPRGBytes(out, 0, len);
+		}
+		return out;
+	}
+	
+	/**
+	 * Generates count random strings of lengthInBytes bytes each. 
+	 * All the strings are taken from a single prg call and then split.
+	 * @param count number of strings to generate.
+	 * @param lengthInBytes length of each string.
+	 * @return an array of CTStringOutput.
+	 */
+	CTOutput[] nextStrings(int count, int lengthInBytes){
+		if (count < 0){
+			throw new IllegalArgumentException("the number of tosses should be non negative");
+		}
+		byte[] all = nextBytes(count * lengthInBytes);
+		CTOutput[] outputs = new CTOutput[count];
+		for (int i=0; i<count; i++){
+			byte[] string = new byte[lengthInBytes];
+			System.arraycopy(all, i*lengthInBytes, string, 0, lengthInBytes);
+			outputs[i] = new CTStringOutput(string);
+		}
+		return outputs;
+	}
+	
+	/**
+	 * Generates count random bits, using one prg byte per eight bits.
+	 * @param count number of bits to generate.
+	 * @return an array of CTBitOutput, each one holding a single bit.
+	 */
+	CTOutput[] nextBits(int count){
+		if (count < 0){
+			throw new IllegalArgumentException("the number of tosses should be non negative");
+		}
+		byte[] all = nextBytes((count + 7) / 8);
+		CTOutput[] outputs = new CTOutput[count];
+		for (int i=0; i<count; i++){
+			outputs[i] = new CTBitOutput((byte) ((all[i / 8] >> (i % 8)) & 1));
+		}
+		return outputs;
+	}
+}
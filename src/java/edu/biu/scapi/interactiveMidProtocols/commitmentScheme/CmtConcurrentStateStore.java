@@ -0,0 +1,391 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+/**
+ * Concrete implementation of a commitment state store, keyed by primitive long ids. <p>
+ * The ids are spread over a number of segments. Each segment is an open addressing hash table with its own lock, 
+ * so threads that work on commitments of different segments do not block each other. The ids are never boxed.<p>
+ * 
+ * The store can optionally expire values. In this case a value that was put more than the given number of milliseconds ago 
+ * is treated as if it was removed, and its memory is reclaimed by the following operations on its segment.
+ * A segment also shrinks when most of its values are removed, so the store does not keep the memory of commitments that were closed.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtConcurrentStateStore<V> implements CmtStateStore<V> {
+
+	private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+	private static final int MIN_SEGMENT_CAPACITY = 16;
+	
+	private Segment<V>[] segments;
+	private int segmentShift;			//Number of bits to shift the hash in order to get the segment index.
+	private long expirationNanos;		//0 means the values never expire.
+	
+	/**
+	 * Constructor that creates a store whose values never expire.
+	 */
+	public CmtConcurrentStateStore(){
+		this(DEFAULT_CONCURRENCY_LEVEL, 0);
+	}
+	
+	/**
+	 * Constructor that creates a store whose values expire after the given time.
+	 * @param expirationMillis the time (in milliseconds) a value is kept in the store. 0 means that the values never expire.
+	 */
+	public CmtConcurrentStateStore(long expirationMillis){
+		this(DEFAULT_CONCURRENCY_LEVEL, expirationMillis);
+	}
+	
+	/**
+	 * Constructor that creates a store with the given number of segments and expiration time.
+	 * @param concurrencyLevel the estimated number of threads that use the store at the same time. 
+	 * 		  The number of segments is the closest power of two that is not smaller than this number.
+	 * @param expirationMillis the time (in milliseconds) a value is kept in the store. 0 means that the values never expire.
+	 * @throws IllegalArgumentException if concurrencyLevel is not positive or expirationMillis is negative.
+	 */
+	public CmtConcurrentStateStore(int concurrencyLevel, long expirationMillis){
+		if (concurrencyLevel <= 0){
+			throw new IllegalArgumentException("concurrencyLevel should be positive");
+		}
+		if (expirationMillis < 0){
+			throw new IllegalArgumentException("expirationMillis should not be negative");
+		}
+		int numSegments = 1;
+		int bits = 0;
+		while (numSegments < concurrencyLevel && numSegments < (1 << 16)){
+			numSegments <<= 1;
+			bits++;
+		}
+		segmentShift = 64 - bits;
+		expirationNanos = expirationMillis * 1000000L;
+		//Generic arrays can not be created directly, but every element of the array is a Segment<V>.
+		@SuppressWarnings("unchecked")
+		Segment<V>[] newSegments = (Segment<V>[]) new Segment<?>[numSegments];
+		segments = newSegments;
+		for (int i = 0; i < numSegments; i++){
+			segments[i] = new Segment<V>(expirationNanos);
+		}
+	}
+	
+	/**
+	 * Returns the expiration time of this store in milliseconds, 0 if the values never expire.
+	 */
+	public long getExpirationMillis(){
+		return expirationNanos / 1000000L;
+	}
+	
+	@Override
+	public V put(long id, V value) {
+		if (value == null){
+			throw new IllegalArgumentException("The value can not be null");
+		}
+		long hash = hash(id);
+		return segmentFor(hash).put(id, (int) hash, value);
+	}
+
+	@Override
+	public V get(long id) {
+		long hash = hash(id);
+		return segmentFor(hash).get(id, (int) hash);
+	}
+
+	@Override
+	public V remove(long id) {
+		long hash = hash(id);
+		return segmentFor(hash).remove(id, (int) hash);
+	}
+
+	/**
+	 * Returns the number of values currently kept in the store. Expired values that were not purged yet are not counted.<p>
+	 * If the values expire, the segments are scanned, so the time is linear in the capacity of the store. 
+	 * Since the segments are counted one after the other, the result is exact only if the store is not changed during the call.
+	 */
+	@Override
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < segments.length; i++){
+			size += segments[i].size();
+		}
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (int i = 0; i < segments.length; i++){
+			segments[i].clear();
+		}
+	}
+	
+	/**
+	 * Removes all the expired values from the store and releases their memory.
+	 * The expired values are also removed lazily by the other operations, so calling this function is not required.
+	 */
+	public void purgeExpired(){
+		for (int i = 0; i < segments.length; i++){
+			segments[i].purgeExpired();
+		}
+	}
+	
+	private Segment<V> segmentFor(long hash){
+		//When there is only one segment the shift is 64, which java treats as 0. 
+		return (segments.length == 1) ? segments[0] : segments[(int) (hash >>> segmentShift)];
+	}
+	
+	/*
+	 * Mixes the bits of the id so that sequential ids are spread over all the segments and slots.
+	 */
+	private static long hash(long id){
+		long h = id;
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+	
+	/**
+	 * One segment of the store. An open addressing hash table with linear probing; 
+	 * a slot is used if its value is not null.
+	 */
+	private static final class Segment<V>{
+		
+		private long expirationNanos;
+		private long[] keys;
+		private Object[] values;
+		private long[] times;		//The time each value was put. Allocated only if the values expire.
+		private int size;
+		private long nextPurge;		//The time of the next purge of expired values.
+		
+		Segment(long expirationNanos){
+			this.expirationNanos = expirationNanos;
+			allocate(MIN_SEGMENT_CAPACITY);
+			if (expirationNanos > 0){
+				nextPurge = System.nanoTime() + expirationNanos;
+			}
+		}
+		
+		private void allocate(int capacity){
+			keys = new long[capacity];
+			values = new Object[capacity];
+			times = (expirationNanos > 0) ? new long[capacity] : null;
+			size = 0;
+		}
+		
+		private int findSlot(long key, int hash){
+			int mask = keys.length - 1;
+			int i = hash & mask;
+			while (values[i] != null){
+				if (keys[i] == key){
+					return i;
+				}
+				i = (i + 1) & mask;
+			}
+			return -1;
+		}
+		
+		private boolean isExpired(int slot, long now){
+			return (times != null) && (now - times[slot] >= expirationNanos);
+		}
+		
+		@SuppressWarnings("unchecked")
+		synchronized V get(long key, int hash){
+			int slot = findSlot(key, hash);
+			if (slot < 0 || isExpired(slot, System.nanoTime())){
+				return null;
+			}
+			return (V) values[slot];
+		}
+		
+		@SuppressWarnings("unchecked")
+		synchronized V put(long key, int hash, V value){
+			long now = (times != null) ? System.nanoTime() : 0;
+			if (times != null && now - nextPurge >= 0){
+				purge(now);
+			}
+			int slot = findSlot(key, hash);
+			if (slot >= 0){
+				V old = isExpired(slot, now) ? null : (V) values[slot];
+				values[slot] = value;
+				if (times != null){
+					times[slot] = now;
+				}
+				return old;
+			}
+			//Keep the load factor below 1/2.
+			if ((size + 1) * 2 > keys.length){
+				rehash(keys.length * 2, now);
+			}
+			insert(key, hash, value, now);
+			return null;
+		}
+		
+		@SuppressWarnings("unchecked")
+		synchronized V remove(long key, int hash){
+			int slot = findSlot(key, hash);
+			if (slot < 0){
+				return null;
+			}
+			V old = isExpired(slot, System.nanoTime()) ? null : (V) values[slot];
+			deleteSlot(slot);
+			//Shrink the table if most of it is empty.
+			if (keys.length > MIN_SEGMENT_CAPACITY && size * 8 < keys.length){
+				rehash(keys.length / 2, System.nanoTime());
+			}
+			return old;
+		}
+		
+		/*
+		 * Returns the number of values that did not expire.
+		 */
+		synchronized int size(){
+			if (times == null){
+				return size;
+			}
+			long now = System.nanoTime();
+			int count = 0;
+			for (int i = 0; i < values.length; i++){
+				if (values[i] != null && !isExpired(i, now)){
+					count++;
+				}
+			}
+			return count;
+		}
+		
+		synchronized void clear(){
+			allocate(MIN_SEGMENT_CAPACITY);
+		}
+		
+		synchronized void purgeExpired(){
+			if (times != null){
+				purge(System.nanoTime());
+			}
+		}
+		
+		/*
+		 * Rebuilds the table without the expired values, shrinking it if possible.
+		 */
+		private void purge(long now){
+			int capacity = keys.length;
+			while (capacity > MIN_SEGMENT_CAPACITY && size * 4 < capacity){
+				capacity /= 2;
+			}
+			rehash(capacity, now);
+			nextPurge = now + expirationNanos;
+		}
+		
+		private void insert(long key, int hash, Object value, long time){
+			int mask = keys.length - 1;
+			int i = hash & mask;
+			while (values[i] != null){
+				i = (i + 1) & mask;
+			}
+			keys[i] = key;
+			values[i] = value;
+			if (times != null){
+				times[i] = time;
+			}
+			size++;
+		}
+		
+		/*
+		 * Moves all the values that did not expire into a new table of the given capacity.
+		 */
+		private void rehash(int capacity, long now){
+			long[] oldKeys = keys;
+			Object[] oldValues = values;
+			long[] oldTimes = times;
+			allocate(capacity);
+			for (int i = 0; i < oldKeys.length; i++){
+				if (oldValues[i] != null && (oldTimes == null || now - oldTimes[i] < expirationNanos)){
+					insert(oldKeys[i], (int) hash(oldKeys[i]), oldValues[i], (oldTimes == null) ? 0 : oldTimes[i]);
+				}
+			}
+		}
+		
+		/*
+		 * Removes the value in the given slot and moves back the following values of the probing sequence, 
+		 * so that no "deleted" markers are needed.
+		 */
+		private void deleteSlot(int slot){
+			int mask = keys.length - 1;
+			int hole = slot;
+			int i = slot;
+			while (true){
+				i = (i + 1) & mask;
+				if (values[i] == null){
+					break;
+				}
+				int ideal = (int) hash(keys[i]) & mask;
+				//The value in slot i can move to the hole only if its ideal slot is not in the cyclic range (hole, i].
+				boolean inRange = (hole <= i) ? (hole < ideal && ideal <= i) : (hole < ideal || ideal <= i);
+				if (!inRange){
+					keys[hole] = keys[i];
+					values[hole] = values[i];
+					if (times != null){
+						times[hole] = times[i];
+					}
+					hole = i;
+				}
+			}
+			values[hole] = null;
+			size--;
+		}
+	}
+	
+	/**
+	 * Factory that creates CmtConcurrentStateStore instances with the same expiration time.
+	 */
+	public static class Factory implements CmtStateStoreFactory {
+		
+		private int concurrencyLevel;
+		private long expirationMillis;
+		
+		/**
+		 * Constructor that sets the parameters of the created stores.
+		 * @param concurrencyLevel the estimated number of threads that use each store at the same time.
+		 * @param expirationMillis the time (in milliseconds) a value is kept in each store. 0 means that the values never expire.
+		 */
+		public Factory(int concurrencyLevel, long expirationMillis){
+			this.concurrencyLevel = concurrencyLevel;
+			this.expirationMillis = expirationMillis;
+		}
+		
+		/**
+		 * Constructor that sets the expiration time of the created stores.
+		 * @param expirationMillis the time (in milliseconds) a value is kept in each store. 0 means that the values never expire.
+		 */
+		public Factory(long expirationMillis){
+			this(DEFAULT_CONCURRENCY_LEVEL, expirationMillis);
+		}
+
+		@Override
+		public <V> CmtStateStore<V> createStore() {
+			return new CmtConcurrentStateStore<V>(concurrencyLevel, expirationMillis);
+		}
+	}
+}
@@ -0,0 +1,69 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme;
+
+/**
+ * General interface for the data structure that keeps the state of the open commitments, by their ids. <p>
+ * The committers keep in it the values needed for the decommitment and the receivers keep in it the received commitments until they are decommitted.
+ * Implementations must be safe for use by many threads at once.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface CmtStateStore<V> {
+
+	/**
+	 * Keeps the given value under the given id. If there was already a value with this id, it is replaced.
+	 * @param id the commitment id.
+	 * @param value the value to keep. Can not be null.
+	 * @return the previous value kept under this id, or null if there was no such value.
+	 * @throws IllegalArgumentException if the given value is null.
+	 */
+	public V put(long id, V value);
+	
+	/**
+	 * Returns the value kept under the given id.
+	 * @param id the commitment id.
+	 * @return the value kept under the given id, or null if there is no such value (or if it has expired).
+	 */
+	public V get(long id);
+	
+	/**
+	 * Removes the value kept under the given id.
+	 * @param id the commitment id.
+	 * @return the removed value, or null if there was no such value.
+	 */
+	public V remove(long id);
+	
+	/**
+	 * Returns the number of values currently kept in the store.
+	 */
+	public int size();
+	
+	/**
+	 * Removes all the values from the store.
+	 */
+	public void clear();
+}
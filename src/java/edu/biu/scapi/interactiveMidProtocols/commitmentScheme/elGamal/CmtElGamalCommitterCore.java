@@ -30,8 +30,6 @@ import java.security.InvalidKeyException;
 import java.security.Key;
 import java.security.KeyPair;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 import java.util.logging.Level;
 
 import edu.biu.scapi.generals.Logging;
@@ -45,6 +43,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ElGamalEnc;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey;
@@ -81,7 +82,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 	protected DlogGroup dlog;
 	protected SecureRandom random;
 	private BigInteger qMinusOne;
-	protected Map<Long, CmtElGamalCommitmentPhaseValues> commitmentMap;
+	protected CmtStateStore<CmtElGamalCommitmentPhaseValues> commitmentMap;
 	protected ElGamalEnc elGamal;
 	protected ScElGamalPublicKey publicKey;
 	private ScElGamalPrivateKey privateKey;
@@ -122,7 +123,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtElGamalCommitmentPhaseValues>();
+		commitmentMap = new CmtConcurrentStateStore<CmtElGamalCommitmentPhaseValues>();
 		this.elGamal = elGamal;
 		preProcess();
 	}
@@ -178,7 +179,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		AsymmetricCiphertext c =  elGamal.encrypt(input.convertToPlaintext(), r);
 		
 		//keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue(r), input,c));
+		commitmentMap.put(id, new CmtElGamalCommitmentPhaseValues(new BigIntegerRandomValue(r), input,c));
 		
 		return new CmtElGamalCommitmentMessage((ElGamalCiphertextSendableData)c.generateSendableData(), id);
 	}
@@ -199,7 +200,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 			//Send the message by the channel.
 			channel.send(c);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the commitment. The error is: " + e.getMessage());
 		}	
 		
@@ -209,7 +210,7 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//fetch the commitment according to the requested ID
-		CmtElGamalCommitmentPhaseValues values = commitmentMap.get(Long.valueOf(id));
+		CmtElGamalCommitmentPhaseValues values = commitmentMap.get(id);
 		return new CmtElGamalDecommitmentMessage(values.getX().generateSendableData(),values.getR());
 	}
 
@@ -243,5 +244,17 @@ public abstract class CmtElGamalCommitterCore implements CmtCommitter {
 		return commitmentMap.get(id);
 	}
 
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
 
@@ -28,8 +28,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.security.InvalidKeyException;
 import java.security.PublicKey;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
@@ -39,6 +37,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPha
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ElGamalEnc;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey.ScElGamalPublicKeySendableData;
@@ -77,7 +78,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 	 *
 	 */
 	
-	protected Map<Long , CmtElGamalCommitmentMessage> commitmentMap;
+	protected CmtStateStore<CmtElGamalCommitmentMessage> commitmentMap;
 	protected DlogGroup dlog;
 	protected Channel channel;
 	protected ElGamalEnc elGamal;
@@ -117,7 +118,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 
 		this.channel = channel;
 		this.dlog = dlog;
-		commitmentMap = new Hashtable<Long, CmtElGamalCommitmentMessage>();
+		commitmentMap = new CmtConcurrentStateStore<CmtElGamalCommitmentMessage>();
 		this.elGamal = elGamal;
 		preProcess();
 		try {
@@ -174,7 +175,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
 		}
 
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -209,7 +210,7 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 		if (!(message instanceof CmtElGamalDecommitmentMessage)){
 			throw new IllegalArgumentException("the received message is not an instance of CmtElGamalDecommitmentMessage");
 		}
-		CmtElGamalCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
+		CmtElGamalCommitmentMessage receivedCommitment = commitmentMap.get(id);
 		
 		return verifyDecommitment(receivedCommitment, (CmtElGamalDecommitmentMessage) message);
 	}
@@ -225,4 +226,17 @@ public abstract class CmtElGamalReceiverCore implements CmtReceiver{
 	public CmtElGamalCommitmentMessage getCommitmentPhaseValues(long id){
 		return commitmentMap.get(id);
 	}
+
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
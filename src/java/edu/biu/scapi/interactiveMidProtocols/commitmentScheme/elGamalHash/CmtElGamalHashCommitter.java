@@ -26,8 +26,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamalHash;
 
 import java.io.IOException;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 
 import edu.biu.scapi.comm.Channel;
@@ -43,6 +41,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtOnByteArray;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.elGamal.CmtElGamalCommitterCore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.ScElGamalOnByteArray;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.miracl.MiraclDlogECF2m;
@@ -69,7 +70,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 	 */
 	
 	private CryptographicHash hash;
-	private Map<Long, byte[]> hashCommitmentMap;
+	private CmtStateStore<byte[]> hashCommitmentMap;
 
 	/**
 	 * This constructor receives as argument the channel and chosses default values of 
@@ -118,7 +119,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 			throw new IllegalArgumentException("The size in bytes of the resulting hash is bigger than the size in bytes of the order of the DlogGroup.");
 		}
 		this.hash = hash;
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtConcurrentStateStore<byte[]>();
 	}
 	
 	/**
@@ -159,7 +160,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 		//Hash the input x with the hash function
 		byte[] x  = ((CmtByteArrayCommitValue)input).getX();
 		//Keep the original commit value x and its id in the commitmentMap, needed for later (during the decommit phase).
-		hashCommitmentMap.put(Long.valueOf(id), x);
+		hashCommitmentMap.put(id, x);
 		
 		//calculate H(x) = Hash(x)
 		byte[] hashValArray = new byte[hash.getHashedMsgSize()];
@@ -172,7 +173,7 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//Fetch the commitment according to the requested ID
-		byte[] x = hashCommitmentMap.get(Long.valueOf(id));
+		byte[] x = hashCommitmentMap.get(id);
 		//Get the relevant random value used in the commitment phase
 		BigIntegerRandomValue r = (commitmentMap.get(id)).getR();
 				
@@ -219,5 +220,15 @@ public class CmtElGamalHashCommitter extends CmtElGamalCommitterCore implements
 		return (byte[]) value.getX();
 	}
 
-
+	/**
+	 * Replaces the stores that keep the state of the commitments (including the original inputs) with stores created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new stores.
+	 * @param factory creates the new stores.
+	 * @throws IllegalStateException if there are commitments in the current stores.
+	 */
+	@Override
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		super.setStateStoreFactory(factory);
+		hashCommitmentMap = factory.createStore();
+	}
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+
+/**
+ * Concrete implementation of commitment message used by Merkle Hash commitment scheme.<p>
+ * The message contains the root of the tree and the number of committed values.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtMerkleHashCommitmentMessage implements CmtCCommitmentMsg, Serializable {
+	
+	private static final long serialVersionUID = 6112960735420497341L;
+	
+	private byte[] root;
+	private int numValues;
+	private long id; //The id of the commitment
+	
+	/**
+	 * Constructor that sets the commitment and id.
+	 * @param root the root of the Merkle tree.
+	 * @param numValues the number of committed values.
+	 * @param id the commitment id.
+	 */
+	CmtMerkleHashCommitmentMessage(byte[] root, int numValues, long id) {
+		this.root = root;
+		this.numValues = numValues;
+		this.id = id;
+	}
+	
+	/**
+	 * Returns the root of the Merkle tree.
+	 */
+	public byte[] getCommitment() {
+		return root;
+	}
+	
+	/**
+	 * Returns the number of committed values.
+	 */
+	int getNumValues() {
+		return numValues;
+	}
+	
+	/**
+	 * Returns the commitment id.
+	 */
+	public long getId() {
+		return id;
+	}
+	
+	@Override
+	public String toString() {
+		return "CmtMerkleHashCommitmentMessage [root=" + Arrays.toString(root)
+				+ ", numValues=" + numValues + ", id=" + id + "]";
+	}
+}
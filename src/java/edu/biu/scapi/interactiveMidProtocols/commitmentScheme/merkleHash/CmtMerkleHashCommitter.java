@@ -0,0 +1,262 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.interactiveMidProtocols.ByteArrayRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
+import edu.biu.scapi.securityLevel.SecureCommit;
+
+/**
+ * This class implements the committer side of Merkle Hash commitment.<p>
+ * 
+ * This is a batch version of the Simple Hash commitment. Each value x_i is hashed with its own random value r_i into a leaf H(0x00, r_i, x_i)
+ * and the leaves are hashed into a Merkle tree. The committer sends only the root of the tree, so any number of values is committed 
+ * in a single message. In the decommitment phase the committer opens any subset of the values, together with the tree nodes that are 
+ * needed in order to recompute the root. <p>
+ * 
+ * Hiding follows from the random values as in the Simple Hash commitment, and binding follows from the collision resistance of the hash. <p>
+ * 
+ * In case the hash is given by name, the tree is built in parallel using the given executor.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtMerkleHashCommitter implements SecureCommit {
+	
+	/*
+	 * runs the following protocol:
+	 * "Commit phase
+	 *		FOR i = 1,...,m
+	 *			SAMPLE a random value r_i <- {0, 1}^n
+	 *			COMPUTE the leaf l_i = H(0x00, r_i, x_i)
+	 *		COMPUTE the root c of the Merkle tree over l_1,...,l_m 
+	 *		SEND (c, m) to R
+	 *	Decommit phase on a subset I
+	 *		SEND {(i, r_i, x_i)} for i in I, and the tree nodes needed to recompute c from the leaves in I, to R
+	 *		OUTPUT nothing"	 
+	 */
+	
+	private Channel channel;
+	private CmtMerkleHashSource hashSource;
+	private int n;
+	private SecureRandom random;
+	private ExecutorService executor;
+	private CmtStateStore<CmtMerkleHashCommitmentValues> commitmentMap;
+	
+	/**
+	 * Constructor that receives a connected channel (to the receiver) and chooses default 
+	 * values for the hash function, SecureRandom object and a security parameter n.<p>
+	 * The tree is built in the calling thread.
+	 * @param channel
+	 */
+	public CmtMerkleHashCommitter(Channel channel) {
+		this(channel, new OpenSSLSHA256(), new SecureRandom(), 32);
+	}
+	
+	/**
+	 * Constructor that receives a connected channel (to the receiver), the hash function
+	 * agreed upon between them, a SecureRandom object and a security parameter n.<p>
+	 * Since the hash object can not be shared between threads, the tree is built in the calling thread.
+	 * The Receiver needs to be instantiated with the same hash, otherwise nothing will work properly.
+	 * @param channel
+	 * @param hash
+	 * @param random
+	 * @param n security parameter
+	 */
+	public CmtMerkleHashCommitter(Channel channel, CryptographicHash hash, SecureRandom random, int n) {
+		doConstruct(channel, new CmtMerkleHashSource(hash), random, n, null);
+	}
+	
+	/**
+	 * Constructor that receives a connected channel (to the receiver), the name of the hash function
+	 * agreed upon between them, a SecureRandom object, a security parameter n and an executor.<p>
+	 * Each thread creates its own hash object, so the tree is built in parallel using the given executor.
+	 * The Receiver needs to be instantiated with the same hash, otherwise nothing will work properly.
+	 * @param channel
+	 * @param hashName the name of the hash, for example "SHA-256".
+	 * @param provider the provider of the hash. If null, the default provider is used.
+	 * @param random
+	 * @param n security parameter
+	 * @param executor used to build the tree. If null, the tree is built in the calling thread.
+	 * @throws FactoriesException if the factory can not create the requested hash.
+	 */
+	public CmtMerkleHashCommitter(Channel channel, String hashName, String provider, SecureRandom random, int n, 
+			ExecutorService executor) throws FactoriesException {
+		doConstruct(channel, new CmtMerkleHashSource(hashName, provider), random, n, executor);
+	}
+	
+	private void doConstruct(Channel channel, CmtMerkleHashSource hashSource, SecureRandom random, int n, ExecutorService executor){
+		this.channel = channel;
+		this.hashSource = hashSource;
+		this.random = random;
+		this.n = n;
+		this.executor = executor;
+		commitmentMap = new CmtConcurrentStateStore<CmtMerkleHashCommitmentValues>();
+	}
+	
+	/**
+	 * Runs the following lines of the commitment scheme:
+	 * "FOR i = 1,...,m
+	 *		SAMPLE a random value r_i <- {0, 1}^n
+	 *		COMPUTE the leaf l_i = H(0x00, r_i, x_i)
+	 *	COMPUTE the root c of the Merkle tree over l_1,...,l_m".
+	 * @param values the values to commit on.
+	 * @param id the id of the commitment.
+	 * @return the generated commitment.
+	 * @throws IllegalArgumentException if there are no values to commit on.
+	 */
+	public CmtCCommitmentMsg generateCommitmentMsg(byte[][] values, long id){
+		if (values.length == 0){
+			throw new IllegalArgumentException("at least one value should be committed");
+		}
+		//Sample the random values of all leaves at once.
+		byte[] r = new byte[values.length * n];
+		random.nextBytes(r);
+		
+		CmtMerkleHashTree tree = new CmtMerkleHashTree(hashSource, values, r, n, executor);
+		
+		commitmentMap.put(id, new CmtMerkleHashCommitmentValues(values, r, tree));
+		
+		return new CmtMerkleHashCommitmentMessage(tree.getRoot(), values.length, id);
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme:
+	 * "FOR i = 1,...,m
+	 *		SAMPLE a random value r_i <- {0, 1}^n
+	 *		COMPUTE the leaf l_i = H(0x00, r_i, x_i)
+	 *	COMPUTE the root c of the Merkle tree over l_1,...,l_m 
+	 *	SEND (c, m) to R".
+	 * @param values the values to commit on.
+	 * @param id the id of the commitment.
+	 * @throws IOException if failed to send the commitment.
+	 */
+	public void commit(byte[][] values, long id) throws IOException {
+		
+		CmtCCommitmentMsg msg = generateCommitmentMsg(values, id);
+		try {
+			//Send the message by the channel.
+			channel.send(msg);
+		} catch (IOException e) {
+			commitmentMap.remove(id);
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}	
+	}
+	
+	/**
+	 * Generates the decommitment message that opens the values in the given indices.
+	 * @param id the id of the commitment.
+	 * @param indices the indices of the values to open.
+	 * @return the generated decommitment message. The opened values in the message are sorted by their indices.
+	 * @throws IllegalArgumentException if there is no commitment with the given id or the indices are not valid.
+	 */
+	public CmtCDecommitmentMessage generateDecommitmentMsg(long id, int[] indices){
+		
+		//fetch the commitment according to the requested ID
+		CmtMerkleHashCommitmentValues vals = commitmentMap.get(id);
+		if (vals == null){
+			throw new IllegalArgumentException("There is no commitment with id " + id);
+		}
+		CmtMerkleHashTree tree = vals.getTree();
+		int[] sorted = CmtMerkleHashTree.normalizeIndices(indices, tree.getNumLeaves());
+		
+		byte[][] x = new byte[sorted.length][];
+		byte[] r = new byte[sorted.length * n];
+		for (int i = 0; i < sorted.length; i++){
+			x[i] = vals.getValues()[sorted[i]];
+			System.arraycopy(vals.getR(), sorted[i] * n, r, i * n, n);
+		}
+		return new CmtMerkleHashDecommitmentMessage(sorted, x, new ByteArrayRandomValue(r), tree.getProof(sorted));
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on the given subset of the values:
+	 * "SEND {(i, r_i, x_i)} for i in I, and the tree nodes needed to recompute c from the leaves in I, to R
+	 *	OUTPUT nothing."
+	 * @param id the id of the commitment.
+	 * @param indices the indices of the values to open.
+	 * @throws IOException if failed to send the decommitment.
+	 */
+	public void decommit(long id, int[] indices) throws IOException {
+		
+		CmtCDecommitmentMessage msg = generateDecommitmentMsg(id, indices);
+		try{
+			channel.send(msg);
+		}
+		catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on all the committed values.
+	 * @param id the id of the commitment.
+	 * @throws IOException if failed to send the decommitment.
+	 */
+	public void decommit(long id) throws IOException {
+		CmtMerkleHashCommitmentValues vals = commitmentMap.get(id);
+		if (vals == null){
+			throw new IllegalArgumentException("There is no commitment with id " + id);
+		}
+		int[] all = new int[vals.getValues().length];
+		for (int i = 0; i < all.length; i++){
+			all[i] = i;
+		}
+		decommit(id, all);
+	}
+	
+	/**
+	 * Removes the state of the given commitment. Should be called when no more values of this commitment are going to be opened.
+	 * @param id the id of the commitment.
+	 */
+	public void removeCommitment(long id){
+		commitmentMap.remove(id);
+	}
+	
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
+}
@@ -0,0 +1,99 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+import edu.biu.scapi.interactiveMidProtocols.ByteArrayRandomValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+
+/**
+ * Concrete implementation of decommitment message used by Merkle Hash commitment scheme.<p>
+ * The message opens a subset of the committed values. It contains the indices of the opened values, the values, 
+ * their random values and the nodes of the tree needed to recompute the root.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtMerkleHashDecommitmentMessage implements CmtCDecommitmentMessage, Serializable {
+	
+	private static final long serialVersionUID = -2580734372658917406L;
+	
+	private int[] indices;			//Sorted indices of the opened values.
+	private byte[][] x;				//The opened values.
+	private ByteArrayRandomValue r;	//The random values of the opened values, n bytes per value.
+	private byte[][] proof;			//The nodes needed to recompute the root.
+	
+	/**
+	 * Constructor that sets the given opened values.
+	 * @param indices sorted indices of the opened values.
+	 * @param x the opened values.
+	 * @param r the random values of the opened values.
+	 * @param proof the nodes needed to recompute the root.
+	 */
+	CmtMerkleHashDecommitmentMessage(int[] indices, byte[][] x, ByteArrayRandomValue r, byte[][] proof) {
+		this.indices = indices;
+		this.x = x;
+		this.r = r;
+		this.proof = proof;
+	}
+	
+	/**
+	 * Returns the opened values.
+	 */
+	@Override
+	public byte[][] getX() {
+		return x;
+	}
+	
+	/**
+	 * Returns the random values of the opened values, concatenated.
+	 */
+	@Override
+	public ByteArrayRandomValue getR() {
+		return r;
+	}
+	
+	/**
+	 * Returns the sorted indices of the opened values.
+	 */
+	int[] getIndices() {
+		return indices;
+	}
+	
+	/**
+	 * Returns the nodes needed to recompute the root.
+	 */
+	byte[][] getProof() {
+		return proof;
+	}
+	
+	@Override
+	public String toString() {
+		return "CmtMerkleHashDecommitmentMessage [indices=" + Arrays.toString(indices)
+				+ ", proofSize=" + proof.length + "]";
+	}
+}
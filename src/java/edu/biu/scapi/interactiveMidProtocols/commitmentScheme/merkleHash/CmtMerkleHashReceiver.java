@@ -0,0 +1,267 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
+import edu.biu.scapi.securityLevel.SecureCommit;
+
+/**
+ * This class implements the receiver side of Merkle Hash commitment.<p>
+ * 
+ * The receiver gets the root of a Merkle tree over many committed values in a single message. 
+ * In the decommitment phase it gets a subset of the values together with the tree nodes needed to recompute the root, 
+ * and accepts the values only if the recomputed root equals the received one. <p>
+ * 
+ * In case the hash is given by name, the leaves of the opened values are hashed in parallel using the given executor.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtMerkleHashReceiver implements SecureCommit {
+	
+	/*
+	 * runs the following protocol:
+	 * "Commit phase
+	 *		WAIT for (c, m)
+	 *		STORE (c, m)
+	 *	Decommit phase on a subset I
+	 *		WAIT for {(i, r_i, x_i)} for i in I and the tree nodes from C
+	 *		COMPUTE the leaves l_i = H(0x00, r_i, x_i) for i in I
+	 *		IF NOT
+	 *			the root computed from the leaves and the tree nodes equals c
+	 *		      OUTPUT REJ
+	 *		ELSE
+	 *		      OUTPUT ACC and the values x_i"	 
+	 */
+	
+	private CmtStateStore<CmtMerkleHashCommitmentMessage> commitmentMap;
+	private Channel channel;
+	private CmtMerkleHashSource hashSource;
+	private int n; //security parameter.
+	private ExecutorService executor;
+	
+	/**
+	 * Constructor that receives a connected channel (to the committer) and chooses default 
+	 * values for the hash function and a security parameter n.
+	 * @param channel
+	 */
+	public CmtMerkleHashReceiver(Channel channel) {
+		this(channel, new OpenSSLSHA256(), 32);
+	}
+	
+	/**
+	 * Constructor that receives a connected channel (to the committer), the hash function
+	 * agreed upon between them and a security parameter n.
+	 * The committer needs to be instantiated with the same hash, otherwise nothing will work properly.
+	 * @param channel
+	 * @param hash
+	 * @param n security parameter
+	 */
+	public CmtMerkleHashReceiver(Channel channel, CryptographicHash hash, int n) {
+		doConstruct(channel, new CmtMerkleHashSource(hash), n, null);
+	}
+	
+	/**
+	 * Constructor that receives a connected channel (to the committer), the name of the hash function
+	 * agreed upon between them, a security parameter n and an executor.
+	 * The committer needs to be instantiated with the same hash, otherwise nothing will work properly.
+	 * @param channel
+	 * @param hashName the name of the hash, for example "SHA-256".
+	 * @param provider the provider of the hash. If null, the default provider is used.
+	 * @param n security parameter
+	 * @param executor used to hash the opened values. If null, the hashes are computed in the calling thread.
+	 * @throws FactoriesException if the factory can not create the requested hash.
+	 */
+	public CmtMerkleHashReceiver(Channel channel, String hashName, String provider, int n, ExecutorService executor) throws FactoriesException {
+		doConstruct(channel, new CmtMerkleHashSource(hashName, provider), n, executor);
+	}
+	
+	private void doConstruct(Channel channel, CmtMerkleHashSource hashSource, int n, ExecutorService executor){
+		this.channel = channel;
+		this.hashSource = hashSource;
+		this.n = n;
+		this.executor = executor;
+		commitmentMap = new CmtConcurrentStateStore<CmtMerkleHashCommitmentMessage>();
+	}
+	
+	/**
+	 * Run the commit phase of the protocol:
+	 * "WAIT for (c, m)
+	 *	STORE (c, m)".
+	 */
+	public CmtRCommitPhaseOutput receiveCommitment() throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try{
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive commitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtMerkleHashCommitmentMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtMerkleHashCommitmentMessage");
+		}
+		
+		CmtMerkleHashCommitmentMessage msg = (CmtMerkleHashCommitmentMessage) message;
+		commitmentMap.put(msg.getId(), msg);
+		return new CmtRBasicCommitPhaseOutput(msg.getId());
+	}
+	
+	/**
+	 * Run the decommit phase of the protocol on the given subset of the values:
+	 * "WAIT for {(i, r_i, x_i)} for i in I and the tree nodes from C
+	 *	COMPUTE the leaves l_i = H(0x00, r_i, x_i) for i in I
+	 *	IF NOT
+	 *		the root computed from the leaves and the tree nodes equals c
+	 *		OUTPUT REJ
+	 *	ELSE
+	 *		OUTPUT ACC and the values x_i".
+	 * @param id the id of the commitment.
+	 * @param indices the indices of the values that the committer should open.
+	 * @return the opened values sorted by their indices, or null if the decommitment was rejected or the committer opened other indices.
+	 */
+	public byte[][] receiveDecommitment(long id, int[] indices) throws ClassNotFoundException, IOException{
+		//Receive the message from the committer.
+		Serializable message = null;
+		try {
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive decommitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive decommitment. The error is: " + e.getMessage());
+		}
+		
+		if (!(message instanceof CmtMerkleHashDecommitmentMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtMerkleHashDecommitmentMessage");
+		}
+		
+		//Fetch received commitment according to ID
+		CmtMerkleHashCommitmentMessage receivedCommitment = commitmentMap.get(id);
+		if (receivedCommitment == null){
+			throw new IllegalArgumentException("There is no commitment with id " + id);
+		}
+		
+		//Check that the committer opened the requested values.
+		int[] expected = CmtMerkleHashTree.normalizeIndices(indices, receivedCommitment.getNumValues());
+		if (!Arrays.equals(expected, ((CmtMerkleHashDecommitmentMessage) message).getIndices())){
+			return null;
+		}
+		
+		return verifyDecommitment(receivedCommitment, (CmtCDecommitmentMessage) message);
+	}
+	
+	/**
+	 * Verifies that the given decommitment opens values of the given commitment.
+	 * @param commitmentMsg the commitment message.
+	 * @param decommitmentMsg the decommitment message.
+	 * @return the opened values sorted by their indices, or null if the decommitment was rejected.
+	 */
+	public byte[][] verifyDecommitment(CmtCCommitmentMsg commitmentMsg, CmtCDecommitmentMessage decommitmentMsg){
+		if (!(decommitmentMsg instanceof CmtMerkleHashDecommitmentMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtMerkleHashDecommitmentMessage");
+		}
+		if (!(commitmentMsg instanceof CmtMerkleHashCommitmentMessage)){
+			throw new IllegalArgumentException("the received message is not an instance of CmtMerkleHashCommitmentMessage");
+		}
+		CmtMerkleHashCommitmentMessage commitment = (CmtMerkleHashCommitmentMessage) commitmentMsg;
+		CmtMerkleHashDecommitmentMessage msg = (CmtMerkleHashDecommitmentMessage) decommitmentMsg;
+		
+		int[] indices = msg.getIndices();
+		byte[][] x = msg.getX();
+		byte[] r = (msg.getR() == null) ? null : msg.getR().getR();
+		byte[][] proof = msg.getProof();
+		byte[] expectedRoot = commitment.getCommitment();
+		//Check that the message is well formed.
+		if (indices == null || x == null || r == null || proof == null || expectedRoot == null || indices.length == 0 || 
+				x.length != indices.length || r.length != indices.length * n){
+			return null;
+		}
+		for (int i = 0; i < x.length; i++){
+			if (x[i] == null){
+				return null;
+			}
+		}
+		//Each proof node is a hash output, like the root.
+		for (int i = 0; i < proof.length; i++){
+			if (proof[i] == null || proof[i].length != expectedRoot.length){
+				return null;
+			}
+		}
+		try {
+			if (!Arrays.equals(indices, CmtMerkleHashTree.normalizeIndices(indices, commitment.getNumValues()))){
+				return null;
+			}
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		
+		//Compute the leaves of the opened values and the root.
+		byte[][] leaves = CmtMerkleHashTree.hashLeaves(hashSource, x, r, n, executor);
+		byte[] root = CmtMerkleHashTree.computeRoot(hashSource, commitment.getNumValues(), indices, leaves, proof);
+		
+		//Checks that the computed root equals the commitment.
+		if (root != null && Arrays.equals(expectedRoot, root))
+			return x;
+		//In the pseudocode it says to return X and ACCEPT if valid commitment else, REJECT.
+		//For now we return null as a mode of reject. If the returned value of this function is not null then it means ACCEPT
+		return null;
+	}
+	
+	/**
+	 * Removes the given commitment. Should be called when no more values of this commitment are going to be opened.
+	 * @param id the id of the commitment.
+	 */
+	public void removeCommitment(long id){
+		commitmentMap.remove(id);
+	}
+	
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
+}
@@ -0,0 +1,105 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+import edu.biu.scapi.tools.Factories.CryptographicHashFactory;
+
+/**
+ * Supplies the hash objects used by the Merkle Hash commitment.<p>
+ * 
+ * CryptographicHash objects keep an internal state, so a single object can not be used by several threads at once. 
+ * In case the hash was given by name, each thread creates its own hash object using the factory and the tree can be built in parallel.
+ * In case the user gave a hash object, the same object is used and all hash computations are done in the calling thread.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtMerkleHashSource {
+	
+	private CryptographicHash hash;
+	private String hashName;
+	private String provider;
+	
+	/**
+	 * Constructor that sets a single hash object. 
+	 * @param hash the hash to use.
+	 */
+	CmtMerkleHashSource(CryptographicHash hash){
+		this.hash = hash;
+	}
+	
+	/**
+	 * Constructor that sets the name of the hash and its provider. 
+	 * @param hashName the name of the hash algorithm, for example "SHA-256".
+	 * @param provider the provider of the hash. If null, the default provider is used.
+	 * @throws FactoriesException if the factory can not create the requested hash.
+	 */
+	CmtMerkleHashSource(String hashName, String provider) throws FactoriesException{
+		this.hashName = hashName;
+		this.provider = provider;
+		//Create one object in order to check the given names and to get the output size.
+		this.hash = createFromFactory();
+	}
+	
+	/**
+	 * @return true if every thread can get its own hash object; false, otherwise.
+	 */
+	boolean isParallel(){
+		return hashName != null;
+	}
+	
+	/**
+	 * @return the size of the hash output in bytes.
+	 */
+	int getHashedMsgSize(){
+		return hash.getHashedMsgSize();
+	}
+	
+	/**
+	 * Returns a hash object for the calling thread. <p>
+	 * In case this source was created with a single hash object, this object is returned.
+	 * @return a hash object.
+	 */
+	CryptographicHash createHash(){
+		if (!isParallel()){
+			return hash;
+		}
+		try {
+			return createFromFactory();
+		} catch (FactoriesException e) {
+			//Should not occur since the same object was already created in the constructor.
+			throw new IllegalStateException("Failed to create the hash. The error is: " + e.getMessage());
+		}
+	}
+	
+	private CryptographicHash createFromFactory() throws FactoriesException{
+		if (provider == null){
+			return CryptographicHashFactory.getInstance().getObject(hashName);
+		}
+		return CryptographicHashFactory.getInstance().getObject(hashName, provider);
+	}
+}
@@ -0,0 +1,278 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.merkleHash;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+
+/**
+ * Merkle tree over the hashes of the committed values.<p>
+ * 
+ * Level 0 of the tree holds the leaves H(0x00, r, x). Each node of the next level is H(0x01, left, right), where left and right 
+ * are two adjacent nodes of the level below. In case a level has an odd number of nodes, the last node is moved as is to the next level.
+ * The different prefixes of leaves and inner nodes prevent using an inner node as a leaf.<p>
+ * 
+ * A subset of the leaves is opened with a single proof that contains all the nodes needed to recompute the root that can not be 
+ * computed from the opened leaves. The proof size is at most the number of opened leaves times the depth of the tree.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtMerkleHashTree {
+	
+	private static final byte LEAF_PREFIX = 0;
+	private static final byte NODE_PREFIX = 1;
+	
+	//Levels smaller than this size are computed in the calling thread.
+	private static final int MIN_LEVEL_FOR_PARALLEL = 1024;
+	
+	//levels[0] are the leaves and the last level contains only the root.
+	private byte[][][] levels;
+	
+	/**
+	 * Builds the tree over the given values.
+	 * @param source supplies the hash objects.
+	 * @param values the committed values.
+	 * @param r the random values of all leaves, n bytes per leaf.
+	 * @param n the length of the random value of each leaf.
+	 * @param executor used to compute the hashes in parallel. May be null.
+	 */
+	CmtMerkleHashTree(CmtMerkleHashSource source, byte[][] values, byte[] r, int n, ExecutorService executor){
+		List<byte[][]> levelsList = new ArrayList<byte[][]>();
+		byte[][] level = hashLeaves(source, values, r, n, executor);
+		levelsList.add(level);
+		while (level.length > 1){
+			level = hashLevel(source, level, executor);
+			levelsList.add(level);
+		}
+		levels = levelsList.toArray(new byte[levelsList.size()][][]);
+	}
+	
+	/**
+	 * @return the root of the tree.
+	 */
+	byte[] getRoot(){
+		return levels[levels.length - 1][0];
+	}
+	
+	/**
+	 * @return the number of leaves in the tree.
+	 */
+	int getNumLeaves(){
+		return levels[0].length;
+	}
+	
+	/**
+	 * Returns the nodes needed to recompute the root from the given leaves.
+	 * @param indices the opened leaves. Should be sorted and distinct.
+	 * @return the proof nodes, in the order they are used by {@link #computeRoot}.
+	 */
+	byte[][] getProof(int[] indices){
+		List<byte[]> proof = new ArrayList<byte[]>();
+		int[] known = indices;
+		for (int k = 0; k < levels.length - 1; k++){
+			byte[][] level = levels[k];
+			for (int j = 0; j < known.length; j++){
+				int i = known[j];
+				if ((i & 1) == 0 && j + 1 < known.length && known[j + 1] == i + 1){
+					//Both children are known.
+					j++;
+				} else if ((i ^ 1) < level.length){
+					proof.add(level[i ^ 1]);
+				}
+			}
+			known = parents(known);
+		}
+		return proof.toArray(new byte[proof.size()][]);
+	}
+	
+	/**
+	 * Hashes the given values into leaves of the tree.
+	 * @param source supplies the hash objects.
+	 * @param values the committed values.
+	 * @param r the random values of all leaves, n bytes per leaf.
+	 * @param n the length of the random value of each leaf.
+	 * @param executor used to compute the hashes in parallel. May be null.
+	 * @return the leaves.
+	 */
+	static byte[][] hashLeaves(final CmtMerkleHashSource source, final byte[][] values, final byte[] r, final int n, ExecutorService executor){
+		final byte[][] leaves = new byte[values.length][];
+		ParallelBatchExecution.execute(getExecutor(source, values.length, executor), values.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				CryptographicHash hash = source.createHash();
+				byte[] prefix = new byte[]{LEAF_PREFIX};
+				for (int i = from; i < to; i++){
+					hash.update(prefix, 0, 1);
+					hash.update(r, i * n, n);
+					//Some hash implementations do not accept empty input.
+					if (values[i].length > 0){
+						hash.update(values[i], 0, values[i].length);
+					}
+					leaves[i] = new byte[hash.getHashedMsgSize()];
+					hash.hashFinal(leaves[i], 0);
+				}
+			}
+		});
+		return leaves;
+	}
+	
+	/**
+	 * Recomputes the root of a tree from the given opened leaves and proof.
+	 * @param source supplies the hash object.
+	 * @param numLeaves the number of leaves in the tree.
+	 * @param indices the opened leaves. Should be sorted and distinct.
+	 * @param leaves the hashes of the opened leaves.
+	 * @param proof the proof nodes.
+	 * @return the computed root, or null if the proof does not match the opened leaves.
+	 */
+	static byte[] computeRoot(CmtMerkleHashSource source, int numLeaves, int[] indices, byte[][] leaves, byte[][] proof){
+		CryptographicHash hash = source.createHash();
+		int[] known = indices;
+		byte[][] nodes = leaves;
+		int levelSize = numLeaves;
+		int used = 0;
+		while (levelSize > 1){
+			int[] nextKnown = parents(known);
+			byte[][] nextNodes = new byte[nextKnown.length][];
+			int next = 0;
+			for (int j = 0; j < known.length; j++){
+				int i = known[j];
+				byte[] parent;
+				if ((i & 1) == 0 && j + 1 < known.length && known[j + 1] == i + 1){
+					parent = hashNodes(hash, nodes[j], nodes[j + 1]);
+					j++;
+				} else if ((i ^ 1) < levelSize){
+					if (used == proof.length){
+						return null;
+					}
+					byte[] sibling = proof[used++];
+					parent = ((i & 1) == 0) ? hashNodes(hash, nodes[j], sibling) : hashNodes(hash, sibling, nodes[j]);
+				} else {
+					//The last node of a level with an odd size is moved as is.
+					parent = nodes[j];
+				}
+				nextNodes[next++] = parent;
+			}
+			known = nextKnown;
+			nodes = nextNodes;
+			levelSize = (levelSize + 1) / 2;
+		}
+		//All the proof nodes should be used.
+		if (used != proof.length){
+			return null;
+		}
+		return nodes[0];
+	}
+	
+	/**
+	 * Sorts the given indices and checks that they are distinct and in the range [0, numLeaves).
+	 * @param indices the indices to check.
+	 * @param numLeaves the number of leaves in the tree.
+	 * @return a sorted copy of the indices.
+	 * @throws IllegalArgumentException if the indices are empty, out of range or not distinct.
+	 */
+	static int[] normalizeIndices(int[] indices, int numLeaves){
+		if (indices.length == 0){
+			throw new IllegalArgumentException("at least one value should be opened");
+		}
+		int[] sorted = indices.clone();
+		Arrays.sort(sorted);
+		if (sorted[0] < 0 || sorted[sorted.length - 1] >= numLeaves){
+			throw new IllegalArgumentException("the indices should be in the range [0, " + numLeaves + ")");
+		}
+		for (int i = 1; i < sorted.length; i++){
+			if (sorted[i] == sorted[i - 1]){
+				throw new IllegalArgumentException("the indices should be distinct");
+			}
+		}
+		return sorted;
+	}
+	
+	/*
+	 * Computes the next level of the tree.
+	 */
+	private static byte[][] hashLevel(final CmtMerkleHashSource source, final byte[][] level, ExecutorService executor){
+		final byte[][] next = new byte[(level.length + 1) / 2][];
+		ParallelBatchExecution.execute(getExecutor(source, next.length, executor), next.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				CryptographicHash hash = source.createHash();
+				for (int j = from; j < to; j++){
+					if (2 * j + 1 < level.length){
+						next[j] = hashNodes(hash, level[2 * j], level[2 * j + 1]);
+					} else {
+						next[j] = level[2 * j];
+					}
+				}
+			}
+		});
+		return next;
+	}
+	
+	/*
+	 * Computes H(0x01, left, right).
+	 */
+	private static byte[] hashNodes(CryptographicHash hash, byte[] left, byte[] right){
+		hash.update(new byte[]{NODE_PREFIX}, 0, 1);
+		hash.update(left, 0, left.length);
+		hash.update(right, 0, right.length);
+		byte[] out = new byte[hash.getHashedMsgSize()];
+		hash.hashFinal(out, 0);
+		return out;
+	}
+	
+	/*
+	 * Returns the distinct parents of the given sorted indices.
+	 */
+	private static int[] parents(int[] indices){
+		int[] parents = new int[indices.length];
+		int size = 0;
+		for (int i = 0; i < indices.length; i++){
+			int parent = indices[i] >> 1;
+			if (size == 0 || parents[size - 1] != parent){
+				parents[size++] = parent;
+			}
+		}
+		return Arrays.copyOf(parents, size);
+	}
+	
+	/*
+	 * Returns the executor to use for a level of the given size. 
+	 * Small levels and hash sources that can not be shared between threads are computed in the calling thread.
+	 */
+	private static ExecutorService getExecutor(CmtMerkleHashSource source, int size, ExecutorService executor){
+		if (!source.isParallel() || size < MIN_LEVEL_FOR_PARALLEL){
+			return null;
+		}
+		return executor;
+	}
+}
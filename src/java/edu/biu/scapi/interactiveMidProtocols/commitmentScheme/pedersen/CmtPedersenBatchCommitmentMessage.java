@@ -0,0 +1,90 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen;
+
+import java.io.Serializable;
+
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+
+/**
+ * Concrete implementation of a batch of Pedersen commitment messages. <p>
+ * The committer sends this message when committing to many values at once, so that the whole batch goes through the channel in one send.
+ * The i-th commitment in the batch has the i-th id.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenBatchCommitmentMessage implements Serializable {
+
+	private static final long serialVersionUID = 3406957326826843573L;
+	
+	//In Pedersen schemes each commitment object is a groupElement. 
+	//In order to this class be a serializable, we get them as GroupElementSendableData.
+	private GroupElementSendableData[] commitments;
+	private long[] ids; //The ids of the commitments
+	
+	/**
+	 * Constructor that sets the commitments and ids.
+	 * @param commitments the actual commitment objects.
+	 * @param ids the commitments ids, in the same order as the commitments.
+	 * @throws IllegalArgumentException if the number of commitments and ids differ.
+	 */
+	public CmtPedersenBatchCommitmentMessage(GroupElementSendableData[] commitments, long[] ids){
+		if (commitments.length != ids.length){
+			throw new IllegalArgumentException("The number of commitments and ids should be equal");
+		}
+		this.commitments = commitments;
+		this.ids = ids;
+	}
+	
+	/**
+	 * Returns the number of commitments in the batch.
+	 */
+	public int size(){
+		return ids.length;
+	}
+	
+	/**
+	 * Returns the commitments values.
+	 */
+	public GroupElementSendableData[] getCommitments(){
+		return commitments;
+	}
+	
+	/**
+	 * Returns the commitments ids.
+	 */
+	public long[] getIds(){
+		return ids;
+	}
+	
+	/**
+	 * Returns the i-th commitment in the batch as a single commitment message.
+	 * @param i the index of the commitment in the batch.
+	 */
+	CmtPedersenCommitmentMessage getCommitmentMessage(int i){
+		return new CmtPedersenCommitmentMessage(commitments[i], ids[i]);
+	}
+}
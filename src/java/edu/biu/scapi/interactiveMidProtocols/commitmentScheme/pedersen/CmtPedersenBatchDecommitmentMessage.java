@@ -0,0 +1,89 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.BigIntegerRandomValue;
+
+/**
+ * Concrete implementation of a batch of Pedersen decommitment messages. <p>
+ * The committer sends this message when decommitting many values at once. 
+ * The i-th pair (x, r) opens the i-th commitment id requested by the committer's decommitBatch call.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtPedersenBatchDecommitmentMessage implements Serializable {
+
+	private static final long serialVersionUID = -2295147763104877591L;
+	
+	private BigInteger[] x; //Committer's private inputs in Zq
+	private BigInteger[] r; //Random values used to commit
+	
+	/**
+	 * Constructor that sets the given committed values and random values.
+	 * @param x the committed values
+	 * @param r the random values used for commit.
+	 * @throws IllegalArgumentException if the number of committed values and random values differ.
+	 */
+	public CmtPedersenBatchDecommitmentMessage(BigInteger[] x, BigInteger[] r){
+		if (x.length != r.length){
+			throw new IllegalArgumentException("The number of committed values and random values should be equal");
+		}
+		this.x = x;
+		this.r = r;
+	}
+	
+	/**
+	 * Returns the number of decommitments in the batch.
+	 */
+	public int size(){
+		return x.length;
+	}
+	
+	/**
+	 * Returns the committed values.
+	 */
+	public BigInteger[] getX(){
+		return x;
+	}
+	
+	/**
+	 * Returns the random values used for commit.
+	 */
+	public BigInteger[] getR(){
+		return r;
+	}
+	
+	/**
+	 * Returns the i-th decommitment in the batch as a single decommitment message.
+	 * @param i the index of the decommitment in the batch.
+	 */
+	public CmtPedersenDecommitmentMessage getDecommitmentMessage(int i){
+		return new CmtPedersenDecommitmentMessage(x[i], new BigIntegerRandomValue(r[i]));
+	}
+}
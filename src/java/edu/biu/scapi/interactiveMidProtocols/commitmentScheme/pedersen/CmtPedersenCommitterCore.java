@@ -28,8 +28,6 @@ import java.io.IOException;
 import java.io.Serializable;
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -45,8 +43,13 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 
@@ -80,12 +83,15 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 	protected SecureRandom random;
 	private BigInteger qMinusOne;
 	
+	//Computes g^r * h^x using fixed base tables of g and h that are shared by all commitments with the same bases.
+	private CmtPedersenFixedBaseComputation computation;
+	
 	//The key to the map is an ID and the value is a structure that has the Committer's private input x in Zq,the random value
 	//used to commit x and the actual commitment.
 	//Each committed value is sent together with an ID so that the receiver can keep it in some data structure. This is necessary
 	//in the cases that the same instances of committer and receiver can be used for performing various commitments utilizing the values calculated
 	//during the pre-process stage for the sake of efficiency.
-	protected Map<Long, CmtPedersenCommitmentPhaseValues> commitmentMap;		
+	protected CmtStateStore<CmtPedersenCommitmentPhaseValues> commitmentMap;		
 	
 	//The content of the message obtained from the receiver during the pre-process phase which occurs upon construction.
     protected GroupElement h; 		 
@@ -139,7 +145,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtPedersenCommitmentPhaseValues>();
+		commitmentMap = new CmtConcurrentStateStore<CmtPedersenCommitmentPhaseValues>();
 		//The pre-process phase is actually performed at construction
 		preProcess();
 	}
@@ -158,6 +164,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		h = dlog.reconstructElement(true, msg.getH());
 		if(!dlog.isMember(h))
 				throw new CheatAttemptException("h element is not a member of the current DlogGroup");
+		computation = new CmtPedersenFixedBaseComputation(dlog, h);
 	}
 
 	/**
@@ -180,12 +187,10 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);	
 		
 		//Compute  c = g^r * h^x
-		GroupElement gToR = dlog.exponentiate(dlog.getGenerator(), r);
-		GroupElement hToX = dlog.exponentiate(h, x);
-		GroupElement c = dlog.multiplyGroupElements(gToR, hToX);
+		GroupElement c = computation.compute(r, x);
 		
 		//Keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerCommitValue(x), c));
+		commitmentMap.put(id, new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerCommitValue(x), c));
 		
 		//Send c
 		return new CmtPedersenCommitmentMessage(c.generateSendableData(), id);
@@ -206,7 +211,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 			//Send the message by the channel.
 			channel.send(msg);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}	
 		
@@ -215,7 +220,7 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 	@Override
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
-		CmtPedersenCommitmentPhaseValues values = commitmentMap.get(Long.valueOf(id));
+		CmtPedersenCommitmentPhaseValues values = commitmentMap.get(id);
 		CmtBigIntegerCommitValue xCVal = (CmtBigIntegerCommitValue)values.getX();
 		return new CmtPedersenDecommitmentMessage(xCVal.getX(),values.getR());
 		
@@ -239,6 +244,123 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		}
 	}	
 
+	/**
+	 * Runs the commit phase of the commitment scheme on many values at once:<P>
+	 * "FOR i = 1 ... n<P>
+	 * 		SAMPLE a random value r_i <- Zq<P>
+	 * 		COMPUTE  c_i = g^r_i * h^x_i". <p>
+	 * The products g^r_i * h^x_i are computed using simultaneous exponentiation, or using fixed base tables for g and h once enough commitments were computed.
+	 * @param inputs the values to commit on. Each one should be of type CmtBigIntegerCommitValue.
+	 * @param ids the ids of the commitments, in the same order as the inputs.
+	 * @return the batch message that should be sent to the receiver.
+	 * @throws IllegalArgumentException if the number of inputs and ids differ, or if one of the inputs is not a CmtBigIntegerCommitValue in Zq.
+	 */
+	public CmtPedersenBatchCommitmentMessage generateBatchCommitmentMsg(CmtCommitValue[] inputs, long[] ids){
+		if (inputs.length != ids.length){
+			throw new IllegalArgumentException("The number of inputs and ids should be equal");
+		}
+		int size = inputs.length;
+		
+		//Check all the inputs before changing the state of this committer.
+		BigInteger[] x = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			if (!(inputs[i] instanceof CmtBigIntegerCommitValue))
+				throw new IllegalArgumentException("The input must be of type CmtBigIntegerCommitValue");
+			x[i] = ((CmtBigIntegerCommitValue)inputs[i]).getX();
+			//Check that the input is in Zq.
+			if ((x[i].compareTo(BigInteger.ZERO)<0) || (x[i].compareTo(dlog.getOrder())>0)){
+				throw new IllegalArgumentException("The input must be in Zq");
+			}
+		}
+		
+		boolean useTables = computation.prepareTables(size);
+		
+		GroupElementSendableData[] commitments = new GroupElementSendableData[size];
+		for (int i = 0; i < size; i++){
+			//Sample a random value r <- Zq
+			BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+			
+			//Compute  c = g^r * h^x
+			GroupElement c = computation.compute(r, x[i], useTables);
+			
+			//Keep the committed value in the map together with its ID.
+			commitmentMap.put(ids[i], new CmtPedersenCommitmentPhaseValues(new BigIntegerRandomValue(r), new CmtBigIntegerCommitValue(x[i]), c));
+			commitments[i] = c.generateSendableData();
+		}
+		
+		return new CmtPedersenBatchCommitmentMessage(commitments, ids);
+	}
+	
+	/**
+	 * Runs the commit phase of the commitment scheme on many values at once, and sends all the commitments in one message.
+	 * @param inputs the values to commit on. Each one should be of type CmtBigIntegerCommitValue.
+	 * @param ids the ids of the commitments, in the same order as the inputs.
+	 * @throws IOException if there was a problem in the communication.
+	 * @throws IllegalArgumentException if the number of inputs and ids differ, or if one of the inputs is not a CmtBigIntegerCommitValue in Zq.
+	 */
+	public void commitBatch(CmtCommitValue[] inputs, long[] ids) throws IOException, IllegalArgumentException {
+		
+		CmtPedersenBatchCommitmentMessage msg = generateBatchCommitmentMsg(inputs, ids);
+		try {
+			//Send the message by the channel.
+			channel.send(msg);
+		} catch (IOException e) {
+			for (int i = 0; i < ids.length; i++){
+				commitmentMap.remove(ids[i]);
+			}
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}	
+	}
+	
+	/**
+	 * Generates one decommitment message for all the given commitments ids.
+	 * @param ids the ids of the commitments to decommit.
+	 * @return the batch message that should be sent to the receiver.
+	 * @throws IllegalArgumentException if there is no commitment with one of the given ids.
+	 */
+	public CmtPedersenBatchDecommitmentMessage generateBatchDecommitmentMsg(long[] ids){
+		BigInteger[] x = new BigInteger[ids.length];
+		BigInteger[] r = new BigInteger[ids.length];
+		for (int i = 0; i < ids.length; i++){
+			CmtPedersenCommitmentPhaseValues values = commitmentMap.get(ids[i]);
+			if (values == null){
+				throw new IllegalArgumentException("There is no commitment with id " + ids[i]);
+			}
+			x[i] = ((CmtBigIntegerCommitValue)values.getX()).getX();
+			r[i] = values.getR().getR();
+		}
+		return new CmtPedersenBatchDecommitmentMessage(x, r);
+	}
+	
+	/**
+	 * Runs the decommit phase of the commitment scheme on many commitments at once.<P>
+	 * "SEND (r_i, x_i) for all i to R<P>
+	 *	OUTPUT nothing."
+	 * @param ids the ids of the commitments to decommit.
+	 * @throws IOException if there was a problem in the communication.
+	 */
+	public void decommitBatch(long[] ids) throws IOException {
+		
+		CmtPedersenBatchDecommitmentMessage msg = generateBatchDecommitmentMsg(ids);
+		
+		try{
+			channel.send(msg);
+		}
+		catch (IOException e) {
+			throw new IOException("failed to send the message. The error is: " + e.getMessage());
+		}
+	}
+	
+	/**
+	 * Sets the cache that holds the fixed base tables of g and h. <p>
+	 * By default, the tables are taken from the shared cache {@link FixedBaseExponentiatorCache#getInstance()}, 
+	 * so committers that get the same h from the receiver share the same tables.
+	 * @param cache the cache to use. If null, fixed base tables are not used.
+	 */
+	public void setFixedBaseCache(FixedBaseExponentiatorCache cache){
+		computation.setCache(cache);
+	}
+
 	/**
 	 * Receives message from the receiver.
 	 * @return the received message
@@ -272,5 +394,17 @@ public abstract class CmtPedersenCommitterCore implements CmtCommitter{
 		return commitmentMap.get(id);
 	}
 
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
 
@@ -0,0 +1,134 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen;
+
+import java.math.BigInteger;
+
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+
+/**
+ * Computes g^r * h^x for the Pedersen committer and receiver, using fixed base tables of g and h when they pay off.<p>
+ * 
+ * The tables are taken from a {@link FixedBaseExponentiatorCache}, so all the commitments that use the same g and h share them. 
+ * Different committers and receivers share the tables only if they use the same group instance or a thread safe group 
+ * (see {@link DlogGroup#isThreadSafe()}), since a table computes with the group instance that built it. 
+ * The tables are used as soon as they are in the cache, or after enough commitments were computed to pay for building them.
+ * Otherwise, the product is computed using simultaneous exponentiation.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+class CmtPedersenFixedBaseComputation {
+	
+	//Number of computations after which the tables are built, in case they are not in the cache.
+	static final int MIN_COMPUTATIONS_FOR_FIXED_BASE = 64;
+	
+	private DlogGroup dlog;
+	private GroupElement h;
+	private FixedBaseExponentiatorCache cache;
+	private long numComputations;
+	
+	//Fixed base tables of g and h. Null until they are taken from the cache.
+	private FixedBaseExponentiator gTable;
+	private FixedBaseExponentiator hTable;
+	
+	/**
+	 * Constructor that sets the bases and uses the shared cache.
+	 * @param dlog the group of the commitment.
+	 * @param h the second base of the commitment.
+	 */
+	CmtPedersenFixedBaseComputation(DlogGroup dlog, GroupElement h){
+		this.dlog = dlog;
+		this.h = h;
+		this.cache = FixedBaseExponentiatorCache.getInstance();
+	}
+	
+	/**
+	 * Sets the cache to take the tables from. 
+	 * @param cache the cache. If null, fixed base tables are not used.
+	 */
+	synchronized void setCache(FixedBaseExponentiatorCache cache){
+		this.cache = cache;
+		gTable = null;
+		hTable = null;
+	}
+	
+	/**
+	 * Computes g^r * h^x.
+	 * @param r exponent of g.
+	 * @param x exponent of h.
+	 * @return the product.
+	 */
+	GroupElement compute(BigInteger r, BigInteger x){
+		return compute(r, x, prepareTables(1));
+	}
+	
+	/**
+	 * Prepares the computation of a batch of products. Should be called once before computing the batch.
+	 * @param size the number of products in the batch.
+	 * @return true if the tables should be used for the batch.
+	 */
+	synchronized boolean prepareTables(int size){
+		numComputations += size;
+		if (gTable == null && cache != null){
+			if (numComputations >= MIN_COMPUTATIONS_FOR_FIXED_BASE){
+				gTable = cache.get(dlog, dlog.getGenerator());
+				hTable = cache.get(dlog, h);
+			} else {
+				//The tables are already paid for by other commitments with the same bases.
+				gTable = cache.getIfPresent(dlog, dlog.getGenerator());
+				hTable = cache.getIfPresent(dlog, h);
+			}
+			if (gTable == null || hTable == null){
+				gTable = null;
+				hTable = null;
+			}
+		}
+		return gTable != null;
+	}
+	
+	/**
+	 * Computes g^r * h^x.
+	 * @param r exponent of g.
+	 * @param x exponent of h.
+	 * @param useTables the output of {@link #prepareTables(int)}.
+	 * @return the product.
+	 */
+	GroupElement compute(BigInteger r, BigInteger x, boolean useTables){
+		FixedBaseExponentiator g;
+		FixedBaseExponentiator hh;
+		synchronized (this) {
+			g = gTable;
+			hh = hTable;
+		}
+		if (useTables && g != null){
+			return dlog.multiplyGroupElements(g.exponentiate(r), hh.exponentiate(x));
+		}
+		return dlog.simultaneousMultipleExponentiations(new GroupElement[]{dlog.getGenerator(), h}, new BigInteger[]{r, x});
+	}
+}
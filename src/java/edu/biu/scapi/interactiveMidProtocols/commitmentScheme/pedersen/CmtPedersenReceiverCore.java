@@ -29,7 +29,6 @@ import java.io.Serializable;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -44,8 +43,13 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRBasicCommitPha
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
 import edu.biu.scapi.securityLevel.DDH;
 import edu.biu.scapi.tools.Factories.DlogGroupFactory;
 
@@ -79,16 +83,23 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 	protected SecureRandom random;
 	private BigInteger qMinusOne;
 	
+	//Bit length of the random weights used in the batch verification. 
+	//A batch that contains an invalid decommitment passes the combined check with probability at most 2^-(this value).
+	private static final int BATCH_VERIFICATION_WEIGHT_BITS = 80;
+	
 	//Sampled random value in Zq that will be the trpadoor.
 	protected BigInteger trapdoor ; 	
 	
 	//h is a value calculated during the creation of this receiver and is sent to the committer once in the beginning.
 	protected GroupElement h;  			
 	
+	//Computes g^r * h^x using fixed base tables of g and h that are shared by all commitments with the same bases.
+	private CmtPedersenFixedBaseComputation computation;
+	
 	//The committer may commit many values one after the other without decommitting. And only at a later time decommit some or all those values. In order to keep track
 	//of the commitments and be able to relate them afterwards to the decommitments we keep them in the commitmentMap. The key is some unique id known to the application
 	//running the committer. The exact same id has to be use later on to decommit the corresponding values, otherwise the receiver will reject the decommitment.
-	protected Hashtable<Long, CmtPedersenCommitmentMessage> commitmentMap; 
+	protected CmtStateStore<CmtPedersenCommitmentMessage> commitmentMap; 
 	
 
 	/**
@@ -138,7 +149,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		this.dlog = dlog;
 		this.random = random;
 		qMinusOne =  dlog.getOrder().subtract(BigInteger.ONE);
-		commitmentMap = new Hashtable<Long, CmtPedersenCommitmentMessage>();
+		commitmentMap = new CmtConcurrentStateStore<CmtPedersenCommitmentMessage>();
 		
 		//The pre-process phase is actually performed at construction
 		preProcess();
@@ -157,6 +168,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 	private void preProcess() throws IOException {
 		trapdoor = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
 		h = dlog.exponentiate(dlog.getGenerator(), trapdoor);
+		computation = new CmtPedersenFixedBaseComputation(dlog, h);
 		
 		CmtPedersenPreprocessMessage msg = new CmtPedersenPreprocessMessage(h.generateSendableData());
 		try{
@@ -191,7 +203,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		}
 		CmtPedersenCommitmentMessage msg = (CmtPedersenCommitmentMessage) message;
 		
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -216,7 +228,7 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		}
 		CmtPedersenDecommitmentMessage msg = (CmtPedersenDecommitmentMessage) message;
 		
-		CmtPedersenCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
+		CmtPedersenCommitmentMessage receivedCommitment = commitmentMap.get(id);
 		return verifyDecommitment(receivedCommitment, msg);
 	}
 	
@@ -241,17 +253,204 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 		}
 		
 		//Calculate c = g^r * h^x
-		GroupElement gTor = dlog.exponentiate(dlog.getGenerator(),r);
-		GroupElement hTox = dlog.exponentiate(h,x);
+		GroupElement computed = computation.compute(r, x);
 		
 		GroupElement commitmentElement = dlog.reconstructElement(true, ((CmtPedersenCommitmentMessage)commitmentMsg).getCommitment());
-		if (commitmentElement.equals(dlog.multiplyGroupElements(gTor, hTox)))
+		if (commitmentElement.equals(computed))
 			return new CmtBigIntegerCommitValue(x);
 		//In the pseudocode it says to return X and ACCEPT if valid commitment else, REJECT.
 		//For now we return null as a mode of reject. If the returned value of this function is not null then it means ACCEPT
 		return null;
 	}
 
+	/**
+	 * Wait for the committer to send a batch of commitments. All the commitments in the batch are saved in the commitmentMap 
+	 * using the ids received in the message.<P>
+	 * Pseudo code:<P>
+	 * "WAIT for message (c_1, ..., c_n) from C<P>
+	 *  STORE values (h,c_i) for all i".
+	 * @return the output of each commitment in the batch, in the order they were sent.
+	 * @throws IllegalArgumentException if the received message is not a valid batch of Pedersen commitments.
+	 */
+	public CmtRBasicCommitPhaseOutput[] receiveBatchCommitment() throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try{
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive commitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive commitment. The error is: " + e.getMessage());
+		}
+
+		if (!(message instanceof CmtPedersenBatchCommitmentMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenBatchCommitmentMessage");
+		}
+		CmtPedersenBatchCommitmentMessage msg = (CmtPedersenBatchCommitmentMessage) message;
+		//The message was deserialized without its constructor, so its arrays are checked here.
+		GroupElementSendableData[] commitments = msg.getCommitments();
+		long[] ids = msg.getIds();
+		if (commitments == null || ids == null || commitments.length != ids.length){
+			throw new IllegalArgumentException("The received message should contain one commitment for each id");
+		}
+		for (int i = 0; i < commitments.length; i++){
+			if (commitments[i] == null){
+				throw new IllegalArgumentException("The received commitment number " + i + " is null");
+			}
+		}
+		
+		CmtRBasicCommitPhaseOutput[] outputs = new CmtRBasicCommitPhaseOutput[msg.size()];
+		for (int i = 0; i < outputs.length; i++){
+			CmtPedersenCommitmentMessage commitment = msg.getCommitmentMessage(i);
+			commitmentMap.put(commitment.getId(), commitment);
+			outputs[i] = new CmtRBasicCommitPhaseOutput(commitment.getId());
+		}
+		return outputs;
+	}
+	
+	/**
+	 * Wait for the decommitter to send a batch of decommitments, and verifies all of them together.
+	 * @param ids the ids of the opened commitments, in the order the committer decommitted them.
+	 * @return the committed values, in the order of the given ids. 
+	 * An entry is null if the corresponding commitment does not exist or its decommitment was rejected.
+	 * @throws IllegalArgumentException if the received message is not a valid batch of Pedersen decommitments for the given ids.
+	 */
+	public CmtCommitValue[] receiveBatchDecommitment(long[] ids) throws ClassNotFoundException, IOException {
+		Serializable message = null;
+		try {
+			message = channel.receive();
+		} catch (ClassNotFoundException e) {
+			throw new ClassNotFoundException("Failed to receive decommitment. The error is: " + e.getMessage());
+		} catch (IOException e) {
+			throw new IOException("Failed to receive decommitment. The error is: " + e.getMessage());
+		}
+		if (!(message instanceof CmtPedersenBatchDecommitmentMessage)){
+			throw new IllegalArgumentException("The received message should be an instance of CmtPedersenBatchDecommitmentMessage");
+		}
+		CmtPedersenBatchDecommitmentMessage msg = (CmtPedersenBatchDecommitmentMessage) message;
+		//The message was deserialized without its constructor, so its arrays are checked here.
+		BigInteger[] x = msg.getX();
+		BigInteger[] r = msg.getR();
+		if (x == null || r == null || x.length != r.length){
+			throw new IllegalArgumentException("The received message should contain one random value for each committed value");
+		}
+		if (x.length != ids.length){
+			throw new IllegalArgumentException("The number of received decommitments should be equal to the number of ids");
+		}
+		for (int i = 0; i < x.length; i++){
+			if (x[i] == null || r[i] == null){
+				throw new IllegalArgumentException("The received decommitment number " + i + " is missing a value");
+			}
+		}
+		
+		CmtCCommitmentMsg[] commitments = new CmtCCommitmentMsg[ids.length];
+		CmtCDecommitmentMessage[] decommitments = new CmtCDecommitmentMessage[ids.length];
+		for (int i = 0; i < ids.length; i++){
+			commitments[i] = commitmentMap.get(ids[i]);
+			decommitments[i] = msg.getDecommitmentMessage(i);
+		}
+		return verifyBatchDecommitment(commitments, decommitments);
+	}
+	
+	/**
+	 * Verifies many decommitments at once.<P>
+	 * Instead of checking c_i = g^r_i * h^x_i for every i, samples random weights w_i and checks that <P>
+	 * "PRODUCT(c_i^w_i) = g^SUM(w_i*r_i) * h^SUM(w_i*x_i)", <P>
+	 * which costs one multi-exponentiation over the commitments and one double exponentiation.
+	 * If the combined check fails, each decommitment is verified separately in order to find the invalid ones.
+	 * @param commitmentMsgs the commitments to verify.
+	 * @param decommitmentMsgs the decommitments of the above commitments, in the same order.
+	 * @return the committed values, in the same order. An entry is null if the corresponding commitment is null or its decommitment was rejected.
+	 * @throws IllegalArgumentException if the number of commitments and decommitments differ, if a commitment is not an instance of 
+	 * CmtPedersenCommitmentMessage or if a decommitment is not an instance of CmtPedersenDecommitmentMessage with both x and r.
+	 */
+	public CmtCommitValue[] verifyBatchDecommitment(CmtCCommitmentMsg[] commitmentMsgs, CmtCDecommitmentMessage[] decommitmentMsgs) {
+		if (commitmentMsgs.length != decommitmentMsgs.length){
+			throw new IllegalArgumentException("The number of commitments and decommitments should be equal");
+		}
+		int size = commitmentMsgs.length;
+		BigInteger q = dlog.getOrder();
+		CmtCommitValue[] results = new CmtCommitValue[size];
+		
+		//Collect the decommitments that passed the basic checks.
+		int[] indices = new int[size];
+		int count = 0;
+		for (int i = 0; i < size; i++){
+			checkDecommitment(decommitmentMsgs[i]);
+			if (commitmentMsgs[i] == null){
+				continue;
+			}
+			if (!(commitmentMsgs[i] instanceof CmtPedersenCommitmentMessage)){
+				throw new IllegalArgumentException("The commitment should be an instance of CmtPedersenCommitmentMessage");
+			}
+			BigInteger x = ((CmtPedersenDecommitmentMessage)decommitmentMsgs[i]).getX();
+			//if x is not in Zq the decommitment is rejected.
+			if ((x.compareTo(BigInteger.ZERO)<0) || (x.compareTo(q)>0)){
+				continue;
+			}
+			indices[count++] = i;
+		}
+		if (count == 0){
+			return results;
+		}
+		if (count == 1){
+			results[indices[0]] = verifyDecommitment(commitmentMsgs[indices[0]], decommitmentMsgs[indices[0]]);
+			return results;
+		}
+		
+		//Compute PRODUCT(c_i^w_i), SUM(w_i*r_i) and SUM(w_i*x_i).
+		GroupElement[] commitments = new GroupElement[count];
+		BigInteger[] weights = new BigInteger[count];
+		BigInteger sumR = BigInteger.ZERO;
+		BigInteger sumX = BigInteger.ZERO;
+		for (int j = 0; j < count; j++){
+			int i = indices[j];
+			CmtPedersenDecommitmentMessage decommitment = (CmtPedersenDecommitmentMessage)decommitmentMsgs[i];
+			commitments[j] = dlog.reconstructElement(true, ((CmtPedersenCommitmentMessage)commitmentMsgs[i]).getCommitment());
+			weights[j] = new BigInteger(BATCH_VERIFICATION_WEIGHT_BITS, random);
+			sumR = sumR.add(weights[j].multiply(decommitment.getR().getR()));
+			sumX = sumX.add(weights[j].multiply(decommitment.getX()));
+		}
+		GroupElement left = dlog.simultaneousMultipleExponentiations(commitments, weights);
+		GroupElement right = dlog.simultaneousMultipleExponentiations(new GroupElement[]{dlog.getGenerator(), h}, 
+				new BigInteger[]{sumR.mod(q), sumX.mod(q)});
+		
+		if (left.equals(right)){
+			for (int j = 0; j < count; j++){
+				int i = indices[j];
+				results[i] = new CmtBigIntegerCommitValue(((CmtPedersenDecommitmentMessage)decommitmentMsgs[i]).getX());
+			}
+		} else{
+			//At least one decommitment is invalid. Verify each one of them separately.
+			for (int j = 0; j < count; j++){
+				int i = indices[j];
+				results[i] = verifyDecommitment(commitmentMsgs[i], decommitmentMsgs[i]);
+			}
+		}
+		return results;
+	}
+
+	/*
+	 * Checks that the given decommitment is a Pedersen decommitment that contains both x and r.
+	 */
+	private void checkDecommitment(CmtCDecommitmentMessage decommitmentMsg){
+		if (!(decommitmentMsg instanceof CmtPedersenDecommitmentMessage)){
+			throw new IllegalArgumentException("The decommitment should be an instance of CmtPedersenDecommitmentMessage");
+		}
+		CmtPedersenDecommitmentMessage decommitment = (CmtPedersenDecommitmentMessage) decommitmentMsg;
+		if (decommitment.getX() == null || decommitment.getR() == null || decommitment.getR().getR() == null){
+			throw new IllegalArgumentException("The decommitment should contain both x and r");
+		}
+	}
+	
+	/**
+	 * Sets the cache that holds the fixed base tables of g and h used to verify the decommitments. <p>
+	 * By default, the tables are taken from the shared cache {@link FixedBaseExponentiatorCache#getInstance()}.
+	 * @param cache the cache to use. If null, fixed base tables are not used.
+	 */
+	public void setFixedBaseCache(FixedBaseExponentiatorCache cache){
+		computation.setCache(cache);
+	}
+
 	@Override
 	public Object[] getPreProcessedValues(){
 		GroupElement[] values = new GroupElement[1];
@@ -263,4 +462,17 @@ public abstract class CmtPedersenReceiverCore implements CmtReceiver{
 	public GroupElement getCommitmentPhaseValues(long id){
 		return dlog.reconstructElement(true, commitmentMap.get(id).getCommitment());
 	}
+
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
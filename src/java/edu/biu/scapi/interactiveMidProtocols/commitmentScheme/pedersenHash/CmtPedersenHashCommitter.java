@@ -28,8 +28,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersenHash;
 import java.io.IOException;
 import java.math.BigInteger;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
@@ -46,6 +44,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtOnByteArray;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenDecommitmentMessage;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitterCore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA224;
@@ -72,7 +73,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 	 */
 	
 	private CryptographicHash hash;
-	private Map<Long, byte[]> hashCommitmentMap;
+	private CmtStateStore<byte[]> hashCommitmentMap;
 	
 	/**
 	 * This constructor uses a default Dlog Group and default Cryptographic Hash. They keep the condition that 
@@ -86,7 +87,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 	public CmtPedersenHashCommitter(Channel channel) throws ClassNotFoundException, IOException, CheatAttemptException{
 		super(channel);
 		this.hash = new OpenSSLSHA224(); 	//This default hash suits the default DlogGroup of the underlying Committer.
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtConcurrentStateStore<byte[]>();
 	}
 	
 	/**
@@ -112,7 +113,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 			throw new IllegalArgumentException("The size in bytes of the resulting hash is bigger than the size in bytes of the order of the DlogGroup.");
 		}
 		this.hash = hash;
-		hashCommitmentMap = new Hashtable<Long, byte[]>();
+		hashCommitmentMap = new CmtConcurrentStateStore<byte[]>();
 	}
 	
 	/*
@@ -132,7 +133,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 		//Hash the input x with the hash function
 		byte[] x  = ((CmtByteArrayCommitValue)input).getX();
 		//Keep the original commit value x and its id in the commitmentMap, needed for later (during the decommit phase).
-		hashCommitmentMap.put(Long.valueOf(id), x);
+		hashCommitmentMap.put(id, x);
 		
 		//calculate H(x) = Hash(x)
 		byte[] hashValArray = new byte[hash.getHashedMsgSize()];
@@ -148,7 +149,7 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//Fetch the commitment according to the requested ID
-		byte[] x = hashCommitmentMap.get(Long.valueOf(id));
+		byte[] x = hashCommitmentMap.get(id);
 		//Get the relevant random value used in the commitment phase
 		BigIntegerRandomValue r = (commitmentMap.get(id)).getR();
 		
@@ -197,4 +198,15 @@ public class CmtPedersenHashCommitter extends CmtPedersenCommitterCore implement
 		return (byte[]) value.getX();
 	}
 
+	/**
+	 * Replaces the stores that keep the state of the commitments (including the original inputs) with stores created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new stores.
+	 * @param factory creates the new stores.
+	 * @throws IllegalStateException if there are commitments in the current stores.
+	 */
+	@Override
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		super.setStateStoreFactory(factory);
+		hashCommitmentMap = factory.createStore();
+	}
 }
\ No newline at end of file
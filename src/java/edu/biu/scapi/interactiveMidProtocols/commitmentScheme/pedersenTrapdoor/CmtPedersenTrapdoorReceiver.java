@@ -99,4 +99,16 @@ public class CmtPedersenTrapdoorReceiver extends CmtPedersenReceiver implements
 		//Wrap the output with the trapdoor.
 		return new CmtRTrapdoorCommitPhaseOutput(trapdoor, output.getCommitmentId());
 	}
+	
+	@Override
+	public CmtRBasicCommitPhaseOutput[] receiveBatchCommitment() throws ClassNotFoundException, IOException {
+		//Get the outputs from the super.receiveBatchCommitment.
+		CmtRBasicCommitPhaseOutput[] outputs = super.receiveBatchCommitment();
+		
+		//Wrap each output with the trapdoor.
+		for (int i = 0; i < outputs.length; i++){
+			outputs[i] = new CmtRTrapdoorCommitPhaseOutput(trapdoor, outputs[i].getCommitmentId());
+		}
+		return outputs;
+	}
 }
@@ -26,8 +26,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
 
 import java.io.IOException;
 import java.security.SecureRandom;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CommitValueException;
@@ -38,6 +36,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMe
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitter;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitmentPhaseValues;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
 import edu.biu.scapi.securityLevel.SecureCommit;
@@ -72,7 +73,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 	private CryptographicHash hash;
 	private int n;
 	private SecureRandom random;
-	private  Map<Long, CmtSimpleHashCommitmentValues> commitmentMap;
+	private CmtStateStore<CmtSimpleHashCommitmentValues> commitmentMap;
 
 	/**
 	 * Constructor that receives a connected channel (to the receiver) and chosses default 
@@ -98,7 +99,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		this.hash = hash;
 		this.n = n;
 		this.random = random;
-		commitmentMap = new Hashtable<Long, CmtSimpleHashCommitmentValues>();
+		commitmentMap = new CmtConcurrentStateStore<CmtSimpleHashCommitmentValues>();
 		
 		//No pre-process in SimpleHash Commitment
 	}
@@ -123,7 +124,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		byte[] hashValArray = computeCommitment(x, r);
 		
 		//After succeeding in sending the commitment, keep the committed value in the map together with its ID.
-		commitmentMap.put(Long.valueOf(id), new CmtSimpleHashCommitmentValues(new ByteArrayRandomValue(r), input, hashValArray));
+		commitmentMap.put(id, new CmtSimpleHashCommitmentValues(new ByteArrayRandomValue(r), input, hashValArray));
 		
 		return new CmtSimpleHashCommitmentMessage(hashValArray, id);
 	}
@@ -142,7 +143,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 			//Send the message by the channel.
 			channel.send(msg);
 		} catch (IOException e) {
-			commitmentMap.remove(Long.valueOf(id));
+			commitmentMap.remove(id);
 			throw new IOException("failed to send the message. The error is: " + e.getMessage());
 		}	
 	}
@@ -169,7 +170,7 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 	public CmtCDecommitmentMessage generateDecommitmentMsg(long id){
 		
 		//fetch the commitment according to the requested ID
-		CmtSimpleHashCommitmentValues vals = commitmentMap.get(Long.valueOf(id));
+		CmtSimpleHashCommitmentValues vals = commitmentMap.get(id);
 		byte[] x = ((CmtByteArrayCommitValue)vals.getX()).getX();
 		return new CmtSimpleHashDecommitmentMessage(vals.getR(), x);
 		
@@ -232,4 +233,16 @@ public class CmtSimpleHashCommitter implements CmtCommitter, SecureCommit {
 		return (byte[]) value.getX();
 	}
 
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
\ No newline at end of file
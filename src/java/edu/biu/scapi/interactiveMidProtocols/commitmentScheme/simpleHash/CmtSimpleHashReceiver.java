@@ -27,8 +27,6 @@ package edu.biu.scapi.interactiveMidProtocols.commitmentScheme.simpleHash;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Arrays;
-import java.util.Hashtable;
-import java.util.Map;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
@@ -38,6 +36,9 @@ import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtByteArrayCommit
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtReceiver;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
 import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtRCommitPhaseOutput;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtConcurrentStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStore;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtStateStoreFactory;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
 import edu.biu.scapi.primitives.hash.openSSL.OpenSSLSHA256;
 import edu.biu.scapi.securityLevel.SecureCommit;
@@ -71,7 +72,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 	 *		      OUTPUT ACC and value x"	 
 	 */
 	
-	private Map<Long , CmtSimpleHashCommitmentMessage> commitmentMap;
+	private CmtStateStore<CmtSimpleHashCommitmentMessage> commitmentMap;
 	private Channel channel;	
 	private CryptographicHash hash;
 	private int n; //security parameter.
@@ -99,7 +100,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		this.channel = channel;
 		this.hash = hash;
 		this.n = n;
-		commitmentMap = new Hashtable<Long, CmtSimpleHashCommitmentMessage>();
+		commitmentMap = new CmtConcurrentStateStore<CmtSimpleHashCommitmentMessage>();
 		
 		//No pre-process in SimpleHash Commitment
 	}
@@ -123,7 +124,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		}
 		
 		CmtSimpleHashCommitmentMessage msg = (CmtSimpleHashCommitmentMessage) message;
-		commitmentMap.put(Long.valueOf(msg.getId()), msg);
+		commitmentMap.put(msg.getId(), msg);
 		return new CmtRBasicCommitPhaseOutput(msg.getId());
 	}
 
@@ -154,7 +155,7 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 		}
 		
 		//Fetch received commitment according to ID
-		CmtSimpleHashCommitmentMessage receivedCommitment = commitmentMap.get(Long.valueOf(id));
+		CmtSimpleHashCommitmentMessage receivedCommitment = commitmentMap.get(id);
 				
 		return verifyDecommitment(receivedCommitment, (CmtCDecommitmentMessage)message);
 		
@@ -212,4 +213,17 @@ public class CmtSimpleHashReceiver implements CmtReceiver, SecureCommit {
 			throw new IllegalArgumentException("The given value must be of type CmtByteArrayCommitValue");
 		return (byte[]) value.getX();
 	}
+
+	/**
+	 * Replaces the store that keeps the state of the commitments with a store created by the given factory. <p>
+	 * Should be called before the first commitment, since the existing state is not moved to the new store.
+	 * @param factory creates the new store.
+	 * @throws IllegalStateException if there are commitments in the current store.
+	 */
+	public void setStateStoreFactory(CmtStateStoreFactory factory){
+		if (commitmentMap.size() > 0){
+			throw new IllegalStateException("The state store can not be replaced after commitments were made");
+		}
+		commitmentMap = factory.createStore();
+	}
 }
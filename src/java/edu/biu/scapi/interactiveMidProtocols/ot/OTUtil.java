@@ -26,10 +26,14 @@ package edu.biu.scapi.interactiveMidProtocols.ot;
 
 import java.math.BigInteger;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -40,6 +44,9 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  */
 public class OTUtil {
 	
+	//Minimal number of tuples that share a base, for which it is worth to build a fixed base table for this base.
+	private static final int MIN_BATCH_FOR_FIXED_BASE = 16;
+	
 	/**
 	 * Some OT protocols uses the function RAND(w,x,y,z). 
 	 * This function defined as follows.<p>
@@ -74,6 +81,114 @@ public class OTUtil {
 		return new RandOutput(u,v);
 	}
 	
+	/**
+	 * Computes the RAND function on a batch of (w,x,y,z) tuples. <p>
+	 * For every index i, the function samples fresh s,t and computes u[i] = w[i]^s * y[i]^t and v[i] = x[i]^s * z[i]^t, 
+	 * exactly as the single tuple RAND function.<p>
+	 * The computation is done in the calling thread. See {@link #rand(DlogGroup, GroupElement[], GroupElement[], GroupElement[], GroupElement[], SecureRandom, ExecutorService)}
+	 * for the details of the optimizations.
+	 * @param dlog
+	 * @param w
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param random
+	 * @return array of RAND outputs, where the i-th output is the result of the i-th tuple.
+	 */
+	public static RandOutput[] rand(DlogGroup dlog, GroupElement[] w, GroupElement[] x, GroupElement[] y, GroupElement[] z, SecureRandom random){
+		return rand(dlog, w, x, y, z, random, null);
+	}
+	
+	/**
+	 * Computes the RAND function on a batch of (w,x,y,z) tuples. <p>
+	 * For every index i, the function samples fresh s,t and computes u[i] = w[i]^s * y[i]^t and v[i] = x[i]^s * z[i]^t, 
+	 * exactly as the single tuple RAND function.<p>
+	 * The batch is computed more efficiently than calling RAND for each tuple:<p>
+	 * 1. Each of u[i], v[i] is computed using one simultaneous double exponentiation instead of two exponentiations.<p>
+	 * 2. If the same base appears in all tuples of a big enough batch (for example, the generator or the receiver's (g,h) in the full simulation OT),
+	 * a fixed base table is built once for this base and used in all exponentiations of this base.<p>
+	 * 3. If an executor is given, the tuples are computed in parallel. The random values are sampled in advance by the calling thread,
+	 * so the output does not depend on the scheduling of the threads. In this case the Dlog group should support concurrent computations.
+	 * @param dlog
+	 * @param w
+	 * @param x
+	 * @param y
+	 * @param z
+	 * @param random
+	 * @param executor executor to use in order to compute the tuples in parallel. If null, the computation is done in the calling thread.
+	 * @return array of RAND outputs, where the i-th output is the result of the i-th tuple.
+	 * @throws IllegalArgumentException if the arrays are not of the same length.
+	 */
+	public static RandOutput[] rand(final DlogGroup dlog, final GroupElement[] w, final GroupElement[] x, final GroupElement[] y, final GroupElement[] z, 
+			SecureRandom random, ExecutorService executor){
+		final int size = w.length;
+		if (x.length != size || y.length != size || z.length != size){
+			throw new IllegalArgumentException("all the arrays should be of the same length");
+		}
+		
+		//Compute q-1
+		BigInteger qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+		
+		//Sample random values s,t <- {0, . . . , q-1} for all the tuples.
+		final BigInteger[] s = new BigInteger[size];
+		final BigInteger[] t = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			s[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+			t[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		
+		//Build fixed base tables for bases that are shared by all tuples.
+		final FixedBaseExponentiator wTable = createTableIfRepeated(dlog, w);
+		final FixedBaseExponentiator xTable = createTableIfRepeated(dlog, x);
+		final FixedBaseExponentiator yTable = createTableIfRepeated(dlog, y);
+		final FixedBaseExponentiator zTable = createTableIfRepeated(dlog, z);
+		
+		final RandOutput[] outputs = new RandOutput[size];
+		ParallelBatchExecution.execute(executor, size, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					//Compute u = w^s * y^t
+					GroupElement u = doubleExponentiate(dlog, w[i], wTable, s[i], y[i], yTable, t[i]);
+					//Compute v = x^s * z^t
+					GroupElement v = doubleExponentiate(dlog, x[i], xTable, s[i], z[i], zTable, t[i]);
+					outputs[i] = new RandOutput(u, v);
+				}
+			}
+		});
+		
+		return outputs;
+	}
+	
+	/*
+	 * Returns a fixed base table for the given bases if all of them are equal and the batch is big enough. Otherwise, returns null.
+	 */
+	private static FixedBaseExponentiator createTableIfRepeated(DlogGroup dlog, GroupElement[] bases){
+		if (bases.length < MIN_BATCH_FOR_FIXED_BASE){
+			return null;
+		}
+		for (int i = 1; i < bases.length; i++){
+			if (bases[i] != bases[0] && !bases[i].equals(bases[0])){
+				return null;
+			}
+		}
+		return new FixedBaseExponentiator(dlog, bases[0]);
+	}
+	
+	/*
+	 * Computes a^e1 * b^e2. 
+	 * Bases that have a fixed base table are computed using the table; The other bases are computed using simultaneous exponentiation.
+	 */
+	private static GroupElement doubleExponentiate(DlogGroup dlog, GroupElement a, FixedBaseExponentiator aTable, BigInteger e1,
+			GroupElement b, FixedBaseExponentiator bTable, BigInteger e2){
+		if (aTable == null && bTable == null){
+			return dlog.simultaneousMultipleExponentiations(new GroupElement[]{a, b}, new BigInteger[]{e1, e2});
+		}
+		GroupElement aToE1 = (aTable != null) ? aTable.exponentiate(e1) : dlog.exponentiate(a, e1);
+		GroupElement bToE2 = (bTable != null) ? bTable.exponentiate(e2) : dlog.exponentiate(b, e2);
+		return dlog.multiplyGroupElements(aToE1, bToE2);
+	}
+	
 	/**
 	 * Holds the output of the above RAND function.
 	 * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
@@ -97,13 +97,14 @@ public abstract class OTFullSimSenderTransferUtilAbs {
 		
 		//COMPUTE (u0,v0) = RAND(g0,g,h0,h)
 		//COMPUTE (u1,v1) = RAND(g1,g,h1,h)
+		//Both tuples are computed in one batch call, which uses the double exponentiation of the group.
 		GroupElement g0 = preprocessValues.getG0(); //Get the group generator.
-		RandOutput tuple0 = OTUtil.rand(dlog, g0, g, preprocessValues.getH0(), h, random);
-		RandOutput tuple1 = OTUtil.rand(dlog, preprocessValues.getG1(), g, preprocessValues.getH1(), h, random);
-		GroupElement u0 = tuple0.getU();
-		GroupElement v0 = tuple0.getV();
-		GroupElement u1 = tuple1.getU();
-		GroupElement v1 = tuple1.getV();
+		RandOutput[] tuples = OTUtil.rand(dlog, new GroupElement[]{g0, preprocessValues.getG1()}, new GroupElement[]{g, g}, 
+				new GroupElement[]{preprocessValues.getH0(), preprocessValues.getH1()}, new GroupElement[]{h, h}, random);
+		GroupElement u0 = tuples[0].getU();
+		GroupElement v0 = tuples[0].getV();
+		GroupElement u1 = tuples[1].getU();
+		GroupElement v1 = tuples[1].getV();
 		
 		//Compute c0, c1.
 		OTSMsg tuple = computeTuple(input, u0, u1, v0, v1);
@@ -235,14 +235,14 @@ abstract class OTOneSidedSimDDHSenderAbs implements OTSender{
 		GroupElement g = dlog.getGenerator(); //Get the group generator.
 		
 		//Calculates w0 = x^u0 � g^v0
-		GroupElement w0 = dlog.multiplyGroupElements(dlog.exponentiate(x, u0), dlog.exponentiate(g, v0));
+		GroupElement w0 = dlog.simultaneousMultipleExponentiations(new GroupElement[]{x, g}, new BigInteger[]{u0, v0});
 		//Calculates k0 = (z0)^u0 � y^v0
-		GroupElement k0 = dlog.multiplyGroupElements(dlog.exponentiate(z0, u0), dlog.exponentiate(y, v0));
+		GroupElement k0 = dlog.simultaneousMultipleExponentiations(new GroupElement[]{z0, y}, new BigInteger[]{u0, v0});
 		
 		//Calculates w1 = x^u1 � g^v1
-		GroupElement w1 = dlog.multiplyGroupElements(dlog.exponentiate(x, u1), dlog.exponentiate(g, v1));
+		GroupElement w1 = dlog.simultaneousMultipleExponentiations(new GroupElement[]{x, g}, new BigInteger[]{u1, v1});
 		//Calculates k1 = (z1)^u1 � y^v1
-		GroupElement k1 = dlog.multiplyGroupElements(dlog.exponentiate(z1, u1), dlog.exponentiate(y, v1));
+		GroupElement k1 = dlog.simultaneousMultipleExponentiations(new GroupElement[]{z1, y}, new BigInteger[]{u1, v1});
 		
 		//Compute c0, c1		
 		OTSMsg messageToSend = computeTuple(input, w0, w1, k0, k1);
@@ -0,0 +1,85 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension;
+
+import java.io.Serializable;
+
+/**
+ * This class holds the result of the base OT phase of the OT extension, so it can be saved and reused after a process restart.<p>
+ * 
+ * The sender's state contains the choice bits of the base OTs and the keys it received. 
+ * The receiver's state contains both keys of each base OT. <p>
+ * 
+ * The state is secret and must be kept at least as secure as the inputs of the OTs. <p>
+ * When a state is restored, the base OT keys are re-derived with a session index that is given by the user 
+ * (each key is replaced by SHA1(key || index), where the index is encoded as 4 bytes in big endian order). 
+ * Both parties must restore their states with the same session index, and each index must be used only once per state. 
+ * Reusing an index reuses the extension pads and is NOT secure.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class OTExtensionBaseOTState implements Serializable {
+
+	private static final long serialVersionUID = -3209716564187592046L;
+	
+	private int koblitzOrZpSize;	//The group that was used in the base OTs.
+	private byte[] choices;			//The choice bits of the base OTs. Used only by the sender.
+	private byte[] keys;			//The keys of the base OTs.
+	
+	/**
+	 * Constructor that sets the given values.
+	 * @param koblitzOrZpSize The group that was used in the base OTs.
+	 * @param choices The choice bits of the base OTs. Should be null in the receiver's state.
+	 * @param keys The keys of the base OTs.
+	 */
+	OTExtensionBaseOTState(int koblitzOrZpSize, byte[] choices, byte[] keys){
+		this.koblitzOrZpSize = koblitzOrZpSize;
+		this.choices = choices;
+		this.keys = keys;
+	}
+	
+	/**
+	 * @return the group that was used in the base OTs. 163,233,283 for ECC koblitz and 1024, 2048, 3072 for Zp.
+	 */
+	public int getKoblitzOrZpSize(){
+		return koblitzOrZpSize;
+	}
+	
+	/**
+	 * @return true if this is a state of the OT extension sender; false if it is a state of the receiver.
+	 */
+	public boolean isSenderState(){
+		return choices != null;
+	}
+	
+	byte[] getChoices(){
+		return choices;
+	}
+	
+	byte[] getKeys(){
+		return keys;
+	}
+}
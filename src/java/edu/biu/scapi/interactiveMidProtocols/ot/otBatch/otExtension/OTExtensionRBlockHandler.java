@@ -0,0 +1,56 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This interface is used by the OT extension receiver in order to run a big number of OTs in blocks, without creating arrays for all of them.<p>
+ * The receiver calls fillSigma before each block of OTs in order to get the choice bits of the block, 
+ * and consumeOutput after the block is done in order to hand over its output. <p>
+ * The same direct buffers are used for all the blocks, so the handler must not keep references to them after the call returns.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface OTExtensionRBlockHandler {
+
+	/**
+	 * Fills the choice bits of the given block of OTs. Each OT gets one byte in the buffer, which should be 0 or 1.
+	 * @param firstOt The index of the first OT of the block.
+	 * @param numOfOts The number of OTs in the block.
+	 * @param sigma Buffer for the choice bits of the block.
+	 */
+	public void fillSigma(int firstOt, int numOfOts, ByteBuffer sigma);
+	
+	/**
+	 * Handles the output of the given block of OTs. 
+	 * The output of the i-th OT of the block is placed in the bytes [i*bitLength/8, (i+1)*bitLength/8) of the buffer.
+	 * @param firstOt The index of the first OT of the block.
+	 * @param numOfOts The number of OTs in the block.
+	 * @param output The x_sigma values of the block.
+	 */
+	public void consumeOutput(int firstOt, int numOfOts, ByteBuffer output);
+}
@@ -0,0 +1,62 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension;
+
+import java.nio.ByteBuffer;
+
+/**
+ * This interface is used by the OT extension sender in order to run a big number of OTs in blocks, without creating arrays for all of them.<p>
+ * The sender calls fillInputs before each block of OTs in order to get the inputs of the block, 
+ * and consumeOutputs after the block is done in order to hand over its outputs. <p>
+ * The same direct buffers are used for all the blocks, so the handler must not keep references to them after the call returns.
+ * The content of the i-th OT of the block is placed in the bytes [i*bitLength/8, (i+1)*bitLength/8) of the buffers.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface OTExtensionSBlockHandler {
+
+	/**
+	 * Fills the inputs of the given block of OTs.<p>
+	 * In the general version the handler should fill x0 and x1. In the correlated version the handler should fill delta.
+	 * In the random version there are no inputs and this function is not called.
+	 * @param firstOt The index of the first OT of the block.
+	 * @param numOfOts The number of OTs in the block.
+	 * @param x0 Buffer for the x0 values of the block. 
+	 * @param x1 Buffer for the x1 values of the block.
+	 * @param delta Buffer for the delta values of the block.
+	 */
+	public void fillInputs(int firstOt, int numOfOts, ByteBuffer x0, ByteBuffer x1, ByteBuffer delta);
+	
+	/**
+	 * Handles the outputs of the given block of OTs.<p>
+	 * This function is called only in the correlated and random versions, since the general version has no output.
+	 * @param firstOt The index of the first OT of the block.
+	 * @param numOfOts The number of OTs in the block.
+	 * @param x0 The x0 values of the block.
+	 * @param x1 The x1 values of the block.
+	 */
+	public void consumeOutputs(int firstOt, int numOfOts, ByteBuffer x0, ByteBuffer x1);
+}
@@ -24,6 +24,7 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension;
 
+import java.nio.ByteBuffer;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.comm.Party;
@@ -40,7 +41,16 @@ import edu.biu.scapi.securityLevel.SemiHonest;
  * "G. Asharov, Y. Lindell, T. Schneier and M. Zohner. More Efficient Oblivious Transfer and Extensions for Faster Secure Computation. ACM CCS 2013." <p>
  * See http://eprint.iacr.org/2013/552.pdf for more information.
  * 
- * The base OT is done once in the construction time. After that, the transfer function will be always optimized and fast, no matter how much OT's there are.<p>
+ * The base OT is done once in the construction time. After that, the transfer function will be always optimized and fast, no matter how much OT's there are.
+ * Therefore, one receiver object should be created per session and shared by all the protocols that need OT extension in this session. 
+ * The transfer function can be called any number of times, with any number of OTs in each call. 
+ * When the session is done, the user should call the {@link #close()} function in order to release the native resources.<p>
+ * 
+ * Each receiver object has its own native state: its connections and the result of its base OTs. 
+ * Thus, several sessions can exist at the same time (using different ports), and closing one of them does not affect the others.<p>
+ * 
+ * The result of the base OTs can be exported using {@link #exportBaseOTState()} and used later in order to create a new receiver 
+ * without running the base OTs again (for example, after a process restart). See {@link OTExtensionBaseOTState} for the security requirements.<p>
  * 
  * There are three versions of OT extension: General, Correlated and Random. The difference between them is the way of getting the inputs: <p>
  * In general OT extension both x0 and x1 are given by the user.<p>
@@ -50,6 +60,10 @@ import edu.biu.scapi.securityLevel.SemiHonest;
  * The particular OT extension version is executed according to the given input instance; 
  * For example, if the user gave as input an instance of OTExtensionRandomRInput than the random OT Extension will be execute.<p>
  * 
+ * A big number of OTs can also be executed in blocks using {@link #transfer(OTExtensionVersion, int, int, int, OTExtensionRBlockHandler)}.
+ * In this case the choice bits and outputs of each block are passed through direct buffers that are reused for all the blocks, 
+ * so the memory used does not depend on the total number of OTs.<p>
+ * 
  * NOTE: Unlike a regular implementation, the connection is done via the native code and thus the channel provided in the transfer function is ignored.  
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Meital Levy)
@@ -59,10 +73,19 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 	
 	
 	private long receiverPtr; //Pointer that holds the receiver pointer in the c++ code.
+	private int koblitzOrZpSize; //The group used in the base OTs.
 	
 	// This function initializes the receiver. It creates sockets to communicate with the sender and attaches these sockets to the receiver object.
 	// It outputs the receiver object with communication abilities built in. 
 	private native long initOtReceiver(String ipAddress, int port, int koblitzOrZpSize, int numOfThreads);
+	
+	// This function initializes the receiver using the result of previous base OTs instead of running them.
+	// The base OT keys are re-derived using the given session index.
+	private native long initOtReceiverFromState(String ipAddress, int port, int koblitzOrZpSize, int numOfThreads, byte[] keys, int sessionIndex);
+	
+	// This function returns the keys of the base OTs that are used by the given receiver.
+	private native byte[] getBaseOTKeys(long receiverPtr);
+	
 	/*
 	 * The native code that runs the OT extension as the receiver.
 	 * @param receiverPtr The pointer initialized via the function initOtReceiver
@@ -74,6 +97,11 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 	 * @param version The particular OT type to run.
 	 */
 	private native void runOtAsReceiver(long receiverPtr, byte[] sigma, int numOfOts, int bitLength, byte[] output, String version);
+	
+	/*
+	 * The same as runOtAsReceiver, but works on direct buffers instead of arrays.
+	 */
+	private native void runOtAsReceiverOnBuffers(long receiverPtr, ByteBuffer sigma, int numOfOts, int bitLength, ByteBuffer output, String version);
 	//Deletes the native object.
 	private native void deleteReceiver(long receiverPtr);
 	
@@ -90,7 +118,28 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 	public OTSemiHonestExtensionReceiver(Party party, int koblitzOrZpSize, int numOfThreads ){
 		// Create the receiver by passing the local host address.
 		receiverPtr = initOtReceiver(party.getIpAddress().getHostAddress(), party.getPort(), koblitzOrZpSize, numOfThreads);
+		this.koblitzOrZpSize = koblitzOrZpSize;
+	}
+	
+	/**
+	 * A constructor that creates the native receiver with communication abilities, using the result of previous base OTs.<p>
+	 * The base OT phase is not executed. Instead, the base OT keys in the given state are re-derived using the given session index.
+	 * The sender should be created from its matching state with the same session index.
+	 * @param party An object that holds the ip address and port.
+	 * @param state The base OT state that was exported from a previous receiver.
+	 * @param sessionIndex An index that was never used before with this state. 
+	 * @param numOfThreads
+	 * @throws IllegalArgumentException if the given state is not a receiver's state.
+	 */
+	public OTSemiHonestExtensionReceiver(Party party, OTExtensionBaseOTState state, int sessionIndex, int numOfThreads){
+		if (state.isSenderState()){
+			throw new IllegalArgumentException("the given state should be a state of the OT extension receiver");
+		}
 		
+		// Create the receiver by passing the local host address and the saved base OT keys.
+		receiverPtr = initOtReceiverFromState(party.getIpAddress().getHostAddress(), party.getPort(), state.getKoblitzOrZpSize(), 
+				numOfThreads, state.getKeys(), sessionIndex);
+		this.koblitzOrZpSize = state.getKoblitzOrZpSize();
 	}
 	
 	
@@ -103,6 +152,18 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 		
 		// Create the receiver by passing the local host address.
 		receiverPtr = initOtReceiver(party.getIpAddress().getHostAddress(), party.getPort(), 163, 1);
+		this.koblitzOrZpSize = 163;
+	}
+	
+	/**
+	 * Returns the result of the base OTs used by this receiver, so it can be used later to create a new receiver without running the base OTs.<p>
+	 * The sender should export its state at the same point of the session.
+	 * @return the base OT state of this receiver.
+	 * @throws IllegalStateException if the receiver was closed.
+	 */
+	public synchronized OTExtensionBaseOTState exportBaseOTState(){
+		checkNotClosed();
+		return new OTExtensionBaseOTState(koblitzOrZpSize, null, getBaseOTKeys(receiverPtr));
 	}
 	
 
@@ -112,8 +173,11 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 	 * @param channel Disregarded. This is ignored since the connection is done in the c++ code.
 	 * @param input The input for the receiver specifying the version of the OT extension to run. 
 	 * Every call to the transfer function can run a different OT extension version.
+	 * @throws IllegalStateException if the receiver was closed.
 	 */
-	public OTBatchROutput transfer(Channel channel, OTBatchRInput input) {
+	public synchronized OTBatchROutput transfer(Channel channel, OTBatchRInput input) {
+		
+		checkNotClosed();
 		
 		//We set the version to be the general case, if a different call was made we will change it later to the relevant version.
 		String version = "general";
@@ -147,11 +211,76 @@ public class OTSemiHonestExtensionReceiver implements SemiHonest, OTBatchReceive
 	
 	
 	/**
-	 * Deletes the native OT object.
+	 * Runs the given number of OTs in blocks of the given size.<p>
+	 * Before each block, the handler is asked to fill the choice bits of the block. After each block, the handler gets the output of the block.
+	 * The buffers are allocated once, with the size of one block, and reused for all the blocks.<p>
+	 * The sender should call the matching function with the same number of OTs, bit length and block size.
+	 * @param version The OT extension version to run.
+	 * @param numOfOts The total number of OTs.
+	 * @param bitLength The length of each output in bits. Must be a multiple of 8.
+	 * @param blockSize The number of OTs in each block.
+	 * @param handler Fills the choice bits and consumes the outputs of the blocks.
+	 * @throws IllegalArgumentException if the bit length is not a multiple of 8 or the block size is not positive.
+	 * @throws IllegalStateException if the receiver was closed.
+	 */
+	public synchronized void transfer(OTExtensionVersion version, int numOfOts, int bitLength, int blockSize, OTExtensionRBlockHandler handler){
+		checkNotClosed();
+		if (bitLength <= 0 || bitLength % 8 != 0){
+			throw new IllegalArgumentException("bitLength should be a positive multiple of 8");
+		}
+		if (blockSize <= 0){
+			throw new IllegalArgumentException("blockSize should be positive");
+		}
+		
+		int elementSize = bitLength / 8;
+		int maxOtsInBlock = Math.min(blockSize, numOfOts);
+		ByteBuffer sigma = ByteBuffer.allocateDirect(maxOtsInBlock);
+		ByteBuffer output = ByteBuffer.allocateDirect(maxOtsInBlock * elementSize);
+		
+		for (int firstOt = 0; firstOt < numOfOts; firstOt += blockSize){
+			int otsInBlock = Math.min(blockSize, numOfOts - firstOt);
+			
+			//Get the choice bits of the block.
+			sigma.clear();
+			sigma.limit(otsInBlock);
+			handler.fillSigma(firstOt, otsInBlock, sigma);
+			
+			//Run the protocol using the native code in the dll. It fills the output buffer.
+			runOtAsReceiverOnBuffers(receiverPtr, sigma, otsInBlock, bitLength, output, version.getNativeName());
+			
+			//Hand over the output of the block.
+			output.clear();
+			output.limit(otsInBlock * elementSize);
+			handler.consumeOutput(firstOt, otsInBlock, output);
+		}
+	}
+	
+	/**
+	 * Deletes the native OT object and closes its connections.<p>
+	 * After this function is called, the receiver can not be used anymore. Calling this function more than once has no effect.
+	 */
+	public synchronized void close(){
+		if (receiverPtr != 0){
+			//Delete from the dll the dynamic allocation of the receiver.
+			deleteReceiver(receiverPtr);
+			receiverPtr = 0;
+		}
+	}
+	
+	/*
+	 * Throws IllegalStateException if the native receiver was already deleted.
+	 */
+	private void checkNotClosed(){
+		if (receiverPtr == 0){
+			throw new IllegalStateException("the OT extension receiver was closed");
+		}
+	}
+	
+	/**
+	 * Deletes the native OT object, if it was not deleted by the close function.
 	 */
 	public void finalize() throws Throwable {
-		//Delete from the dll the dynamic allocation of the receiver.
-		deleteReceiver(receiverPtr);
+		close();
 	}
 	
 	static { 
@@ -24,6 +24,8 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.ot.otBatch.otExtension;
 
+import java.nio.ByteBuffer;
+
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.comm.Party;
 import edu.biu.scapi.interactiveMidProtocols.ot.otBatch.OTBatchSInput;
@@ -39,6 +41,15 @@ import edu.biu.scapi.securityLevel.SemiHonest;
  * See http://eprint.iacr.org/2013/552.pdf for more information.
  * 
  * The base OT is done once in the construction time. After that, the transfer function will be always optimized and fast, no matter how much OT's there are.
+ * Therefore, one sender object should be created per session and shared by all the protocols that need OT extension in this session. 
+ * The transfer function can be called any number of times, with any number of OTs in each call. 
+ * When the session is done, the user should call the {@link #close()} function in order to release the native resources.<p>
+ * 
+ * Each sender object has its own native state: its connections and the result of its base OTs. 
+ * Thus, several sessions can exist at the same time (using different ports), and closing one of them does not affect the others.<p>
+ * 
+ * The result of the base OTs can be exported using {@link #exportBaseOTState()} and used later in order to create a new sender 
+ * without running the base OTs again (for example, after a process restart). See {@link OTExtensionBaseOTState} for the security requirements.<p>
  * 
  * There are three versions of OT extension: General, Correlated and Random. The difference between them is the way of getting the inputs: <p>
  * In general OT extension both x0 and x1 are given by the user.<p>
@@ -48,6 +59,10 @@ import edu.biu.scapi.securityLevel.SemiHonest;
  * The particular OT extension version is executed according to the given input instance; 
  * For example, if the user gave as input an instance of OTExtensionRandomSInput than the random OT Extension will be execute.<p>
  * 
+ * A big number of OTs can also be executed in blocks using {@link #transfer(OTExtensionVersion, int, int, int, OTExtensionSBlockHandler)}.
+ * In this case the inputs and outputs of each block are passed through direct buffers that are reused for all the blocks, 
+ * so the memory used does not depend on the total number of OTs.<p>
+ * 
  * NOTE: Unlike a regular implementation the connection is done via the native code and thus the channel provided in the transfer function is ignored.  
  * 
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Meital Levy)
@@ -56,11 +71,20 @@ import edu.biu.scapi.securityLevel.SemiHonest;
 public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	
 	private long senderPtr; //Pointer that holds the sender pointer in the c++ code.
+	private int koblitzOrZpSize; //The group used in the base OTs.
 	
 	// This function initializes the sender. It creates sockets to communicate with the sender and attaches these sockets to the receiver object.
 	// It outputs the receiver object with communication abilities built in. 
 	private native long initOtSender(String ipAddress, int port, int koblitzOrZpSize, int numOfThreads);
 	
+	// This function initializes the sender using the result of previous base OTs instead of running them.
+	// The base OT keys are re-derived using the given session index.
+	private native long initOtSenderFromState(String ipAddress, int port, int koblitzOrZpSize, int numOfThreads, byte[] choices, byte[] keys, int sessionIndex);
+	
+	// These functions return the choice bits and the keys of the base OTs that are used by the given sender.
+	private native byte[] getBaseOTChoices(long senderPtr);
+	private native byte[] getBaseOTKeys(long senderPtr);
+	
 	/*
 	 * The native code that runs the OT extension as the sender.
 	 * @param senderPtr The pointer initialized via the function initOtSender.
@@ -73,6 +97,11 @@ public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	 */
 	private native void runOtAsSender(long senderPtr, byte[] x0, byte[]x1, byte[] delta, int numOfOts, int bitLength, String version);
 	
+	/*
+	 * The same as runOtAsSender, but works on direct buffers instead of arrays.
+	 */
+	private native void runOtAsSenderOnBuffers(long senderPtr, ByteBuffer x0, ByteBuffer x1, ByteBuffer delta, int numOfOts, int bitLength, String version);
+	
 	//Deletes the native sender.
 	private native void deleteSender(long senderPtr);
 	
@@ -88,6 +117,28 @@ public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	
 		// Create the sender by passing the local host address.
 		senderPtr = initOtSender(party.getIpAddress().getHostAddress(), party.getPort(), koblitzOrZpSize, numOfThreads);
+		this.koblitzOrZpSize = koblitzOrZpSize;
+	}
+	
+	/**
+	 * A constructor that creates the native sender with communication abilities, using the result of previous base OTs.<p>
+	 * The base OT phase is not executed. Instead, the base OT keys in the given state are re-derived using the given session index.
+	 * The receiver should be created from its matching state with the same session index.
+	 * @param party An object that holds the ip address and port.
+	 * @param state The base OT state that was exported from a previous sender.
+	 * @param sessionIndex An index that was never used before with this state. 
+	 * @param numOfThreads
+	 * @throws IllegalArgumentException if the given state is not a sender's state.
+	 */
+	public OTSemiHonestExtensionSender(Party party, OTExtensionBaseOTState state, int sessionIndex, int numOfThreads){
+		if (!state.isSenderState()){
+			throw new IllegalArgumentException("the given state should be a state of the OT extension sender");
+		}
+		
+		// Create the sender by passing the local host address and the saved base OT values.
+		senderPtr = initOtSenderFromState(party.getIpAddress().getHostAddress(), party.getPort(), state.getKoblitzOrZpSize(), 
+				numOfThreads, state.getChoices(), state.getKeys(), sessionIndex);
+		this.koblitzOrZpSize = state.getKoblitzOrZpSize();
 	}
 	
 	/**
@@ -98,6 +149,18 @@ public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	public OTSemiHonestExtensionSender(Party party ){
 		// Create the sender by passing the local host address.
 		senderPtr = initOtSender(party.getIpAddress().getHostAddress(), party.getPort(), 163, 1);
+		this.koblitzOrZpSize = 163;
+	}
+	
+	/**
+	 * Returns the result of the base OTs used by this sender, so it can be used later to create a new sender without running the base OTs.<p>
+	 * The receiver should export its state at the same point of the session.
+	 * @return the base OT state of this sender.
+	 * @throws IllegalStateException if the sender was closed.
+	 */
+	public synchronized OTExtensionBaseOTState exportBaseOTState(){
+		checkNotClosed();
+		return new OTExtensionBaseOTState(koblitzOrZpSize, getBaseOTChoices(senderPtr), getBaseOTKeys(senderPtr));
 	}
 
 	/**
@@ -106,9 +169,11 @@ public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	 * @param channel Disregarded. This is ignored since the connection is done in the c++ code.
 	 * @param input The input for the sender specifying the version of the OT extension to run. 
 	 * Every call to the transfer function can run a different OT extension version.
+	 * @throws IllegalStateException if the sender was closed.
 	 */
-	public OTBatchSOutput transfer(Channel channel, OTBatchSInput input) {
+	public synchronized OTBatchSOutput transfer(Channel channel, OTBatchSInput input) {
 		
+		checkNotClosed();
 		int numOfOts;
 
 		// In case the given input is general input.
@@ -165,11 +230,94 @@ public class OTSemiHonestExtensionSender  implements SemiHonest, OTBatchSender{
 	}
 
 	/**
-	 * Deletes the native OT object.
+	 * Runs the given number of OTs in blocks of the given size.<p>
+	 * Before each block, the handler is asked to fill the inputs of the block (in the general and correlated versions). 
+	 * After each block, the handler gets the outputs of the block (in the correlated and random versions).
+	 * The buffers are allocated once, with the size of one block, and reused for all the blocks.<p>
+	 * The receiver should call the matching function with the same number of OTs, bit length and block size.
+	 * @param version The OT extension version to run.
+	 * @param numOfOts The total number of OTs.
+	 * @param bitLength The length of each x0, x1 in bits. Must be a multiple of 8.
+	 * @param blockSize The number of OTs in each block.
+	 * @param handler Fills the inputs and consumes the outputs of the blocks.
+	 * @throws IllegalArgumentException if the bit length is not a multiple of 8 or the block size is not positive.
+	 * @throws IllegalStateException if the sender was closed.
+	 */
+	public synchronized void transfer(OTExtensionVersion version, int numOfOts, int bitLength, int blockSize, OTExtensionSBlockHandler handler){
+		checkNotClosed();
+		if (bitLength <= 0 || bitLength % 8 != 0){
+			throw new IllegalArgumentException("bitLength should be a positive multiple of 8");
+		}
+		if (blockSize <= 0){
+			throw new IllegalArgumentException("blockSize should be positive");
+		}
+		
+		int elementSize = bitLength / 8;
+		int bufferSize = Math.min(blockSize, numOfOts) * elementSize;
+		ByteBuffer x0 = ByteBuffer.allocateDirect(bufferSize);
+		ByteBuffer x1 = ByteBuffer.allocateDirect(bufferSize);
+		ByteBuffer delta = (version == OTExtensionVersion.CORRELATED) ? ByteBuffer.allocateDirect(bufferSize) : null;
+		
+		for (int firstOt = 0; firstOt < numOfOts; firstOt += blockSize){
+			int otsInBlock = Math.min(blockSize, numOfOts - firstOt);
+			int blockBytes = otsInBlock * elementSize;
+			
+			//Get the inputs of the block.
+			if (version != OTExtensionVersion.RANDOM){
+				prepareBuffer(x0, blockBytes);
+				prepareBuffer(x1, blockBytes);
+				prepareBuffer(delta, blockBytes);
+				handler.fillInputs(firstOt, otsInBlock, x0, x1, delta);
+			}
+			
+			//Call the native function. In the correlated and random versions it fills x0 and x1.
+			runOtAsSenderOnBuffers(senderPtr, x0, x1, delta, otsInBlock, bitLength, version.getNativeName());
+			
+			//Hand over the outputs of the block.
+			if (version != OTExtensionVersion.GENERAL){
+				prepareBuffer(x0, blockBytes);
+				prepareBuffer(x1, blockBytes);
+				handler.consumeOutputs(firstOt, otsInBlock, x0, x1);
+			}
+		}
+	}
+	
+	/*
+	 * Sets the position of the given buffer to zero and its limit to the given size.
+	 */
+	private void prepareBuffer(ByteBuffer buffer, int size){
+		if (buffer != null){
+			buffer.clear();
+			buffer.limit(size);
+		}
+	}
+	
+	/**
+	 * Deletes the native OT object and closes its connections.<p>
+	 * After this function is called, the sender can not be used anymore. Calling this function more than once has no effect.
+	 */
+	public synchronized void close(){
+		if (senderPtr != 0){
+			//Delete from the dll the dynamic allocation of the sender.
+			deleteSender(senderPtr);
+			senderPtr = 0;
+		}
+	}
+	
+	/*
+	 * Throws IllegalStateException if the native sender was already deleted.
+	 */
+	private void checkNotClosed(){
+		if (senderPtr == 0){
+			throw new IllegalStateException("the OT extension sender was closed");
+		}
+	}
+	
+	/**
+	 * Deletes the native OT object, if it was not deleted by the close function.
 	 */
 	public void finalize() throws Throwable {
-		//Delete from the dll the dynamic allocation of the receiver.
-		deleteSender(senderPtr);
+		close();
 	}
 	
 	static {
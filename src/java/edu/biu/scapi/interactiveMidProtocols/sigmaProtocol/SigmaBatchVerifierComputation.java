@@ -0,0 +1,53 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+
+/**
+ * This interface is implemented by Sigma verifiers that can verify many proofs together. <p>
+ * Each proof is given as its common input, first message, challenge and second message, 
+ * so the proofs may come from different executions (for example, non-interactive proofs that each has its own challenge).<p>
+ * A batch verification is faster than verifying each proof separately, but its result is the same: 
+ * a proof is accepted only if the regular verify function would have accepted it.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public interface SigmaBatchVerifierComputation extends SigmaVerifierComputation {
+
+	/**
+	 * Verifies the given proofs. <p>
+	 * This function does not use or change the challenge of this verifier.
+	 * @param inputs the common inputs of the proofs.
+	 * @param a the first messages of the proofs.
+	 * @param challenges the challenges of the proofs.
+	 * @param z the second messages of the proofs.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length, or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z);
+}
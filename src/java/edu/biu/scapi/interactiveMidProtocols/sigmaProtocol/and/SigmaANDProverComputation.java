@@ -26,6 +26,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
@@ -33,6 +35,8 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -57,6 +61,7 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 	private int len;									// number of underlying provers.
 	private int t;										//Soundness parameter.
 	private SecureRandom random;
+	private ExecutorService executor;					//Used to compute the underlying provers in parallel. May be null.
 	
 	/**
 	 * Constructor that sets the underlying provers.
@@ -86,6 +91,17 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 		return t;
 	}
 
+	/**
+	 * Sets an executor that is used to compute the messages of the underlying provers in parallel.<p>
+	 * The messages are always ordered by the index of the underlying prover, so the output does not depend on the scheduling of the threads.
+	 * In order to use an executor, the underlying provers should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the underlying provers are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+
 	/**
 	 * Sets the inputs for each one of the underlying prover.
 	 * @param input MUST be an instance of SigmaANDProverInput.
@@ -116,17 +132,23 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 	public SigmaProtocolMsg computeFirstMsg(SigmaProverInput in) {
 		//Checks that the input is as expected.
 		checkInput(in);
-		ArrayList<SigmaProverInput> proversInput = ((SigmaANDProverInput) in).getInputs();
+		final ArrayList<SigmaProverInput> proversInput = ((SigmaANDProverInput) in).getInputs();
 		
 		//Create an array to hold all messages.
-		ArrayList<SigmaProtocolMsg> firstMessages = new ArrayList<SigmaProtocolMsg>();
+		final SigmaProtocolMsg[] firstMessages = new SigmaProtocolMsg[len];
+		
+		//Compute all first messages. If there is an executor, the messages are computed in parallel.
+		ParallelBatchExecution.execute(executor, len, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					firstMessages[i] = provers.get(i).computeFirstMsg(proversInput.get(i));
+				}
+			}
+		});
 		
-		//Compute all first messages and add them to the array list.
-		for (int i = 0; i < len; i++){
-			firstMessages.add(provers.get(i).computeFirstMsg(proversInput.get(i)));
-		}
 		//Create a SigmaMultipleMsg with the messages array.
-		return new SigmaMultipleMsg(firstMessages);
+		return new SigmaMultipleMsg(new ArrayList<SigmaProtocolMsg>(Arrays.asList(firstMessages)));
 		
 	}
 
@@ -137,17 +159,36 @@ public class SigmaANDProverComputation implements SigmaProverComputation{
 	 * @return SigmaMultipleMsg contains z1, , zm.
 	 * @throws CheatAttemptException if the received challenge's length is not equal to the soundness parameter.
 	 */
-	public SigmaProtocolMsg computeSecondMsg(byte[] challenge) throws CheatAttemptException {
+	public SigmaProtocolMsg computeSecondMsg(final byte[] challenge) throws CheatAttemptException {
 		
 		//Create an array to hold all messages.
-		ArrayList<SigmaProtocolMsg> secondMessages = new ArrayList<SigmaProtocolMsg>();
-		//Compute all second messages and add them to the array list.
+		final SigmaProtocolMsg[] secondMessages = new SigmaProtocolMsg[len];
+		//The exceptions thrown by the underlying provers, if any.
+		final CheatAttemptException[] failures = new CheatAttemptException[len];
+		
+		//Compute all second messages. If there is an executor, the messages are computed in parallel.
+		ParallelBatchExecution.execute(executor, len, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					try {
+						secondMessages[i] = provers.get(i).computeSecondMsg(challenge);
+					} catch (CheatAttemptException e) {
+						failures[i] = e;
+					}
+				}
+			}
+		});
+		
+		//Throw the exception of the first prover that failed.
 		for (int i = 0; i < len; i++){
-			secondMessages.add(provers.get(i).computeSecondMsg(challenge));
+			if (failures[i] != null){
+				throw failures[i];
+			}
 		}
 		
 		//Create a SigmaMultipleMsg with the messages array.
-		return new SigmaMultipleMsg(secondMessages);
+		return new SigmaMultipleMsg(new ArrayList<SigmaProtocolMsg>(Arrays.asList(secondMessages)));
 		
 	}
 	
@@ -26,11 +26,14 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation.<p>
@@ -56,6 +59,7 @@ public class SigmaANDVerifierComputation implements SigmaVerifierComputation{
 	private byte[] e;										//The challenge.
 	private int t;											//Soundness parameter.
 	private SecureRandom random;
+	private ExecutorService executor;						//Used to compute the underlying verifiers in parallel. May be null.
 	
 	/**
 	 * Constructor that gets the underlying verifiers.
@@ -87,6 +91,16 @@ public class SigmaANDVerifierComputation implements SigmaVerifierComputation{
 	}
 
 
+	/**
+	 * Sets an executor that is used to compute the checks of the underlying verifiers in parallel.<p>
+	 * In order to use an executor, the underlying verifiers should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the underlying verifiers are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+
 	/**
 	 * Sets the inputs for each one of the underlying verifier.
 	 * @param input MUST be an instance of SigmaANDCommonInput.
@@ -156,7 +170,7 @@ public class SigmaANDVerifierComputation implements SigmaVerifierComputation{
 	public boolean verify(SigmaCommonInput in, SigmaProtocolMsg a, SigmaProtocolMsg z) {
 		//Checks that the input is as expected.
 		checkInput(in);
-		ArrayList<SigmaCommonInput> verifiersInput = ((SigmaANDCommonInput) in).getInputs();
+		final ArrayList<SigmaCommonInput> verifiersInput = ((SigmaANDCommonInput) in).getInputs();
 		
 		boolean verified = true;
 		
@@ -169,12 +183,25 @@ public class SigmaANDVerifierComputation implements SigmaVerifierComputation{
 		}
 		SigmaMultipleMsg first = (SigmaMultipleMsg) a; 
 		SigmaMultipleMsg second = (SigmaMultipleMsg) z; 
-		ArrayList<SigmaProtocolMsg> firstMessages = first.getMessages();
-		ArrayList<SigmaProtocolMsg> secondMessages = second.getMessages();
+		final ArrayList<SigmaProtocolMsg> firstMessages = first.getMessages();
+		final ArrayList<SigmaProtocolMsg> secondMessages = second.getMessages();
 		
-		//Compute all verifier checks.
+		//Compute all verifier checks. If there is an executor, the checks are computed in parallel.
+		//Each chunk stops at its first failed check; the checks that were not computed stay false.
+		final boolean[] results = new boolean[len];
+		ParallelBatchExecution.execute(executor, len, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					results[i] = verifiers.get(i).verify(verifiersInput.get(i), firstMessages.get(i), secondMessages.get(i));
+					if (!results[i]){
+						break;
+					}
+				}
+			}
+		});
 		for (int i = 0; i < len; i++){
-			verified = verified && verifiers.get(i).verify(verifiersInput.get(i), firstMessages.get(i), secondMessages.get(i));
+			verified = verified && results[i];
 		}
 		
 		//Return true if all verifiers returned true; false, otherwise.
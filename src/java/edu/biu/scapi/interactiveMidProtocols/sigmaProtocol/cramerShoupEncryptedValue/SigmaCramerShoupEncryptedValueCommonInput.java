@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnGroupElementCiphertext;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -40,7 +42,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInput{
+public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 6613096710529810429L;
 	
@@ -90,5 +92,23 @@ public class SigmaCramerShoupEncryptedValueCommonInput implements SigmaCommonInp
         out.writeObject(publicKey.generateSendableData());
         out.writeObject(cipher.generateSendableData());
     }  
+
+	/**
+	 * Writes the label of this class, x, the public key and the ciphertext to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaCramerShoupEncryptedValueCommonInput");
+		transcript.appendGroupElement(x);
+		transcript.appendGroupElement(publicKey.getGenerator1());
+		transcript.appendGroupElement(publicKey.getGenerator2());
+		transcript.appendGroupElement(publicKey.getC());
+		transcript.appendGroupElement(publicKey.getD());
+		transcript.appendGroupElement(publicKey.getH());
+		transcript.appendGroupElement(cipher.getU1());
+		transcript.appendGroupElement(cipher.getU2());
+		transcript.appendGroupElement(cipher.getE());
+		transcript.appendGroupElement(cipher.getV());
+	}
 }
 
@@ -36,6 +36,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExt
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExtendedProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnGroupElementCiphertext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
@@ -92,6 +93,15 @@ public class SigmaCramerShoupEncryptedValueProverComputation implements SigmaPro
 		//Delegates the computation to the underlying Sigma DHExtended prover.
 		return sigmaDH.getSoundnessParam();
 	}
+
+	/**
+	 * Sets a pool of precomputed first messages for the underlying Sigma DHExtended prover.
+	 * @param pool the pool to use. May be null.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		//Delegates to the underlying Sigma DHExtended prover.
+		sigmaDH.setPrecomputationPool(pool);
+	}
 	
 	/**
 	 * Receives three byte arrays and calculates the hash function on their concatenation.
@@ -31,6 +31,7 @@ import java.util.ArrayList;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExtendedCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExtendedVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -53,7 +54,7 @@ import edu.biu.scapi.primitives.hash.CryptographicHash;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaCramerShoupEncryptedValueVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaCramerShoupEncryptedValueVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDHExtendedVerifier with:
@@ -159,6 +160,20 @@ public class SigmaCramerShoupEncryptedValueVerifierComputation implements SigmaV
 	 * @throws IllegalArgumentException if the second message of the prover is not an instance of SigmaBIMsg
 	 */
 	public boolean verify(SigmaCommonInput in, SigmaProtocolMsg a, SigmaProtocolMsg z) {
+		//Converts the input to the underlying verifier.
+		SigmaDHExtendedCommonInput underlyingInput = convertInput(in);
+		
+		//Delegates to the underlying Sigma DHExtended verifier.
+		return sigmaDH.verify(underlyingInput, a, z);
+	}
+	
+	/**
+	 * Converts the input for this verifier to the input of the underlying verifier.
+	 * @param in MUST be an instance of SigmaCramerShoupEncryptedValueCommonInput.
+	 * @return the converted input.
+	 * @throws IllegalArgumentException if input is not an instance of SigmaCramerShoupEncryptedValueCommonInput.
+	 */
+	private SigmaDHExtendedCommonInput convertInput(SigmaCommonInput in){
 		if (!(in instanceof SigmaCramerShoupEncryptedValueCommonInput)){
 			throw new IllegalArgumentException("the given input must be an instance of SigmaCramerShoupEncryptedValueCommonInput");
 		}
@@ -199,10 +214,23 @@ public class SigmaCramerShoupEncryptedValueVerifierComputation implements SigmaV
 		hArray.add(cipher.getV());			   //add h4 = v.
 		
 		//Create an input object to the underlying sigma DHExtended verifier.
-		SigmaDHExtendedCommonInput underlyingInput = new SigmaDHExtendedCommonInput(gArray, hArray);
-		
-		//Delegates to the underlying Sigma DHExtended verifier.
-		return sigmaDH.verify(underlyingInput, a, z);
+		return new SigmaDHExtendedCommonInput(gArray, hArray);
 	}
 
+	/**
+	 * Verifies the given proofs together.
+	 * @param inputs MUST be instances of SigmaCramerShoupEncryptedValueCommonInput.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaDHExtendedCommonInput[] underlyingInputs = new SigmaDHExtendedCommonInput[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			underlyingInputs[i] = convertInput(inputs[i]);
+		}
+		
+		//Delegates to the underlying verifier.
+		return sigmaDH.verifyBatch(underlyingInputs, a, challenges, z);
+	}
 }
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
 import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
@@ -39,7 +41,7 @@ import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDJEncryptedValueCommonInput implements SigmaCommonInput{
+public class SigmaDJEncryptedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = -5915961233248748044L;
 	
@@ -89,4 +91,15 @@ public class SigmaDJEncryptedValueCommonInput implements SigmaCommonInput{
         out.writeObject(cipher);
         out.writeObject(plaintext);
     } 
+
+	/**
+	 * Writes the label of this class, the public key, the ciphertext and the plaintext to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDJEncryptedValueCommonInput");
+		transcript.appendBigInteger(publicKey.getModulus());
+		transcript.appendBigInteger(cipher.getCipher());
+		transcript.appendBigInteger(plaintext.getX());
+	}
 }
@@ -43,6 +43,7 @@ public class SigmaDJEncryptedValueProverInput implements SigmaProverInput{
 	
 	private SigmaDJEncryptedValueCommonInput params;
 	private BigInteger r;
+	private DamgardJurikPrivateKey privateKey; //Used to speed up the computations of the prover. May be null.
 	
 	/**
 	 * Sets the given public key, ciphertext, plaintext and random value used to encrypt.
@@ -68,6 +69,7 @@ public class SigmaDJEncryptedValueProverInput implements SigmaProverInput{
 	 */
 	public SigmaDJEncryptedValueProverInput(DamgardJurikPublicKey publicKey, BigIntegerCiphertext cipher, BigIntegerPlainText plaintext, DamgardJurikPrivateKey privateKey){
 		params = new SigmaDJEncryptedValueCommonInput(publicKey, cipher, plaintext);
+		this.privateKey = privateKey;
 		//Calculate r from the given private key.
 		BigInteger p = privateKey.getP();
 		BigInteger q = privateKey.getQ();
@@ -90,6 +92,14 @@ public class SigmaDJEncryptedValueProverInput implements SigmaProverInput{
 		return r;
 	}
 
+	/**
+	 * Returns the private key, if it was given to the constructor.
+	 * @return the private key, or null if the input was created with the random value.
+	 */
+	public DamgardJurikPrivateKey getPrivateKey(){
+		return privateKey;
+	}
+
 	public SigmaDJEncryptedValueCommonInput getCommonParams() {
 		return params;
 	} 
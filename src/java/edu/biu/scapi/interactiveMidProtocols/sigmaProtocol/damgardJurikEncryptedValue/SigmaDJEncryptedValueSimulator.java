@@ -37,6 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulato
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
 import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 
 /**
  * Concrete implementation of Sigma Simulator.<p>
@@ -169,17 +170,14 @@ public class SigmaDJEncryptedValueSimulator implements SigmaSimulator{
 		
 		//Convert the cipher c to c' = c*(1+n)^(-x)
 		BigInteger n = pubKey.getModulus();
-		BigInteger nPlusOne = n.add(BigInteger.ONE);
+		DamgardJurikContext context = DamgardJurikContext.getInstance(n, lengthParameter);
 		
-		//calculate N' = n^(s+1).
-		BigInteger NTag = n.pow(lengthParameter + 1);
-		
-		//Calculate (n+1)^(-x)
+		//Calculate (n+1)^(-x) mod N'
 		BigInteger minusX = plaintext.getX().negate();
-		BigInteger multVal = nPlusOne.modPow(minusX, NTag);
+		BigInteger multVal = context.onePlusNPow(minusX);
 		
 		//Calculate the ciphertext for DamgardJurikEncryptedZero - c*(n+1)^(-x).
-		BigInteger newCipher = cipher.getCipher().multiply(multVal).mod(NTag);
+		BigInteger newCipher = context.multiply(cipher.getCipher(), multVal);
 		BigIntegerCiphertext cipherTag = new BigIntegerCiphertext(newCipher);
 		
 		//Create an input object to the underlying sigmaDamgardJurik simulator.
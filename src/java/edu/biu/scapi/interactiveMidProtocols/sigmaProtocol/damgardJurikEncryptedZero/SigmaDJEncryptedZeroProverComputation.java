@@ -37,6 +37,8 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPrivateKey;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -64,6 +66,8 @@ public class SigmaDJEncryptedZeroProverComputation implements SigmaProverComputa
 	private SigmaDJEncryptedZeroProverInput input;	// Contains public key n, ciphertext c and the random value used to encrypt.
 	private BigInteger n;							// Modulus.
 	private BigInteger s;							// The random value chosen in the protocol.
+	private DamgardJurikContext context;			// The arithmetic context of the current modulus.
+	private DamgardJurikContext crtContext;			// The last context that was created with a private key.
 	
 	/**
 	 * Constructor that gets the soundness parameter, length parameter and SecureRandom.
@@ -145,16 +149,13 @@ public class SigmaDJEncryptedZeroProverComputation implements SigmaProverComputa
 		
 		this.input = (SigmaDJEncryptedZeroProverInput) input;
 		n = modulus;
+		context = getContext(n, this.input.getPrivateKey());
 		
 		//Sample s in Z*n
 		s = BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random);
 		
-		//Calculate N = n^s and N' = n^(s+1)
-		BigInteger N = n.pow(lengthParameter);
-		BigInteger NTag = n.pow(lengthParameter + 1);
-		
-		//Compute a = s^N mod N'.
-		BigInteger a = s.modPow(N, NTag);
+		//Compute a = s^N mod N', where N = n^s and N' = n^(s+1).
+		BigInteger a = context.powN(s);
 		//Create and return SigmaBIMsg with a.
 		return new SigmaBIMsg(a);
 	}
@@ -175,7 +176,7 @@ public class SigmaDJEncryptedZeroProverComputation implements SigmaProverComputa
 		
 		//Compute z = (s*r^e) mod n
 		BigInteger e = new BigInteger(1, challenge);
-		BigInteger rToe = input.getR().modPow(e, n);
+		BigInteger rToe = context.modPowN(input.getR(), e);
 		BigInteger z = s.multiply(rToe).mod(n);
 		
 		//Delete the random value r
@@ -186,6 +187,22 @@ public class SigmaDJEncryptedZeroProverComputation implements SigmaProverComputa
 		
 	}
 	
+	/**
+	 * Returns the arithmetic context of the given modulus.
+	 * If the private key is given, the returned context uses the factorization of the modulus. This context is kept for the next proofs with the same key.
+	 * @param modulus the modulus of the public key.
+	 * @param privateKey the private key that matches the public key. May be null.
+	 */
+	private DamgardJurikContext getContext(BigInteger modulus, DamgardJurikPrivateKey privateKey){
+		if (privateKey == null){
+			return DamgardJurikContext.getInstance(modulus, lengthParameter);
+		}
+		if (crtContext == null || !crtContext.matches(modulus, lengthParameter)){
+			crtContext = new DamgardJurikContext(modulus, lengthParameter, privateKey.getP(), privateKey.getQ());
+		}
+		return crtContext;
+	}
+	
 	/**
 	 * Checks if the given challenge length is equal to the soundness parameter.
 	 * @return true if the challenge length is t; false, otherwise. 
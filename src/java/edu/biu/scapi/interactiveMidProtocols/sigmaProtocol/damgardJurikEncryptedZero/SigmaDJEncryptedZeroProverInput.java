@@ -42,6 +42,7 @@ public class SigmaDJEncryptedZeroProverInput implements SigmaProverInput{
 	
 	private SigmaDJEncryptedZeroCommonInput params;
 	private BigInteger r; //randomness used to encrypt.
+	private DamgardJurikPrivateKey privateKey; //Used to speed up the computations of the prover. May be null.
 	
 	/**
 	 * Sets the given public key, ciphertext and random value used to encrypt.
@@ -54,6 +55,20 @@ public class SigmaDJEncryptedZeroProverInput implements SigmaProverInput{
 		this.r = r;
 	}
 	
+	/**
+	 * Sets the given public key, ciphertext, random value used to encrypt and private key.
+	 * The private key is not needed to compute the proof, but the prover uses it to compute the exponentiations with the Chinese Remainder Theorem.
+	 * @param publicKey used to encrypt.
+	 * @param cipher encryption on the given plaintext.
+	 * @param r random value used to encrypt.
+	 * @param privateKey that matches the public key.
+	 */
+	public SigmaDJEncryptedZeroProverInput(DamgardJurikPublicKey publicKey, BigIntegerCiphertext cipher, BigInteger r, DamgardJurikPrivateKey privateKey){
+		params = new SigmaDJEncryptedZeroCommonInput(publicKey, cipher);
+		this.r = r;
+		this.privateKey = privateKey;
+	}
+	
 	/**
 	 * This protocol assumes that the prover knows the randomness used to encrypt.
 	 * If the prover knows the secret key, then it can compute (once) the value m=n^(-1) mod phi(n)=n^(-1) mod (p-1)(q-1). 
@@ -65,6 +80,7 @@ public class SigmaDJEncryptedZeroProverInput implements SigmaProverInput{
 	 */
 	public SigmaDJEncryptedZeroProverInput(DamgardJurikPublicKey publicKey, BigIntegerCiphertext cipher, DamgardJurikPrivateKey privateKey){
 		params = new SigmaDJEncryptedZeroCommonInput(publicKey, cipher);
+		this.privateKey = privateKey;
 		
 		//Calculate r from the given private key.
 		BigInteger p = privateKey.getP();
@@ -88,6 +104,14 @@ public class SigmaDJEncryptedZeroProverInput implements SigmaProverInput{
 		return r;
 	}
 
+	/**
+	 * Returns the private key, if it was given to the constructor.
+	 * @return the private key, or null if the input was created with the random value.
+	 */
+	public DamgardJurikPrivateKey getPrivateKey(){
+		return privateKey;
+	}
+
 	@Override
 	public SigmaDJEncryptedZeroCommonInput getCommonParams() {
 		return params;
@@ -35,6 +35,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 
 /**
  * Concrete implementation of Sigma Simulator.<P>
@@ -128,16 +129,15 @@ public class SigmaDJEncryptedZeroSimulator implements SigmaSimulator{
 		//Sample a random value z <- Z*n
 		BigInteger z = BigIntegers.createRandomInRange(BigInteger.ONE, n.subtract(BigInteger.ONE), random);
 		
-		//Calculate N = n^s and N' = n^(s+1)
-		BigInteger N = n.pow(lengthParameter);
-		BigInteger NTag = n.pow(lengthParameter + 1);
+		//Get the arithmetic context of n, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = DamgardJurikContext.getInstance(n, lengthParameter);
 		BigInteger e = new BigInteger(1, challenge);
 		
 		//Compute a = z^N/c^e mod N
-		BigInteger zToN = z.modPow(N, NTag);
-		BigInteger denominator = djInput.getCiphertext().getCipher().modPow(e, NTag);
-		BigInteger denomInv = denominator.modInverse(NTag);
-		BigInteger a = zToN.multiply(denomInv).mod(NTag);
+		BigInteger zToN = context.powN(z);
+		BigInteger denominator = context.modPow(djInput.getCiphertext().getCipher(), e);
+		BigInteger denomInv = context.inverse(denominator);
+		BigInteger a = context.multiply(zToN, denomInv);
 		
 		//Output (a,e,z).
 		return new SigmaDJEncryptedZeroSimulatorOutput(new SigmaBIMsg(a), challenge, new SigmaBIMsg(z));
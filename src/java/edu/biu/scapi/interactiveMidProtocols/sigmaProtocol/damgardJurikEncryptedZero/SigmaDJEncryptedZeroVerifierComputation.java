@@ -33,6 +33,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputat
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation. <p>
@@ -183,18 +184,17 @@ public class SigmaDJEncryptedZeroVerifierComputation implements SigmaVerifierCom
 		//If c is not relatively prime to n, set verified to false.
 		verified = verified && (c.gcd(n).equals(BigInteger.ONE));
 				
-		//Calculate N = n^s and N' = n^(s+1)
-		BigInteger N = n.pow(lengthParameter);
-		BigInteger NTag = n.pow(lengthParameter + 1);
+		//Get the arithmetic context of n, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = DamgardJurikContext.getInstance(n, lengthParameter);
 		
 		//Calculate z^N mod N' (left side of the equation).
-		BigInteger left = zBI.modPow(N, NTag);
+		BigInteger left = context.powN(zBI);
 		
 		//Calculate (a*c^e) mod N (left side of the equation).
 		//Convert e to BigInteger.
 		BigInteger eBI = new BigInteger(1, e);
-		BigInteger cToe = c.modPow(eBI, NTag);
-		BigInteger right = aBI.multiply(cToe).mod(NTag);
+		BigInteger cToe = context.modPow(c, eBI);
+		BigInteger right = context.multiply(aBI, cToe);
 		
 		//If left and right sides of the equation are not equal, set verified to false.
 		verified = verified && left.equals(right);
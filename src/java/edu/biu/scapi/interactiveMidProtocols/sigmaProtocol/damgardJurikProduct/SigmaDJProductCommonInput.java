@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
 
@@ -38,7 +40,7 @@ import edu.biu.scapi.midLayer.ciphertext.BigIntegerCiphertext;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDJProductCommonInput implements SigmaCommonInput{
+public class SigmaDJProductCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 2474346914281126954L;
 	
@@ -100,4 +102,16 @@ public class SigmaDJProductCommonInput implements SigmaCommonInput{
         out.writeObject(cipher2);
         out.writeObject(cipher3);
     } 
+
+	/**
+	 * Writes the label of this class, the public key and the three ciphertexts to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDJProductCommonInput");
+		transcript.appendBigInteger(publicKey.getModulus());
+		transcript.appendBigInteger(cipher1.getCipher());
+		transcript.appendBigInteger(cipher2.getCipher());
+		transcript.appendBigInteger(cipher3.getCipher());
+	}
 }
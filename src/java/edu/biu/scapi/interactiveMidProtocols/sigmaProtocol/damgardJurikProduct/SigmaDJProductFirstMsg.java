@@ -24,9 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct;
 
+import java.io.IOException;
 import java.math.BigInteger;
 
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +41,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDJProductFirstMsg implements SigmaProtocolMsg{
+public class SigmaDJProductFirstMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 
 	
 	private static final long serialVersionUID = -8299363939635996180L;
@@ -54,4 +60,35 @@ class SigmaDJProductFirstMsg implements SigmaProtocolMsg{
 	BigInteger getA2(){
 		return a2;
 	}
+
+	/**
+	 * Writes the label of this class, a1 and a2 to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDJProductFirstMsg");
+		transcript.appendBigInteger(a1);
+		transcript.appendBigInteger(a2);
+	}
+
+	/**
+	 * Writes a1 and a2 to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeBigInteger(a1);
+		out.writeBigInteger(a2);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaDJProductFirstMsg readFrom(SigmaMsgInput in) throws IOException {
+		BigInteger a1 = in.readBigInteger();
+		BigInteger a2 = in.readBigInteger();
+		return new SigmaDJProductFirstMsg(a1, a2);
+	}
 }
@@ -36,6 +36,8 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputatio
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPrivateKey;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -62,6 +64,8 @@ public class SigmaDJProductProverComputation implements SigmaProverComputation,
 	private BigInteger n;						// Modulus
 	private BigInteger N, NTag;					// N = n^lengthParameter and N' = n^(lengthParameter+1).
 	private BigInteger d, rd, rdb;				// The random value chosen in the protocol.
+	private DamgardJurikContext context;		// The arithmetic context of the current modulus.
+	private DamgardJurikContext crtContext;		// The last context that was created with a private key.
 	
 	/**
 	 * Constructor that gets the soundness parameter, length parameter and SecureRandom.
@@ -125,10 +129,10 @@ public class SigmaDJProductProverComputation implements SigmaProverComputation,
 		this.input = (SigmaDJProductProverInput) input;
 		n = modulus;
 		
-		//Calculate N = n^s and N' = n^(s+1)
-		N = n.pow(lengthParameter);
-		NTag = n.pow(lengthParameter + 1);
-
+		//Get the arithmetic context of n, that holds N = n^s and N' = n^(s+1).
+		context = getContext(n, this.input.getPrivateKey());
+		N = context.getNToS();
+		NTag = context.getNToSPlusOne();
 		
 	}
 	
@@ -172,20 +176,18 @@ public class SigmaDJProductProverComputation implements SigmaProverComputation,
 		
 		sampleRandomValues();
 				
-		//Calculate 1+n
-		BigInteger nPlusOne = n.add(BigInteger.ONE);
 		//Calculate (1+n)^d
-		BigInteger nPlusOneToD = nPlusOne.modPow(d, NTag);
+		BigInteger nPlusOneToD = context.onePlusNPow(d);
 		//Calculate rd^N
-		BigInteger rdToN = rd.modPow(N, NTag);
+		BigInteger rdToN = context.powN(rd);
 		//Calculate a1=(1+n)^d*rd^N mod N
 		BigInteger a1 = nPlusOneToD.multiply(rdToN).mod(NTag);
 		
 		//Calculate (1+n)^(d*x2)
 		BigInteger exponent = d.multiply(((SigmaDJProductProverInput) input).getX2().getX());
-		BigInteger nPlusOnePow = nPlusOne.modPow(exponent, NTag);
+		BigInteger nPlusOnePow = context.onePlusNPow(exponent);
 		//Calculate rdb^N
-		BigInteger rdbToN = rdb.modPow(N, NTag);
+		BigInteger rdbToN = context.powN(rdb);
 		//Calculate a2 = ((1+n)^(d*x2))*(rdb^N) mod N
 		BigInteger a2 = nPlusOnePow.multiply(rdbToN).mod(NTag);
 		
@@ -214,12 +216,12 @@ public class SigmaDJProductProverComputation implements SigmaProverComputation,
 		BigInteger z1 = ex1.add(d).mod(N);
 		
 		//Compute z2 = r1^e*rd mod n
-		BigInteger r1Toe = input.getR1().modPow(e, n);
+		BigInteger r1Toe = context.modPowN(input.getR1(), e);
 		BigInteger z2 = r1Toe.multiply(rd).mod(n);
 		
 		//Compute z3=(r2^z1)/(rdb*r3^e) mod n
-		BigInteger numerator = input.getR2().modPow(z1, n);
-		BigInteger r3ToE = input.getR3().modPow(e, n);
+		BigInteger numerator = context.modPowN(input.getR2(), z1);
+		BigInteger r3ToE = context.modPowN(input.getR3(), e);
 		BigInteger denominator = rdb.multiply(r3ToE);
 		BigInteger denominatorInv = denominator.modInverse(n);
 		BigInteger z3 = numerator.multiply(denominatorInv).mod(n);
@@ -234,6 +236,22 @@ public class SigmaDJProductProverComputation implements SigmaProverComputation,
 		
 	}
 	
+	/**
+	 * Returns the arithmetic context of the given modulus.
+	 * If the private key is given, the returned context uses the factorization of the modulus. This context is kept for the next proofs with the same key.
+	 * @param modulus the modulus of the public key.
+	 * @param privateKey the private key that matches the public key. May be null.
+	 */
+	private DamgardJurikContext getContext(BigInteger modulus, DamgardJurikPrivateKey privateKey){
+		if (privateKey == null){
+			return DamgardJurikContext.getInstance(modulus, lengthParameter);
+		}
+		if (crtContext == null || !crtContext.matches(modulus, lengthParameter)){
+			crtContext = new DamgardJurikContext(modulus, lengthParameter, privateKey.getP(), privateKey.getQ());
+		}
+		return crtContext;
+	}
+	
 	/**
 	 * Checks if the given challenge length is equal to the soundness parameter.
 	 * @return true if the challenge length is t; false, otherwise. 
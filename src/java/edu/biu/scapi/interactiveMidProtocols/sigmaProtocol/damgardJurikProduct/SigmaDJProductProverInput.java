@@ -47,6 +47,7 @@ public class SigmaDJProductProverInput implements SigmaProverInput{
 	private BigInteger r3;
 	private BigIntegerPlainText x1;
 	private BigIntegerPlainText x2;
+	private DamgardJurikPrivateKey privateKey; //Used to speed up the computations of the prover. May be null.
 	
 	/**
 	 * Sets the given public key, three ciphertexts, three random values, and two plaintexts.
@@ -90,6 +91,7 @@ public class SigmaDJProductProverInput implements SigmaProverInput{
 		params = new SigmaDJProductCommonInput(publicKey, c1, c2, c3);
 		this.x1 = x1;
 		this.x2 = x2;
+		this.privateKey = privateKey;
 		
 		//Calculate r from the given private key.
 		BigInteger p = privateKey.getP();
@@ -130,6 +132,14 @@ public class SigmaDJProductProverInput implements SigmaProverInput{
 	public BigInteger getR3(){
 		return r3;
 	}
+
+	/**
+	 * Returns the private key, if it was given to the constructor.
+	 * @return the private key, or null if the input was created with the random value.
+	 */
+	public DamgardJurikPrivateKey getPrivateKey(){
+		return privateKey;
+	}
 	
 	/**
 	 * Returns the first plaintext. 
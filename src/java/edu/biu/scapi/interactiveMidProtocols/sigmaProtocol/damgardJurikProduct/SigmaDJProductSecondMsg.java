@@ -24,9 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct;
 
+import java.io.IOException;
 import java.math.BigInteger;
 
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +41,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDJProductSecondMsg implements SigmaProtocolMsg{
+public class SigmaDJProductSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 	
 	private static final long serialVersionUID = -8437524435815994178L;
 	
@@ -61,4 +67,38 @@ class SigmaDJProductSecondMsg implements SigmaProtocolMsg{
 		return z3;
 	}
 
+
+	/**
+	 * Writes the label of this class, z1, z2 and z3 to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDJProductSecondMsg");
+		transcript.appendBigInteger(z1);
+		transcript.appendBigInteger(z2);
+		transcript.appendBigInteger(z3);
+	}
+
+	/**
+	 * Writes z1, z2 and z3 to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeBigInteger(z1);
+		out.writeBigInteger(z2);
+		out.writeBigInteger(z3);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaDJProductSecondMsg readFrom(SigmaMsgInput in) throws IOException {
+		BigInteger z1 = in.readBigInteger();
+		BigInteger z2 = in.readBigInteger();
+		BigInteger z3 = in.readBigInteger();
+		return new SigmaDJProductSecondMsg(z1, z2, z3);
+	}
 }
@@ -34,6 +34,7 @@ import edu.biu.scapi.generals.ScapiDefaultConfiguration;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 
 /**
  * Concrete implementation of Sigma Simulator.<p>
@@ -133,9 +134,9 @@ public class SigmaDJProductSimulator implements SigmaSimulator{
 			throw new IllegalArgumentException("t must be less than a third of the length of the public key n");
 		}
 		
-		//Calculate N = n^s and N' = n^(s+1)
-		BigInteger N = n.pow(lengthParameter);
-		BigInteger NTag = n.pow(lengthParameter + 1);
+		//Get the arithmetic context of n, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = DamgardJurikContext.getInstance(n, lengthParameter);
+		BigInteger N = context.getNToS();
 		
 		//Sample a random value z1 <- ZN
 		BigInteger z1 = BigIntegers.createRandomInRange(BigInteger.ZERO, N.subtract(BigInteger.ONE), random);
@@ -148,21 +149,20 @@ public class SigmaDJProductSimulator implements SigmaSimulator{
 		BigInteger e = new BigInteger(1, challenge);
 		
 		//Compute a1 = (1+n)^z1*(z2^N/c1^e) mod N
-		BigInteger nPlusOne = n.add(BigInteger.ONE);
-		BigInteger leftMul = nPlusOne.modPow(z1, NTag);
-		BigInteger z2ToN = z2.modPow(N, NTag);
-		BigInteger denom = djInput.getC1().getCipher().modPow(e, NTag);
-		BigInteger denomInv = denom.modInverse(NTag);
-		BigInteger rightMul = z2ToN.multiply(denomInv).mod(NTag);
-		BigInteger a1 = leftMul.multiply(rightMul).mod(NTag);
+		BigInteger leftMul = context.onePlusNPow(z1);
+		BigInteger z2ToN = context.powN(z2);
+		BigInteger denom = context.modPow(djInput.getC1().getCipher(), e);
+		BigInteger denomInv = context.inverse(denom);
+		BigInteger rightMul = context.multiply(z2ToN, denomInv);
+		BigInteger a1 = context.multiply(leftMul, rightMul);
 		
 		//Compute a2 = c2^z1/(z3^N*c3^e) mod N
-		BigInteger c2ToZ1 = djInput.getC2().getCipher().modPow(z1, NTag);
-		BigInteger z3ToN = z3.modPow(N, NTag);
-		BigInteger c3ToE = djInput.getC3().getCipher().modPow(e, NTag);
-		denom = c3ToE.multiply(z3ToN).mod(NTag);
-		denomInv = denom.modInverse(NTag);
-		BigInteger a2 = c2ToZ1.multiply(denomInv).mod(NTag);
+		BigInteger c2ToZ1 = context.modPow(djInput.getC2().getCipher(), z1);
+		BigInteger z3ToN = context.powN(z3);
+		BigInteger c3ToE = context.modPow(djInput.getC3().getCipher(), e);
+		denom = context.multiply(c3ToE, z3ToN);
+		denomInv = context.inverse(denom);
+		BigInteger a2 = context.multiply(c2ToZ1, denomInv);
 		
 		//Output (a,e,z).
 		return new SigmaDJProductSimulatorOutput(new SigmaDJProductFirstMsg(a1, a2), challenge, new SigmaDJProductSecondMsg(z1, z2, z3));
@@ -32,6 +32,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DJBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation. <p>
@@ -205,29 +206,28 @@ public class SigmaDJProductVerifierComputation implements SigmaVerifierComputati
 		//If one of the values is not relatively prime to n, set verified to false.
 		verified = verified && areRelativelyPrime(n, c1, c2, a1, a2, z1, z2, z3);
 		
-		//Calculate N = n^s and N' = n^(s+1)
-		BigInteger N = n.pow(lengthParameter);
-		BigInteger NTag = n.pow(lengthParameter + 1);
+		//Get the arithmetic context of n, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = DamgardJurikContext.getInstance(n, lengthParameter);
 		//Convert e to BigInteger.
 		BigInteger eBI = new BigInteger(1, e);
 		
 		//Check that c1^e*a1 = (1+n)^z1*z2^N mod N 
-		BigInteger c1ToE = c1.modPow(eBI, NTag);
-		BigInteger left = c1ToE.multiply(a1).mod(NTag);
-		BigInteger nPlusOneToZ1 = n.add(BigInteger.ONE).modPow(z1, NTag);
-		BigInteger z2ToN = z2.modPow(N, NTag);
-		BigInteger right = nPlusOneToZ1.multiply(z2ToN).mod(NTag);
+		BigInteger c1ToE = context.modPow(c1, eBI);
+		BigInteger left = context.multiply(c1ToE, a1);
+		BigInteger nPlusOneToZ1 = context.onePlusNPow(z1);
+		BigInteger z2ToN = context.powN(z2);
+		BigInteger right = context.multiply(nPlusOneToZ1, z2ToN);
 		
 		//If left and right sides of the equation are not equal, set verified to false.
 		verified = verified && left.equals(right);
 		
 		//Check that (c2^z1)/(a2*c3^e) = z3^N mod N
-		BigInteger numerator = c2.modPow(z1, NTag);
-		BigInteger c3ToE = c3.modPow(eBI, NTag);
-		BigInteger denominator = a2.multiply(c3ToE).mod(NTag);
-		BigInteger denominatorInv = denominator.modInverse(NTag);
-		left = numerator.multiply(denominatorInv).mod(NTag);
-		right = z3.modPow(N, NTag);
+		BigInteger numerator = context.modPow(c2, z1);
+		BigInteger c3ToE = context.modPow(c3, eBI);
+		BigInteger denominator = context.multiply(a2, c3ToE);
+		BigInteger denominatorInv = context.inverse(denominator);
+		left = context.multiply(numerator, denominatorInv);
+		right = context.powN(z3);
 		
 		//If left and right sides of the equation are not equal, set verified to false.
 		verified = verified && left.equals(right);
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -37,7 +39,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHCommonInput implements SigmaCommonInput{
+public class SigmaDHCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 9103075048136551008L;
 	private GroupElement h;
@@ -74,4 +76,15 @@ public class SigmaDHCommonInput implements SigmaCommonInput{
         out.writeObject(u.generateSendableData());
         out.writeObject(v.generateSendableData());
     }  
+
+	/**
+	 * Writes the label of this class, h, u and v to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDHCommonInput");
+		transcript.appendGroupElement(h);
+		transcript.appendGroupElement(u);
+		transcript.appendGroupElement(v);
+	}
 }
@@ -24,7 +24,14 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh;
 
+import java.io.IOException;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
@@ -34,7 +41,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDHMsg implements SigmaProtocolMsg {
+public class SigmaDHMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable {
 
 	private static final long serialVersionUID = 1208840175220495797L;
 	
@@ -53,4 +60,35 @@ class SigmaDHMsg implements SigmaProtocolMsg {
 	GroupElementSendableData getB(){
 		return b;
 	}
+
+	/**
+	 * Writes the label of this class, a and b to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDHMsg");
+		transcript.appendGroupElement(a);
+		transcript.appendGroupElement(b);
+	}
+
+	/**
+	 * Writes a and b to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeGroupElement(a);
+		out.writeGroupElement(b);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaDHMsg readFrom(SigmaMsgInput in) throws IOException {
+		GroupElementSendableData a = in.readGroupElement();
+		GroupElementSendableData b = in.readGroupElement();
+		return new SigmaDHMsg(a, b);
+	}
 }
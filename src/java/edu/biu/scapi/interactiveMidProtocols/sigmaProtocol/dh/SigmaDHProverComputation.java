@@ -36,6 +36,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -65,6 +66,7 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 	private SigmaDHProverInput input;	// Contains h, u, v and w. 
 	private BigInteger r;				// The value chosen in the protocol.
 	private BigInteger qMinusOne;
+	private SigmaFirstMessagePool pool;	// Precomputed first messages. May be null.
 	
 	/**
 	 * Constructor that gets the underlying DlogGroup, soundness parameter and SecureRandom.
@@ -111,6 +113,15 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 		return t;
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages. If the pool matches the group and the bases of the proof (the bases g and h, in this order), 
+	 * computeFirstMsg takes r and the powers of the bases from the pool instead of computing them.
+	 * @param pool the pool to use. If null, the first message is computed in computeFirstMsg.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		this.pool = pool;
+	}
+
 	/**
 	 * Computes the first message of the protocol.<p>
 	 * "SAMPLE a random r in Zq<p>
@@ -125,13 +136,23 @@ public class SigmaDHProverComputation implements SigmaProverComputation, DlogBas
 		}
 		this.input = (SigmaDHProverInput) input;
 		
-		//Sample random r in Zq
-		r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
-		
-		//Compute a = g^r.
-		GroupElement a = dlog.exponentiate(dlog.getGenerator(), r);
-		//Compute b = h^r.
-		GroupElement b = dlog.exponentiate(this.input.getCommonParams().getH(), r);
+		GroupElement h = this.input.getCommonParams().getH();
+		GroupElement a, b;
+		if (pool != null && pool.matches(dlog, dlog.getGenerator(), h)){
+			//Take r, a = g^r and b = h^r from the pool.
+			SigmaFirstMessagePool.Entry entry = pool.take();
+			r = entry.getR();
+			a = entry.getPower(0);
+			b = entry.getPower(1);
+		} else {
+			//Sample random r in Zq
+			r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+			
+			//Compute a = g^r.
+			a = dlog.exponentiate(dlog.getGenerator(), r);
+			//Compute b = h^r.
+			b = dlog.exponentiate(h, r);
+		}
 		//Create and return SigmaDHMsg with a and b.
 		return new SigmaDHMsg(a.generateSendableData(), b.generateSendableData());
 	}
@@ -30,9 +30,11 @@ import java.security.SecureRandom;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchEquations;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -46,7 +48,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaDHVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 	
 	/*	
 	  This class computes the following calculations:
@@ -202,4 +204,61 @@ public class SigmaDHVerifierComputation implements SigmaVerifierComputation, Dlo
 		//Return true if all checks returned true; false, otherwise.
 		return verified;
 	}
+
+	/**
+	 * Verifies the given proofs together.<p>
+	 * For each proof, the equations "g^z = au^e" and "h^z = bv^e" are checked as part of one combined equation with random weights. 
+	 * The membership of each h is still checked separately. The other elements of the equations must also be members of the group, so a proof 
+	 * with an element that is not a member is verified separately. If the combined equation does not hold, each proof is verified separately.
+	 * @param inputs MUST be instances of SigmaDHCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaDHMsg.
+	 * @param challenges the challenges of the proofs.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchEquations.checkBatchLengths(inputs, a, challenges, z);
+		boolean[] results = new boolean[inputs.length];
+		//Proofs that should be verified separately, since one of their elements is not a member of the group.
+		boolean[] separately = new boolean[inputs.length];
+		SigmaDlogBatchEquations equations = new SigmaDlogBatchEquations(dlog, random);
+		GroupElement g = dlog.getGenerator();
+		
+		for (int i = 0; i < inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaDHCommonInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaDHCommonInput");
+			}
+			if (!(a[i] instanceof SigmaDHMsg)){
+				throw new IllegalArgumentException("first message must be an instance of SigmaDHMsg");
+			}
+			if (!(z[i] instanceof SigmaBIMsg)){
+				throw new IllegalArgumentException("second message must be an instance of SigmaBIMsg");
+			}
+			SigmaDHCommonInput dhInput = (SigmaDHCommonInput) inputs[i];
+			
+			//If h is not member in the group, the proof is not verified.
+			GroupElement h = dhInput.getH();
+			if (!equations.isMember(h)){
+				continue;
+			}
+			SigmaDHMsg firstMsg = (SigmaDHMsg) a[i];
+			GroupElement aElement = dlog.reconstructElement(true, firstMsg.getA());
+			GroupElement bElement = dlog.reconstructElement(true, firstMsg.getB());
+			if (!equations.areMembers(dhInput.getU(), dhInput.getV(), aElement, bElement)){
+				separately[i] = true;
+				continue;
+			}
+			BigInteger minusZ = ((SigmaBIMsg) z[i]).getMsg().negate();
+			BigInteger eBI = new BigInteger(1, challenges[i]);
+			
+			//Add the equations a * u^e * g^(-z) = 1 and b * v^e * h^(-z) = 1.
+			equations.addEquation(new GroupElement[]{aElement, dhInput.getU(), g}, new BigInteger[]{BigInteger.ONE, eBI, minusZ});
+			equations.addEquation(new GroupElement[]{bElement, dhInput.getV(), h}, new BigInteger[]{BigInteger.ONE, eBI, minusZ});
+			results[i] = true;
+		}
+		
+		SigmaDlogBatchEquations.completeBatch(equations, this, inputs, a, challenges, z, results, separately);
+		return results;
+	}
 }
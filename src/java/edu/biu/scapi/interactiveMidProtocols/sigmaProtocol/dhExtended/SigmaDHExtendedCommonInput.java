@@ -29,6 +29,8 @@ import java.io.ObjectOutputStream;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -38,7 +40,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHExtendedCommonInput implements SigmaCommonInput{
+public class SigmaDHExtendedCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = 2595300376835152550L;
 	private ArrayList<GroupElement> gArray;
@@ -73,4 +75,20 @@ public class SigmaDHExtendedCommonInput implements SigmaCommonInput{
 			out.writeObject(hArray.get(i).generateSendableData());
 		}
     }  
+
+	/**
+	 * Writes the label of this class, the g and h arrays to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDHExtendedCommonInput");
+		transcript.appendInt(gArray.size());
+		for (int i = 0; i < gArray.size(); i++){
+			transcript.appendGroupElement(gArray.get(i));
+		}
+		transcript.appendInt(hArray.size());
+		for (int i = 0; i < hArray.size(); i++){
+			transcript.appendGroupElement(hArray.get(i));
+		}
+	}
 }
@@ -24,9 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
@@ -36,7 +42,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaDHExtendedMsg implements SigmaProtocolMsg {
+public class SigmaDHExtendedMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable {
 
 	private static final long serialVersionUID = 3688239370237225167L;
 	
@@ -50,4 +56,42 @@ class SigmaDHExtendedMsg implements SigmaProtocolMsg {
 		return aArray;
 	} 
 
+
+	/**
+	 * Writes the label of this class and the a array to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaDHExtendedMsg");
+		transcript.appendInt(aArray.size());
+		for (int i = 0; i < aArray.size(); i++){
+			transcript.appendGroupElement(aArray.get(i));
+		}
+	}
+
+	/**
+	 * Writes the a array to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeCount(aArray.size());
+		for (int i = 0; i < aArray.size(); i++){
+			out.writeGroupElement(aArray.get(i));
+		}
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaDHExtendedMsg readFrom(SigmaMsgInput in) throws IOException {
+		int size = in.readCount();
+		ArrayList<GroupElementSendableData> aArray = new ArrayList<GroupElementSendableData>(size);
+		for (int i = 0; i < size; i++){
+			aArray.add(in.readGroupElement());
+		}
+		return new SigmaDHExtendedMsg(aArray);
+	}
 }
@@ -37,6 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
@@ -65,6 +66,7 @@ public class SigmaDHExtendedProverComputation implements SigmaProverComputation,
 	protected SecureRandom random;
 	private SigmaDHExtendedProverInput input;	// Contains g and h arrays and w. 
 	private BigInteger r;						// The value chosen in the protocol.
+	private SigmaFirstMessagePool pool;			// Precomputed first messages. May be null.
 	
 	/**
 	 * Constructor that gets the underlying DlogGroup, soundness parameter and SecureRandom.
@@ -110,6 +112,15 @@ public class SigmaDHExtendedProverComputation implements SigmaProverComputation,
 		return t;
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages. If the pool matches the group and the bases of the proof (the bases g1,...,gm, in this order), 
+	 * computeFirstMsg takes r and the powers of the bases from the pool instead of computing them.
+	 * @param pool the pool to use. If null, the first message is computed in computeFirstMsg.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		this.pool = pool;
+	}
+
 	/**
 	 * Computes the first message of the protocol.<p>
 	 * "SAMPLE a random r in Zq<p>
@@ -130,19 +141,28 @@ public class SigmaDHExtendedProverComputation implements SigmaProverComputation,
 		}
 		this.input = dhInput;
 		
-		//Sample random r in Zq
-		BigInteger qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
-		r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
-		
 		//get g array from the input.
 		ArrayList<GroupElement> gArray = params.getGArray();
 		ArrayList<GroupElementSendableData> aArray = new ArrayList<GroupElementSendableData>();
 		int len = gArray.size();
 		
-		for (int i=0; i<len; i++){
-			//Compute ai = gi^r.
-			GroupElement a = dlog.exponentiate(gArray.get(i), r);
-			aArray.add(a.generateSendableData());
+		if (pool != null && pool.matches(dlog, gArray.toArray(new GroupElement[len]))){
+			//Take r and ai = gi^r for all i from the pool.
+			SigmaFirstMessagePool.Entry entry = pool.take();
+			r = entry.getR();
+			for (int i=0; i<len; i++){
+				aArray.add(entry.getPower(i).generateSendableData());
+			}
+		} else {
+			//Sample random r in Zq
+			BigInteger qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+			r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+			
+			for (int i=0; i<len; i++){
+				//Compute ai = gi^r.
+				GroupElement a = dlog.exponentiate(gArray.get(i), r);
+				aArray.add(a.generateSendableData());
+			}
 		}
 		
 		
@@ -31,9 +31,11 @@ import java.util.ArrayList;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchEquations;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
@@ -49,7 +51,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaDHExtendedVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaDHExtendedVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class computes the following calculations:
@@ -218,4 +220,78 @@ public class SigmaDHExtendedVerifierComputation implements SigmaVerifierComputat
 		//Return true if all checks returned true; false, otherwise.
 		return verified;
 	}
+
+	/**
+	 * Verifies the given proofs together.<p>
+	 * For each proof, the equations "gi^z = ai*hi^e" are checked as part of one combined equation with random weights. 
+	 * The membership of each gi is still checked separately. The hi and ai must also be members of the group, so a proof 
+	 * with an element that is not a member is verified separately. If the combined equation does not hold, each proof is verified separately.
+	 * @param inputs MUST be instances of SigmaDHExtendedCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaDHExtendedMsg.
+	 * @param challenges the challenges of the proofs.
+	 * @param z second messages from the prover. MUST be instances of SigmaBIMsg.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchEquations.checkBatchLengths(inputs, a, challenges, z);
+		boolean[] results = new boolean[inputs.length];
+		//Proofs that should be verified separately, since their first message does not match the input size or 
+		//one of their elements is not a member of the group.
+		boolean[] separately = new boolean[inputs.length];
+		SigmaDlogBatchEquations equations = new SigmaDlogBatchEquations(dlog, random);
+		
+		for (int i = 0; i < inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaDHExtendedCommonInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaDHExtendedCommonInput");
+			}
+			if (!(a[i] instanceof SigmaDHExtendedMsg)){
+				throw new IllegalArgumentException("first message must be an instance of SigmaDHExtendedMsg");
+			}
+			if (!(z[i] instanceof SigmaBIMsg)){
+				throw new IllegalArgumentException("second message must be an instance of SigmaBIMsg");
+			}
+			SigmaDHExtendedCommonInput dhInput = (SigmaDHExtendedCommonInput) inputs[i];
+			ArrayList<GroupElement> gArray = dhInput.getGArray();
+			ArrayList<GroupElement> hArray = dhInput.getHArray();
+			if (gArray.size() != hArray.size()){
+				throw new IllegalArgumentException("the given g and h array are not in the same size");
+			}
+			ArrayList<GroupElementSendableData> aArray = ((SigmaDHExtendedMsg) a[i]).getArray();
+			int len = gArray.size();
+			
+			//If one of the gi is not member in the group, the proof is not verified.
+			boolean members = true;
+			for (int j = 0; j < len; j++){
+				members = members && equations.isMember(gArray.get(j));
+			}
+			if (!members){
+				continue;
+			}
+			if (aArray.size() != len){
+				separately[i] = true;
+				continue;
+			}
+			GroupElement[] aElements = new GroupElement[len];
+			for (int j = 0; j < len; j++){
+				aElements[j] = dlog.reconstructElement(true, aArray.get(j));
+				members = members && equations.isMember(hArray.get(j)) && equations.isMember(aElements[j]);
+			}
+			if (!members){
+				separately[i] = true;
+				continue;
+			}
+			BigInteger minusZ = ((SigmaBIMsg) z[i]).getMsg().negate();
+			BigInteger eBI = new BigInteger(1, challenges[i]);
+			
+			//Add the equations ai * hi^e * gi^(-z) = 1.
+			for (int j = 0; j < len; j++){
+				equations.addEquation(new GroupElement[]{aElements[j], hArray.get(j), gArray.get(j)}, new BigInteger[]{BigInteger.ONE, eBI, minusZ});
+			}
+			results[i] = true;
+		}
+		
+		SigmaDlogBatchEquations.completeBatch(equations, this, inputs, a, challenges, z, results, separately);
+		return results;
+	}
 }
@@ -37,6 +37,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBIMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -64,6 +65,7 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 	private SigmaDlogProverInput input;	// Contains h and w.
 	private BigInteger r;				// The value chosen in the protocol.
 	private BigInteger qMinusOne;
+	private SigmaFirstMessagePool pool;	// Precomputed first messages. May be null.
 	
 	/**
 	 * Constructor that gets the underlying DlogGroup, soundness parameter and SecureRandom.
@@ -109,6 +111,15 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 		return t;
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages. If the pool matches the group and the bases of the proof (the base g), 
+	 * computeFirstMsg takes r and the powers of the bases from the pool instead of computing them.
+	 * @param pool the pool to use. If null, the first message is computed in computeFirstMsg.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		this.pool = pool;
+	}
+
 	/**
 	 * Computes the first message from the protocol.<p>
 	 * "SAMPLE a random r in Zq<p>
@@ -124,11 +135,19 @@ public class SigmaDlogProverComputation implements SigmaProverComputation, DlogB
 		}
 		this.input = (SigmaDlogProverInput) input;
 		
-		//Sample random r in Zq
-		r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
-		
-		//Compute a = g^r.
-		GroupElement a = dlog.exponentiate(dlog.getGenerator(), r);
+		GroupElement a;
+		if (pool != null && pool.matches(dlog, dlog.getGenerator())){
+			//Take r and a = g^r from the pool.
+			SigmaFirstMessagePool.Entry entry = pool.take();
+			r = entry.getR();
+			a = entry.getPower(0);
+		} else {
+			//Sample random r in Zq
+			r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+			
+			//Compute a = g^r.
+			a = dlog.exponentiate(dlog.getGenerator(), r);
+		}
 		//Create and return SigmaGroupElementMsg with a.
 		return new SigmaGroupElementMsg(a.generateSendableData());
 	}
@@ -29,6 +29,7 @@ import java.security.SecureRandom;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -46,7 +47,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDlogVerifier with:
@@ -137,4 +138,20 @@ public class SigmaElGamalCmtKnowledgeVerifierComputation implements SigmaVerifie
 		return sigmaDlog.verify(input, a, z);
 	}
 
+	/**
+	 * Verifies the given proofs together.
+	 * @param inputs MUST be instances of SigmaElGamalCmtKnowledgeCommonInput.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaDlogCommonInput[] underlyingInputs = new SigmaDlogCommonInput[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			underlyingInputs[i] = convertInput(inputs[i]);
+		}
+		
+		//Delegates to the underlying verifier.
+		return sigmaDlog.verifyBatch(underlyingInputs, a, challenges, z);
+	}
 }
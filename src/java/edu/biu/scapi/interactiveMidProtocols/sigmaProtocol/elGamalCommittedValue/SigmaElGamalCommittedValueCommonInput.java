@@ -28,8 +28,12 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalCiphertextSendableData;
+import edu.biu.scapi.midLayer.ciphertext.ElGamalOnByteArrayCiphertext.ElGamalOnByteArraySendableData;
+import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext.ElGamalOnGrElSendableData;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -40,7 +44,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput{
+public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 7108469354272702947L;
 	private ElGamalPublicKey publicKey;
@@ -88,4 +92,23 @@ public class SigmaElGamalCommittedValueCommonInput implements SigmaCommonInput{
 		out.writeObject(commitment);  
 		out.writeObject(x.generateSendableData());  
     }  
+
+	/**
+	 * Writes the label of this class, the public key, the commitment and x to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaElGamalCommittedValueCommonInput");
+		transcript.appendGroupElement(publicKey.getH());
+		if (commitment instanceof ElGamalOnGrElSendableData){
+			transcript.appendGroupElement(((ElGamalOnGrElSendableData) commitment).getCipher1());
+			transcript.appendGroupElement(((ElGamalOnGrElSendableData) commitment).getCipher2());
+		} else if (commitment instanceof ElGamalOnByteArraySendableData){
+			transcript.appendGroupElement(((ElGamalOnByteArraySendableData) commitment).getCipher1());
+			transcript.appendBytes(((ElGamalOnByteArraySendableData) commitment).getCipher2());
+		} else {
+			transcript.appendObject(commitment);
+		}
+		transcript.appendGroupElement(x);
+	}
 }
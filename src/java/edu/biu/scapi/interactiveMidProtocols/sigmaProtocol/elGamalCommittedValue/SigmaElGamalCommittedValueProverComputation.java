@@ -34,6 +34,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverCompu
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext.ElGamalOnGrElSendableData;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -83,6 +84,15 @@ public class SigmaElGamalCommittedValueProverComputation implements SigmaProverC
 		return sigmaDH.getSoundnessParam();
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages for the underlying Sigma DH prover.
+	 * @param pool the pool to use. May be null.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		//Delegates to the underlying Sigma DH prover.
+		sigmaDH.setPrecomputationPool(pool);
+	}
+
 
 	/**
 	 * Converts the input for this Sigma protocol to the underlying protocol.
@@ -29,6 +29,7 @@ import java.security.SecureRandom;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -47,7 +48,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalCommittedValueVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaElGamalCommittedValueVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDHVerifier with:
@@ -152,4 +153,20 @@ public class SigmaElGamalCommittedValueVerifierComputation implements SigmaVerif
 		return sigmaDH.verify(input, a, z);
 	}
 
+	/**
+	 * Verifies the given proofs together.
+	 * @param inputs MUST be instances of SigmaElGamalCommittedValueCommonInput.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaDHCommonInput[] underlyingInputs = new SigmaDHCommonInput[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			underlyingInputs[i] = convertInput(inputs[i]);
+		}
+		
+		//Delegates to the underlying verifier.
+		return sigmaDH.verifyBatch(underlyingInputs, a, challenges, z);
+	}
 }
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.midLayer.ciphertext.ElGamalOnGroupElementCiphertext;
 import edu.biu.scapi.primitives.dlog.GroupElement;
@@ -42,7 +44,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput{
+public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 3937743510337152514L;
 	private boolean isRandomness;
@@ -106,4 +108,17 @@ public class SigmaElGamalEncryptedValueCommonInput implements SigmaCommonInput{
     }  
 
 	
+
+	/**
+	 * Writes the label of this class, the randomness flag, x, the public key and the ciphertext to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaElGamalEncryptedValueCommonInput");
+		transcript.appendInt(isRandomness ? 1 : 0);
+		transcript.appendGroupElement(x);
+		transcript.appendGroupElement(publicKey.getH());
+		transcript.appendGroupElement(cipher.getC1());
+		transcript.appendGroupElement(cipher.getC2());
+	}
 }
@@ -35,6 +35,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverCompu
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -90,6 +91,15 @@ public class SigmaElGamalEncryptedValueProverComputation implements SigmaProverC
 		return sigmaDH.getSoundnessParam();
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages for the underlying Sigma DH prover.
+	 * @param pool the pool to use. May be null.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		//Delegates to the underlying Sigma DH prover.
+		sigmaDH.setPrecomputationPool(pool);
+	}
+
 	/**
 	 * Converts the input for the underlying Sigma protocol.
 	 * There are two versions of this protocol, depending upon if the prover knows the secret key or it knows the randomness used to generate the ciphertext.
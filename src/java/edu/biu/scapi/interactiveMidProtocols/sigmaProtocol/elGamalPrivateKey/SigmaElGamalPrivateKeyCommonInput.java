@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 
 /**
@@ -37,7 +39,7 @@ import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalPrivateKeyCommonInput implements SigmaCommonInput{
+public class SigmaElGamalPrivateKeyCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = -7005455199829785734L;
 	private ElGamalPublicKey publicKey;
@@ -63,4 +65,13 @@ public class SigmaElGamalPrivateKeyCommonInput implements SigmaCommonInput{
 		out.writeObject(publicKey.generateSendableData());  
 		
     }  
+
+	/**
+	 * Writes the label of this class and the public key to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaElGamalPrivateKeyCommonInput");
+		transcript.appendGroupElement(publicKey.getH());
+	}
 }
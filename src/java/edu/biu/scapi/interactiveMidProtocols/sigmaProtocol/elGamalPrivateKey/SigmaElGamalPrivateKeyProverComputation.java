@@ -34,6 +34,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverC
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 
 /**
@@ -78,6 +79,15 @@ public class SigmaElGamalPrivateKeyProverComputation implements SigmaProverCompu
 		return sigmaDlog.getSoundnessParam();
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages for the underlying Sigma Dlog prover.
+	 * @param pool the pool to use. May be null.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		//Delegates to the underlying Sigma Dlog prover.
+		sigmaDlog.setPrecomputationPool(pool);
+	}
+
 	/**
 	 * Computes the first message of the protocol.
 	 * @param input MUST be an instance of SigmaElGamalPrivateKeyProverInput.
@@ -29,6 +29,7 @@ import java.security.SecureRandom;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
@@ -45,7 +46,7 @@ import edu.biu.scapi.primitives.dlog.DlogGroup;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 
 	/*	
 	  This class uses an instance of SigmaDlogVerifier with:
@@ -115,16 +116,41 @@ public class SigmaElGamalPrivateKeyVerifierComputation implements SigmaVerifierC
 	 * @throws IllegalArgumentException if the second message of the prover is not an instance of SigmaBIMsg
 	 */
 	public boolean verify(SigmaCommonInput in, SigmaProtocolMsg a, SigmaProtocolMsg z) {
+		//Create an input object to the underlying sigma dlog verifier.
+		SigmaDlogCommonInput underlyingInput = convertInput(in);
+		
+		return sigmaDlog.verify(underlyingInput, a, z);
+	}
+	
+	/**
+	 * Converts the input for this verifier to the input of the underlying verifier.
+	 * @param in MUST be an instance of SigmaElGamalPrivateKeyCommonInput.
+	 * @return the converted input.
+	 * @throws IllegalArgumentException if input is not an instance of SigmaElGamalPrivateKeyCommonInput.
+	 */
+	private SigmaDlogCommonInput convertInput(SigmaCommonInput in){
 		if (!(in instanceof SigmaElGamalPrivateKeyCommonInput)){
 			throw new IllegalArgumentException("the given input must be an instance of SigmaElGamalPrivateKeyCommonInput");
 		}
 		SigmaElGamalPrivateKeyCommonInput input = (SigmaElGamalPrivateKeyCommonInput) in;
 		
-		//Create an input object to the underlying sigma dlog verifier.
-		SigmaDlogCommonInput underlyingInput = new SigmaDlogCommonInput(input.getPublicKey().getH());
+		return new SigmaDlogCommonInput(input.getPublicKey().getH());
+	}
+
+	/**
+	 * Verifies the given proofs together.
+	 * @param inputs MUST be instances of SigmaElGamalPrivateKeyCommonInput.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		//Converts the inputs to the underlying verifier.
+		SigmaDlogCommonInput[] underlyingInputs = new SigmaDlogCommonInput[inputs.length];
+		for (int i = 0; i < inputs.length; i++){
+			underlyingInputs[i] = convertInput(inputs[i]);
+		}
 		
-		return sigmaDlog.verify(underlyingInput, a, z);
+		//Delegates to the underlying verifier.
+		return sigmaDlog.verifyBatch(underlyingInputs, a, challenges, z);
 	}
-	
-	
 }
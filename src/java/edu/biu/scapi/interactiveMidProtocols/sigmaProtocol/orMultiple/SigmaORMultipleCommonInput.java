@@ -27,6 +27,8 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 import java.util.ArrayList;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol input, used by the SigmaProtocolORMultiple verifier and simulator.<p>
@@ -36,7 +38,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaORMultipleCommonInput implements SigmaCommonInput{
+public class SigmaORMultipleCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 8647728161639616389L;
 	private ArrayList<SigmaCommonInput> sigmaInputs;
@@ -68,4 +70,17 @@ public class SigmaORMultipleCommonInput implements SigmaCommonInput{
 		return k;
 	}
 
+
+	/**
+	 * Writes the label of this class, k and the inputs of the underlying sigma protocols to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaORMultipleCommonInput");
+		transcript.appendInt(k);
+		transcript.appendInt(sigmaInputs.size());
+		for (int i = 0; i < sigmaInputs.size(); i++){
+			transcript.appendObject(sigmaInputs.get(i));
+		}
+	}
 }
@@ -26,8 +26,10 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Enumeration;
 import java.util.Hashtable;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
@@ -37,6 +39,9 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultiple
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
+import edu.biu.scapi.tools.math.GF2EField;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -81,26 +86,8 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 	private Hashtable<Integer, SigmaSimulatorOutput> simulatorsOutput;	// We save this because we calculate it in computeFirstMsg and using 
 																	// it after that, in computeSecondMsg
 	
-	private long[] fieldElements;								//Will hold pointers to the sampled field elements, 
-																//we save the pointers to save the creation of the elements again in computeSecondMsg function.
-	
-	//Initializes the field GF2E with a random irreducible polynomial with degree t.
-	private native void initField(int t, int seed);
-	
-	//Creates random field elements to be the challenges.
-	private native byte[][] createRandomFieldElements(int numElements, long[] fieldElements);
-	
-	//Interpolates the points to get a polynomial.
-	private native long interpolate(byte[] e, long[] fieldElements, int[] indexes);
-	
-	//Calculates the challenges for the statements with the witnesses.
-	private native byte[][] getRestChallenges(long polynomial, int[] indexesInI);
-	
-	//Returns the byteArray of the polynomial coefficients.
-	private native byte[][] getPolynomialBytes(long polynomial);
-	
-	//Deletes the allocated memory of the polynomial and the field elements.
-	private native void deletePointers(long polynomial, long[] fieldElements);
+	private GF2EField field;									// The field GF[2^t] of the challenges.
+	private ExecutorService executor;							//Used to run the underlying provers and simulators in parallel. May be null.
 	
 	/**
 	 * Constructor that gets the underlying provers.
@@ -130,8 +117,8 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		len = k + simulators.size();
 		this.t = t; 
 		this.random = random;
-		//Initialize the field GF2E with a random irreducible polynomial with degree t.
-		initField(t, random.nextInt());
+		//Create the field GF[2^t].
+		field = new GF2EField(t);
 	}
 
 	/**
@@ -142,6 +129,17 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		return t;
 	}
 
+	/**
+	 * Sets an executor that is used to run the underlying provers and simulators in parallel.<p>
+	 * The messages are always ordered by the index of the statement, so the output does not depend on the scheduling of the threads.
+	 * In order to use an executor, the underlying provers and simulators should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the underlying provers and simulators are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
 	/**
 	 * Sets the inputs for each one of the underlying prover.
 	 * @param input MUST be an instance of SigmaORMultipleProverInput.
@@ -164,36 +162,6 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		
 	}
 
-	/**
-	 * Align the given array to t length. Adds zeros in the beginning.
-	 * @param array to align
-	 * @return the aligned array.
-	 */
-	private byte[] alignToT(byte[] array) {
-		byte[] alignArr = new byte[t/8];
-		int len = array.length;
-		//in case the array is not aligned, add zeros.
-		if (len < t/8){
-			int diff = t/8 - len; //Number of bytes to fill with zeros.
-			int index = 0;
-			// NTL converts byte array to polynomial in the following way:
-			// x = sum(p[i]*X^(8*i), i = 0..n-1)
-			// This means that the most left byte in the array is the first degree of the polynomial.
-			// So, copy the original array content to the left side of the new array.
-			for (int i=0; i<len; i++){
-				alignArr[index++] = array[i];
-			}
-			//Add zeros in the right side of the array
-			for (int i=0; i<diff; i++){
-				alignArr[index++] = 0;
-			}
-		} else{
-			alignArr = array;
-		}
-		return alignArr;
-		
-	}
-
 	/**
 	 * Computes the first message of the protocol.<p>
 	 * "For every j not in I, SAMPLE a random element ej <- GF[2^t]<p>
@@ -208,50 +176,46 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 	public SigmaProtocolMsg computeFirstMsg(SigmaProverInput in) {
 		//Check the given input.
 		checkInput(in);
-		Hashtable<Integer, SigmaProverInput> proversInput = input.getProversInput();
-		Hashtable<Integer, SigmaCommonInput> simulatorsInput = input.getSimulatorsInput();
+		final Hashtable<Integer, SigmaProverInput> proversInput = input.getProversInput();
+		final Hashtable<Integer, SigmaCommonInput> simulatorsInput = input.getSimulatorsInput();
 		
-		//Sample random values for this protocol.
-		fieldElements = new long[len - k];
-		//For every j not in I, sample a random element ej <- GF[2^t]. We sample the random elements in one native call.
-		byte[][] ejs = createRandomFieldElements(len - k, fieldElements);
-		int index = 0;
+		//For every j not in I, sample a random element ej <- GF[2^t].
 		challenges = new byte[len][];
-		
-		//Set the created challenges to the challenges array in the empty indexes.
 		for (int i=0; i<len; i++){
 			if (simulators.get(i) != null){
-				//in case that the sample element's length is not t, add zeros to its beginning.
-				challenges[i] = alignToT(ejs[index]);
-				index++; //increase the index of the sampled challenges array.
+				challenges[i] = field.toBytes(field.random(random));
 			}
 		}
 		
 		//Create an array to hold all messages.
-		ArrayList<SigmaProtocolMsg> firstMessages = new ArrayList<SigmaProtocolMsg>();
+		final SigmaProtocolMsg[] firstMessages = new SigmaProtocolMsg[len];
 		//Create an array to hold all simaultor's outputs.
 		simulatorsOutput = new Hashtable<Integer, SigmaSimulatorOutput>();
-		SigmaSimulatorOutput output;
-		//Compute all first messages and add them to the array list.
-		for (int i = 0; i < len; i++){
-			SigmaProverComputation prover = provers.get(i);
+		//Compute all first messages. If there is an executor, the messages are computed in parallel.
+		ParallelBatchExecution.execute(executor, len, new BatchTask() {
 			
-			//If i in I, call the underlying computeFirstMsg.
-			if (prover != null){
-				firstMessages.add(prover.computeFirstMsg(proversInput.get(i)));
-			//If i not in I, run the simulator for xi.
-			} else{
-				try {
-					output = simulators.get(i).simulate(simulatorsInput.get(i), challenges[i]);
-					firstMessages.add(output.getA());
-					simulatorsOutput.put(i, output);
-				} catch (CheatAttemptException e) {
-					// This exception will not be thrown because the length of the challenges is valid.
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					SigmaProverComputation prover = provers.get(i);
+					
+					//If i in I, call the underlying computeFirstMsg.
+					if (prover != null){
+						firstMessages[i] = prover.computeFirstMsg(proversInput.get(i));
+					//If i not in I, run the simulator for xi.
+					} else{
+						try {
+							SigmaSimulatorOutput output = simulators.get(i).simulate(simulatorsInput.get(i), challenges[i]);
+							firstMessages[i] = output.getA();
+							simulatorsOutput.put(i, output);
+						} catch (CheatAttemptException e) {
+							// This exception will not be thrown because the length of the challenges is valid.
+						}
+					}
 				}
 			}
-		}
+		});
 		//Create a SigmaMultipleMsg with the messages array.
-		return new SigmaMultipleMsg(firstMessages);
+		return new SigmaMultipleMsg(new ArrayList<SigmaProtocolMsg>(Arrays.asList(firstMessages)));
 		
 	}
 
@@ -266,54 +230,74 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 	 * @throws CheatAttemptException if the received challenge's length is not equal to the soundness parameter.
 	 */
 	public SigmaProtocolMsg computeSecondMsg(byte[] challenge) throws CheatAttemptException {
-		//Create two arrays of indexes. These arrays used to calculate the interpolated polynomial.
-		int[] indexesNotInI= new int[len - k];
-		int[] indexesInI= new int[k];
-		int indexNotInI = 0;
-		int indexInI = 0;
-		//Fill the arrays with the indexes.
+		//If the challenge's length is not t, throw exception.
+		if (challenge.length != t/8){
+			throw new CheatAttemptException("the length of the given challenge is differ from the soundness parameter");
+		}
+		
+		//Create the points (0,e) and {(j,ej)} for every j NOT in I. The index i+1 is used for statement i because Q(0) = e.
+		long[][] xs = new long[len - k + 1][];
+		long[][] ys = new long[len - k + 1][];
+		xs[0] = field.zero();
+		ys[0] = field.fromBytes(challenge);
+		int index = 1;
 		for (int i = 0; i < len; i++){
-			if (provers.get(i) != null){ //prover i has a witness
-				indexesInI[indexInI++] = i+1; //i+1 because Q(0) = e.
-			} else {
-				indexesNotInI[indexNotInI++] = i+1;
+			if (provers.get(i) == null){
+				xs[index] = field.fromIndex(i+1);
+				ys[index++] = field.fromBytes(challenges[i]);
 			}
 		}
-		//Interpolate the points (0,e) and {(j,ej)} for every j NOT in I to obtain a degree n-k polynomial Q.
-		long polynomial = interpolate(challenge, fieldElements, indexesNotInI);
+		//Interpolate the points to obtain a degree n-k polynomial Q.
+		long[][] polynomial = field.interpolate(xs, ys);
 		
 		//Get the rest of the challenges by computing for every i in I, ei = Q(i).
-		byte[][] jsInI = getRestChallenges(polynomial, indexesInI);
-		int index = 0;
 		for(int i=0; i<len; i++){
 			if (provers.get(i) != null){
-				challenges[i] = alignToT(jsInI[index++]);
+				challenges[i] = field.toBytes(field.evaluate(polynomial, field.fromIndex(i+1)));
 			}
 		}
 		
 		//Create an array to hold all messages.
-		ArrayList<SigmaProtocolMsg> secondMessages = new ArrayList<SigmaProtocolMsg>();
+		final SigmaProtocolMsg[] secondMessages = new SigmaProtocolMsg[len];
+		//The exceptions thrown by the underlying provers, if any.
+		final CheatAttemptException[] failures = new CheatAttemptException[len];
+		
+		//Compute all second messages. If there is an executor, the messages are computed in parallel.
+		ParallelBatchExecution.execute(executor, len, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					SigmaProverComputation prover = provers.get(i);
+					//If i in I, call the underlying computeSecondMsg.
+					if (prover != null){	
+						try {
+							secondMessages[i] = prover.computeSecondMsg(challenges[i]);
+						} catch (CheatAttemptException e) {
+							failures[i] = e;
+						}
+					//If i not in I, get z from the simulator output for xi.
+					} else{
+						secondMessages[i] = simulatorsOutput.get(i).getZ();
+					}
+				}
+			}
+		});
 		
-		//Compute all second messages and add them to the array list.
+		//Throw the exception of the first prover that failed.
 		for (int i = 0; i < len; i++){
-			SigmaProverComputation prover = provers.get(i);
-			//If i in I, call the underlying computeSecondMsg.
-			if (prover != null){	
-				secondMessages.add(prover.computeSecondMsg(challenges[i]));
-			//If i not in I, get z from the simulator output for xi.
-			} else{
-				secondMessages.add(simulatorsOutput.get(i).getZ());
+			if (failures[i] != null){
+				throw failures[i];
 			}
 		}
 		
-		//Get the byte array that represent the polynomial
-		byte[][] polynomBytes = getPolynomialBytes(polynomial);
-		
-		//Delete the allocated memory of the polynomial and the field elements.
-		deletePointers(polynomial, fieldElements);
+		//Get the byte arrays that represent the coefficients of the polynomial.
+		byte[][] polynomBytes = new byte[field.degree(polynomial) + 1][];
+		for (int i = 0; i < polynomBytes.length; i++){
+			polynomBytes[i] = field.toBytes(polynomial[i]);
+		}
 		
 		//Create a SigmaORMultipleSecondMsg with the messages array.
-		return new SigmaORMultipleSecondMsg(polynomBytes, secondMessages, challenges);
+		return new SigmaORMultipleSecondMsg(polynomBytes, new ArrayList<SigmaProtocolMsg>(Arrays.asList(secondMessages)), challenges);
 		
 	}
 	
@@ -329,11 +313,4 @@ public class SigmaORMultipleProverComputation implements SigmaProverComputation{
 		return new SigmaORMultipleSimulator(simulators, t, random);
 	}
 
-	
-	static {
-		 
-		 //load the NTL jni dll
-		 System.loadLibrary("NTLJavaInterface");
-	}
-
 }
@@ -24,9 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -37,7 +43,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaORMultipleSecondMsg implements SigmaProtocolMsg {
+public class SigmaORMultipleSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable {
 	
 	private static final long serialVersionUID = -348217363547929670L;
 	
@@ -63,4 +69,66 @@ class SigmaORMultipleSecondMsg implements SigmaProtocolMsg {
 		return challenges;
 	}
 	
+
+	/**
+	 * Writes the label of this class, the polynomial, the z messages and the challenges to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaORMultipleSecondMsg");
+		transcript.appendInt(polynomial.length);
+		for (int i = 0; i < polynomial.length; i++){
+			transcript.appendBytes(polynomial[i]);
+		}
+		transcript.appendInt(z.size());
+		for (int i = 0; i < z.size(); i++){
+			transcript.appendObject(z.get(i));
+		}
+		transcript.appendInt(challenges.length);
+		for (int i = 0; i < challenges.length; i++){
+			transcript.appendBytes(challenges[i]);
+		}
+	}
+
+	/**
+	 * Writes the polynomial, the z messages and the challenges to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeCount(polynomial.length);
+		for (int i = 0; i < polynomial.length; i++){
+			out.writeBytes(polynomial[i]);
+		}
+		out.writeCount(z.size());
+		for (int i = 0; i < z.size(); i++){
+			out.writeMessage(z.get(i));
+		}
+		out.writeCount(challenges.length);
+		for (int i = 0; i < challenges.length; i++){
+			out.writeBytes(challenges[i]);
+		}
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaORMultipleSecondMsg readFrom(SigmaMsgInput in) throws IOException {
+		byte[][] polynomial = new byte[in.readCount()][];
+		for (int i = 0; i < polynomial.length; i++){
+			polynomial[i] = in.readBytes();
+		}
+		int size = in.readCount();
+		ArrayList<SigmaProtocolMsg> z = new ArrayList<SigmaProtocolMsg>(size);
+		for (int i = 0; i < size; i++){
+			z.add(in.readMessage());
+		}
+		byte[][] challenges = new byte[in.readCount()][];
+		for (int i = 0; i < challenges.length; i++){
+			challenges[i] = in.readBytes();
+		}
+		return new SigmaORMultipleSecondMsg(polynomial, z, challenges);
+	}
 }
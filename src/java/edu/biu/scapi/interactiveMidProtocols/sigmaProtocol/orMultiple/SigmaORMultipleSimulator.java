@@ -33,6 +33,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.tools.math.GF2EField;
 
 /**
  * Concrete implementation of Sigma Simulator.<p>
@@ -59,24 +60,7 @@ public class SigmaORMultipleSimulator implements SigmaSimulator{
 	private int t;									// Soundness parameter.
 	private SecureRandom random;
 	int len;										// Number of underlying simulators.
-	
-	//Initializes the field GF2E with a random irreducible polynomial with degree t.
-	private native void initField(int t, int seed);
-	
-	//Creates random field elements to be the challenges.
-	private native byte[][] createRandomFieldElements(int numElements, long[] fieldElements);
-	
-	//Interpolates the points to get a polynomial.
-	private native long interpolate(byte[] e, long[] fieldElements, int[] indexesNotInI);
-	
-	//Calculates the challenges for the statements with the witnesses.
-	private native byte[][] getRestChallenges(long polynomial, int start, int end, int[] indexesInI);
-	
-	//Returns the byteArray of the polynomial coefficients.
-	private native byte[][] getPolynomialBytes(long polynomial);
-	
-	//Deletes the allocated memory of the polynomial and the field elements.
-	private native void deletePointers(long polynomial, long[] fieldElements);
+	private GF2EField field;						// The field GF[2^t] of the challenges.
 	
 	/**
 	 * Constructor that gets the underlying simulators.
@@ -95,8 +79,9 @@ public class SigmaORMultipleSimulator implements SigmaSimulator{
 		}
 		this.simulators = simulators;
 		this.t = t; 
-		//Initialize the field GF2E with a random irreducible polynomial with degree t.
-		initField(t, random.nextInt());
+		this.random = random;
+		//Create the field GF[2^t].
+		field = new GF2EField(t);
 	}
 
 	/**
@@ -126,37 +111,24 @@ public class SigmaORMultipleSimulator implements SigmaSimulator{
 		SigmaORMultipleCommonInput orInput = (SigmaORMultipleCommonInput) input;
 		
 		int nMinusK = len - orInput.getK();
-		long[] fieldElements = new long[nMinusK];
-		//For every j = 1 to n-k, sample a random element ej <- GF[2^t]. We sample the random elements in one native call.
-		byte[][] ejs = createRandomFieldElements(nMinusK, fieldElements);
-
 		byte[][] challenges = new byte[len][];
 		
-		//Set the created challenges to the challenges array in the first n-k indexes.
+		//Create the points (0,e) and {(j,ej)} for every j = 1 to n-k, where ej <- GF[2^t] is sampled randomly. 
+		long[][] xs = new long[nMinusK + 1][];
+		long[][] ys = new long[nMinusK + 1][];
+		xs[0] = field.zero();
+		ys[0] = field.fromBytes(challenge);
 		for (int i=0; i<nMinusK; i++){
-			challenges[i] = alignToT(ejs[i]);
-		}
-		
-		//Create two arrays of indexes. These arrays used for calculate the interpolated polynomial.
-		int[] indexesNotInI= new int[nMinusK];
-		int[] indexesInI= new int[orInput.getK()];
-		int indexNotInI = 0;
-		int indexInI = 0;
-		//Fill the arrays with the indexes.
-		for (int i = 0; i < len; i++){
-			if (i<len-orInput.getK()){
-				indexesNotInI[indexNotInI++] = i+1; //i+1 because Q(0) = e.
-			} else {
-				indexesInI[indexInI++] = i+1;
-			}
+			xs[i+1] = field.fromIndex(i+1); //i+1 because Q(0) = e.
+			ys[i+1] = field.random(random);
+			challenges[i] = field.toBytes(ys[i+1]);
 		}
-		//Interpolate the points (0,e) and {(j,ej)} for every j=1 to n-k to obtain a degree n-k polynomial Q.
-		long polynomial = interpolate(challenge, fieldElements, indexesNotInI);
+		//Interpolate the points to obtain a degree n-k polynomial Q.
+		long[][] polynomial = field.interpolate(xs, ys);
 				
 		//Get the rest of the challenges by computing for every i = n-k+1 to n, ei = Q(i).
-		byte[][] jsInI = getRestChallenges(polynomial, nMinusK, len, indexesInI);
-		for(int i=nMinusK, j=0; i<len; i++, j++){
-			challenges[i] = alignToT(jsInI[j]);
+		for(int i=nMinusK; i<len; i++){
+			challenges[i] = field.toBytes(field.evaluate(polynomial, field.fromIndex(i+1)));
 		}
 		
 		ArrayList<SigmaProtocolMsg> aOutputs = new ArrayList<SigmaProtocolMsg>();
@@ -176,46 +148,16 @@ public class SigmaORMultipleSimulator implements SigmaSimulator{
 		}
 		
 		//prepare the input for the sigmaSimulatorOutput.
-		byte[][] polynomBytes = getPolynomialBytes(polynomial);
+		byte[][] polynomBytes = new byte[field.degree(polynomial) + 1][];
+		for (int i = 0; i < polynomBytes.length; i++){
+			polynomBytes[i] = field.toBytes(polynomial[i]);
+		}
 		SigmaMultipleMsg first = new SigmaMultipleMsg(aOutputs);
 		SigmaORMultipleSecondMsg second = new SigmaORMultipleSecondMsg(polynomBytes, zOutputs, challenges);
 		
-		//Delete the allocated memory.
-		deletePointers(polynomial, fieldElements);
-		
 		return new SigmaORMultipleSimulatorOutput(first, challenge, second);
 	}
 	
-	/**
-	 * Align the given array to t length. Adds zeros in the beginning.
-	 * @param array to align
-	 * @return the aligned array.
-	 */
-	private byte[] alignToT(byte[] array) {
-		byte[] alignArr = new byte[t/8];
-		int len = array.length;
-		//in case the array is not aligned, add zeros.
-		if (len < t/8){
-			int diff = t/8 - len; //Number of bytes to fill with zeros.
-			int index = 0;
-			// NTL converts byte array to polynomial in the following way:
-			// x = sum(p[i]*X^(8*i), i = 0..n-1)
-			// This means that the most left byte in the array is the first degree of the polynomial.
-			// So, copy the original array content to the left side of the new array.
-			for (int i=0; i<len; i++){
-				alignArr[index++] = array[i];
-			}
-			//Add zeros in the right side of the array
-			for (int i=0; i<diff; i++){
-				alignArr[index++] = 0;
-			}
-		} else{
-			alignArr = array;
-		}
-		return alignArr;
-		
-	}
-	
 	/**
 	 * Computes the simulator computation with a randomly chosen challenge.
 	 * @param input MUST be an instance of SigmaORMultipleCommonInput.
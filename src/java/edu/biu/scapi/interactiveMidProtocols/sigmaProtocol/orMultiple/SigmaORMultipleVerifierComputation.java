@@ -26,11 +26,15 @@ package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple;
 
 import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
+import edu.biu.scapi.tools.math.GF2EField;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation.<p>
@@ -60,21 +64,10 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	private int len;										// Number of underlying verifiers.
 	private byte[] e;										// The challenge.
 	private int t;											// Soundness parameter.
-	private long challengePointer;							// Pointer to the sampled challenge element.
+	private GF2EField field;								// The field GF[2^t] of the challenges.
+	private SecureRandom random;							// Source of randomness for the challenge.
 	private int k;											// Number of true statements.
-	
-	
-	//Initializes the field GF2E with a random irreducible polynomial with degree t.
-	private native void initField(int t, int seed);
-	
-	//Samples the challenge as a field element.
-	private native byte[] sampleChallenge(long[] pointer);
-	
-	//Checks if Q is of degree n-k AND Q(i)=ei for all i=1,,n AND Q(0)=e. This function also deletes the allocated memory.
-	private native boolean checkPolynomialValidity(byte[][] polynomial, int k, long challengePointer, byte[][] challenges);
-	
-	//Sets the given challenge in the field.
-	private native void setChallenge(long [] pointer, byte[] challenge);
+	private ExecutorService executor;						// Used to compute the underlying verifiers in parallel. May be null.
 	
 	/**
 	 * Constructor that gets the underlying verifiers.
@@ -94,9 +87,10 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 		this.verifiers = verifiers;
 		len = verifiers.size();
 		this.t = t; 
+		this.random = random;
 		
-		//Initialize the field GF2E with a random irreducible polynomial with degree t.
-		initField(t, random.nextInt());
+		//Create the field GF[2^t].
+		field = new GF2EField(t);
 	}
 	
 	/**
@@ -108,6 +102,16 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	}
 
 
+	/**
+	 * Sets an executor that is used to compute the checks of the underlying verifiers in parallel.<p>
+	 * In order to use an executor, the underlying verifiers should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the underlying verifiers are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
 	/**
 	 * Sets the inputs for each one of the underlying verifier.
 	 * @param input MUST be an instance of SigmaORMultipleCommonInput.
@@ -134,12 +138,7 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	 * 	"SAMPLE a single random challenge  e <- GF[2^t]".
 	 */
 	public void sampleChallenge(){
-		//Call the native function to sample a field element.
-		long[] pointer = new long[2];
-		//The pointer to the sampled challenge will be in the first cell of the array. We send array from technical reasons.
-		e = sampleChallenge(pointer);
-		e = alignToT(e);
-		challengePointer = pointer[0];
+		e = field.toBytes(field.random(random));
 	}
 	
 	/**
@@ -178,11 +177,6 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	 */
 	public void setChallenge(byte[] challenge){
 		e = alignToT(challenge);
-		//Call the native function to sample a field element.
-		long[] pointer = new long[2];
-		//The pointer to the sampled challenge will be in the first cell of the array. We send array from technical reasons.
-		setChallenge(pointer, challenge);
-		challengePointer = pointer[0];
 	}
 	
 	/**
@@ -208,7 +202,7 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 	public boolean verify(SigmaCommonInput in, SigmaProtocolMsg a, SigmaProtocolMsg z) {
 		//Checks the given input.
 		checkInput(in);
-		ArrayList<SigmaCommonInput> verifiersInput = ((SigmaORMultipleCommonInput) in).getInputs();
+		final ArrayList<SigmaCommonInput> verifiersInput = ((SigmaORMultipleCommonInput) in).getInputs();
 				
 		boolean verified = true;
 		
@@ -221,29 +215,69 @@ public class SigmaORMultipleVerifierComputation implements SigmaVerifierComputat
 		}
 		SigmaMultipleMsg first = (SigmaMultipleMsg) a; 
 		SigmaORMultipleSecondMsg second = (SigmaORMultipleSecondMsg) z; 
-		ArrayList<SigmaProtocolMsg> firstMessages = first.getMessages();
-		ArrayList<SigmaProtocolMsg> secondMessages = second.getMessages();
+		final ArrayList<SigmaProtocolMsg> firstMessages = first.getMessages();
+		final ArrayList<SigmaProtocolMsg> secondMessages = second.getMessages();
 		
 		byte[][] polynomial = second.getPolynomial();
-		byte[][] challenges = second.getChallenges();
+		final byte[][] challenges = second.getChallenges();
 		
-		//Call native function to check the polynomial validity.
-		verified = verified && checkPolynomialValidity(polynomial, k, challengePointer, challenges);
+		//Check the polynomial validity.
+		verified = verified && checkPolynomialValidity(polynomial, challenges);
 		
-		//Compute all verifier checks.
-		for (int i = 0; i < len; i++){
-			verifiers.get(i).setChallenge(challenges[i]);
-			verified = verified && verifiers.get(i).verify(verifiersInput.get(i), firstMessages.get(i), secondMessages.get(i));
+		//Compute all verifier checks. If there is an executor, the checks are computed in parallel.
+		//Each chunk stops at its first failed check; the checks that were not computed stay false.
+		if (verified){
+			final boolean[] results = new boolean[len];
+			ParallelBatchExecution.execute(executor, len, new BatchTask() {
+				
+				public void run(int from, int to) {
+					for (int i = from; i < to; i++){
+						verifiers.get(i).setChallenge(challenges[i]);
+						results[i] = verifiers.get(i).verify(verifiersInput.get(i), firstMessages.get(i), secondMessages.get(i));
+						if (!results[i]){
+							break;
+						}
+					}
+				}
+			});
+			for (int i = 0; i < len; i++){
+				verified = verified && results[i];
+			}
 		}
 		
 		//Return true if all verifiers returned true; false, otherwise.
 		return verified;	
 	}
-	
-	
-	static {
-		 
-		 //load the NTL jni dll
-		 System.loadLibrary("NTLJavaInterface");
+
+	/**
+	 * Checks if Q is of degree n-k AND Q(i)=ei for all i=1,,n AND Q(0)=e.
+	 * @param polynomial the coefficients of Q.
+	 * @param challenges the challenges e1,,en.
+	 * @return true if all checks return true; false, otherwise.
+	 */
+	private boolean checkPolynomialValidity(byte[][] polynomial, byte[][] challenges){
+		if (challenges.length != len){
+			return false;
+		}
+		long[][] q = new long[polynomial.length][];
+		for (int i = 0; i < polynomial.length; i++){
+			q[i] = field.fromBytes(polynomial[i]);
+		}
+		
+		//Check if the degree of the polynomial is n-k.
+		if (field.degree(q) != len - k){
+			return false;
+		}
+		//Check if Q(0)=e.
+		if (!field.equals(field.evaluate(q, field.zero()), field.fromBytes(e))){
+			return false;
+		}
+		//For each one of the challenges, check that Q(i)=ei.
+		for (int i = 0; i < len; i++){
+			if (!field.equals(field.evaluate(q, field.fromIndex(i+1)), field.fromBytes(challenges[i]))){
+				return false;
+			}
+		}
+		return true;
 	}
 }
@@ -25,6 +25,8 @@
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol input, used by the SigmaProtocolORTwoverifier.<p>
@@ -34,7 +36,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonIn
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaORTwoCommonInput implements SigmaCommonInput{
+public class SigmaORTwoCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 1200842938254920765L;
 	private SigmaCommonInput[] inputs;
@@ -57,4 +59,16 @@ public class SigmaORTwoCommonInput implements SigmaCommonInput{
 	public SigmaCommonInput[] getInputs(){
 		return inputs;
 	}
+
+	/**
+	 * Writes the label of this class and the inputs of the underlying sigma protocols to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaORTwoCommonInput");
+		transcript.appendInt(inputs.length);
+		for (int i = 0; i < inputs.length; i++){
+			transcript.appendObject(inputs[i]);
+		}
+	}
 }
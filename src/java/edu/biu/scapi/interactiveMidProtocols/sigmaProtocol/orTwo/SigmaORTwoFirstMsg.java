@@ -24,7 +24,14 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
+import java.io.IOException;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -34,7 +41,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaORTwoFirstMsg implements SigmaProtocolMsg{
+public class SigmaORTwoFirstMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 
 	private static final long serialVersionUID = 5917636619476148404L;
 	
@@ -53,4 +60,35 @@ class SigmaORTwoFirstMsg implements SigmaProtocolMsg{
 	SigmaProtocolMsg getA1(){
 		return a1;
 	}
+
+	/**
+	 * Writes the label of this class, a0 and a1 to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaORTwoFirstMsg");
+		transcript.appendObject(a0);
+		transcript.appendObject(a1);
+	}
+
+	/**
+	 * Writes a0 and a1 to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeMessage(a0);
+		out.writeMessage(a1);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaORTwoFirstMsg readFrom(SigmaMsgInput in) throws IOException {
+		SigmaProtocolMsg a0 = in.readMessage();
+		SigmaProtocolMsg a1 = in.readMessage();
+		return new SigmaORTwoFirstMsg(a0, a1);
+	}
 }
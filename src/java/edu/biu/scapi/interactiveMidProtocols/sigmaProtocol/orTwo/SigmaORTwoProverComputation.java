@@ -25,6 +25,7 @@
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
@@ -32,6 +33,8 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaSimulator;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaSimulatorOutput;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /**
  * Concrete implementation of Sigma Protocol prover computation.<p>
@@ -66,6 +69,7 @@ public class SigmaORTwoProverComputation implements SigmaProverComputation{
 	private int b;								// The bit b such that (xb,w) is in R.
 	private byte[] eOneMinusB;					//Sampled challenge for the simulator.
 	private SigmaProtocolMsg zOneMinusB;		// The output of the simulator.
+	private ExecutorService executor;			//Used to run the prover and the simulator in parallel. May be null.
 	
 	
 	/**
@@ -96,6 +100,16 @@ public class SigmaORTwoProverComputation implements SigmaProverComputation{
 		return t;
 	}
 
+	/**
+	 * Sets an executor that is used to compute the first message of the underlying prover and the simulation in parallel.<p>
+	 * In order to use an executor, the underlying prover and simulator should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the prover and the simulator are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
 	/**
 	 * Computes the frist message of the protocol.<p>
 	 * "SAMPLE a random challenge  e1-b <- {0, 1}^t" for the simulator.<p>
@@ -110,7 +124,7 @@ public class SigmaORTwoProverComputation implements SigmaProverComputation{
 		if (!(in instanceof SigmaORTwoProverInput)){
 			throw new IllegalArgumentException("The given input must be an instance of SigmaORTwoProverInput");
 		}
-		SigmaORTwoProverInput input = (SigmaORTwoProverInput) in;
+		final SigmaORTwoProverInput input = (SigmaORTwoProverInput) in;
 		//Get b such that (xb,w) is in R.
 		b = input.getB();
 		
@@ -120,27 +134,38 @@ public class SigmaORTwoProverComputation implements SigmaProverComputation{
 		//fills the byte array with random values.
 		random.nextBytes(eOneMinusB);
 				
-		//Call the sigma WITH THE WITNESS to compute first message ab.
-		//The second prover will not be in use so it does not need to compute messages.
-		SigmaProtocolMsg aB = prover.computeFirstMsg(input.getProverInput());
-		
-		//Simulate Sigma 1-b on input (x1-b, e1-b) to obtain (a1-b, e1-b, z1-b), save the output.
-		SigmaSimulatorOutput output = null;
-		try {
-			output = simulator.simulate(input.getSimulatorInput(), eOneMinusB);
-		} catch (CheatAttemptException e) {
-			// Since the challenge eOneMinusB's size it t, this exception will not be thrown.
-		}
-		SigmaProtocolMsg aOneMinusB = output.getA();
+		//Index 0 is the prover and index 1 is the simulator. If there is an executor, they are computed in parallel.
+		final SigmaProtocolMsg[] aB = new SigmaProtocolMsg[1];
+		final SigmaSimulatorOutput[] output = new SigmaSimulatorOutput[1];
+		ParallelBatchExecution.execute(executor, 2, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					if (i == 0){
+						//Call the sigma WITH THE WITNESS to compute first message ab.
+						//The second prover will not be in use so it does not need to compute messages.
+						aB[0] = prover.computeFirstMsg(input.getProverInput());
+					} else {
+						//Simulate Sigma 1-b on input (x1-b, e1-b) to obtain (a1-b, e1-b, z1-b), save the output.
+						try {
+							output[0] = simulator.simulate(input.getSimulatorInput(), eOneMinusB);
+						} catch (CheatAttemptException e) {
+							// Since the challenge eOneMinusB's size it t, this exception will not be thrown.
+						}
+					}
+				}
+			}
+		});
+		SigmaProtocolMsg aOneMinusB = output[0].getA();
 		//Save the z1-b to the future.
-		zOneMinusB = output.getZ();
+		zOneMinusB = output[0].getZ();
 		
 		//Create and return SigmaORTwoFirstMsg with a0, a1.
 		SigmaORTwoFirstMsg msg = null;
 		if (b == 0){
-			msg = new SigmaORTwoFirstMsg(aB, aOneMinusB);
+			msg = new SigmaORTwoFirstMsg(aB[0], aOneMinusB);
 		} else{
-			msg = new SigmaORTwoFirstMsg(aOneMinusB, aB);
+			msg = new SigmaORTwoFirstMsg(aOneMinusB, aB[0]);
 		}
 		return msg;
 		
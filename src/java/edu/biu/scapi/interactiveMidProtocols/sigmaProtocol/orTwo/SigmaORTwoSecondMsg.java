@@ -24,7 +24,14 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
+import java.io.IOException;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -34,7 +41,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaORTwoSecondMsg implements SigmaProtocolMsg{
+public class SigmaORTwoSecondMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 	
 	
 	private static final long serialVersionUID = 2105516191595630990L;
@@ -66,4 +73,41 @@ class SigmaORTwoSecondMsg implements SigmaProtocolMsg{
 	byte[] getE1(){
 		return e1;
 	}
+
+	/**
+	 * Writes the label of this class, z0, e0, z1 and e1 to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaORTwoSecondMsg");
+		transcript.appendObject(z0);
+		transcript.appendBytes(e0);
+		transcript.appendObject(z1);
+		transcript.appendBytes(e1);
+	}
+
+	/**
+	 * Writes z0, e0, z1 and e1 to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeMessage(z0);
+		out.writeBytes(e0);
+		out.writeMessage(z1);
+		out.writeBytes(e1);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaORTwoSecondMsg readFrom(SigmaMsgInput in) throws IOException {
+		SigmaProtocolMsg z0 = in.readMessage();
+		byte[] e0 = in.readBytes();
+		SigmaProtocolMsg z1 = in.readMessage();
+		byte[] e1 = in.readBytes();
+		return new SigmaORTwoSecondMsg(z0, e0, z1, e1);
+	}
 }
@@ -25,10 +25,13 @@
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo;
 
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /**
  * Concrete implementation of Sigma Protocol verifier computation.<p>
@@ -55,6 +58,7 @@ public class SigmaORTwoVerifierComputation implements SigmaVerifierComputation{
 	private byte[] e;								//The challenge.
 	private int t;									//Soundness parameter.
 	private SecureRandom random;
+	private ExecutorService executor;				//Used to compute the underlying verifiers in parallel. May be null.
 	
 	/**
 	 * Constructor that gets the underlying verifiers.
@@ -85,6 +89,16 @@ public class SigmaORTwoVerifierComputation implements SigmaVerifierComputation{
 		return t;
 	}
 	
+	/**
+	 * Sets an executor that is used to compute the checks of the two underlying verifiers in parallel.<p>
+	 * In order to use an executor, the underlying verifiers should be different objects and their Dlog groups should support concurrent computations.
+	 * @param executor the executor to use, for example {@link ParallelBatchExecution#getSharedExecutor()}. 
+	 * 		  If null, the underlying verifiers are computed one after the other in the calling thread.
+	 */
+	public void setExecutor(ExecutorService executor){
+		this.executor = executor;
+	}
+	
 	/**
 	 * Samples the challenge of the protocol.<p>
 	 * 	"SAMPLE a random challenge e<-{0,1}^t".
@@ -128,7 +142,7 @@ public class SigmaORTwoVerifierComputation implements SigmaVerifierComputation{
 		if (!(in instanceof SigmaORTwoCommonInput)){
 			throw new IllegalArgumentException("The given input must be an instance of SigmaORTwoCommonInput");
 		}
-		SigmaORTwoCommonInput input = (SigmaORTwoCommonInput) in;
+		final SigmaORTwoCommonInput input = (SigmaORTwoCommonInput) in;
 		
 		boolean verified = true;
 		
@@ -139,18 +153,33 @@ public class SigmaORTwoVerifierComputation implements SigmaVerifierComputation{
 		if (!(z instanceof SigmaORTwoSecondMsg)){
 			throw new IllegalArgumentException("second message must be an instance of SigmaORTwoSecondMsg");
 		}
-		SigmaORTwoFirstMsg first = (SigmaORTwoFirstMsg) a; 
-		SigmaORTwoSecondMsg second = (SigmaORTwoSecondMsg) z; 
+		final SigmaORTwoFirstMsg first = (SigmaORTwoFirstMsg) a; 
+		final SigmaORTwoSecondMsg second = (SigmaORTwoSecondMsg) z; 
 		
 		//Sets the challenges to the underlying verifiers.
 		verifiers[0].setChallenge(second.getE0());
 		verifiers[1].setChallenge(second.getE1());
 		
-		//Compute the first verify check
-		verified = verified && verifiers[0].verify(input.getInputs()[0], first.getA0(), second.getZ0());
-		
-		//Compute the second verify check
-		verified = verified && verifiers[1].verify(input.getInputs()[1], first.getA1(), second.getZ1());
+		//Compute the two verify checks. If there is an executor, the checks are computed in parallel.
+		final boolean[] results = new boolean[2];
+		ParallelBatchExecution.execute(executor, 2, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					if (i == 0){
+						//Compute the first verify check
+						results[0] = verifiers[0].verify(input.getInputs()[0], first.getA0(), second.getZ0());
+					} else {
+						//Compute the second verify check
+						results[1] = verifiers[1].verify(input.getInputs()[1], first.getA1(), second.getZ1());
+					}
+					if (!results[i]){
+						break;
+					}
+				}
+			}
+		});
+		verified = verified && results[0] && results[1];
 		
 		//Return true if all verifiers returned true; false, otherwise.
 		return verified;	
@@ -28,6 +28,8 @@ import java.io.IOException;
 import java.io.ObjectOutputStream;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -38,7 +40,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaPedersenCmtKnowledgeCommonInput implements SigmaCommonInput{
+public class SigmaPedersenCmtKnowledgeCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 	
 	private static final long serialVersionUID = 6360210454705006144L;
 	private GroupElement h;
@@ -75,4 +77,14 @@ public class SigmaPedersenCmtKnowledgeCommonInput implements SigmaCommonInput{
         out.writeObject(h.generateSendableData());  
         out.writeObject(commitment);
     } 
+
+	/**
+	 * Writes the label of this class, h and the commitment to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaPedersenCmtKnowledgeCommonInput");
+		transcript.appendGroupElement(h);
+		transcript.appendGroupElement(commitment);
+	}
 }
@@ -24,9 +24,15 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge;
 
+import java.io.IOException;
 import java.math.BigInteger;
 
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaBinaryEncodable;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 
 /**
  * Concrete implementation of SigmaProtocol message. 
@@ -35,7 +41,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocol
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg {
+public class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable {
 
 	private static final long serialVersionUID = 1443613833827988336L;
 	private BigInteger u;
@@ -53,4 +59,35 @@ class SigmaPedersenCmtKnowledgeMsg implements SigmaProtocolMsg {
 	BigInteger getV(){
 		return v;
 	}
+
+	/**
+	 * Writes the label of this class, u and v to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaPedersenCmtKnowledgeMsg");
+		transcript.appendBigInteger(u);
+		transcript.appendBigInteger(v);
+	}
+
+	/**
+	 * Writes u and v to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeBigInteger(u);
+		out.writeBigInteger(v);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaPedersenCmtKnowledgeMsg readFrom(SigmaMsgInput in) throws IOException {
+		BigInteger u = in.readBigInteger();
+		BigInteger v = in.readBigInteger();
+		return new SigmaPedersenCmtKnowledgeMsg(u, v);
+	}
 }
@@ -30,9 +30,11 @@ import java.security.SecureRandom;
 import edu.biu.scapi.exceptions.InvalidDlogGroupException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.DlogBasedSigma;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaBatchVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaGroupElementMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaDlogBatchEquations;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -46,7 +48,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, DlogBasedSigma{
+public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaVerifierComputation, SigmaBatchVerifierComputation, DlogBasedSigma{
 	
 	/*	
 	  This class computes the following calculations:
@@ -200,6 +202,59 @@ public class SigmaPedersenCmtKnowledgeVerifierComputation implements SigmaVerifi
 		//Return true if all checks returned true; false, otherwise.
 		return verified;	
 	}
-	
 
+	/**
+	 * Verifies the given proofs together.<p>
+	 * For each proof, the equation "h^u*g^v=a*c^e" is checked as part of one combined equation with random weights. 
+	 * The membership of each h is still checked separately. The other elements of the equations must also be members of the group, so a proof 
+	 * with an element that is not a member is verified separately. If the combined equation does not hold, each proof is verified separately.
+	 * @param inputs MUST be instances of SigmaPedersenCmtKnowledgeCommonInput.
+	 * @param a first messages from the prover. MUST be instances of SigmaGroupElementMsg.
+	 * @param challenges the challenges of the proofs.
+	 * @param z second messages from the prover. MUST be instances of SigmaPedersenCmtKnowledgeMsg.
+	 * @return an array that holds in the i-th place true if the i-th proof has been verified; false, otherwise.
+	 * @throws IllegalArgumentException if the arrays are not of the same length or one of the inputs or messages is of the wrong type.
+	 */
+	public boolean[] verifyBatch(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z) {
+		SigmaDlogBatchEquations.checkBatchLengths(inputs, a, challenges, z);
+		boolean[] results = new boolean[inputs.length];
+		//Proofs that should be verified separately, since one of their elements is not a member of the group.
+		boolean[] separately = new boolean[inputs.length];
+		SigmaDlogBatchEquations equations = new SigmaDlogBatchEquations(dlog, random);
+		GroupElement g = dlog.getGenerator();
+		
+		for (int i = 0; i < inputs.length; i++){
+			if (!(inputs[i] instanceof SigmaPedersenCmtKnowledgeCommonInput)){
+				throw new IllegalArgumentException("the given input must be an instance of SigmaPedersenCTKnowledgeCommonInput");
+			}
+			if (!(a[i] instanceof SigmaGroupElementMsg)){
+				throw new IllegalArgumentException("first message must be an instance of SigmaGroupElementMsg");
+			}
+			if (!(z[i] instanceof SigmaPedersenCmtKnowledgeMsg)){
+				throw new IllegalArgumentException("second message must be an instance of SigmaPedersenCTKnowledgeMsg");
+			}
+			SigmaPedersenCmtKnowledgeCommonInput params = (SigmaPedersenCmtKnowledgeCommonInput) inputs[i];
+			
+			//If h is not member in the group, the proof is not verified.
+			GroupElement h = params.getH();
+			if (!equations.isMember(h)){
+				continue;
+			}
+			SigmaPedersenCmtKnowledgeMsg secondMsg = (SigmaPedersenCmtKnowledgeMsg) z[i];
+			GroupElement aElement = dlog.reconstructElement(true, ((SigmaGroupElementMsg) a[i]).getElement());
+			if (!equations.areMembers(params.getCommitment(), aElement)){
+				separately[i] = true;
+				continue;
+			}
+			BigInteger eBI = new BigInteger(1, challenges[i]);
+			
+			//Add the equation a * c^e * h^(-u) * g^(-v) = 1.
+			equations.addEquation(new GroupElement[]{aElement, params.getCommitment(), h, g}, 
+					new BigInteger[]{BigInteger.ONE, eBI, secondMsg.getU().negate(), secondMsg.getV().negate()});
+			results[i] = true;
+		}
+		
+		SigmaDlogBatchEquations.completeBatch(equations, this, inputs, a, challenges, z, results, separately);
+		return results;
+	}
 }
@@ -29,6 +29,8 @@ import java.io.ObjectOutputStream;
 import java.math.BigInteger;
 
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscriptEncodable;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
 /**
@@ -38,7 +40,7 @@ import edu.biu.scapi.primitives.dlog.GroupElement;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput{
+public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput, SigmaTranscriptEncodable{
 
 	private static final long serialVersionUID = -7506409897610196712L;
 	private BigInteger x;
@@ -87,4 +89,15 @@ public class SigmaPedersenCommittedValueCommonInput implements SigmaCommonInput{
         out.writeObject(commitment.generateSendableData());
         out.writeObject(x);
     }  
+
+	/**
+	 * Writes the label of this class, x, h and the commitment to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaPedersenCommittedValueCommonInput");
+		transcript.appendBigInteger(x);
+		transcript.appendGroupElement(h);
+		transcript.appendGroupElement(commitment);
+	}
 }
@@ -35,6 +35,7 @@ import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverC
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dlog.SigmaDlogProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaFirstMessagePool;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 
@@ -84,6 +85,15 @@ public class SigmaPedersenCommittedValueProverComputation implements SigmaProver
 		return sigmaDlog.getSoundnessParam();
 	}
 
+	/**
+	 * Sets a pool of precomputed first messages for the underlying Sigma Dlog prover.
+	 * @param pool the pool to use. May be null.
+	 */
+	public void setPrecomputationPool(SigmaFirstMessagePool pool){
+		//Delegates to the underlying Sigma Dlog prover.
+		sigmaDlog.setPrecomputationPool(pool);
+	}
+
 
 	/**
 	 * Converts the input for the underlying prover computation.
@@ -24,6 +24,7 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
 
+import java.io.IOException;
 import java.math.BigInteger;
 
 /**
@@ -33,7 +34,7 @@ import java.math.BigInteger;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaBIMsg implements SigmaProtocolMsg{
+public class SigmaBIMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 	
 	private static final long serialVersionUID = -7686300107301882304L;
 	private BigInteger z;
@@ -44,4 +45,31 @@ public class SigmaBIMsg implements SigmaProtocolMsg{
 	public BigInteger getMsg(){
 		return z;
 	}
+
+	/**
+	 * Writes the label of this class and z to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaBIMsg");
+		transcript.appendBigInteger(z);
+	}
+
+	/**
+	 * Writes z to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeBigInteger(z);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaBIMsg readFrom(SigmaMsgInput in) throws IOException {
+		return new SigmaBIMsg(in.readBigInteger());
+	}
 }
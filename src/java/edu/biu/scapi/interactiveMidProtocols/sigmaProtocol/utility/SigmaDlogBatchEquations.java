@@ -0,0 +1,243 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.groupParams.ECGroupParams;
+
+/**
+ * This class collects the verification equations of many Dlog based Sigma proofs and checks all of them together. <p>
+ * Each equation is of the form PRODUCT(base_i^exponent_i) = 1. 
+ * Instead of checking the equations one by one, every equation is raised to a random weight w and the check is 
+ * PRODUCT over all equations (PRODUCT(base_i^exponent_i))^w = 1, which is computed using one multi-exponentiation.
+ * Bases that appear in many equations (as the same object, for example the group generator) are merged, so they are exponentiated only once.<p>
+ * 
+ * If all the equations hold, the combined check passes. If one of them does not hold, the combined check fails 
+ * except with probability 2^(-WEIGHT_BITS), since the group has a prime order. This holds only if all the bases are members of the (prime order) group: 
+ * an element outside the group may have a small order component that vanishes whenever its weight is divisible by that order. 
+ * Therefore, the verifiers check the membership of every base (see {@link #areMembers(GroupElement...)}) before adding its equation, 
+ * and verify separately each proof that contains an element that is not a member.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaDlogBatchEquations {
+
+	//The bit length of the random weights.
+	private static final int WEIGHT_BITS = 80;
+	
+	private DlogGroup dlog;
+	private SecureRandom random;
+	private BigInteger q;
+	private int weightBits;
+	//True if the group is a subgroup of an elliptic curve with cofactor greater than 1.
+	private boolean hasCofactor;
+	private ArrayList<GroupElement> bases = new ArrayList<GroupElement>();
+	private ArrayList<BigInteger> exponents = new ArrayList<BigInteger>();
+	//Maps each base to its index in the above lists. Bases are compared by reference, since not all group elements implement hashCode.
+	private IdentityHashMap<GroupElement, Integer> indices = new IdentityHashMap<GroupElement, Integer>();
+	//Results of the membership checks, so that an element that is shared by many proofs is checked once.
+	private IdentityHashMap<GroupElement, Boolean> members = new IdentityHashMap<GroupElement, Boolean>();
+	
+	/**
+	 * Constructor that sets the group of the equations and the random source of the weights.
+	 * @param dlog
+	 * @param random
+	 */
+	public SigmaDlogBatchEquations(DlogGroup dlog, SecureRandom random){
+		this.dlog = dlog;
+		this.random = random;
+		q = dlog.getOrder();
+		//The weights should be smaller than the group order.
+		weightBits = Math.min(WEIGHT_BITS, q.bitLength() - 1);
+		hasCofactor = (dlog.getGroupParams() instanceof ECGroupParams) && 
+				((ECGroupParams) dlog.getGroupParams()).getCofactor().compareTo(BigInteger.ONE) > 0;
+	}
+	
+	/**
+	 * Adds the equation PRODUCT(bases[i]^exponents[i]) = 1. <p>
+	 * The exponents may be negative; they are reduced modulo the group order. 
+	 * All the bases MUST be members of the group. 
+	 * @param equationBases the bases of the equation.
+	 * @param equationExponents the exponents of the equation.
+	 * @throws IllegalArgumentException if the arrays are not of the same length.
+	 */
+	public void addEquation(GroupElement[] equationBases, BigInteger[] equationExponents){
+		if (equationBases.length != equationExponents.length){
+			throw new IllegalArgumentException("the number of bases and exponents should be equal");
+		}
+		BigInteger w = new BigInteger(weightBits, random);
+		for (int i = 0; i < equationBases.length; i++){
+			BigInteger exponent = equationExponents[i].multiply(w);
+			Integer index = indices.get(equationBases[i]);
+			if (index == null){
+				indices.put(equationBases[i], Integer.valueOf(bases.size()));
+				bases.add(equationBases[i]);
+				exponents.add(exponent);
+			} else {
+				exponents.set(index.intValue(), exponents.get(index.intValue()).add(exponent));
+			}
+		}
+	}
+	
+	/**
+	 * Checks if the given element is a member of the group. 
+	 * The result is kept, so checking the same element object again does not cost anything.<p>
+	 * If the curve has a cofactor, the membership check of the group rejects only the points of small order, 
+	 * so it is also checked that the element has order q. Otherwise, a point with a small order component could pass the combined check.
+	 * @param element the element to check.
+	 * @return true if the element is a member of the group; false, otherwise.
+	 */
+	public boolean isMember(GroupElement element){
+		Boolean member = members.get(element);
+		if (member == null){
+			member = Boolean.valueOf(dlog.isMember(element) && (!hasCofactor || hasOrderQ(element)));
+			members.put(element, member);
+		}
+		return member.booleanValue();
+	}
+	
+	/**
+	 * Checks if all the given elements are members of the group, using the kept results of {@link #isMember(GroupElement)}.
+	 * @param elements the elements to check.
+	 * @return true if all the elements are members of the group; false, otherwise.
+	 */
+	public boolean areMembers(GroupElement... elements){
+		for (int i = 0; i < elements.length; i++){
+			if (!isMember(elements[i])){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Checks that element^q is the identity. 
+	 * The exponentiation is done by square and multiply since the exponentiate function of the group may reduce the exponent modulo q.
+	 */
+	private boolean hasOrderQ(GroupElement element){
+		GroupElement result = dlog.getIdentity();
+		for (int i = q.bitLength() - 1; i >= 0; i--){
+			result = dlog.multiplyGroupElements(result, result);
+			if (q.testBit(i)){
+				result = dlog.multiplyGroupElements(result, element);
+			}
+		}
+		return result.isIdentity();
+	}
+	
+	/**
+	 * Checks all the added equations together.
+	 * @return true if the combined equation holds; false, otherwise.
+	 */
+	public boolean check(){
+		//The multi-exponentiation runs over the bits of the longest exponent. 
+		//In order to keep the short exponents (the weighted ones) short, the exponents of (about) the size of q are computed separately. 
+		int longThreshold = q.bitLength() - 8;
+		ArrayList<GroupElement> shortBases = new ArrayList<GroupElement>();
+		ArrayList<BigInteger> shortExponents = new ArrayList<BigInteger>();
+		ArrayList<GroupElement> longBases = new ArrayList<GroupElement>();
+		ArrayList<BigInteger> longExponents = new ArrayList<BigInteger>();
+		for (int i = 0; i < bases.size(); i++){
+			BigInteger exponent = exponents.get(i).mod(q);
+			if (exponent.signum() == 0){
+				continue;
+			}
+			if (exponent.bitLength() > longThreshold){
+				longBases.add(bases.get(i));
+				longExponents.add(exponent);
+			} else {
+				shortBases.add(bases.get(i));
+				shortExponents.add(exponent);
+			}
+		}
+		
+		GroupElement result = dlog.getIdentity();
+		if (!shortBases.isEmpty()){
+			result = dlog.simultaneousMultipleExponentiations(shortBases.toArray(new GroupElement[0]), shortExponents.toArray(new BigInteger[0]));
+		}
+		if (!longBases.isEmpty()){
+			GroupElement longPart = dlog.simultaneousMultipleExponentiations(longBases.toArray(new GroupElement[0]), longExponents.toArray(new BigInteger[0]));
+			result = dlog.multiplyGroupElements(result, longPart);
+		}
+		return result.isIdentity();
+	}
+	
+	/**
+	 * Checks that the given arrays of proofs are all of the same length.
+	 * @throws IllegalArgumentException if the arrays are not of the same length.
+	 */
+	public static void checkBatchLengths(SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z){
+		if (a.length != inputs.length || challenges.length != inputs.length || z.length != inputs.length){
+			throw new IllegalArgumentException("the number of inputs, first messages, challenges and second messages should be equal");
+		}
+	}
+	
+	/**
+	 * Verifies separately each one of the given proofs that is marked as valid in the results array, and updates the array. <p>
+	 * This is used after a failed batch check in order to find the invalid proofs.
+	 * The challenge of the given verifier is restored at the end.
+	 * @param verifier the verifier to use.
+	 * @param results holds true for each proof that should be verified; Each such place is set to the result of the proof's verification.
+	 */
+	public static void verifyEach(SigmaVerifierComputation verifier, SigmaCommonInput[] inputs, SigmaProtocolMsg[] a, byte[][] challenges, 
+			SigmaProtocolMsg[] z, boolean[] results){
+		byte[] challenge = verifier.getChallenge();
+		for (int i = 0; i < inputs.length; i++){
+			if (results[i]){
+				verifier.setChallenge(challenges[i]);
+				results[i] = verifier.verify(inputs[i], a[i], z[i]);
+			}
+		}
+		verifier.setChallenge(challenge);
+	}
+	
+	/**
+	 * Completes a batch verification: if the combined equation does not hold, verifies separately each proof that was added to it. 
+	 * Then, verifies separately each proof that was not added to the combined equation (for example, since one of its elements is not a member of the group).
+	 * @param equations the combined equations of the proofs marked as true in the results array.
+	 * @param verifier the verifier to use.
+	 * @param results holds true for each proof that was added to the equations; Each place is set to the result of the proof's verification.
+	 * @param separately holds true for each proof that should be verified separately.
+	 */
+	public static void completeBatch(SigmaDlogBatchEquations equations, SigmaVerifierComputation verifier, SigmaCommonInput[] inputs, 
+			SigmaProtocolMsg[] a, byte[][] challenges, SigmaProtocolMsg[] z, boolean[] results, boolean[] separately){
+		//If the combined equation does not hold, find the invalid proofs.
+		if (!equations.check()){
+			verifyEach(verifier, inputs, a, challenges, z, results);
+		}
+		verifyEach(verifier, inputs, a, challenges, z, separately);
+		for (int i = 0; i < inputs.length; i++){
+			results[i] = results[i] || separately[i];
+		}
+	}
+}
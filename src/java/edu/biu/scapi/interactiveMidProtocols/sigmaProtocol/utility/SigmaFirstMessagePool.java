@@ -0,0 +1,152 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.generals.PrecomputationPool;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+
+/**
+ * This class holds precomputed first messages of Dlog based sigma protocols.<p>
+ * 
+ * The first message of the Dlog based sigma provers is a random r in Zq together with the powers base1^r,...,basem^r of fixed bases 
+ * (g in SigmaDlog, g and h in SigmaDH, g1,...,gm in SigmaDHExtended). These values do not depend on the witness or on the challenge, 
+ * so they can be computed offline. The prover takes one precomputed tuple in computeFirstMsg instead of computing the exponentiations, 
+ * and the online work is reduced to the computation of the second message.<p>
+ * 
+ * The filling, refilling and metrics of the pool are those of {@link PrecomputationPool}.
+ * Each tuple is given to one prover only and is removed from the pool. The pool can be used by several threads concurrently, 
+ * as long as the underlying Dlog group supports concurrent computations. For the same reason, the pool is refilled in the background 
+ * only if the group is thread safe (see {@link DlogGroup#isThreadSafe()}). Otherwise, the executor is ignored and the pool is filled 
+ * only by {@link #fill()} and by take when it is empty.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaFirstMessagePool extends PrecomputationPool<SigmaFirstMessagePool.Entry> {
+	
+	/**
+	 * A precomputed tuple (r, base1^r, ..., basem^r).
+	 */
+	public static class Entry {
+		private BigInteger r;
+		private GroupElement[] powers;
+		
+		Entry(BigInteger r, GroupElement[] powers){
+			this.r = r;
+			this.powers = powers;
+		}
+		
+		/**
+		 * Returns the random exponent r.
+		 */
+		public BigInteger getR(){
+			return r;
+		}
+		
+		/**
+		 * Returns basei^r.
+		 * @param i the index of the base, in the order given to the pool.
+		 */
+		public GroupElement getPower(int i){
+			return powers[i];
+		}
+	}
+	
+	private DlogGroup dlog;
+	private GroupElement[] bases;
+	private SecureRandom random;
+	private BigInteger qMinusOne;
+	
+	/**
+	 * Constructor that sets the group, the bases and the parameters of the pool. The pool is empty until it is filled.
+	 * @param dlog the Dlog group of the sigma protocol.
+	 * @param bases the fixed bases of the first message.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness for the exponents.
+	 * @param executor executor that refills the pool in the background, for example {@link edu.biu.scapi.generals.ParallelBatchExecution#getSharedExecutor()}. 
+	 * May be null. Ignored if the group is not thread safe.
+	 * @throws IllegalArgumentException if the capacity is not positive or if there are no bases.
+	 */
+	public SigmaFirstMessagePool(DlogGroup dlog, GroupElement[] bases, int capacity, SecureRandom random, ExecutorService executor){
+		//The background refill computes on the group concurrently with the prover, so it is done only if the group is thread safe.
+		super(capacity, dlog.isThreadSafe() ? executor : null);
+		if (bases.length == 0){
+			throw new IllegalArgumentException("at least one base is needed");
+		}
+		this.dlog = dlog;
+		this.bases = bases.clone();
+		this.random = random;
+		qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+	}
+	
+	/**
+	 * Constructor for the first message of SigmaDlog, where the only base is the generator of the group.
+	 * @param dlog the Dlog group of the sigma protocol.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness for the exponents.
+	 * @param executor executor that refills the pool in the background. May be null. Ignored if the group is not thread safe.
+	 */
+	public SigmaFirstMessagePool(DlogGroup dlog, int capacity, SecureRandom random, ExecutorService executor){
+		this(dlog, new GroupElement[]{dlog.getGenerator()}, capacity, random, executor);
+	}
+	
+	/**
+	 * Checks if this pool holds tuples for the given group and bases.
+	 * @param dlog the Dlog group of the prover.
+	 * @param bases the bases of the first message of the prover.
+	 * @return true if the group is the same object and the bases are equal, in the same order; false, otherwise.
+	 */
+	public boolean matches(DlogGroup dlog, GroupElement... bases){
+		if (this.dlog != dlog || this.bases.length != bases.length){
+			return false;
+		}
+		for (int i = 0; i < bases.length; i++){
+			if (!this.bases[i].equals(bases[i])){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Samples r and computes the powers of the bases.
+	 */
+	@Override
+	protected Entry compute(){
+		BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		GroupElement[] powers = new GroupElement[bases.length];
+		for (int i = 0; i < bases.length; i++){
+			powers[i] = dlog.exponentiate(bases[i], r);
+		}
+		return new Entry(r, powers);
+	}
+}
@@ -24,6 +24,8 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
 
+import java.io.IOException;
+
 import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
 
 /**
@@ -33,7 +35,7 @@ import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaGroupElementMsg implements SigmaProtocolMsg {
+public class SigmaGroupElementMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable {
 
 	private static final long serialVersionUID = 103982768646661614L;
 	
@@ -46,4 +48,31 @@ public class SigmaGroupElementMsg implements SigmaProtocolMsg {
 	public GroupElementSendableData getElement(){
 		return element;
 	}
+
+	/**
+	 * Writes the label of this class and the element to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaGroupElementMsg");
+		transcript.appendGroupElement(element);
+	}
+
+	/**
+	 * Writes the element to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeGroupElement(element);
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaGroupElementMsg readFrom(SigmaMsgInput in) throws IOException {
+		return new SigmaGroupElementMsg(in.readGroupElement());
+	}
 }
@@ -0,0 +1,237 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.io.DataInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct.SigmaDJProductFirstMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct.SigmaDJProductSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExtendedMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo.SigmaORTwoFirstMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo.SigmaORTwoSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableDataEncoding;
+
+/**
+ * This class reads Sigma protocol messages that were written by {@link SigmaMsgOutput}.<p>
+ * 
+ * The input is limited to a given number of bytes, and every length and count in the encoding is checked against the remaining bytes 
+ * before anything is allocated, so a malformed encoding from the other party causes an IOException and not a large allocation. 
+ * Only the message types that are known to {@link SigmaMsgOutput} can be created.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaMsgInput {
+
+	//Maximal nesting of messages (for example, OR of AND of messages).
+	private static final int MAX_DEPTH = 32;
+	
+	private LimitedInputStream limited;
+	private DataInputStream in;
+	private int depth;
+	
+	/**
+	 * Constructor that sets the stream to read from and the number of bytes of the encoding. 
+	 * At most length bytes are read from the given stream.
+	 * @param in the stream to read from.
+	 * @param length number of bytes of the encoding.
+	 */
+	public SigmaMsgInput(InputStream in, long length){
+		limited = new LimitedInputStream(in, length);
+		this.in = new DataInputStream(limited);
+	}
+	
+	/**
+	 * @return the number of bytes of the encoding that were not read yet.
+	 */
+	public long getRemaining(){
+		return limited.remaining;
+	}
+	
+	/**
+	 * Reads the next message.
+	 * @return the read message. Can be null.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public SigmaProtocolMsg readMessage() throws IOException{
+		byte tag = in.readByte();
+		if (tag == SigmaMsgOutput.TAG_NULL){
+			return null;
+		}
+		if (depth == MAX_DEPTH){
+			throw new IOException("the encoded messages are nested too deep");
+		}
+		depth++;
+		try {
+			switch (tag){
+			case SigmaMsgOutput.TAG_BI:
+				return SigmaBIMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_GROUP_ELEMENT:
+				return SigmaGroupElementMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_MULTIPLE:
+				return SigmaMultipleMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_DH:
+				return SigmaDHMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_DH_EXTENDED:
+				return SigmaDHExtendedMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_PEDERSEN_CMT_KNOWLEDGE:
+				return SigmaPedersenCmtKnowledgeMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_OR_TWO_FIRST:
+				return SigmaORTwoFirstMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_OR_TWO_SECOND:
+				return SigmaORTwoSecondMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_OR_MULTIPLE_SECOND:
+				return SigmaORMultipleSecondMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_DJ_PRODUCT_FIRST:
+				return SigmaDJProductFirstMsg.readFrom(this);
+			case SigmaMsgOutput.TAG_DJ_PRODUCT_SECOND:
+				return SigmaDJProductSecondMsg.readFrom(this);
+			default:
+				throw new IOException("invalid tag of an encoded message: " + tag);
+			}
+		} finally {
+			depth--;
+		}
+	}
+	
+	/**
+	 * Reads a BigInteger.
+	 * @return the read value. Can be null.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public BigInteger readBigInteger() throws IOException{
+		return GroupElementSendableDataEncoding.readBigInteger(in, getMaxLength());
+	}
+	
+	/**
+	 * Reads a group element. The element should be reconstructed by the group with membership check.
+	 * @return the read element data. Can be null.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public GroupElementSendableData readGroupElement() throws IOException{
+		return GroupElementSendableDataEncoding.read(in, getMaxLength());
+	}
+	
+	/**
+	 * Reads a byte array.
+	 * @return the read bytes. Can be null.
+	 * @throws IOException if failed to read or if the length is not valid.
+	 */
+	public byte[] readBytes() throws IOException{
+		int len = in.readInt();
+		if (len == -1){
+			return null;
+		}
+		if (len < 0 || len > getMaxLength()){
+			throw new IOException("invalid length of encoded bytes: " + len);
+		}
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		return bytes;
+	}
+	
+	/**
+	 * Reads the number of items in a list. Since every item takes at least one byte, the count can not be greater than the remaining bytes.
+	 * @return the number of items.
+	 * @throws IOException if failed to read or if the count is not valid.
+	 */
+	public int readCount() throws IOException{
+		int count = in.readInt();
+		if (count < 0 || count > getMaxLength()){
+			throw new IOException("invalid number of encoded items: " + count);
+		}
+		return count;
+	}
+	
+	private int getMaxLength(){
+		return (int) Math.min(limited.remaining, Integer.MAX_VALUE);
+	}
+	
+	/*
+	 * Input stream that reads at most the given number of bytes from the underlying stream.
+	 */
+	private static class LimitedInputStream extends FilterInputStream {
+		private long remaining;
+		
+		LimitedInputStream(InputStream in, long limit){
+			super(in);
+			remaining = limit;
+		}
+		
+		@Override
+		public int read() throws IOException {
+			if (remaining <= 0){
+				return -1;
+			}
+			int b = in.read();
+			if (b >= 0){
+				remaining--;
+			}
+			return b;
+		}
+		
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (remaining <= 0){
+				return -1;
+			}
+			int read = in.read(b, off, (int) Math.min(len, remaining));
+			if (read > 0){
+				remaining -= read;
+			}
+			return read;
+		}
+		
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(Math.min(n, remaining));
+			remaining -= skipped;
+			return skipped;
+		}
+		
+		@Override
+		public int available() throws IOException {
+			return (int) Math.min(in.available(), remaining);
+		}
+		
+		@Override
+		public void close() {
+			//The underlying stream is not closed, since it may contain more data.
+		}
+		
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
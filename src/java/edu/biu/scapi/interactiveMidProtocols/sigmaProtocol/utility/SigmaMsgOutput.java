@@ -0,0 +1,173 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigInteger;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct.SigmaDJProductFirstMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.damgardJurikProduct.SigmaDJProductSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dh.SigmaDHMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.dhExtended.SigmaDHExtendedMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orMultiple.SigmaORMultipleSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo.SigmaORTwoFirstMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.orTwo.SigmaORTwoSecondMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.pedersenCmtKnowledge.SigmaPedersenCmtKnowledgeMsg;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableDataEncoding;
+
+/**
+ * This class writes Sigma protocol messages in a compact binary encoding, that is read back by {@link SigmaMsgInput}.<p>
+ * 
+ * Every message is written as a one byte tag of its type followed by its fields. 
+ * BigIntegers are written as a four bytes length and the magnitude, group elements by their coordinates (see {@link GroupElementSendableDataEncoding}), 
+ * byte arrays as a four bytes length and the bytes, and lists as a four bytes count followed by the items. 
+ * The encoding does not depend on java serialization, so the other party can not make the reader create objects of any other type.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaMsgOutput {
+
+	//The tags of the message types.
+	static final byte TAG_NULL = 0;
+	static final byte TAG_BI = 1;
+	static final byte TAG_GROUP_ELEMENT = 2;
+	static final byte TAG_MULTIPLE = 3;
+	static final byte TAG_DH = 4;
+	static final byte TAG_DH_EXTENDED = 5;
+	static final byte TAG_PEDERSEN_CMT_KNOWLEDGE = 6;
+	static final byte TAG_OR_TWO_FIRST = 7;
+	static final byte TAG_OR_TWO_SECOND = 8;
+	static final byte TAG_OR_MULTIPLE_SECOND = 9;
+	static final byte TAG_DJ_PRODUCT_FIRST = 10;
+	static final byte TAG_DJ_PRODUCT_SECOND = 11;
+	
+	private DataOutputStream out;
+	
+	/**
+	 * Constructor that sets the stream to write to.
+	 * @param out
+	 */
+	public SigmaMsgOutput(OutputStream out){
+		this.out = new DataOutputStream(out);
+	}
+	
+	/**
+	 * Writes the given message as its type tag followed by its fields.
+	 * @param msg the message to write. Can be null.
+	 * @throws IOException if failed to write.
+	 * @throws IllegalArgumentException if the message (or one of its inner messages) has no binary encoding.
+	 */
+	public void writeMessage(SigmaProtocolMsg msg) throws IOException{
+		if (msg == null){
+			out.writeByte(TAG_NULL);
+			return;
+		}
+		out.writeByte(getTag(msg));
+		((SigmaBinaryEncodable) msg).writeTo(this);
+	}
+	
+	/**
+	 * Writes the given non negative BigInteger.
+	 * @param value can be null.
+	 * @throws IOException if failed to write.
+	 */
+	public void writeBigInteger(BigInteger value) throws IOException{
+		GroupElementSendableDataEncoding.writeBigInteger(out, value);
+	}
+	
+	/**
+	 * Writes the given group element by its coordinates.
+	 * @param element can be null.
+	 * @throws IOException if failed to write.
+	 */
+	public void writeGroupElement(GroupElementSendableData element) throws IOException{
+		GroupElementSendableDataEncoding.write(out, element);
+	}
+	
+	/**
+	 * Writes the given byte array as its length and bytes.
+	 * @param bytes can be null.
+	 * @throws IOException if failed to write.
+	 */
+	public void writeBytes(byte[] bytes) throws IOException{
+		if (bytes == null){
+			out.writeInt(-1);
+			return;
+		}
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+	
+	/**
+	 * Writes the number of items in a list. 
+	 * @param count
+	 * @throws IOException if failed to write.
+	 */
+	public void writeCount(int count) throws IOException{
+		out.writeInt(count);
+	}
+	
+	/**
+	 * Flushes the underlying stream.
+	 * @throws IOException if failed to flush.
+	 */
+	public void flush() throws IOException{
+		out.flush();
+	}
+	
+	/*
+	 * Returns the tag of the given message.
+	 */
+	private static byte getTag(SigmaProtocolMsg msg){
+		if (msg instanceof SigmaBIMsg){
+			return TAG_BI;
+		} else if (msg instanceof SigmaGroupElementMsg){
+			return TAG_GROUP_ELEMENT;
+		} else if (msg instanceof SigmaMultipleMsg){
+			return TAG_MULTIPLE;
+		} else if (msg instanceof SigmaDHMsg){
+			return TAG_DH;
+		} else if (msg instanceof SigmaDHExtendedMsg){
+			return TAG_DH_EXTENDED;
+		} else if (msg instanceof SigmaPedersenCmtKnowledgeMsg){
+			return TAG_PEDERSEN_CMT_KNOWLEDGE;
+		} else if (msg instanceof SigmaORTwoFirstMsg){
+			return TAG_OR_TWO_FIRST;
+		} else if (msg instanceof SigmaORTwoSecondMsg){
+			return TAG_OR_TWO_SECOND;
+		} else if (msg instanceof SigmaORMultipleSecondMsg){
+			return TAG_OR_MULTIPLE_SECOND;
+		} else if (msg instanceof SigmaDJProductFirstMsg){
+			return TAG_DJ_PRODUCT_FIRST;
+		} else if (msg instanceof SigmaDJProductSecondMsg){
+			return TAG_DJ_PRODUCT_SECOND;
+		}
+		throw new IllegalArgumentException("the message " + msg.getClass().getName() + " has no binary encoding");
+	}
+}
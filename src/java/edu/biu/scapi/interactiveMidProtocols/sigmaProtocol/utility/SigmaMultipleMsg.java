@@ -24,6 +24,7 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
 
+import java.io.IOException;
 import java.util.ArrayList;
 
 /**
@@ -34,7 +35,7 @@ import java.util.ArrayList;
  * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University (Moriya Farbstein)
  *
  */
-public class SigmaMultipleMsg implements SigmaProtocolMsg{
+public class SigmaMultipleMsg implements SigmaProtocolMsg, SigmaTranscriptEncodable, SigmaBinaryEncodable{
 	
 	
 	private static final long serialVersionUID = -8652010933123411049L;
@@ -49,4 +50,42 @@ public class SigmaMultipleMsg implements SigmaProtocolMsg{
 		return messages;
 	}
 
+
+	/**
+	 * Writes the label of this class and the messages of the underlying sigma protocols to the given transcript.
+	 */
+	@Override
+	public void appendTo(SigmaTranscript transcript) {
+		transcript.appendLabel("SigmaMultipleMsg");
+		transcript.appendInt(messages.size());
+		for (int i = 0; i < messages.size(); i++){
+			transcript.appendObject(messages.get(i));
+		}
+	}
+
+	/**
+	 * Writes the messages of the underlying sigma protocols to the given output.
+	 */
+	@Override
+	public void writeTo(SigmaMsgOutput out) throws IOException {
+		out.writeCount(messages.size());
+		for (int i = 0; i < messages.size(); i++){
+			out.writeMessage(messages.get(i));
+		}
+	}
+	
+	/**
+	 * Reads a message that was written by {@link #writeTo(SigmaMsgOutput)}.
+	 * @param in the input to read from.
+	 * @return the read message.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static SigmaMultipleMsg readFrom(SigmaMsgInput in) throws IOException {
+		int size = in.readCount();
+		ArrayList<SigmaProtocolMsg> messages = new ArrayList<SigmaProtocolMsg>(size);
+		for (int i = 0; i < size; i++){
+			messages.add(in.readMessage());
+		}
+		return new SigmaMultipleMsg(messages);
+	}
 }
@@ -0,0 +1,283 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigInteger;
+
+import edu.biu.scapi.primitives.dlog.ECElementSendableData;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.ZpElementSendableData;
+import edu.biu.scapi.primitives.hash.CryptographicHash;
+import edu.biu.scapi.primitives.randomOracle.RandomOracle;
+
+/**
+ * This class builds the input of the random oracle in the Fiat-Shamir transformation.<p>
+ * 
+ * The transcript absorbs labels, byte strings, integers, BigIntegers and group elements in a canonical binary form: 
+ * every item is written as a one byte tag, a four bytes (big endian) length and the content bytes. 
+ * Group elements are written by their coordinates, so the encoding does not depend on the group implementation 
+ * or on java serialization. Sigma inputs and messages that implement {@link SigmaTranscriptEncodable} write themselves into the transcript; 
+ * other objects are absorbed as their serialized bytes.<p>
+ * 
+ * The transcript can be built in two modes: 
+ * a buffered mode, in which the encoded bytes are kept and given at the end to a {@link RandomOracle}; 
+ * and a streaming mode, in which the encoded bytes are given directly to a {@link CryptographicHash} and nothing is kept.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class SigmaTranscript {
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_LABEL = 1;
+	private static final byte TAG_BYTES = 2;
+	private static final byte TAG_INT = 3;
+	private static final byte TAG_BIG_INTEGER = 4;
+	private static final byte TAG_EC_ELEMENT = 5;
+	private static final byte TAG_ZP_ELEMENT = 6;
+	private static final byte TAG_SERIALIZED = 7;
+	
+	private CryptographicHash hash;		//The hash to stream into, in streaming mode.
+	private byte[] buffer;				//The encoded bytes, in buffered mode.
+	private int size;					//Number of bytes in the buffer.
+	private byte[] header = new byte[5];
+	
+	/**
+	 * Constructor that creates a transcript in buffered mode.
+	 */
+	public SigmaTranscript(){
+		buffer = new byte[256];
+	}
+	
+	/**
+	 * Constructor that creates a transcript in streaming mode. 
+	 * All the encoded bytes are given to the given hash function.
+	 * @param hash the hash function to stream into. Should be in its initial state.
+	 */
+	public SigmaTranscript(CryptographicHash hash){
+		this.hash = hash;
+	}
+	
+	/**
+	 * Writes the given label. Labels are used to separate the different parts of the transcript and the different kinds of objects.
+	 * @param label
+	 */
+	public void appendLabel(String label){
+		byte[] bytes;
+		try {
+			bytes = label.getBytes("UTF-8");
+		} catch (java.io.UnsupportedEncodingException e) {
+			//Should not occur since UTF-8 is always supported.
+			throw new IllegalStateException(e.getMessage());
+		}
+		writeItem(TAG_LABEL, bytes, 0, bytes.length);
+	}
+	
+	/**
+	 * Writes the given byte string.
+	 * @param data can be null.
+	 */
+	public void appendBytes(byte[] data){
+		if (data == null){
+			writeNull();
+		} else {
+			writeItem(TAG_BYTES, data, 0, data.length);
+		}
+	}
+	
+	/**
+	 * Writes the given int.
+	 * @param value
+	 */
+	public void appendInt(int value){
+		writeHeader(TAG_INT, 4);
+		byte[] bytes = new byte[4];
+		putInt(bytes, 0, value);
+		write(bytes, 0, 4);
+	}
+	
+	/**
+	 * Writes the given BigInteger, as its minimal two's complement representation.
+	 * @param value can be null.
+	 */
+	public void appendBigInteger(BigInteger value){
+		if (value == null){
+			writeNull();
+		} else {
+			byte[] bytes = value.toByteArray();
+			writeItem(TAG_BIG_INTEGER, bytes, 0, bytes.length);
+		}
+	}
+	
+	/**
+	 * Writes the given group element by its coordinates.
+	 * @param element can be null.
+	 */
+	public void appendGroupElement(GroupElement element){
+		if (element == null){
+			writeNull();
+		} else {
+			appendGroupElement(element.generateSendableData());
+		}
+	}
+	
+	/**
+	 * Writes the given group element by its coordinates.
+	 * @param element can be null.
+	 */
+	public void appendGroupElement(GroupElementSendableData element){
+		if (element == null){
+			writeNull();
+		} else if (element instanceof ECElementSendableData){
+			writeHeader(TAG_EC_ELEMENT, 2);
+			appendBigInteger(((ECElementSendableData) element).getX());
+			appendBigInteger(((ECElementSendableData) element).getY());
+		} else if (element instanceof ZpElementSendableData){
+			writeHeader(TAG_ZP_ELEMENT, 1);
+			appendBigInteger(((ZpElementSendableData) element).getX());
+		} else {
+			appendObject(element);
+		}
+	}
+	
+	/**
+	 * Writes the given object. If the object implements SigmaTranscriptEncodable it writes itself; 
+	 * Otherwise, its serialized bytes are written.
+	 * @param object can be null.
+	 * @throws IllegalArgumentException if the object can not be serialized.
+	 */
+	public void appendObject(Serializable object){
+		if (object == null){
+			writeNull();
+		} else if (object instanceof SigmaTranscriptEncodable){
+			((SigmaTranscriptEncodable) object).appendTo(this);
+		} else {
+			byte[] bytes;
+			try {
+				ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
+				ObjectOutputStream oOut  = new ObjectOutputStream(bOut);
+				oOut.writeObject(object);  
+				oOut.close();
+				bytes = bOut.toByteArray();
+			} catch (IOException e) {
+				throw new IllegalArgumentException("failed to serialize the given object. The error is: " + e.getMessage());
+			}
+			writeItem(TAG_SERIALIZED, bytes, 0, bytes.length);
+		}
+	}
+	
+	/**
+	 * Computes the random oracle on the transcript. Can be used only in buffered mode.
+	 * @param ro the random oracle to use.
+	 * @param outLen required output length in BYTES.
+	 * @return the output of the random oracle.
+	 * @throws IllegalStateException if this transcript is in streaming mode.
+	 */
+	public byte[] compute(RandomOracle ro, int outLen){
+		if (hash != null){
+			throw new IllegalStateException("a streaming transcript can not be given to a random oracle");
+		}
+		return ro.compute(buffer, 0, size, outLen);
+	}
+	
+	/**
+	 * Finishes the hash computation of the transcript and returns the first outLen bytes of the result. Can be used only in streaming mode.<p>
+	 * The hash function returns to its initial state, so this transcript should not be used after this call.
+	 * @param outLen required output length in BYTES.
+	 * @return the hash of the transcript, truncated to outLen bytes.
+	 * @throws IllegalStateException if this transcript is in buffered mode.
+	 * @throws IllegalArgumentException if outLen is greater than the output length of the hash function.
+	 */
+	public byte[] compute(int outLen){
+		if (hash == null){
+			throw new IllegalStateException("a buffered transcript should be given to a random oracle");
+		}
+		if (outLen > hash.getHashedMsgSize()){
+			throw new IllegalArgumentException("The given output length is greater then the output length of the hash function");
+		}
+		byte[] out = new byte[hash.getHashedMsgSize()];
+		hash.hashFinal(out, 0);
+		if (out.length == outLen){
+			return out;
+		}
+		byte[] output = new byte[outLen];
+		System.arraycopy(out, 0, output, 0, outLen);
+		return output;
+	}
+	
+	/**
+	 * Returns the encoded bytes of the transcript. Can be used only in buffered mode.
+	 * @throws IllegalStateException if this transcript is in streaming mode.
+	 */
+	public byte[] toByteArray(){
+		if (hash != null){
+			throw new IllegalStateException("a streaming transcript does not keep its bytes");
+		}
+		byte[] bytes = new byte[size];
+		System.arraycopy(buffer, 0, bytes, 0, size);
+		return bytes;
+	}
+	
+	private void writeNull(){
+		writeHeader(TAG_NULL, 0);
+	}
+	
+	private void writeItem(byte tag, byte[] data, int offset, int len){
+		writeHeader(tag, len);
+		write(data, offset, len);
+	}
+	
+	private void writeHeader(byte tag, int len){
+		header[0] = tag;
+		putInt(header, 1, len);
+		write(header, 0, header.length);
+	}
+	
+	private static void putInt(byte[] out, int offset, int value){
+		out[offset] = (byte) (value >>> 24);
+		out[offset + 1] = (byte) (value >>> 16);
+		out[offset + 2] = (byte) (value >>> 8);
+		out[offset + 3] = (byte) value;
+	}
+	
+	private void write(byte[] data, int offset, int len){
+		if (hash != null){
+			hash.update(data, offset, len);
+			return;
+		}
+		if (size + len > buffer.length){
+			byte[] newBuffer = new byte[Math.max(buffer.length * 2, size + len)];
+			System.arraycopy(buffer, 0, newBuffer, 0, size);
+			buffer = newBuffer;
+		}
+		System.arraycopy(data, offset, buffer, size, len);
+		size += len;
+	}
+}
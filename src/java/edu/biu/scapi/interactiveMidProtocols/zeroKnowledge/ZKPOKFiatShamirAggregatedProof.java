@@ -0,0 +1,222 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgOutput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+
+/** 
+ * This message contains a Fiat Shamir proof of n statements of the same sigma type that were proven under one challenge.<p>
+ * 
+ * Such a proof is generated by {@link ZKPOKFiatShamirFromSigmaProver} when the underlying sigma protocol is the AND of the n statements.
+ * Instead of holding the first and second messages as two SigmaMultipleMsg objects, the messages are packed into one contiguous encoding, 
+ * in the order a1, z1, a2, z2, ..., an, zn. The messages are written by {@link SigmaMsgOutput}, that writes a type tag followed by the 
+ * group elements and BigIntegers of every message, and read back by {@link SigmaMsgInput}, that checks every length in the encoding before 
+ * allocating anything. Java serialization is not used for the messages, so a proof received from the other party can not create objects of 
+ * other types.<p>
+ * 
+ * The proof can be written to a stream by the {@link #writeTo(OutputStream)} function. 
+ * {@link ZKPOKFiatShamirStreamingVerifier} can verify the written proof while it is being read, one statement after the other.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ZKPOKFiatShamirAggregatedProof implements Serializable{
+
+	private static final long serialVersionUID = 2874166352305817421L;
+	
+	//Size of the buffer used to read byte arrays from a stream.
+	private static final int READ_CHUNK_SIZE = 8192;
+	
+	private int numStatements;
+	private byte[] e;
+	private byte[] messages;	//The encoded a1, z1, ..., an, zn.
+	
+	/**
+	 * Packs the given proof. The first and second messages of the given proof should be SigmaMultipleMsg objects of the same size, 
+	 * as the messages of the sigma AND protocol.
+	 * @param proof Fiat Shamir proof of the AND of the statements.
+	 * @throws IllegalArgumentException if the messages of the proof are not SigmaMultipleMsg of the same size, or if one of them has no binary encoding.
+	 * @throws IOException if there was a problem in the encoding of the messages.
+	 */
+	public ZKPOKFiatShamirAggregatedProof(ZKPOKFiatShamirProof proof) throws IOException{
+		if (!(proof.getA() instanceof SigmaMultipleMsg) || !(proof.getZ() instanceof SigmaMultipleMsg)){
+			throw new IllegalArgumentException("the messages of the given proof must be instances of SigmaMultipleMsg");
+		}
+		ArrayList<SigmaProtocolMsg> first = ((SigmaMultipleMsg) proof.getA()).getMessages();
+		ArrayList<SigmaProtocolMsg> second = ((SigmaMultipleMsg) proof.getZ()).getMessages();
+		if (first.size() != second.size()){
+			throw new IllegalArgumentException("the number of first messages is different from the number of second messages");
+		}
+		
+		numStatements = first.size();
+		e = proof.getE();
+		
+		//Write all the messages one after the other.
+		ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
+		SigmaMsgOutput out = new SigmaMsgOutput(bOut);
+		for (int i = 0; i < numStatements; i++){
+			out.writeMessage(first.get(i));
+			out.writeMessage(second.get(i));
+		}
+		out.flush();
+		messages = bOut.toByteArray();
+	}
+	
+	private ZKPOKFiatShamirAggregatedProof(int numStatements, byte[] e, byte[] messages){
+		this.numStatements = numStatements;
+		this.e = e;
+		this.messages = messages;
+	}
+	
+	/**
+	 * Returns the number of statements in this proof.
+	 * @return the number of statements.
+	 */
+	public int size(){
+		return numStatements;
+	}
+	
+	/**
+	 * Returns the challenge.
+	 * @return the challenge.
+	 */
+	public byte[] getE(){
+		return e;
+	}
+	
+	/**
+	 * Returns the encoding of the messages a1, z1, ..., an, zn.
+	 * @return the encoded messages.
+	 */
+	public byte[] getEncodedMessages(){
+		return messages;
+	}
+	
+	/**
+	 * Unpacks the messages and returns them as a Fiat Shamir proof of the AND of the statements.
+	 * @return the proof, where the first and second messages are SigmaMultipleMsg objects.
+	 * @throws IOException if the encoded messages are not valid.
+	 */
+	public ZKPOKFiatShamirProof toProof() throws IOException{
+		ArrayList<SigmaProtocolMsg> first = new ArrayList<SigmaProtocolMsg>();
+		ArrayList<SigmaProtocolMsg> second = new ArrayList<SigmaProtocolMsg>();
+		
+		SigmaMsgInput in = new SigmaMsgInput(new ByteArrayInputStream(messages), messages.length);
+		for (int i = 0; i < numStatements; i++){
+			first.add(readMessage(in));
+			second.add(readMessage(in));
+		}
+		//The encoding should contain exactly the messages of the statements.
+		if (in.getRemaining() != 0){
+			throw new IOException("the encoded messages contain more data than the messages of the statements");
+		}
+		
+		return new ZKPOKFiatShamirProof(new SigmaMultipleMsg(first), e, new SigmaMultipleMsg(second));
+	}
+	
+	/**
+	 * Writes this proof to the given stream in the following format:<p>
+	 * number of statements, length of the challenge, the challenge, length of the encoded messages, the encoded messages.<p>
+	 * The numbers are written as 4 bytes integers.
+	 * @param out the stream to write to.
+	 * @throws IOException if failed to write.
+	 */
+	public void writeTo(OutputStream out) throws IOException{
+		DataOutputStream dOut = new DataOutputStream(out);
+		dOut.writeInt(numStatements);
+		dOut.writeInt(e.length);
+		dOut.write(e);
+		dOut.writeInt(messages.length);
+		dOut.write(messages);
+		dOut.flush();
+	}
+	
+	/**
+	 * Reads a proof that was written by the {@link #writeTo(OutputStream)} function.
+	 * @param in the stream to read from.
+	 * @return the read proof.
+	 * @throws IOException if failed to read or if the stream does not contain a valid proof.
+	 */
+	public static ZKPOKFiatShamirAggregatedProof readFrom(InputStream in) throws IOException{
+		DataInputStream dIn = new DataInputStream(in);
+		int numStatements = dIn.readInt();
+		byte[] e = readBytes(dIn);
+		byte[] messages = readBytes(dIn);
+		//Every statement is encoded in at least two bytes (the tags of its messages).
+		if (numStatements < 0 || numStatements > messages.length / 2){
+			throw new IOException("the given stream does not contain a valid proof");
+		}
+		return new ZKPOKFiatShamirAggregatedProof(numStatements, e, messages);
+	}
+	
+	/*
+	 * Reads a length prefixed byte array.
+	 * The length is given by the other party, so the array is read in chunks and grows only with the bytes that were actually read.
+	 */
+	private static byte[] readBytes(DataInputStream in) throws IOException{
+		int len = in.readInt();
+		if (len < 0){
+			throw new IOException("the given stream does not contain a valid proof");
+		}
+		byte[] chunk = new byte[Math.min(len, READ_CHUNK_SIZE)];
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(chunk.length);
+		int remaining = len;
+		while (remaining > 0){
+			int read = in.read(chunk, 0, Math.min(remaining, chunk.length));
+			if (read < 0){
+				throw new EOFException("the given stream does not contain a valid proof");
+			}
+			bytes.write(chunk, 0, read);
+			remaining -= read;
+		}
+		return bytes.toByteArray();
+	}
+	
+	/**
+	 * Reads the next message from the given input of encoded messages.
+	 * @throws IOException if the encoding is not valid or the message is null.
+	 */
+	static SigmaProtocolMsg readMessage(SigmaMsgInput in) throws IOException{
+		SigmaProtocolMsg msg = in.readMessage();
+		if (msg == null){
+			throw new IOException("the encoded messages should not be null");
+		}
+		return msg;
+	}
+}
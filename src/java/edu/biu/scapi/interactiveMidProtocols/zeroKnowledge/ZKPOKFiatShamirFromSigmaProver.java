@@ -24,16 +24,14 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
-import java.io.Serializable;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.exceptions.CheatAttemptException;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaProverComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProverInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
 import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
 import edu.biu.scapi.primitives.randomOracle.RandomOracle;
 
@@ -142,48 +140,45 @@ public class ZKPOKFiatShamirFromSigmaProver implements ZKPOKProver{
 		return new ZKPOKFiatShamirProof(a, e, z);
 	}
 	
+	/**
+	 * Computes a Fiat Shamir proof of n statements of the same sigma type under one challenge, and packs it into an aggregated proof.<p>
+	 * The underlying sigma prover of this prover should be the AND of the n statements provers 
+	 * (see {@link edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and.SigmaANDProverComputation}).
+	 * @param input can be an instance of ZKPOKFiatShamirInput that holds 
+	 * 				input for the underlying sigma protocol and possible context information cont; 
+	 * 				Or input for the underlying sigma protocol.
+	 * @return the aggregated proof.
+	 * @throws CheatAttemptException if the challenge's length is not as expected.
+	 * @throws IOException if there was a problem in the encoding of the messages.
+	 * @throws IllegalArgumentException if the messages of the underlying prover are not SigmaMultipleMsg objects or have no binary encoding.
+	 */
+	public ZKPOKFiatShamirAggregatedProof generateAggregatedProof(ZKProverInput input) throws CheatAttemptException, IOException{
+		return new ZKPOKFiatShamirAggregatedProof(generateFiatShamirProof(input));
+	}
+	
 	/**
 	 * Run the following line from the protocol:
-	 * "COMPUTE e=H(x,a,cont)".
+	 * "COMPUTE e=H(x,a,cont)".<p>
+	 * x, a and cont are written to the random oracle input using the canonical encoding of {@link SigmaTranscript}.
 	 * @param input 
 	 * @param a first message of the sigma protocol.
 	 * @return the computed challenge
-	 * @throws IOException 
 	 */
-	private byte[] computeChallenge(ZKPOKFiatShamirProverInput input, SigmaProtocolMsg a) throws IOException {
+	private byte[] computeChallenge(ZKPOKFiatShamirProverInput input, SigmaProtocolMsg a) {
+		SigmaTranscript transcript = new SigmaTranscript();
 		//The input to the random oracle should include the common data of the prover 
 		//and verifier, and not the prover's private input.
-		byte[] inputArray = convertToBytes(((SigmaProverInput) input.getSigmaInput()).getCommonParams());
-		byte[] messageArray = convertToBytes(a);
+		transcript.appendLabel("x");
+		transcript.appendObject(((SigmaProverInput) input.getSigmaInput()).getCommonParams());
+		transcript.appendLabel("a");
+		transcript.appendObject(a);
 		byte[] cont = input.getContext();
-
-		byte[] inputToRO = null;
-		
 		if (cont != null){
-			inputToRO = new byte[inputArray.length + messageArray.length + cont.length];
-			System.arraycopy(cont, 0, inputToRO, inputArray.length + messageArray.length, cont.length);
-		} else{
-			inputToRO = new byte[inputArray.length + messageArray.length];
+			transcript.appendLabel("cont");
+			transcript.appendBytes(cont);
 		}
-		System.arraycopy(inputArray, 0, inputToRO, 0, inputArray.length);
-		System.arraycopy(messageArray, 0, inputToRO, inputArray.length, messageArray.length);
-		
-		return ro.compute(inputToRO, 0, inputToRO.length, sProver.getSoundnessParam()/8);
-	}
-	
-	/**
-	 * Converts the given data to byte array using serialization mechanism.
-	 * @param data to convert.
-	 * @return the converted bytes.
-	 * @throws IOException
-	 */
-	private byte[] convertToBytes(Serializable data) throws IOException{
-		ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
-	    ObjectOutputStream oOut  = new ObjectOutputStream(bOut);
-		oOut.writeObject(data);  
-		oOut.close();
 		
-		return bOut.toByteArray();
+		return transcript.compute(ro, sProver.getSoundnessParam()/8);
 	}
 	
 	/**
@@ -24,15 +24,14 @@
 */
 package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
 
 import edu.biu.scapi.comm.Channel;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
 import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaTranscript;
 import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
 import edu.biu.scapi.primitives.randomOracle.RandomOracle;
 
@@ -165,6 +164,22 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 		return valid;
 	}
 	
+	/**
+	 * Verifies a Fiat Shamir proof of n statements that were proven under one challenge.<p>
+	 * The underlying sigma verifier of this verifier should be the AND of the n statements verifiers.
+	 * In order to verify the proof while it is being received, see {@link ZKPOKFiatShamirStreamingVerifier}.
+	 * @param input can be an instance of ZKPOKFiatShamirInput that holds 
+	 * 				input for the underlying sigma protocol and possible context information cont; 
+	 * 				Or input for the underlying sigma protocol.
+	 * @param proof aggregated Fiat Shamir proof received from the prover.
+	 * @return true if the proof is valid; false, otherwise.
+	 * @throws IOException if the encoded messages of the proof are not valid.
+	 * @throws IllegalArgumentException if the given input is not an instance of ZKPOKFiatShamirInput or SigmaCommonInput.
+	 */
+	public boolean verifyAggregatedProof(ZKCommonInput input, ZKPOKFiatShamirAggregatedProof proof) throws IOException{
+		return verifyFiatShamirProof(input, proof.toProof());
+	}
+	
 	/**
 	 * Waits for a message a from the prover.
 	 * @return the received message
@@ -189,44 +204,37 @@ public class ZKPOKFiatShamirFromSigmaVerifier implements ZKPOKVerifier{
 	
 	/**
 	 * Run the following line from the protocol:
-	 * "COMPUTE e=H(x,a,cont)".
+	 * "COMPUTE e=H(x,a,cont)".<p>
+	 * x, a and cont are written to the random oracle input using the canonical encoding of {@link SigmaTranscript}.
 	 * @param input 
 	 * @param a first message of the sigma protocol.
 	 * @return the computed challenge
-	 * @throws IOException 
 	 */
-	private byte[] computeChallenge(ZKPOKFiatShamirCommonInput input, SigmaProtocolMsg a) throws IOException {
-		byte[] inputArray = convertToBytes(input.getSigmaInput());
-		byte[] messageArray = convertToBytes(a);
-		byte[] cont = input.getContext();
-		
-		byte[] inputToRO = null;
-		
-		if (cont != null){
-			inputToRO = new byte[inputArray.length + messageArray.length + cont.length];
-			System.arraycopy(cont, 0, inputToRO, inputArray.length + messageArray.length, cont.length);
-		} else{
-			inputToRO = new byte[inputArray.length + messageArray.length];
-		}
-		System.arraycopy(inputArray, 0, inputToRO, 0, inputArray.length);
-		System.arraycopy(messageArray, 0, inputToRO, inputArray.length, messageArray.length);
-		
-		return ro.compute(inputToRO, 0, inputToRO.length, sVerifier.getSoundnessParam()/8);
+	private byte[] computeChallenge(ZKPOKFiatShamirCommonInput input, SigmaProtocolMsg a) {
+		return computeChallenge(ro, sVerifier.getSoundnessParam(), input.getSigmaInput(), a, input.getContext());
 	}
 	
 	/**
-	 * Converts the given data to byte array using serialization mechanism.
-	 * @param data to convert.
-	 * @return the converted bytes.
-	 * @throws IOException
+	 * Computes e=H(x,a,cont) using the given random oracle.
+	 * @param ro the random oracle to use.
+	 * @param t soundness parameter, in BITS.
+	 * @param x the common input of the sigma protocol.
+	 * @param a first message of the sigma protocol.
+	 * @param cont context information. May be null.
+	 * @return the computed challenge.
 	 */
-	private byte[] convertToBytes(Serializable data) throws IOException{
-		ByteArrayOutputStream bOut = new ByteArrayOutputStream();  
-	    ObjectOutputStream oOut  = new ObjectOutputStream(bOut);
-		oOut.writeObject(data);  
-		oOut.close();
+	static byte[] computeChallenge(RandomOracle ro, int t, SigmaCommonInput x, SigmaProtocolMsg a, byte[] cont) {
+		SigmaTranscript transcript = new SigmaTranscript();
+		transcript.appendLabel("x");
+		transcript.appendObject(x);
+		transcript.appendLabel("a");
+		transcript.appendObject(a);
+		if (cont != null){
+			transcript.appendLabel("cont");
+			transcript.appendBytes(cont);
+		}
 		
-		return bOut.toByteArray();
+		return transcript.compute(ro, t/8);
 	}
 	
 	/**
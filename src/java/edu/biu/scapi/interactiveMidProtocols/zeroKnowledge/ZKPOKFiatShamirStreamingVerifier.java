@@ -0,0 +1,142 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.interactiveMidProtocols.zeroKnowledge;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.SigmaVerifierComputation;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.and.SigmaANDCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaCommonInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMsgInput;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaMultipleMsg;
+import edu.biu.scapi.interactiveMidProtocols.sigmaProtocol.utility.SigmaProtocolMsg;
+import edu.biu.scapi.primitives.randomOracle.HKDFBasedRO;
+import edu.biu.scapi.primitives.randomOracle.RandomOracle;
+
+/**
+ * Verifier of aggregated Fiat Shamir proofs that checks the proof while it is being read.<p>
+ * 
+ * The proof should be written by {@link ZKPOKFiatShamirAggregatedProof#writeTo(java.io.OutputStream)}. 
+ * This verifier reads the messages (ai, zi) one statement after the other and checks each transcript (ai, e, zi) by the given sigma verifier 
+ * as soon as it is read. After the last statement, it checks that e=H(x,a,cont), where x and a are the common input and first message of the 
+ * AND of the statements. The proof is accepted only if all the checks succeed, so this verifier accepts exactly the proofs that 
+ * {@link ZKPOKFiatShamirFromSigmaVerifier#verifyAggregatedProof(ZKCommonInput, ZKPOKFiatShamirAggregatedProof)} accepts.<p>
+ * 
+ * In case of a failed check, the verifier returns false immediately and the rest of the proof is not read from the stream.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ZKPOKFiatShamirStreamingVerifier {
+
+	private SigmaVerifierComputation sVerifier; //Underlying verifier of a single statement.
+	private RandomOracle ro;					//Underlying random oracle to use.
+	
+	/**
+	 * Constructor that accepts the underlying sigma protocol's verifier and random oracle to use.
+	 * @param sVerifier underlying sigma protocol's verifier of a single statement. It is used to verify all the statements of the proof.
+	 * @param ro random oracle
+	 */
+	public ZKPOKFiatShamirStreamingVerifier(SigmaVerifierComputation sVerifier, RandomOracle ro) {
+		this.sVerifier = sVerifier;
+		this.ro = ro;
+	}
+	
+	/**
+	 * Constructor that accepts the underlying sigma protocol's verifier and sets default random oracle.
+	 * @param sVerifier underlying sigma protocol's verifier of a single statement. It is used to verify all the statements of the proof.
+	 */
+	public ZKPOKFiatShamirStreamingVerifier(SigmaVerifierComputation sVerifier) {
+		this.sVerifier = sVerifier;
+		this.ro = new HKDFBasedRO();
+	}
+	
+	/**
+	 * Reads an aggregated proof from the given stream and verifies it.
+	 * @param input can be an instance of ZKPOKFiatShamirInput that holds SigmaANDCommonInput with the inputs of all the statements 
+	 * 				and possible context information cont; Or SigmaANDCommonInput.
+	 * @param in the stream to read the proof from.
+	 * @return true if the proof is valid; false, otherwise.
+	 * @throws IOException if failed to read the proof or if the encoded messages are not valid.
+	 * @throws IllegalArgumentException if the given input is not as expected.
+	 */
+	public boolean verify(ZKCommonInput input, InputStream in) throws IOException{
+		//The given input can be an instance of ZKPOKFiatShamirInput or just the input for the underlying sigma protocol.
+		ZKPOKFiatShamirCommonInput fsInput;
+		if (input instanceof SigmaANDCommonInput){
+			fsInput = new ZKPOKFiatShamirCommonInput((SigmaANDCommonInput) input);
+		} else if (input instanceof ZKPOKFiatShamirCommonInput && ((ZKPOKFiatShamirCommonInput) input).getSigmaInput() instanceof SigmaANDCommonInput){
+			fsInput = (ZKPOKFiatShamirCommonInput) input;
+		} else {
+			throw new IllegalArgumentException("the given input must be an instance of SigmaANDCommonInput or ZKPOKFiatShamirInput that holds SigmaANDCommonInput");
+		}
+		ArrayList<SigmaCommonInput> inputs = ((SigmaANDCommonInput) fsInput.getSigmaInput()).getInputs();
+		int t = sVerifier.getSoundnessParam();
+		
+		//Read the header of the proof: number of statements, challenge and length of the encoded messages.
+		DataInputStream dIn = new DataInputStream(in);
+		int numStatements = dIn.readInt();
+		int eLen = dIn.readInt();
+		//If the proof does not match the statements or the challenge has a wrong length, reject.
+		if (numStatements != inputs.size() || eLen != t/8){
+			return false;
+		}
+		byte[] e = new byte[eLen];
+		dIn.readFully(e);
+		int messagesLen = dIn.readInt();
+		if (messagesLen < 0){
+			return false;
+		}
+		
+		//Read and check the transcripts one after the other. 
+		//The input is limited to the encoded messages, so it does not read anything that is written after the proof.
+		SigmaMsgInput mIn = new SigmaMsgInput(in, messagesLen);
+		ArrayList<SigmaProtocolMsg> firstMessages = new ArrayList<SigmaProtocolMsg>();
+		for (int i = 0; i < numStatements; i++){
+			SigmaProtocolMsg a = ZKPOKFiatShamirAggregatedProof.readMessage(mIn);
+			SigmaProtocolMsg z = ZKPOKFiatShamirAggregatedProof.readMessage(mIn);
+			
+			//Check that transcript (ai, e, zi) is accepting in sigma on input xi.
+			sVerifier.setChallenge(e);
+			if (!sVerifier.verify(inputs.get(i), a, z)){
+				return false;
+			}
+			firstMessages.add(a);
+		}
+		//The encoded messages should contain exactly the messages of the statements.
+		if (mIn.getRemaining() != 0){
+			return false;
+		}
+		
+		//Check that e=H(x,a,cont), where a is the first message of the AND protocol.
+		byte[] computedE = ZKPOKFiatShamirFromSigmaVerifier.computeChallenge(ro, t, fsInput.getSigmaInput(), 
+				new SigmaMultipleMsg(firstMessages), fsInput.getContext());
+		return Arrays.equals(computedE, e);
+	}
+}
@@ -62,6 +62,7 @@ public class BcRSAPss extends RSAPssAbs {
 	private CipherParameters privateParameters;		//parameters that contain the private key and the random
 	private CipherParameters publicParameters;		//parameters that contain the public key and the random
 	private Digest digest;							//the underlying hash to use
+	private String hashName;						//the name of the underlying hash, used to create the signers of the batch functions
 	private PSSSigner signer;						//BC signature object
 	private SecureRandom random;
 	private boolean forSigning;
@@ -134,6 +135,7 @@ public class BcRSAPss extends RSAPssAbs {
 	private void createBCSigner(String hashName, SecureRandom random) throws FactoriesException{
 		//Creates BC digest with the given name.
 		digest = BCFactory.getInstance().getDigest(hashName);
+		this.hashName = hashName;
 		
 		this.random = random;
 		
@@ -270,6 +272,60 @@ public class BcRSAPss extends RSAPssAbs {
 		return signer.verifySignature(sigBytes);
 		
 	}
+	
+	@Override
+	protected boolean hasPrivateKey() {
+		return privateParameters != null;
+	}
+	
+	/**
+	 * Signs the messages in [from, to) using a new BC signer, that is initialized once for all the messages.
+	 * @throws ScapiRuntimeException in case that BC throws an exception of type DataLengthException or CryptoException.
+	 */
+	@Override
+	protected void signRange(byte[][] msgs, byte[][] signatures, int from, int to) {
+		PSSSigner rangeSigner = createSigner(true, privateParameters);
+		for (int i = from; i < to; i++){
+			rangeSigner.update(msgs[i], 0, msgs[i].length);
+			try {
+				signatures[i] = rangeSigner.generateSignature();
+				
+			//We wrap this exceptions instead of throwing them because we can't declare them in the interface.
+			} catch (DataLengthException e) {
+				throw new ScapiRuntimeException(e.getMessage());
+			} catch (CryptoException e) {
+				throw new ScapiRuntimeException(e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Verifies the signatures in [from, to) using a new BC signer, that is initialized once for all the signatures.
+	 */
+	@Override
+	protected void verifyRange(byte[][] signatures, byte[][] msgs, boolean[] results, int from, int to) {
+		PSSSigner rangeSigner = createSigner(false, publicParameters);
+		for (int i = from; i < to; i++){
+			rangeSigner.update(msgs[i], 0, msgs[i].length);
+			results[i] = rangeSigner.verifySignature(signatures[i]);
+		}
+	}
+	
+	/*
+	 * Creates a BC signer with its own digest and engine, so it can be used by one thread of the batch functions.
+	 */
+	private PSSSigner createSigner(boolean forSigning, CipherParameters parameters){
+		Digest rangeDigest;
+		try {
+			rangeDigest = BCFactory.getInstance().getDigest(hashName);
+		} catch (FactoriesException e) {
+			//Shouldn't occur since the same name was used to create the digest of this object.
+			throw new IllegalStateException(e);
+		}
+		PSSSigner rangeSigner = new PSSSigner(new RSABlindedEngine(), rangeDigest, rangeDigest.getDigestSize());
+		rangeSigner.init(forSigning, parameters);
+		return rangeSigner;
+	}
 
 	
 
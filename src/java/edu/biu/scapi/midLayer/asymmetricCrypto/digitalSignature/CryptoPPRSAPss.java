@@ -37,6 +37,8 @@ import java.security.interfaces.RSAKey;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
 import edu.biu.scapi.midLayer.signature.RSASignature;
 import edu.biu.scapi.midLayer.signature.Signature;
@@ -53,6 +55,13 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 	private long signer;		//Pointer to the native Crypto++ signer object.
 	private long verifier;		//Pointer to the native Crypto++ verifier object.
 	private boolean isPrivateKeySet;
+	private PrivateKey privateKey;
+	
+	//Pairs of native {signer, verifier} objects used by the threads of the batch functions, kept as {signer, verifier, key generation}. 
+	//Each pair is used by one thread at a time and returned to the queue at the end of its range, 
+	//unless the key was changed since the pair was created.
+	private ConcurrentLinkedQueue<long[]> batchEngines = new ConcurrentLinkedQueue<long[]>();
+	private AtomicLong keyGeneration = new AtomicLong();	//Incremented every time a key is set.
 	
 	// JNI native functions. The functions of this class call the necessary native functions to perform the signature operations.
 	private native long createRSASigner();
@@ -63,6 +72,8 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 	
 	private native byte[] doSign(long signer, byte[] msg, int length);
 	private native boolean doVerify(long verifier, byte[] signature, byte[] msg, int msgLen);
+	private native byte[][] doSignBatch(long signer, byte[][] msgs, int from, int to);
+	private native boolean[] doVerifyBatch(long verifier, byte[][] signatures, byte[][] msgs, int from, int to);
 	
 	private native void deleteRSA(long signer, long verifier);	//Delete the native RSA objects.
 	
@@ -117,9 +128,29 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 		//Notice! We set the public key twice - in the PublicKey member and in the native verifier object.
 		//This can lead to many synchronization problems, so we need to be very careful not to change just one of them.
 		this.publicKey = (RSAPublicKey) publicKey;
+		this.privateKey = privateKey;
+		
+		//The native objects of the batch functions were initialized with the previous key. 
+		//Objects that are in use by a running batch are deleted when they are returned.
+		keyGeneration.incrementAndGet();
+		deleteBatchEngines();
+		
+		initNativeObjects(signer, verifier);
 		
+		if (privateKey != null){
+			isPrivateKeySet = true;
+		}
+		
+		isKeySet = true;
+		
+	}
+	
+	/*
+	 * Initializes the given native signer and verifier with the keys of this object.
+	 */
+	private void initNativeObjects(long signer, long verifier){
 		/* Gets the values of modulus (N), pubExponent (e), privExponent (d)*/
-		BigInteger pubExponent = ((RSAPublicKey) publicKey).getPublicExponent();
+		BigInteger pubExponent = publicKey.getPublicExponent();
 		BigInteger modN = ((RSAKey) publicKey).getModulus();
 		
 		//Initializes the native verifier with the RSA parameters - n, e.
@@ -149,11 +180,7 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 				//Initializes the native signer with the RSA parameters - n, e, d.
 				initRSASigner(signer, modN.toByteArray(), pubExponent.toByteArray(), privExponent.toByteArray());
 			}
-			isPrivateKeySet = true;
 		}
-		
-		isKeySet = true;
-		
 	}
 
 	/**
@@ -247,6 +274,78 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 		
 	}
 	
+	@Override
+	protected boolean hasPrivateKey() {
+		return isPrivateKeySet;
+	}
+	
+	/**
+	 * Signs the messages in [from, to) in one native call, using a native signer of the batch functions.
+	 */
+	@Override
+	protected void signRange(byte[][] msgs, byte[][] signatures, int from, int to) {
+		long[] engine = takeBatchEngine();
+		try {
+			byte[][] rangeSignatures = doSignBatch(engine[0], msgs, from, to);
+			System.arraycopy(rangeSignatures, 0, signatures, from, to - from);
+		} finally {
+			returnBatchEngine(engine);
+		}
+	}
+	
+	/**
+	 * Verifies the signatures in [from, to) in one native call, using a native verifier of the batch functions.
+	 */
+	@Override
+	protected void verifyRange(byte[][] signatures, byte[][] msgs, boolean[] results, int from, int to) {
+		long[] engine = takeBatchEngine();
+		try {
+			boolean[] rangeResults = doVerifyBatch(engine[1], signatures, msgs, from, to);
+			System.arraycopy(rangeResults, 0, results, from, to - from);
+		} finally {
+			returnBatchEngine(engine);
+		}
+	}
+	
+	/*
+	 * Returns a free pair of native {signer, verifier} objects of the current key. If there is no such pair, creates and initializes a new one.
+	 * Pairs of a previous key are deleted.
+	 */
+	private long[] takeBatchEngine(){
+		//The generation is read before the objects are initialized, so objects are never tagged with a newer key than their own.
+		long generation = keyGeneration.get();
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null && engine[2] != generation){
+			deleteRSA(engine[0], engine[1]);
+		}
+		if (engine == null){
+			engine = new long[]{createRSASigner(), createRSAVerifier(), generation};
+			initNativeObjects(engine[0], engine[1]);
+		}
+		return engine;
+	}
+	
+	/*
+	 * Returns the given pair of native objects to the queue, or deletes it if the key was changed since it was created.
+	 */
+	private void returnBatchEngine(long[] engine){
+		if (engine[2] == keyGeneration.get()){
+			batchEngines.add(engine);
+		} else {
+			deleteRSA(engine[0], engine[1]);
+		}
+	}
+	
+	/*
+	 * Deletes the native objects of the batch functions.
+	 */
+	private void deleteBatchEngines(){
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null){
+			deleteRSA(engine[0], engine[1]);
+		}
+	}
+	
 	/**
 	 * Deletes the related RSA objects.
 	 */
@@ -254,6 +353,7 @@ public class CryptoPPRSAPss extends RSAPssAbs {
 
 		// Delete from the dll the dynamic allocation of the RSA objects.
 		deleteRSA(signer, verifier);
+		deleteBatchEngines();
 
 	}
 	
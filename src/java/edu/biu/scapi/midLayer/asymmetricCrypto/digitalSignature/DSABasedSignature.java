@@ -26,6 +26,10 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
 
+import java.security.KeyException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.signature.Signature;
 import edu.biu.scapi.securityLevel.UnlimitedTimes;
 
 /**
@@ -35,5 +39,43 @@ import edu.biu.scapi.securityLevel.UnlimitedTimes;
  *
  */
 public interface DSABasedSignature extends DigitalSignature, UnlimitedTimes{
-
+	
+	/**
+	 * Sets a pool of precomputed tuples (k, k^(-1), r).<p>
+	 * If the pool matches the group of this signature scheme, the sign functions take a tuple from the pool 
+	 * instead of computing g^k. Otherwise, the pool is ignored.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setSigningPool(DSASigningPool pool);
+	
+	/**
+	 * Builds the shared fixed base tables of the generator and of the public key, if it was set.<p>
+	 * After the tables are built, signing and verification use them instead of generic exponentiations.
+	 */
+	public void prepareFixedBaseTables();
+	
+	/**
+	 * Signs many messages at once.<p>
+	 * The signatures are spread across the threads of the given executor if the underlying group is thread safe 
+	 * (see {@link edu.biu.scapi.primitives.dlog.DlogGroup#isThreadSafe()}). If the batch is big enough, 
+	 * the fixed base table of the generator is built first.
+	 * @param msgs the messages to sign.
+	 * @param executor used to compute the signatures in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the signatures, in the same order as the messages.
+	 * @throws KeyException if PrivateKey is not set.
+	 */
+	public Signature[] signBatch(byte[][] msgs, ExecutorService executor) throws KeyException;
+	
+	/**
+	 * Verifies many signatures under the public key of this signature scheme.<p>
+	 * If the batch is big enough, the fixed base tables of the generator and of the public key are built first, 
+	 * and the verifications are spread across the threads of the given executor.
+	 * @param signatures the signatures to verify. Each one should match this signature scheme.
+	 * @param msgs the signed messages, in the same order as the signatures.
+	 * @param executor used to compute the verifications in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return an array that holds true for every valid signature and false for every invalid one, as in {@link RSABasedSignature#verifyBatch(Signature[], byte[][], ExecutorService)}.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Signatures does not match this signature scheme.
+	 */
+	public boolean[] verifyBatch(Signature[] signatures, byte[][] msgs, ExecutorService executor);
 }
@@ -0,0 +1,184 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.ECElement;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.ZpElement;
+
+/**
+ * This class holds the computations of DSA that do not depend on the way the message is hashed or the signature is encoded.<p>
+ * It is used by {@link ScDSA}, {@link OpenSSLDSA} and {@link DSASigningPool}. 
+ * The exponentiations of the generator and of the public key use their shared fixed base tables, if the tables were built.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+final class DSAComputations {
+	
+	//Minimal batch size for which the batch functions build fixed base tables of the generator and the public key.
+	static final int MIN_BATCH_FOR_FIXED_BASE = 256;
+	
+	private DSAComputations(){}
+	
+	/**
+	 * Calculates the BigInteger value for the algorithm from the given groupElement.
+	 * In case of Zp element, the value is the element itself modulus q.
+	 * In case of EC point, the value is the x coordinate of the point modulus q.
+	 */
+	static BigInteger computeR(DlogGroup dlog, GroupElement element){
+		BigInteger r = null;
+		//In case of Zp element, r is the element itself.
+		if (element instanceof ZpElement){
+			r = ((ZpElement) element).getElementValue();
+		}
+		//In case of EC point, r is the x coordinate of the point.
+		if (element instanceof ECElement){
+			r = ((ECElement) element).getX();
+		}
+		
+		//Calculates r mod q.
+		return r.mod(dlog.getOrder());
+	}
+	
+	/**
+	 * Chooses a random k in Zq* and computes k^(-1) and r = F(g^k) mod q. If r is 0, starts again with a different k.
+	 */
+	static DSASigningPool.Entry createEntry(DlogGroup dlog, SecureRandom random){
+		BigInteger q = dlog.getOrder();
+		BigInteger qMinusOne = q.subtract(BigInteger.ONE);
+		BigInteger k;
+		BigInteger r;
+		do {
+			k = BigIntegers.createRandomInRange(BigInteger.ONE, qMinusOne, random);
+			r = computeR(dlog, exponentiate(dlog, dlog.getGenerator(), k));
+		} while (r.signum() == 0);
+		return new DSASigningPool.Entry(k, k.modInverse(q), r);
+	}
+	
+	/**
+	 * Calculates s = k^(-1)(z + xr) mod q.
+	 */
+	static BigInteger computeS(DSASigningPool.Entry entry, BigInteger x, BigInteger z, BigInteger q){
+		return z.add(x.multiply(entry.getR())).multiply(entry.getKInverse()).mod(q);
+	}
+	
+	/**
+	 * Verifies the signature (r, s) of the hashed message z under the public key y.<p>
+	 * v = g^(zw) * y^(rw) is computed using the fixed base tables of g and y if they were built, 
+	 * and as one simultaneous double exponentiation otherwise.
+	 */
+	static boolean verify(DlogGroup dlog, GroupElement y, BigInteger r, BigInteger s, BigInteger z){
+		BigInteger q = dlog.getOrder();
+		
+		//If r or s are not in Zq* returns false.
+		if ((r.signum() <= 0) || (r.compareTo(q) >= 0) || (s.signum() <= 0) || (s.compareTo(q) >= 0)){
+			return false;
+		}
+		
+		//w = s^-1 mod q.
+		BigInteger w = s.modInverse(q);
+		//u1 = z*w mod q.
+		BigInteger u1 = (z.multiply(w)).mod(q);
+		//u2 = r*w mod q.
+		BigInteger u2 = (r.multiply(w)).mod(q);
+		
+		//v = g^u1*y^u2.
+		GroupElement generator = dlog.getGenerator();
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		FixedBaseExponentiator gTable = cache.getIfPresent(dlog, generator);
+		GroupElement v;
+		if (gTable != null){
+			v = dlog.multiplyGroupElements(gTable.exponentiate(u1), exponentiate(dlog, y, u2));
+		} else {
+			v = dlog.simultaneousMultipleExponentiations(new GroupElement[]{generator, y}, new BigInteger[]{u1, u2});
+		}
+		
+		return r.equals(computeR(dlog, v));
+	}
+	
+	/**
+	 * Returns the executor that can be used for computations on the given group.<p>
+	 * The group is used by several threads only if it is thread safe (see {@link DlogGroup#isThreadSafe()}). 
+	 * Otherwise, null is returned so that the computation is done in the calling thread.
+	 */
+	static ExecutorService getGroupExecutor(DlogGroup dlog, ExecutorService executor){
+		return dlog.isThreadSafe() ? executor : null;
+	}
+	
+	/**
+	 * Verifies many signatures under the public key y.<p>
+	 * If the batch is big enough, the fixed base tables of g and y are built first. The verifications are spread across the threads 
+	 * of the given executor if the group is thread safe, and the result of every signature is returned.
+	 */
+	static boolean[] verifyBatch(final DlogGroup dlog, final GroupElement y, final BigInteger[] r, final BigInteger[] s, final BigInteger[] z, ExecutorService executor){
+		if (r.length >= MIN_BATCH_FOR_FIXED_BASE){
+			prepareFixedBaseTables(dlog, y);
+		}
+		final boolean[] results = new boolean[r.length];
+		ParallelBatchExecution.execute(getGroupExecutor(dlog, executor), r.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					results[i] = verify(dlog, y, r[i], s[i], z[i]);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Builds the shared fixed base tables of the generator and, if given, of the public key y.
+	 */
+	static void prepareFixedBaseTables(DlogGroup dlog, GroupElement y){
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		cache.get(dlog, dlog.getGenerator());
+		if (y != null){
+			cache.get(dlog, y);
+		}
+	}
+	
+	/*
+	 * Computes base^exponent, using the shared fixed base table of the base if it was already built.
+	 */
+	private static GroupElement exponentiate(DlogGroup dlog, GroupElement base, BigInteger exponent){
+		FixedBaseExponentiator table = FixedBaseExponentiatorCache.getInstance().getIfPresent(dlog, base);
+		if (table != null){
+			return table.exponentiate(exponent);
+		}
+		return dlog.exponentiate(base, exponent);
+	}
+}
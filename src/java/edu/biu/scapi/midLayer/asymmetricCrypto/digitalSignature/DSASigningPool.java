@@ -0,0 +1,134 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.generals.PrecomputationPool;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
+
+/**
+ * This class holds precomputed tuples (k, k^(-1), r) for DSA signing, where k is random in Zq* and r = F(g^k) mod q.<p>
+ * 
+ * The exponentiation g^k and the inversion of k do not depend on the message or on the private key, so they can be computed offline. 
+ * Given a tuple, the online signing computes s = k^(-1)(H(m) + xr) mod q, that is only two multiplications modulo q.
+ * The pool is given to the signature object by {@link DSABasedSignature#setSigningPool(DSASigningPool)}, 
+ * and can be shared by all the signers over the same group.<p>
+ * 
+ * The exponentiations use the shared fixed base table of the generator. The table is built by pools that are big enough to amortize it.
+ * Each tuple is given to one signer only, since signing two messages with the same k reveals the private key.<p>
+ * 
+ * The tuples are computed on the Dlog group of the signature scheme, which is also used by the signature objects. Therefore, 
+ * the pool is refilled in the background only if the group is thread safe (see {@link DlogGroup#isThreadSafe()}). 
+ * Otherwise, the executor is ignored and the pool is filled only by {@link #fill()} and by take when it is empty.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class DSASigningPool extends PrecomputationPool<DSASigningPool.Entry> {
+	
+	//Minimal capacity for which the pool builds a fixed base table of the generator, instead of only using an existing one.
+	private static final int MIN_CAPACITY_FOR_FIXED_BASE = 64;
+	
+	/**
+	 * A precomputed tuple (k, k^(-1), r).
+	 */
+	public static class Entry {
+		private BigInteger k;
+		private BigInteger kInverse;
+		private BigInteger r;
+		
+		Entry(BigInteger k, BigInteger kInverse, BigInteger r){
+			this.k = k;
+			this.kInverse = kInverse;
+			this.r = r;
+		}
+		
+		/**
+		 * Returns the random exponent k.
+		 */
+		public BigInteger getK(){
+			return k;
+		}
+		
+		/**
+		 * Returns k^(-1) mod q.
+		 */
+		public BigInteger getKInverse(){
+			return kInverse;
+		}
+		
+		/**
+		 * Returns r = F(g^k) mod q, that is g^k mod q in Zp groups and the x coordinate of g^k mod q in elliptic curves.
+		 */
+		public BigInteger getR(){
+			return r;
+		}
+	}
+	
+	private DlogGroup dlog;
+	private SecureRandom random;
+	private boolean buildTable;
+	
+	/**
+	 * Constructor that sets the group and the parameters of the pool. The pool is empty until it is filled.
+	 * @param dlog the Dlog group of the signature scheme.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness for k.
+	 * @param executor executor that refills the pool in the background, for example {@link edu.biu.scapi.generals.ParallelBatchExecution#getSharedExecutor()}. 
+	 * May be null. Ignored if the group is not thread safe.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public DSASigningPool(DlogGroup dlog, int capacity, SecureRandom random, ExecutorService executor){
+		//The background refill computes on the group concurrently with the signers, so it is done only if the group is thread safe.
+		super(capacity, DSAComputations.getGroupExecutor(dlog, executor));
+		this.dlog = dlog;
+		this.random = random;
+		buildTable = capacity >= MIN_CAPACITY_FOR_FIXED_BASE;
+	}
+	
+	/**
+	 * Checks if this pool holds tuples for the given group.
+	 * @param dlog the Dlog group of the signature scheme.
+	 * @return true if the group is the same object; false, otherwise.
+	 */
+	public boolean matches(DlogGroup dlog){
+		return this.dlog == dlog;
+	}
+	
+	/**
+	 * Samples k and computes k^(-1) and r.
+	 */
+	@Override
+	protected Entry compute(){
+		if (buildTable){
+			FixedBaseExponentiatorCache.getInstance().get(dlog, dlog.getGenerator());
+		}
+		return DSAComputations.createEntry(dlog, random);
+	}
+}
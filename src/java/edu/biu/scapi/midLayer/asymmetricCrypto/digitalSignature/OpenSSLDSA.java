@@ -24,16 +24,26 @@
 */
 package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
 
+import java.io.IOException;
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
 import java.security.KeyException;
 import java.security.KeyPair;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
+
+import org.bouncycastle.asn1.ASN1Encodable;
+import org.bouncycastle.asn1.ASN1Integer;
+import org.bouncycastle.asn1.ASN1Sequence;
+import org.bouncycastle.asn1.DERSequence;
 
 import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DSAPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DSAPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScDSAPrivateKey;
@@ -60,6 +70,9 @@ public class OpenSSLDSA implements DSABasedSignature{
 	private DSAPublicKey publicKey;
 	private boolean isKeySet;				//Sets to false until setKey is called
 	private boolean isPrivateKeySet;		//Sets to false until private key will be set. Indicated if the fign function can be called.
+	private BigInteger x;					//The private key. Used when the signature is computed from a precomputed tuple.
+	private DSASigningPool signingPool;		//Precomputed tuples (k, k^(-1), r). May be null.
+	private SecureRandom random = new SecureRandom();
 	
 	//Native functions that use OpenSSL library.
 	//Creates the native dsa object and set the p, q, g parameters.
@@ -132,6 +145,7 @@ public class OpenSSLDSA implements DSABasedSignature{
 			
 			setKeys(dsa, ((ZpElement)((DSAPublicKey)publicKey).getY()).getElementValue().toByteArray(), 
 						 ((DSAPrivateKey) privateKey).getX().toByteArray());
+			x = ((DSAPrivateKey) privateKey).getX();
 			isPrivateKeySet = true;
 		
 		//In case there is no private key, set only the public key.	
@@ -208,6 +222,12 @@ public class OpenSSLDSA implements DSABasedSignature{
 			throw new ArrayIndexOutOfBoundsException("wrong offset for the given input buffer");
 		}
 		
+		//If there is a matching signing pool, the signature is computed from a precomputed tuple instead of by OpenSSL.
+		DSASigningPool pool = signingPool;
+		if (pool != null && pool.matches(dlog)){
+			return signWithEntry(pool, msg, offset, length);
+		}
+		
 		//Sign the message.
 		byte [] signature = sign(dsa, msg, offset, length);
 		
@@ -215,6 +235,93 @@ public class OpenSSLDSA implements DSABasedSignature{
 		//This is different than SCAPI implementation for DSA signature, so there is another Signature class (unique for OpenSSL) that holds this result.
 		return new OpenSSLDSASignature(signature);
 	}
+	
+	/*
+	 * Computes the signature from a tuple (k, k^(-1), r) taken from the given pool, or computed now if the pool is null.
+	 * The result is encoded as OpenSSL does, as the DER encoding of the sequence (r, s).
+	 */
+	private Signature signWithEntry(DSASigningPool pool, byte[] msg, int offset, int length){
+		BigInteger q = dlog.getOrder();
+		BigInteger z = msgToBigInteger(msg, offset, length);
+		BigInteger r;
+		BigInteger s;
+		//If after calculation s is 0 - starts again with a different k.
+		do {
+			DSASigningPool.Entry entry = (pool != null) ? pool.take() : DSAComputations.createEntry(dlog, random);
+			r = entry.getR();
+			s = DSAComputations.computeS(entry, x, z, q);
+		} while (s.signum() == 0);
+		
+		try {
+			return new OpenSSLDSASignature(new DERSequence(new ASN1Encodable[]{new ASN1Integer(r), new ASN1Integer(s)}).getEncoded());
+		} catch (IOException e) {
+			//Should not occur since the encoding is done in memory.
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/*
+	 * Converts the message to the value that OpenSSL signs. 
+	 * OpenSSL treats the message as the digest, takes its leftmost bytes up to the byte length of q, and reads them as a non negative number.
+	 */
+	private BigInteger msgToBigInteger(byte[] msg, int offset, int length){
+		int qLength = (dlog.getOrder().bitLength() + 7) / 8;
+		byte[] digest = new byte[Math.min(length, qLength)];
+		System.arraycopy(msg, offset, digest, 0, digest.length);
+		return new BigInteger(1, digest);
+	}
+	
+	/**
+	 * Sets a pool of precomputed tuples (k, k^(-1), r).<p>
+	 * If the pool matches the group of this DSA, the sign functions compute the signature from a tuple of the pool 
+	 * instead of calling OpenSSL. The result is encoded as the signatures of OpenSSL, so it can be verified by any OpenSSL DSA.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setSigningPool(DSASigningPool pool){
+		signingPool = pool;
+	}
+	
+	/**
+	 * Builds the shared fixed base tables of the generator and of the public key, if it was set.<p>
+	 * The tables are used by the signing pool and by the batch functions. The single verify function is computed by OpenSSL.
+	 */
+	public void prepareFixedBaseTables(){
+		DSAComputations.prepareFixedBaseTables(dlog, isKeySet() ? publicKey.getY() : null);
+	}
+	
+	/**
+	 * Signs many messages at once.<p>
+	 * The signatures are computed from tuples of the signing pool if it matches, and otherwise from tuples computed using 
+	 * the fixed base table of the generator, which is built first if the batch is big enough. 
+	 * The signatures are spread across the threads of the given executor.
+	 * @param msgs the messages to sign.
+	 * @param executor used to compute the signatures in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the signatures, in the same order as the messages.
+	 * @throws KeyException if PrivateKey is not set.
+	 */
+	public Signature[] signBatch(final byte[][] msgs, ExecutorService executor) throws KeyException {
+		//If there is no private key can not sign, throws exception.
+		if (!isPrivateKeySet){
+			throw new KeyException("in order to sign a message, this object must be initialized with private key");
+		}
+		
+		DSASigningPool pool = signingPool;
+		final DSASigningPool matchingPool = (pool != null && pool.matches(dlog)) ? pool : null;
+		if (matchingPool == null && msgs.length >= DSAComputations.MIN_BATCH_FOR_FIXED_BASE){
+			DSAComputations.prepareFixedBaseTables(dlog, null);
+		}
+		
+		final Signature[] signatures = new Signature[msgs.length];
+		ParallelBatchExecution.execute(DSAComputations.getGroupExecutor(dlog, executor), msgs.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					signatures[i] = signWithEntry(matchingPool, msgs[i], 0, msgs[i].length);
+				}
+			}
+		});
+		return signatures;
+	}
 
 
 	/**
@@ -249,6 +356,55 @@ public class OpenSSLDSA implements DSABasedSignature{
 		return verify(dsa, ((OpenSSLDSASignature)signature).getSignature(), msg, offset, length);
 	
 	}
+	
+	/**
+	 * Verifies many signatures under the public key of this DSA.<p>
+	 * The signatures are decoded and verified in java, using the fixed base tables of the generator and of the public key 
+	 * that are built first if the batch is big enough. The verifications are spread across the threads of the given executor.<p>
+	 * A DSA signature contains only r = (g^k mod p) mod q and not g^k itself, so the verification equations of different signatures 
+	 * can not be combined into one equation. Instead, the batch shares the fixed base tables and every signature is verified separately.
+	 * @param signatures the signatures to verify. Each one should be an instance of OpenSSLDSASignature.
+	 * @param msgs the signed messages, in the same order as the signatures.
+	 * @param executor used to compute the verifications in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return an array that holds true for every valid signature and false for every invalid one.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Signatures is not an instance of OpenSSLDSASignature.
+	 */
+	public boolean[] verifyBatch(Signature[] signatures, byte[][] msgs, ExecutorService executor){
+		//If there is no public key can not verify, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to verify a signature this object must be initialized with public key");
+		}
+		if (signatures.length != msgs.length){
+			throw new IllegalArgumentException("the number of signatures and messages should be equal");
+		}
+		
+		BigInteger[] r = new BigInteger[signatures.length];
+		BigInteger[] s = new BigInteger[signatures.length];
+		BigInteger[] z = new BigInteger[signatures.length];
+		for (int i = 0; i < signatures.length; i++){
+			if (!(signatures[i] instanceof OpenSSLDSASignature)){
+				throw new IllegalArgumentException("Signature must be instance of OpenSSLDSASignature");
+			}
+			//Decodes the DER sequence (r, s). A signature that can not be decoded is not valid, 
+			//so it gets r = s = 0, that are not in Zq* and fail the verification.
+			r[i] = BigInteger.ZERO;
+			s[i] = BigInteger.ZERO;
+			try {
+				ASN1Sequence sequence = ASN1Sequence.getInstance(((OpenSSLDSASignature) signatures[i]).getSignature());
+				if (sequence.size() == 2){
+					r[i] = ASN1Integer.getInstance(sequence.getObjectAt(0)).getValue();
+					s[i] = ASN1Integer.getInstance(sequence.getObjectAt(1)).getValue();
+				}
+			} catch (IllegalArgumentException e) {
+				r[i] = BigInteger.ZERO;
+				s[i] = BigInteger.ZERO;
+			}
+			z[i] = msgToBigInteger(msgs[i], 0, msgs[i].length);
+		}
+		
+		return DSAComputations.verifyBatch(dlog, publicKey.getY(), r, s, z, executor);
+	}
 
 	/**
 	 * This function is not supported in this class. 
@@ -35,7 +35,10 @@ import java.security.interfaces.RSAKey;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
 
+import edu.biu.scapi.exceptions.ScapiRuntimeException;
 import edu.biu.scapi.midLayer.signature.RSASignature;
 import edu.biu.scapi.midLayer.signature.Signature;
 
@@ -50,6 +53,13 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 
 	private long rsa;		//Pointer to the native OpenSSL's signature object.
 	private boolean isPrivateKeySet;
+	private PrivateKey privateKey;
+	
+	//Native RSA objects used by the threads of the batch functions, kept as pairs {native object, key generation}. 
+	//Each object is used by one thread at a time and returned to the queue at the end of its range, 
+	//unless the key was changed since the object was created.
+	private ConcurrentLinkedQueue<long[]> batchEngines = new ConcurrentLinkedQueue<long[]>();
+	private AtomicLong keyGeneration = new AtomicLong();	//Incremented every time a key is set.
 	
 	// JNI native functions. The functions of this class call the necessary native functions to perform the signature operations.
 	//Creates the native signature object.
@@ -64,6 +74,10 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 	private native byte[] doSign(long signer, byte[] msg, int offset, int length);	
 	//Verifies the signature of the given message.
 	private native boolean doVerify(long verifier, byte[] signature, byte[] msg, int offset, int msgLen);	
+	//Signs on the messages in [from, to) in one native call.
+	private native byte[][] doSignBatch(long signer, byte[][] msgs, int from, int to);
+	//Verifies the signatures in [from, to) in one native call.
+	private native boolean[] doVerifyBatch(long verifier, byte[][] signatures, byte[][] msgs, int from, int to);
 	//Deletes the native RSA object.
 	private native void deleteRSA(long rsa);	
 	
@@ -116,9 +130,29 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 		//Notice! We set the public key twice - in the PublicKey member and in the native verifier object.
 		//This can lead to many synchronization problems, so we need to be very careful not to change just one of them.
 		this.publicKey = (RSAPublicKey) publicKey;
+		this.privateKey = privateKey;
+		
+		//The native objects of the batch functions were initialized with the previous key. 
+		//Objects that are in use by a running batch are deleted when they are returned.
+		keyGeneration.incrementAndGet();
+		deleteBatchEngines();
+		
+		initNativeObject(rsa);
+		
+		if (privateKey != null){
+			isPrivateKeySet = true;
+		}
+		
+		isKeySet = true;
 		
+	}
+	
+	/*
+	 * Initializes the given native RSA object with the keys of this object.
+	 */
+	private void initNativeObject(long rsa){
 		//Get the values of modulus (N), pubExponent (e), privExponent (d).
-		BigInteger pubExponent = ((RSAPublicKey) publicKey).getPublicExponent();
+		BigInteger pubExponent = publicKey.getPublicExponent();
 		BigInteger modN = ((RSAKey) publicKey).getModulus();
 		
 		//Initialize the native verifier with the RSA parameters - n, e.
@@ -148,11 +182,7 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 				//Initialize the native signer with the RSA parameters - n, e, d.
 				initRSASigner(rsa, modN.toByteArray(), pubExponent.toByteArray(), privExponent.toByteArray());
 			}
-			isPrivateKeySet = true;
 		}
-		
-		isKeySet = true;
-		
 	}
 
 	/**
@@ -230,6 +260,86 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 		
 	}
 	
+	@Override
+	protected boolean hasPrivateKey() {
+		return isPrivateKeySet;
+	}
+	
+	/**
+	 * Signs the messages in [from, to) in one native call, using a native RSA object of the batch functions.
+	 * @throws ScapiRuntimeException if one of the messages could not be signed.
+	 */
+	@Override
+	protected void signRange(byte[][] msgs, byte[][] signatures, int from, int to) {
+		long[] engine = takeBatchEngine();
+		byte[][] rangeSignatures;
+		try {
+			rangeSignatures = doSignBatch(engine[0], msgs, from, to);
+		} finally {
+			returnBatchEngine(engine);
+		}
+		//The native function returns null for every message that could not be signed.
+		for (int i = 0; i < rangeSignatures.length; i++){
+			if (rangeSignatures[i] == null){
+				throw new ScapiRuntimeException("the message in index " + (from + i) + " could not be signed");
+			}
+		}
+		System.arraycopy(rangeSignatures, 0, signatures, from, to - from);
+	}
+	
+	/**
+	 * Verifies the signatures in [from, to) in one native call, using a native RSA object of the batch functions.
+	 */
+	@Override
+	protected void verifyRange(byte[][] signatures, byte[][] msgs, boolean[] results, int from, int to) {
+		long[] engine = takeBatchEngine();
+		try {
+			boolean[] rangeResults = doVerifyBatch(engine[0], signatures, msgs, from, to);
+			System.arraycopy(rangeResults, 0, results, from, to - from);
+		} finally {
+			returnBatchEngine(engine);
+		}
+	}
+	
+	/*
+	 * Returns a free native RSA object of the current key. If there is no such object, creates and initializes a new one.
+	 * Objects of a previous key are deleted.
+	 */
+	private long[] takeBatchEngine(){
+		//The generation is read before the object is initialized, so an object is never tagged with a newer key than its own.
+		long generation = keyGeneration.get();
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null && engine[1] != generation){
+			deleteRSA(engine[0]);
+		}
+		if (engine == null){
+			engine = new long[]{createRSASignature(), generation};
+			initNativeObject(engine[0]);
+		}
+		return engine;
+	}
+	
+	/*
+	 * Returns the given native RSA object to the queue, or deletes it if the key was changed since it was created.
+	 */
+	private void returnBatchEngine(long[] engine){
+		if (engine[1] == keyGeneration.get()){
+			batchEngines.add(engine);
+		} else {
+			deleteRSA(engine[0]);
+		}
+	}
+	
+	/*
+	 * Deletes the native objects of the batch functions.
+	 */
+	private void deleteBatchEngines(){
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null){
+			deleteRSA(engine[0]);
+		}
+	}
+	
 	/**
 	 * Deletes the related RSA object.
 	 */
@@ -237,6 +347,7 @@ public class OpenSSLRSAPss extends RSAPssAbs {
 
 		// Delete from the dll the dynamic allocation of the RSA object.
 		deleteRSA(rsa);
+		deleteBatchEngines();
 
 	}	
 	
@@ -26,6 +26,10 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
 
+import java.security.KeyException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.signature.Signature;
 import edu.biu.scapi.securityLevel.UnlimitedTimes;
 
 /**
@@ -36,5 +40,28 @@ import edu.biu.scapi.securityLevel.UnlimitedTimes;
  *
  */
 public interface RSABasedSignature extends DigitalSignature, UnlimitedTimes {
-
+	
+	/**
+	 * Signs many messages at once.<p>
+	 * The messages are split between the threads of the given executor. Every thread signs its part of the batch 
+	 * with its own instance of the underlying engine, that keeps the key and the CRT values between the messages.
+	 * @param msgs the messages to sign.
+	 * @param executor used to compute the signatures in parallel. If null, the computation is done in the calling thread.
+	 * @return the signatures, in the same order as the messages.
+	 * @throws KeyException if PrivateKey is not set.
+	 */
+	public Signature[] signBatch(byte[][] msgs, ExecutorService executor) throws KeyException;
+	
+	/**
+	 * Verifies many signatures at once.<p>
+	 * The signatures are split between the threads of the given executor. Every thread verifies its part of the batch 
+	 * with its own instance of the underlying engine.
+	 * @param signatures the signatures to verify. Each one should be an instance of RSASignature.
+	 * @param msgs the signed messages, in the same order as the signatures.
+	 * @param executor used to compute the verifications in parallel. If null, the computation is done in the calling thread.
+	 * @return an array that holds true for every valid signature and false for every invalid one.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Signatures is not an instance of RSASignature.
+	 */
+	public boolean[] verifyBatch(Signature[] signatures, byte[][] msgs, ExecutorService executor);
 }
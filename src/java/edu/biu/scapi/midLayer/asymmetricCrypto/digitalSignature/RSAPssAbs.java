@@ -27,6 +27,7 @@
 package edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature;
 
 import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
@@ -35,6 +36,12 @@ import java.security.SecureRandom;
 import java.security.interfaces.RSAPublicKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
+import edu.biu.scapi.midLayer.signature.RSASignature;
+import edu.biu.scapi.midLayer.signature.Signature;
 
 /**
  * Abstract class for RSA PSS signature scheme. This class implements some common functionality of RSA signature scheme.
@@ -111,5 +118,113 @@ public abstract class RSAPssAbs implements RSABasedSignature{
 	public KeyPair generateKey() {
 		throw new UnsupportedOperationException("To generate keys for this RSAPss use the other generateKey function with RSAKeyGenParameterSpec");
 	}
+	
+	/**
+	 * Signs many messages at once.<p>
+	 * The messages are split into one part per thread of the given executor, and each part is signed by {@link #signRange}.
+	 * @param msgs the messages to sign.
+	 * @param executor used to compute the signatures in parallel. If null, the computation is done in the calling thread.
+	 * @return the signatures, in the same order as the messages.
+	 * @throws KeyException if PrivateKey is not set.
+	 */
+	public Signature[] signBatch(final byte[][] msgs, ExecutorService executor) throws KeyException {
+		//If there is no private key can not sign, throws exception.
+		if (!hasPrivateKey()){
+			throw new KeyException("in order to sign a message, this object must be initialized with private key");
+		}
+		
+		final byte[][] signatures = new byte[msgs.length][];
+		final int numParts = getNumberOfParts(msgs.length, executor);
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int fromPart, int toPart) {
+				for (int part = fromPart; part < toPart; part++){
+					signRange(msgs, signatures, getPartStart(msgs.length, numParts, part), getPartStart(msgs.length, numParts, part + 1));
+				}
+			}
+		});
+		
+		Signature[] result = new Signature[msgs.length];
+		for (int i = 0; i < msgs.length; i++){
+			result[i] = new RSASignature(signatures[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Verifies many signatures at once.<p>
+	 * The signatures are split into one part per thread of the given executor, and each part is verified by {@link #verifyRange}.
+	 * @param signatures the signatures to verify. Each one should be an instance of RSASignature.
+	 * @param msgs the signed messages, in the same order as the signatures.
+	 * @param executor used to compute the verifications in parallel. If null, the computation is done in the calling thread.
+	 * @return an array that holds true for every valid signature and false for every invalid one.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Signatures is not an instance of RSASignature.
+	 */
+	public boolean[] verifyBatch(Signature[] signatures, final byte[][] msgs, ExecutorService executor) {
+		//If there is no public key can not verify, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to verify a signature this object must be initialized with public key");
+		}
+		if (signatures.length != msgs.length){
+			throw new IllegalArgumentException("the number of signatures and messages should be equal");
+		}
+		
+		final byte[][] sigBytes = new byte[signatures.length][];
+		for (int i = 0; i < signatures.length; i++){
+			if (!(signatures[i] instanceof RSASignature)){
+				throw new IllegalArgumentException("Signature must be instance of RSASignature");
+			}
+			sigBytes[i] = ((RSASignature) signatures[i]).getSignatureBytes();
+		}
+		
+		final boolean[] results = new boolean[msgs.length];
+		final int numParts = getNumberOfParts(msgs.length, executor);
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int fromPart, int toPart) {
+				for (int part = fromPart; part < toPart; part++){
+					verifyRange(sigBytes, msgs, results, getPartStart(msgs.length, numParts, part), getPartStart(msgs.length, numParts, part + 1));
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Checks if a private key was set.
+	 */
+	protected abstract boolean hasPrivateKey();
+	
+	/**
+	 * Signs the messages in [from, to) and puts the signatures in the same indices of the signatures array.<p>
+	 * This function is called concurrently by the threads of the batch functions, so it should use an instance of the 
+	 * underlying engine that is not used by other threads at the same time.
+	 */
+	protected abstract void signRange(byte[][] msgs, byte[][] signatures, int from, int to);
+	
+	/**
+	 * Verifies the signatures in [from, to) and puts the results in the same indices of the results array.<p>
+	 * This function is called concurrently by the threads of the batch functions, so it should use an instance of the 
+	 * underlying engine that is not used by other threads at the same time.
+	 */
+	protected abstract void verifyRange(byte[][] signatures, byte[][] msgs, boolean[] results, int from, int to);
+	
+	/*
+	 * Returns the number of parts to split a batch of the given size into, that is one part per thread of the executor.
+	 */
+	private static int getNumberOfParts(int size, ExecutorService executor){
+		if (executor == null || size == 0){
+			return 1;
+		}
+		return Math.min(size, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/*
+	 * Returns the first index of the given part.
+	 */
+	private static int getPartStart(int size, int numParts, int part){
+		return (int) ((long) size * part / numParts);
+	}
 
 }
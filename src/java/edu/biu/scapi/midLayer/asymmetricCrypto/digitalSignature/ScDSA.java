@@ -37,10 +37,13 @@ import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DSAPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DSAPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScDSAPrivateKey;
@@ -48,9 +51,7 @@ import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScDSAPublicKey;
 import edu.biu.scapi.midLayer.signature.DSASignature;
 import edu.biu.scapi.midLayer.signature.Signature;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
-import edu.biu.scapi.primitives.dlog.ECElement;
 import edu.biu.scapi.primitives.dlog.GroupElement;
-import edu.biu.scapi.primitives.dlog.ZpElement;
 import edu.biu.scapi.primitives.dlog.cryptopp.CryptoPpDlogZpSafePrime;
 import edu.biu.scapi.primitives.dlog.miracl.MiraclDlogECFp;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
@@ -74,6 +75,7 @@ public class ScDSA implements DSABasedSignature{
 	
 	private SecureRandom random;
 	private BigInteger qMinusOne;					//We keep this value to save unnecessary calculations.
+	private DSASigningPool signingPool;				//Precomputed tuples (k, k^(-1), r). May be null.
 	
 	/**
 	 * Default constructor. uses default implementations of CryptographicHash, DlogGroup and SecureRandom.
@@ -243,56 +245,107 @@ public class ScDSA implements DSABasedSignature{
 			throw new ArrayIndexOutOfBoundsException("wrong offset for the given input buffer");
 		}
 		
-		BigInteger r = BigInteger.ZERO;
+		BigInteger r = null;
 		BigInteger s = BigInteger.ZERO;
-		BigInteger k = null;
 		BigInteger q = dlog.getOrder();
+		
+		//Computes H(m) and return the left Lq bits of the result as BigInteger.
+		BigInteger z = hashMsg(msg, offset, length);
+		
 		//If after calculation s is 0 - starts again with a different k.
 		while(s.equals(BigInteger.ZERO)){
 			
-			//If after calculation r is 0 - starts again with a different k.
-			while(r.equals(BigInteger.ZERO)){
-				//Chooses a random value in Zq*.
-				k = BigIntegers.createRandomInRange(BigInteger.ONE, qMinusOne, random);
-				GroupElement generator = dlog.getGenerator();
-				//Calculates h = g^x.
-				GroupElement h = dlog.exponentiate(generator, k);
-				//Gets the BigInteger value of the groupElement.
-				r = getRFromGroupElement(h);
-			}
-			
-			//Computes H(m) and return the left Lq bits of the result as BigInteger.
-			BigInteger z = hashMsg(msg, offset, length);
+			//Gets a random k in Zq*, k^(-1) and r = g^k mod q. r is never 0.
+			DSASigningPool.Entry entry = takeEntry();
+			r = entry.getR();
 			
 			//Calculates k^(-1)(z + xr) mod q.
-			BigInteger kInv = k.modInverse(q);
-			BigInteger xr = (privateKey.getX()).multiply(r);
-			s = (z.add(xr)).multiply(kInv);
-			s = s.mod(q);
-			
+			s = DSAComputations.computeS(entry, privateKey.getX(), z, q);
 		}
 		
 		//Creates DSA signature with r, s.
 		return new DSASignature(r,s);
 	}
+	
+	/*
+	 * Takes a tuple (k, k^(-1), r) from the signing pool if it matches the group of this DSA. Otherwise, computes a new tuple.
+	 */
+	private DSASigningPool.Entry takeEntry(){
+		DSASigningPool pool = signingPool;
+		if (pool != null && pool.matches(dlog)){
+			return pool.take();
+		}
+		return DSAComputations.createEntry(dlog, random);
+	}
+	
+	/**
+	 * Sets a pool of precomputed tuples (k, k^(-1), r).<p>
+	 * If the pool matches the group of this DSA, the sign functions take a tuple from the pool instead of computing g^k.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setSigningPool(DSASigningPool pool){
+		signingPool = pool;
+	}
+	
+	/**
+	 * Builds the shared fixed base tables of the generator and of the public key, if it was set.
+	 */
+	public void prepareFixedBaseTables(){
+		DSAComputations.prepareFixedBaseTables(dlog, isKeySet() ? publicKey.getY() : null);
+	}
+	
+	/**
+	 * Signs many messages at once.<p>
+	 * The signatures are spread across the threads of the given executor. If the batch is big enough, 
+	 * the fixed base table of the generator is built first.
+	 * @param msgs the messages to sign.
+	 * @param executor used to compute the signatures in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the signatures, in the same order as the messages.
+	 * @throws KeyException if PrivateKey is not set.
+	 */
+	public Signature[] signBatch(final byte[][] msgs, ExecutorService executor) throws KeyException {
+		//If there is no private key can not sign, throws exception.
+		if (privateKey == null){
+			throw new KeyException("in order to sign a message, this object must be initialized with private key");
+		}
+		
+		if (msgs.length >= DSAComputations.MIN_BATCH_FOR_FIXED_BASE){
+			DSAComputations.prepareFixedBaseTables(dlog, null);
+		}
+		
+		final Signature[] signatures = new Signature[msgs.length];
+		ParallelBatchExecution.execute(DSAComputations.getGroupExecutor(dlog, executor), msgs.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					try {
+						signatures[i] = sign(msgs[i], 0, msgs[i].length);
+					} catch (KeyException e) {
+						//Should not occur since the private key was checked.
+						throw new IllegalStateException(e);
+					}
+				}
+			}
+		});
+		return signatures;
+	}
 
 	/*
 	 * Computes H(msg). Returns the left Lq bits of the result as BigInteger.
 	 */
 	private BigInteger hashMsg(byte[] msg, int offset, int length) {
-		//Gets H(msg).
-		hash.update(msg, offset, length);
+		//Gets H(msg). The hash is shared by the threads of the batch functions.
 		byte[] hashResult = new byte[hash.getHashedMsgSize()];
-		hash.hashFinal(hashResult, 0);
+		synchronized (hash) {
+			hash.update(msg, offset, length);
+			hash.hashFinal(hashResult, 0);
+		}
 		
 		int bitSize = dlog.getOrder().bitLength();
-		byte[] e = new byte[bitSize];
 		BigInteger z;
-		//Gets the Lq bits of hashResult.
-		if (hashResult.length > (bitSize/8)){
-			System.arraycopy(hashResult, 0, e, 0, bitSize);
-			//Gets the BI representation of e.
-			z = new BigInteger(e);
+		//Gets the Lq leftmost bits of hashResult.
+		if (hashResult.length * 8 > bitSize){
+			z = new BigInteger(1, hashResult).shiftRight(hashResult.length * 8 - bitSize);
 		} else {
 			//Gets the BI representation of the hash result.
 			z = new BigInteger(hashResult);
@@ -301,28 +354,6 @@ public class ScDSA implements DSABasedSignature{
 		return z;
 	}
 	
-	/*
-	 * Calculates the BigInteger value for the algorithm from the given groupElement.
-	 * In case of Zp element, the value is the element itself modulus q.
-	 * In case of EC point, the value is the x coordinate of the point modulus q.
-	 */
-	private BigInteger getRFromGroupElement(GroupElement element){
-		BigInteger r = null;
-		//In case of Zp element, r is the element itself.
-		if (element instanceof ZpElement){
-			r = ((ZpElement) element).getElementValue();
-		}
-		//In case of EC point, r is the x coordinate of the point.
-		if (element instanceof ECElement){
-			r = ((ECElement) element).getX();
-		}
-		
-		//Calculates r mod q.
-		r = r.mod(dlog.getOrder());
-		
-		return r;
-	}
-
 	/**
 	 * Verifies the given signatures.
 	 * @param signature to verify. Should be an instance of DSASignature.
@@ -343,7 +374,7 @@ public class ScDSA implements DSABasedSignature{
 		 *  o	Calculate e = H(m). Let z be the Lq leftmost bits of e.
 		 *  o	Calculate u1 = zw mod q
 		 *  o	Calculate u2 = rw mod q
-		 *  o	Calculate v = g^u1*g^u2. In Zp case, calculate vVal = v mod q. In EC case, Let vVal be the x coordinate of v mod q
+		 *  o	Calculate v = g^u1*y^u2. In Zp case, calculate vVal = v mod q. In EC case, Let vVal be the x coordinate of v mod q
 		 *  o	If r = vVal return true.
 		 */
 		
@@ -364,37 +395,50 @@ public class ScDSA implements DSABasedSignature{
 		//Gets r and s from the signature.
 		BigInteger r = ((DSASignature) signature).getR();
 		BigInteger s = ((DSASignature) signature).getS();
-		BigInteger q = dlog.getOrder();
-		
-		//If r not in Zq returns false.
-		if ((r.compareTo(BigInteger.ZERO) <= 0) || (r.compareTo(q) >= 0)){
-			return false;
-		}
-		//If s not in Zq returns false.
-		if ((s.compareTo(BigInteger.ZERO) <= 0) || (s.compareTo(q) >= 0)){
-			return false;
-		}
-		
-		//w = s^-1 mod q.
-		BigInteger w = s.modInverse(q);
 		
 		//Computes H(m) and return the left Lq bits of the result as BigInteger.
 		BigInteger z = hashMsg(msg, offset, length);
 		
-		//u1 = z*w mod q.
-		BigInteger u1 = (z.multiply(w)).mod(q);
-		//u2 = r*w mod q.
-		BigInteger u2 = (r.multiply(w)).mod(q);
+		//Checks that r and s are in Zq* and computes v = g^u1*y^u2 as a double exponentiation.
+		return DSAComputations.verify(dlog, publicKey.getY(), r, s, z);
 		
-		//v = g^u1*g^u2.
-		GroupElement leftElement = dlog.exponentiate(dlog.getGenerator(), u1);
-		GroupElement rightElement = dlog.exponentiate(publicKey.getY(), u2);
-		GroupElement v = dlog.multiplyGroupElements(leftElement, rightElement);
-		//Gets the BigInteger value of the groupElement.
-		BigInteger vBI = getRFromGroupElement(v);
+	}
+	
+	/**
+	 * Verifies many signatures under the public key of this DSA.<p>
+	 * If the batch is big enough, the fixed base tables of the generator and of the public key are built first, 
+	 * and the verifications are spread across the threads of the given executor.<p>
+	 * A DSA signature contains only r = F(g^k) mod q and not g^k itself, so the verification equations of different signatures 
+	 * can not be combined into one equation. Instead, the batch shares the fixed base tables and every signature is verified separately.
+	 * @param signatures the signatures to verify. Each one should be an instance of DSASignature.
+	 * @param msgs the signed messages, in the same order as the signatures.
+	 * @param executor used to compute the verifications in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return an array that holds true for every valid signature and false for every invalid one.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Signatures is not an instance of DSASignature.
+	 */
+	public boolean[] verifyBatch(Signature[] signatures, byte[][] msgs, ExecutorService executor){
+		//If there is no public key can not verify, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to verify a signature this object must be initialized with public key");
+		}
+		if (signatures.length != msgs.length){
+			throw new IllegalArgumentException("the number of signatures and messages should be equal");
+		}
 		
-		return r.equals(vBI);
+		BigInteger[] r = new BigInteger[signatures.length];
+		BigInteger[] s = new BigInteger[signatures.length];
+		BigInteger[] z = new BigInteger[signatures.length];
+		for (int i = 0; i < signatures.length; i++){
+			if (!(signatures[i] instanceof DSASignature)){
+				throw new IllegalArgumentException("Signature must be instance of DSASignature");
+			}
+			r[i] = ((DSASignature) signatures[i]).getR();
+			s[i] = ((DSASignature) signatures[i]).getS();
+			z[i] = hashMsg(msgs[i], 0, msgs[i].length);
+		}
 		
+		return DSAComputations.verifyBatch(dlog, publicKey.getY(), r, s, z, executor);
 	}
 
 	/**
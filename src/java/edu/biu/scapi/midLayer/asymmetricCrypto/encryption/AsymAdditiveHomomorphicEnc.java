@@ -27,6 +27,7 @@
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
 import java.math.BigInteger;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 
@@ -87,4 +88,55 @@ public interface AsymAdditiveHomomorphicEnc extends AsymmetricEnc {
 	 * @throws IllegalArgumentException if the given ciphertext does not match this asymmetric encryption.
 	 */
 	public AsymmetricCiphertext multByConst(AsymmetricCiphertext cipher, BigInteger constNumber, BigInteger r);
+	
+	/**
+	 * Receives many ciphertexts and returns the encryption of the sum of their plaintexts.<p>
+	 * The ciphertexts are multiplied without re-randomization, and the result is re-randomized once at the end.
+	 * The products of parts of the array are computed in parallel and then combined.
+	 * @param ciphers the ciphertexts to add.
+	 * @param executor used to compute the sum in parallel. If null, the computation is done in the calling thread.
+	 * @return the addition result.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the array is empty or one of the given ciphertexts does not match this asymmetric encryption.
+	 */
+	public AsymmetricCiphertext sum(AsymmetricCiphertext[] ciphers, ExecutorService executor);
+	
+	/**
+	 * Receives many ciphertexts and returns the encryption of the sum of their plaintexts, re-randomized once with the given random value.
+	 * @param ciphers the ciphertexts to add.
+	 * @param r The random value to use in the function.
+	 * @param executor used to compute the sum in parallel. If null, the computation is done in the calling thread.
+	 * @return the addition result.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the array is empty or one of the given ciphertexts does not match this asymmetric encryption.
+	 */
+	public AsymmetricCiphertext sum(AsymmetricCiphertext[] ciphers, BigInteger r, ExecutorService executor);
+	
+	/**
+	 * Receives many ciphertexts and constant weights and returns the encryption of the weighted sum of their plaintexts.<p>
+	 * The multiplications by the weights are computed together as one multi-exponentiation, 
+	 * and the result is re-randomized once at the end.
+	 * @param ciphers the ciphertexts to add.
+	 * @param weights the constant numbers by which to multiply the ciphertexts, in the same order.
+	 * @param executor used to compute the inner product in parallel. If null, the computation is done in the calling thread.
+	 * @return the inner product result.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are empty or of different lengths, 
+	 * or one of the given ciphertexts or weights does not match this asymmetric encryption.
+	 */
+	public AsymmetricCiphertext innerProduct(AsymmetricCiphertext[] ciphers, BigInteger[] weights, ExecutorService executor);
+	
+	/**
+	 * Receives many ciphertexts and constant weights and returns the encryption of the weighted sum of their plaintexts, 
+	 * re-randomized once with the given random value.
+	 * @param ciphers the ciphertexts to add.
+	 * @param weights the constant numbers by which to multiply the ciphertexts, in the same order.
+	 * @param r The random value to use in the function.
+	 * @param executor used to compute the inner product in parallel. If null, the computation is done in the calling thread.
+	 * @return the inner product result.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are empty or of different lengths, 
+	 * or one of the given ciphertexts or weights does not match this asymmetric encryption.
+	 */
+	public AsymmetricCiphertext innerProduct(AsymmetricCiphertext[] ciphers, BigInteger[] weights, BigInteger r, ExecutorService executor);
 }
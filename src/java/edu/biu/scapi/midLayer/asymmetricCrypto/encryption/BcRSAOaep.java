@@ -230,6 +230,45 @@ public class BcRSAOaep extends RSAOaepAbs {
 		//Returns a plaintext with the decrypted ciphertext.
 		return new ByteArrayPlaintext(plaintext);
 	}
+	
+	@Override
+	protected boolean hasPrivateKey() {
+		return privateParameters != null;
+	}
+	
+	/**
+	 * Encrypts the plaintexts in [from, to) using a new BC OAEP object, that is initialized once for all the plaintexts.
+	 * @throws ScapiRuntimeException if the exception InvalidCipherTextException of BC is thrown.
+	 */
+	@Override
+	protected void encryptRange(byte[][] plaintexts, byte[][] ciphertexts, int from, int to) {
+		OAEPEncoding rangeCipher = new OAEPEncoding(new RSABlindedEngine());
+		rangeCipher.init(true, publicParameters);
+		for (int i = from; i < to; i++){
+			try {
+				ciphertexts[i] = rangeCipher.encodeBlock(plaintexts[i], 0, plaintexts[i].length);
+			} catch (InvalidCipherTextException e) {
+				throw new ScapiRuntimeException(e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Decrypts the ciphertexts in [from, to) using a new BC OAEP object, that is initialized once for all the ciphertexts.
+	 * @throws ScapiRuntimeException if the exception InvalidCipherTextException of BC is thrown.
+	 */
+	@Override
+	protected void decryptRange(byte[][] ciphertexts, byte[][] plaintexts, int from, int to) {
+		OAEPEncoding rangeCipher = new OAEPEncoding(new RSABlindedEngine());
+		rangeCipher.init(false, privateParameters);
+		for (int i = from; i < to; i++){
+			try {
+				plaintexts[i] = rangeCipher.decodeBlock(ciphertexts[i], 0, ciphertexts[i].length);
+			} catch (InvalidCipherTextException e) {
+				throw new ScapiRuntimeException(e.getMessage());
+			}
+		}
+	}
 
 	
 }
@@ -28,6 +28,7 @@ package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
+import java.security.KeyException;
 import java.security.KeyPair;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
@@ -35,12 +36,15 @@ import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.ScapiRuntimeException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.KeySendableData;
@@ -51,6 +55,8 @@ import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupCiphertext;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 import edu.biu.scapi.primitives.dlog.cryptopp.CryptoPpDlogZpSafePrime;
 import edu.biu.scapi.primitives.hash.CryptographicHash;
@@ -70,6 +76,11 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	protected BigInteger qMinusOne; 				// Saved to avoid many calculations.
 	private boolean isKeySet;
 	
+	//Minimal batch size for which the batch functions build fixed base tables of g1, g2, h, c and d.
+	private static final int MIN_BATCH_FOR_FIXED_BASE = 256;
+	//Bit length of the random coefficients of the batch validity check. A batch with an invalid ciphertext passes the check with probability 2^(-80).
+	private static final int BATCH_CHECK_BITS = 80;
+	
 	/**
 	 * Default constructor. It uses a default Dlog group and CryptographicHash.
 	 */
@@ -397,7 +408,7 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	 * @return the calculated value.
 	 */
 	protected GroupElement calcHExpR(BigInteger r) {
-		return dlogGroup.exponentiate(publicKey.getH(), r);
+		return exponentiate(publicKey.getH(), r);
 	}
 
 	/**
@@ -406,7 +417,7 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	 * @return the calculated u2.
 	 */
 	protected GroupElement calcU2(BigInteger r) {
-		return dlogGroup.exponentiate(publicKey.getGenerator2(), r);
+		return exponentiate(publicKey.getGenerator2(), r);
 	}
 
 	/**
@@ -415,11 +426,27 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	 * @return the calculated u1.
 	 */
 	protected GroupElement calcU1(BigInteger r) {
-		return dlogGroup.exponentiate(publicKey.getGenerator1(), r);
+		return exponentiate(publicKey.getGenerator1(), r);
+	}
+	
+	/**
+	 * Computes base^exponent, using the shared fixed base table of the base if it was already built.
+	 * @param base one of the fixed elements of the public key.
+	 * @param exponent the exponent.
+	 * @return base^exponent.
+	 */
+	private GroupElement exponentiate(GroupElement base, BigInteger exponent) {
+		FixedBaseExponentiator table = FixedBaseExponentiatorCache.getInstance().getIfPresent(dlogGroup, base);
+		if (table != null){
+			return table.exponentiate(exponent);
+		}
+		return dlogGroup.exponentiate(base, exponent);
 	}
 	
 	/**
-	 * Recieves three byte arrays and calculates the hash function on their concatenation.
+	 * Recieves three byte arrays and calculates the hash function on their concatenation.<p>
+	 * The arrays are given to the hash one after the other, so their concatenation is not copied to a new array. 
+	 * The access to the hash is synchronized, so this function can be called by the threads of the batch functions.
 	 * @param u1ToByteArray
 	 * @param u2ToByteArray
 	 * @param eToByteArray
@@ -427,43 +454,49 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	 */
 	protected byte[] calcAlpha(byte[] u1ToByteArray, byte[] u2ToByteArray,
 			byte[] eToByteArray) {
-		//Concatenates u1, u2 and e into msgToHash.
-		int lengthOfMsgToHash =  u1ToByteArray.length + u2ToByteArray.length + eToByteArray.length;
-		byte[] msgToHash = new byte[lengthOfMsgToHash];
-		System.arraycopy(u1ToByteArray, 0, msgToHash, 0, u1ToByteArray.length);
-		System.arraycopy(u2ToByteArray, 0, msgToHash, u1ToByteArray.length, u2ToByteArray.length);
-		System.arraycopy(eToByteArray, 0, msgToHash, u2ToByteArray.length+u1ToByteArray.length, eToByteArray.length);
-		
-		//Calculates the hash of msgToHash.
-		
-		//Calls the update function in the Hash interface.
-		hash.update(msgToHash, 0, msgToHash.length);
-
-		//Gets the result of hashing the updated input.
 		byte[] alpha = new byte[hash.getHashedMsgSize()];
-		hash.hashFinal(alpha, 0);
+		synchronized (hash) {
+			//Calls the update function in the Hash interface on u1, u2 and e. Empty arrays are skipped since they do not change the hash.
+			if (u1ToByteArray.length > 0){
+				hash.update(u1ToByteArray, 0, u1ToByteArray.length);
+			}
+			if (u2ToByteArray.length > 0){
+				hash.update(u2ToByteArray, 0, u2ToByteArray.length);
+			}
+			if (eToByteArray.length > 0){
+				hash.update(eToByteArray, 0, eToByteArray.length);
+			}
+	
+			//Gets the result of hashing the updated input.
+			hash.hashFinal(alpha, 0);
+		}
 		return alpha;
 	}
 	
 	/**
 	 * calculate the v value of the encryption.
-	 * v = c^r * d^(r*alpha).
+	 * v = c^r * d^(r*alpha).<p>
+	 * If fixed base tables of c and d were built, they are used. Otherwise, v is computed as one simultaneous double exponentiation.
 	 * @param r a random value
 	 * @param alpha the value returned from the hash calculation.
 	 * @return the calculated value v.
 	 */
 	protected GroupElement calcV(BigInteger r, byte[] alpha) {
-		GroupElement cExpr = dlogGroup.exponentiate(publicKey.getC(), r);
 		BigInteger q = dlogGroup.getOrder();
 		BigInteger rAlphaModQ = (r.multiply(new BigInteger(alpha))).mod(q);
-		GroupElement dExpRAlpha = dlogGroup.exponentiate(publicKey.getD(), rAlphaModQ);
-		GroupElement v = dlogGroup.multiplyGroupElements(cExpr, dExpRAlpha);
-		return v;
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		FixedBaseExponentiator cTable = cache.getIfPresent(dlogGroup, publicKey.getC());
+		FixedBaseExponentiator dTable = cache.getIfPresent(dlogGroup, publicKey.getD());
+		if (cTable != null && dTable != null){
+			return dlogGroup.multiplyGroupElements(cTable.exponentiate(r), dTable.exponentiate(rAlphaModQ));
+		}
+		return dlogGroup.simultaneousMultipleExponentiations(new GroupElement[]{publicKey.getC(), publicKey.getD()}, new BigInteger[]{r, rAlphaModQ});
 	}
 	
 	/**
 	 * This function is called from the decrypt function. It Validates that the given cipher is correct.
-	 * If the function find that the cipher is not valid, it throws a ScapiRuntimeException.
+	 * If the function find that the cipher is not valid, it throws a ScapiRuntimeException.<p>
+	 * u1^(x1+y1*alpha) * u2^(x2+y2*alpha) is computed as one simultaneous double exponentiation.
 	 * @param cipher to validate.
 	 * @param alpha parameter needs to validation.
 	 * @throws ScapiRuntimeException if the given cipher is not valid.
@@ -471,18 +504,307 @@ public abstract class CramerShoupAbs implements CramerShoupDDHEnc{
 	protected void checkValidity(CramerShoupCiphertext cipher,
 			byte[] alpha) {
 		BigInteger q = dlogGroup.getOrder();
-		//Calculates u1^(x1+y1*alpha).
-		BigInteger exponent1 = privateKey.getPrivateExp1().add((privateKey.getPrivateExp3().multiply(new BigInteger(alpha)))).mod(q);
-		GroupElement t1 = dlogGroup.exponentiate(cipher.getU1(),exponent1);
-		//Calculates u2^(x2+y2*alpha).
-		BigInteger exponent2 = privateKey.getPrivateExp2().add((privateKey.getPrivateExp4().multiply(new BigInteger(alpha)))).mod(q);
-		GroupElement t2 = dlogGroup.exponentiate(cipher.getU2(),exponent2);
-
-		//Verifies that their multiplication is equal to v. If not, throws exception.
-		GroupElement mult = dlogGroup.multiplyGroupElements(t1, t2);
+		BigInteger alphaNum = new BigInteger(alpha);
+		//Calculates x1+y1*alpha and x2+y2*alpha.
+		BigInteger exponent1 = privateKey.getPrivateExp1().add((privateKey.getPrivateExp3().multiply(alphaNum))).mod(q);
+		BigInteger exponent2 = privateKey.getPrivateExp2().add((privateKey.getPrivateExp4().multiply(alphaNum))).mod(q);
 		
+		//Calculates u1^(x1+y1*alpha) * u2^(x2+y2*alpha).
+		GroupElement mult = dlogGroup.simultaneousMultipleExponentiations(new GroupElement[]{cipher.getU1(), cipher.getU2()}, new BigInteger[]{exponent1, exponent2});
+
+		//Verifies that the result is equal to v. If not, throws exception.
 		if (!mult.equals(cipher.getV())){
 			throw new ScapiRuntimeException("Error! Cannot proceed with decryption"); 
 		}
 	}
+	
+	/**
+	 * Returns the e part of the given ciphertext as a byte array, as used in the hash that computes alpha.
+	 * @param cipher the ciphertext.
+	 * @return the bytes of e.
+	 * @throws IllegalArgumentException if the given ciphertext does not match this Cramer-Shoup type.
+	 */
+	protected abstract byte[] getEToByteArray(CramerShoupCiphertext cipher);
+	
+	/**
+	 * Decrypts the given ciphertext, after its validity was checked.
+	 * @param cipher the ciphertext to decrypt. Must match this Cramer-Shoup type.
+	 * @return the decrypted plaintext.
+	 */
+	protected abstract Plaintext completeDecryption(CramerShoupCiphertext cipher);
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * The encryptions are spread across the threads of the given executor. If the batch is big enough, 
+	 * fixed base tables of g1, g2, h, c and d are built and used for all the exponentiations.
+	 * @param plaintexts the messages to encrypt. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given Plaintexts does not match this Cramer-Shoup type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor) {
+		BigInteger[] r = new BigInteger[plaintexts.length];
+		for (int i = 0; i < r.length; i++){
+			r[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		return encryptBatch(plaintexts, r, executor);
+	}
+	
+	/**
+	 * Encrypts many plaintexts at once using the given random values.
+	 * @param plaintexts the messages to encrypt. Each one must match this Cramer-Shoup type.
+	 * @param r the random values to use in the encryptions, in the same order as the plaintexts. Each one must be in Zq.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Plaintexts does not match this Cramer-Shoup type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(final Plaintext[] plaintexts, final BigInteger[] r, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		if (plaintexts.length != r.length){
+			throw new IllegalArgumentException("the number of plaintexts and random values should be equal");
+		}
+		
+		//Builds the fixed base tables of the public key if the batch is big enough to amortize them.
+		if (plaintexts.length >= MIN_BATCH_FOR_FIXED_BASE){
+			prepareFixedBaseTables();
+		}
+		
+		final AsymmetricCiphertext[] ciphers = new AsymmetricCiphertext[plaintexts.length];
+		ParallelBatchExecution.execute(getGroupExecutor(executor), plaintexts.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					ciphers[i] = encrypt(plaintexts[i], r[i]);
+				}
+			}
+		});
+		return ciphers;
+	}
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * The validity of all the ciphertexts is checked by {@link #checkValidityBatch(AsymmetricCiphertext[], ExecutorService)}, 
+	 * and then the ciphertexts are decrypted in parallel.
+	 * @param ciphers the ciphertexts to decrypt. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the decryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this Cramer-Shoup type 
+	 * or contains an element that is not a member of the underlying DlogGroup.
+	 * @throws ScapiRuntimeException if one of the given ciphertexts is not valid.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException {
+		executor = getGroupExecutor(executor);
+		final CramerShoupCiphertext[] csCiphers = toCramerShoupCiphertexts(ciphers);
+		final byte[][] alphas = calcAlphas(csCiphers, executor);
+		int invalid = findInvalid(csCiphers, alphas, executor);
+		if (invalid >= 0){
+			throw new ScapiRuntimeException("Error! Cannot proceed with decryption of ciphertext number " + invalid);
+		}
+		
+		final Plaintext[] plaintexts = new Plaintext[ciphers.length];
+		ParallelBatchExecution.execute(executor, ciphers.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					plaintexts[i] = completeDecryption(csCiphers[i]);
+				}
+			}
+		});
+		return plaintexts;
+	}
+	
+	/**
+	 * Checks the validity of many ciphertexts at once.<p>
+	 * The validity equations v_i = u1_i^(x1+y1*alpha_i) * u2_i^(x2+y2*alpha_i) are combined with random coefficients a_i into one equation:<p>
+	 * 		PRODUCT(u1_i^(a_i*(x1+y1*alpha_i)) * u2_i^(a_i*(x2+y2*alpha_i))) = PRODUCT(v_i^a_i),<p>
+	 * whose sides are computed as multi-exponentiations. The exponents of the right side are only 80 bits long.
+	 * If one of the ciphertexts is not valid, the combined equation holds with probability 2^(-80).
+	 * All the elements of the ciphertexts are checked to be members of the underlying group before the computation.
+	 * @param ciphers the ciphertexts to check. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the check in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return true if all the ciphertexts are valid; false, otherwise.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this Cramer-Shoup type 
+	 * or contains an element that is not a member of the underlying DlogGroup.
+	 */
+	public boolean checkValidityBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException {
+		executor = getGroupExecutor(executor);
+		CramerShoupCiphertext[] csCiphers = toCramerShoupCiphertexts(ciphers);
+		byte[][] alphas = calcAlphas(csCiphers, executor);
+		return combinedCheck(csCiphers, alphas, 0, csCiphers.length, executor);
+	}
+	
+	/**
+	 * Builds the shared fixed base tables of g1, g2, h, c and d. Later encryptions with the same public key use these tables.
+	 * @throws IllegalStateException if no public key was set.
+	 */
+	public void prepareFixedBaseTables() {
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to prepare the tables this object must be initialized with public key");
+		}
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		cache.get(dlogGroup, publicKey.getGenerator1());
+		cache.get(dlogGroup, publicKey.getGenerator2());
+		cache.get(dlogGroup, publicKey.getH());
+		cache.get(dlogGroup, publicKey.getC());
+		cache.get(dlogGroup, publicKey.getD());
+	}
+	
+	/*
+	 * Checks that there is a private key and that all the given ciphertexts are Cramer-Shoup ciphertexts.
+	 */
+	private CramerShoupCiphertext[] toCramerShoupCiphertexts(AsymmetricCiphertext[] ciphers) throws KeyException {
+		//If there is no private key, throws exception.
+		if (privateKey == null){
+			throw new KeyException("in order to decrypt a message, this object must be initialized with private key");
+		}
+		CramerShoupCiphertext[] csCiphers = new CramerShoupCiphertext[ciphers.length];
+		for (int i = 0; i < ciphers.length; i++){
+			if (!(ciphers[i] instanceof CramerShoupCiphertext)){
+				throw new IllegalArgumentException("ciphertext should be instance of CramerShoupCiphertext");
+			}
+			csCiphers[i] = (CramerShoupCiphertext) ciphers[i];
+		}
+		return csCiphers;
+	}
+	
+	/*
+	 * Returns the executor that can be used for computations on the underlying group.
+	 * The group is used by several threads only if it is thread safe (see DlogGroup.isThreadSafe()). 
+	 * Otherwise, null is returned so that the computation is done in the calling thread.
+	 */
+	private ExecutorService getGroupExecutor(ExecutorService executor) {
+		return dlogGroup.isThreadSafe() ? executor : null;
+	}
+	
+	/*
+	 * Checks that the elements of the given ciphertexts are members of the group and computes alpha_i = hash(u1_i + u2_i + e_i).
+	 */
+	private byte[][] calcAlphas(final CramerShoupCiphertext[] ciphers, ExecutorService executor) {
+		final byte[][] alphas = new byte[ciphers.length][];
+		final int[] nonMember = {-1};
+		ParallelBatchExecution.execute(executor, ciphers.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					CramerShoupCiphertext cipher = ciphers[i];
+					byte[] eBytes = getEToByteArray(cipher);
+					if (!dlogGroup.isMember(cipher.getU1()) || !dlogGroup.isMember(cipher.getU2()) || !dlogGroup.isMember(cipher.getV())){
+						synchronized (nonMember) {
+							nonMember[0] = i;
+						}
+						return;
+					}
+					byte[] u1 = dlogGroup.mapAnyGroupElementToByteArray(cipher.getU1());
+					byte[] u2 = dlogGroup.mapAnyGroupElementToByteArray(cipher.getU2());
+					alphas[i] = calcAlpha(u1, u2, eBytes);
+				}
+			}
+		});
+		if (nonMember[0] >= 0){
+			throw new IllegalArgumentException("ciphertext number " + nonMember[0] + " contains an element that is not a member in the DlogGroup of type " + dlogGroup.getGroupType());
+		}
+		return alphas;
+	}
+	
+	/*
+	 * Returns the index of an invalid ciphertext, or -1 if all the ciphertexts are valid.
+	 * The whole batch is checked with one combined equation. Only if it fails, the batch is split in halves to find an invalid ciphertext.
+	 */
+	private int findInvalid(CramerShoupCiphertext[] ciphers, byte[][] alphas, ExecutorService executor) {
+		int from = 0;
+		int to = ciphers.length;
+		if (combinedCheck(ciphers, alphas, from, to, executor)){
+			return -1;
+		}
+		while (to - from > 1){
+			int middle = (from + to) / 2;
+			if (!combinedCheck(ciphers, alphas, from, middle, executor)){
+				to = middle;
+			} else{
+				from = middle;
+			}
+		}
+		return from;
+	}
+	
+	/*
+	 * Checks the combined validity equation of the ciphertexts in [from, to).
+	 */
+	private boolean combinedCheck(final CramerShoupCiphertext[] ciphers, final byte[][] alphas, final int from, int to, ExecutorService executor) {
+		final int size = to - from;
+		if (size == 0){
+			return true;
+		}
+		if (size == 1){
+			try {
+				checkValidity(ciphers[from], alphas[from]);
+				return true;
+			} catch (ScapiRuntimeException e) {
+				return false;
+			}
+		}
+		
+		final BigInteger q = dlogGroup.getOrder();
+		final GroupElement[] uBases = new GroupElement[2 * size];
+		final BigInteger[] uExponents = new BigInteger[2 * size];
+		final GroupElement[] vBases = new GroupElement[size];
+		final BigInteger[] vExponents = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			CramerShoupCiphertext cipher = ciphers[from + i];
+			BigInteger a = new BigInteger(BATCH_CHECK_BITS, random);
+			BigInteger alpha = new BigInteger(alphas[from + i]);
+			//a*(x1+y1*alpha) and a*(x2+y2*alpha).
+			uBases[2*i] = cipher.getU1();
+			uExponents[2*i] = a.multiply(privateKey.getPrivateExp1().add(privateKey.getPrivateExp3().multiply(alpha))).mod(q);
+			uBases[2*i + 1] = cipher.getU2();
+			uExponents[2*i + 1] = a.multiply(privateKey.getPrivateExp2().add(privateKey.getPrivateExp4().multiply(alpha))).mod(q);
+			vBases[i] = cipher.getV();
+			vExponents[i] = a;
+		}
+		
+		//Computes the multi-exponentiations of every part in parallel, and multiplies the results of each side.
+		final int numParts = (executor == null) ? 1 : Math.min(size, Runtime.getRuntime().availableProcessors());
+		final GroupElement[] uPartials = new GroupElement[numParts];
+		final GroupElement[] vPartials = new GroupElement[numParts];
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int fromPart, int toPart) {
+				for (int part = fromPart; part < toPart; part++){
+					int start = (int) ((long) size * part / numParts);
+					int end = (int) ((long) size * (part + 1) / numParts);
+					uPartials[part] = multiExponentiate(uBases, uExponents, 2 * start, 2 * end);
+					vPartials[part] = multiExponentiate(vBases, vExponents, start, end);
+				}
+			}
+		});
+		GroupElement uResult = uPartials[0];
+		GroupElement vResult = vPartials[0];
+		for (int part = 1; part < numParts; part++){
+			uResult = dlogGroup.multiplyGroupElements(uResult, uPartials[part]);
+			vResult = dlogGroup.multiplyGroupElements(vResult, vPartials[part]);
+		}
+		//The identity element is compared separately since not all the group elements can compare it by equals.
+		if (uResult.isIdentity() || vResult.isIdentity()){
+			return uResult.isIdentity() && vResult.isIdentity();
+		}
+		return uResult.equals(vResult);
+	}
+	
+	/*
+	 * Computes the multi-exponentiation of the bases and exponents in [from, to).
+	 */
+	private GroupElement multiExponentiate(GroupElement[] bases, BigInteger[] exponents, int from, int to) {
+		GroupElement[] partBases = new GroupElement[to - from];
+		BigInteger[] partExponents = new BigInteger[to - from];
+		System.arraycopy(bases, from, partBases, 0, to - from);
+		System.arraycopy(exponents, from, partExponents, 0, to - from);
+		return dlogGroup.simultaneousMultipleExponentiations(partBases, partExponents);
+	}
 }
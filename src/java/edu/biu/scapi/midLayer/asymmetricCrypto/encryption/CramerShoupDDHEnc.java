@@ -26,6 +26,12 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
+import java.math.BigInteger;
+import java.security.KeyException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.securityLevel.*;
 
 /**
@@ -36,5 +42,52 @@ import edu.biu.scapi.securityLevel.*;
  *
  */
 public interface CramerShoupDDHEnc extends AsymmetricEnc, Cca2 {
-
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * The encryptions are spread across the threads of the given executor if the underlying group is thread safe 
+	 * (see {@link edu.biu.scapi.primitives.dlog.DlogGroup#isThreadSafe()}), and use fixed base tables of g1, g2, h, c and d 
+	 * when the batch is big enough.
+	 * @param plaintexts the messages to encrypt. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given Plaintexts does not match this Cramer-Shoup type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor);
+	
+	/**
+	 * Encrypts many plaintexts at once using the given random values.
+	 * @param plaintexts the messages to encrypt. Each one must match this Cramer-Shoup type.
+	 * @param r the random values to use in the encryptions, in the same order as the plaintexts. Each one must be in Zq.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths or one of the given Plaintexts does not match this Cramer-Shoup type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, BigInteger[] r, ExecutorService executor);
+	
+	/**
+	 * Checks the validity of many ciphertexts at once, using one randomized multi-exponentiation for the whole batch.
+	 * @param ciphers the ciphertexts to check. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the check in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return true if all the ciphertexts are valid; false, otherwise.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this Cramer-Shoup type 
+	 * or contains an element that is not a member of the underlying group.
+	 */
+	public boolean checkValidityBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException;
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * The validity of the whole batch is checked before any of the ciphertexts is decrypted.
+	 * @param ciphers the ciphertexts to decrypt. Each one must match this Cramer-Shoup type.
+	 * @param executor used to compute the decryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this Cramer-Shoup type 
+	 * or contains an element that is not a member of the underlying group.
+	 * @throws edu.biu.scapi.exceptions.ScapiRuntimeException if one of the given ciphertexts is not valid.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException;
 }
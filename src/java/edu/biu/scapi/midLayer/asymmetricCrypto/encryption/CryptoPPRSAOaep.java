@@ -37,6 +37,10 @@ import java.security.interfaces.RSAKey;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.biu.scapi.exceptions.ScapiRuntimeException;
 
 import edu.biu.scapi.midLayer.ciphertext.ByteArrayAsymCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
@@ -55,6 +59,13 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 	private long encryptor; //Pointer to encryptor object (RSAES_OAEP_SHA_Encryptor) in Crypto++.
 	private long decryptor; //Pointer to decryptor object (RSAES_OAEP_SHA_Decryptor) in Crypto++.
 	private boolean isPrivateKeySet;
+	private PrivateKey privateKey;
+	
+	//Pairs of native {encryptor, decryptor} objects used by the threads of the batch functions, kept as {encryptor, decryptor, key generation}. 
+	//Each pair is used by one thread at a time and returned to the queue at the end of its range, 
+	//unless the key was changed since the pair was created.
+	private ConcurrentLinkedQueue<long[]> batchEngines = new ConcurrentLinkedQueue<long[]>();
+	private AtomicLong keyGeneration = new AtomicLong();	//Incremented every time a key is set.
 	
 	//Native functions that compute the encryption scheme functionality.
 	private native long createRSAEncryptor();
@@ -67,6 +78,9 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 	
 	private native byte[] doEncrypt(long encryptor, byte[] plaintext);
 	private native byte[] doDecrypt(long decryptor, byte[] ciphertext);
+	//Compute the encryption or decryption of all the inputs in [from, to) in one native call.
+	private native byte[][] doEncryptBatch(long encryptor, byte[][] plaintexts, int from, int to);
+	private native byte[][] doDecryptBatch(long decryptor, byte[][] ciphertexts, int from, int to);
 	
 	private native int getPlaintextLength(long encryptor); 
 	private native void deleteRSA(long encryptor, long decryptor);	//Delete the native RSA object.
@@ -123,9 +137,28 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 		//Notice! We set the public key twice - in the PublicKey member and in the native encryptor object.
 		//This can lead to many synchronization problems, so we need to be very careful not to change just one of them.
 		this.publicKey = (RSAPublicKey) publicKey;
+		this.privateKey = privateKey;
+		
+		//The native objects of the batch functions were initialized with the previous key. 
+		//Objects that are in use by a running batch are deleted when they are returned.
+		keyGeneration.incrementAndGet();
+		deleteBatchEngines();
+		
+		initNativeObjects(encryptor, decryptor);
 		
+		if (privateKey != null){
+			isPrivateKeySet = true;
+		}
+		
+		isKeySet = true;
+	}
+	
+	/*
+	 * Initializes the given native encryptor and decryptor with the keys of this object.
+	 */
+	private void initNativeObjects(long encryptor, long decryptor){
 		// Gets the values of modulus (N), pubExponent (e), 
-		BigInteger pubExponent = ((RSAPublicKey) publicKey).getPublicExponent();
+		BigInteger pubExponent = publicKey.getPublicExponent();
 		BigInteger modN = ((RSAKey) publicKey).getModulus();
 		
 		//Initializes the native encryptor object with N, e.
@@ -156,11 +189,7 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 				//Initializes the native decryptor object with the RSA parameters - n, e, d.
 				initRSADecryptor(decryptor, modN.toByteArray(), pubExponent.toByteArray(), privExponent.toByteArray());
 			}
-			
-			isPrivateKeySet = true;
 		}
-		
-		isKeySet = true;
 	}
 
 	/**
@@ -232,6 +261,86 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 		return new ByteArrayPlaintext(plaintext);
 	}
 	
+	@Override
+	protected boolean hasPrivateKey() {
+		return isPrivateKeySet;
+	}
+	
+	/**
+	 * Encrypts the plaintexts in [from, to) in one native call, using a native encryptor of the batch functions.
+	 */
+	@Override
+	protected void encryptRange(byte[][] plaintexts, byte[][] ciphertexts, int from, int to) {
+		long[] engine = takeBatchEngine();
+		try {
+			byte[][] rangeCiphertexts = doEncryptBatch(engine[0], plaintexts, from, to);
+			System.arraycopy(rangeCiphertexts, 0, ciphertexts, from, to - from);
+		} finally {
+			returnBatchEngine(engine);
+		}
+	}
+	
+	/**
+	 * Decrypts the ciphertexts in [from, to) in one native call, using a native decryptor of the batch functions.
+	 * @throws ScapiRuntimeException if one of the ciphertexts is not valid.
+	 */
+	@Override
+	protected void decryptRange(byte[][] ciphertexts, byte[][] plaintexts, int from, int to) {
+		long[] engine = takeBatchEngine();
+		byte[][] rangePlaintexts;
+		try {
+			rangePlaintexts = doDecryptBatch(engine[1], ciphertexts, from, to);
+		} finally {
+			returnBatchEngine(engine);
+		}
+		//The native function returns null for every ciphertext that could not be decrypted.
+		for (int i = 0; i < rangePlaintexts.length; i++){
+			if (rangePlaintexts[i] == null){
+				throw new ScapiRuntimeException("the ciphertext in index " + (from + i) + " is not valid");
+			}
+		}
+		System.arraycopy(rangePlaintexts, 0, plaintexts, from, to - from);
+	}
+	
+	/*
+	 * Returns a free pair of native {encryptor, decryptor} objects of the current key. If there is no such pair, creates and initializes a new one.
+	 * Pairs of a previous key are deleted.
+	 */
+	private long[] takeBatchEngine(){
+		//The generation is read before the objects are initialized, so objects are never tagged with a newer key than their own.
+		long generation = keyGeneration.get();
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null && engine[2] != generation){
+			deleteRSA(engine[0], engine[1]);
+		}
+		if (engine == null){
+			engine = new long[]{createRSAEncryptor(), createRSADecryptor(), generation};
+			initNativeObjects(engine[0], engine[1]);
+		}
+		return engine;
+	}
+	
+	/*
+	 * Returns the given pair of native objects to the queue, or deletes it if the key was changed since it was created.
+	 */
+	private void returnBatchEngine(long[] engine){
+		if (engine[2] == keyGeneration.get()){
+			batchEngines.add(engine);
+		} else {
+			deleteRSA(engine[0], engine[1]);
+		}
+	}
+	
+	/*
+	 * Deletes the native objects of the batch functions.
+	 */
+	private void deleteBatchEngines(){
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null){
+			deleteRSA(engine[0], engine[1]);
+		}
+	}
+	
 	/*
 	 * Delete the related RSA object.
 	 */
@@ -239,6 +348,7 @@ public class CryptoPPRSAOaep extends RSAOaepAbs {
 
 		// Delete from the dll the dynamic allocation of the RSA object.
 		deleteRSA(encryptor, decryptor);
+		deleteBatchEngines();
 
 	}
 	
@@ -39,6 +39,14 @@ import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
  */
 public interface DamgardJurikEnc extends AsymAdditiveHomomorphicEnc {
 	
+	/**
+	 * Sets a pool of precomputed tuples (r, r^N mod N').<p>
+	 * If the pool matches the public key of this encryption and the length parameter of the plaintext, the encrypt function that chooses 
+	 * the random value itself takes a tuple from the pool instead of computing r^N. Otherwise, the pool is ignored.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setRandomnessPool(DamgardJurikRandomnessPool pool);
+	
 	/**
 	 * This function takes an encryption of some plaintext (let's call it originalPlaintext) and returns a cipher that "looks" different but
 	 * it is also an encryption of originalPlaintext.<p>
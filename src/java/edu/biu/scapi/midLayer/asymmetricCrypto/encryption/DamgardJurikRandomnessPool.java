@@ -0,0 +1,138 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.generals.PrecomputationPool;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
+
+/**
+ * This class holds precomputed tuples (r, r^N mod N') for Damgard-Jurik encryption under one public key and one length parameter s, 
+ * where N = n^s and N' = n^(s+1).<p>
+ * 
+ * A Damgard-Jurik encryption of x with the randomness r is (1+n)^x * r^N mod N'. Since (1+n)^x is computed by its binomial expansion, 
+ * given a tuple the online encryption costs only a few multiplications. The pool is given to the encryption object by 
+ * {@link DamgardJurikEnc#setRandomnessPool(DamgardJurikRandomnessPool)}, and used by the encrypt function that chooses the random value itself, 
+ * for plaintexts of the pool's length parameter.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class DamgardJurikRandomnessPool extends PrecomputationPool<DamgardJurikRandomnessPool.Entry> {
+	
+	/**
+	 * A precomputed tuple (r, r^N mod N').
+	 */
+	public static class Entry {
+		private BigInteger r;
+		private BigInteger rToN;
+		
+		Entry(BigInteger r, BigInteger rToN){
+			this.r = r;
+			this.rToN = rToN;
+		}
+		
+		/**
+		 * Returns the random value r.
+		 */
+		public BigInteger getR(){
+			return r;
+		}
+		
+		/**
+		 * Returns r^N mod N'.
+		 */
+		public BigInteger getRToN(){
+			return rToN;
+		}
+	}
+	
+	private DamgardJurikContext context;
+	private SecureRandom random;
+	private BigInteger NtagMinus1;
+	
+	/**
+	 * Constructor that sets the public key, the length parameter and the parameters of the pool. The pool is empty until it is filled.
+	 * @param publicKey the Damgard-Jurik public key, that contains the modulus n.
+	 * @param s the length parameter of the encryptions that use this pool.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness.
+	 * @param executor executor that refills the pool in the background, for example {@link edu.biu.scapi.generals.ParallelBatchExecution#getSharedExecutor()}. May be null.
+	 * @throws IllegalArgumentException if the capacity or s are not positive.
+	 */
+	public DamgardJurikRandomnessPool(DamgardJurikPublicKey publicKey, int s, int capacity, SecureRandom random, ExecutorService executor){
+		this(DamgardJurikContext.getInstance(publicKey.getModulus(), s), capacity, random, executor);
+	}
+	
+	/**
+	 * Constructor that uses the given arithmetic context. If the context has the factorization of the modulus, 
+	 * the pool computes r^N using the Chinese Remainder Theorem.
+	 * @param context the context of the modulus and the length parameter of the encryptions that use this pool.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness.
+	 * @param executor executor that refills the pool in the background. May be null.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public DamgardJurikRandomnessPool(DamgardJurikContext context, int capacity, SecureRandom random, ExecutorService executor){
+		super(capacity, executor);
+		this.context = context;
+		this.random = random;
+		NtagMinus1 = context.getNToSPlusOne().subtract(BigInteger.ONE);
+	}
+	
+	/**
+	 * Checks if this pool holds tuples for the given modulus and length parameter.
+	 * @param n the modulus of the public key.
+	 * @param s the length parameter.
+	 * @return true if the pool was created for n and s; false, otherwise.
+	 */
+	public boolean matches(BigInteger n, int s){
+		return context.matches(n, s);
+	}
+	
+	/**
+	 * Returns the length parameter of the pool.
+	 */
+	public int getS(){
+		return context.getS();
+	}
+	
+	/**
+	 * Chooses a random r in ZN'* and computes r^N mod N'.
+	 */
+	@Override
+	protected Entry compute(){
+		//Chooses a random r in ZNtag*, this can be done by choosing a random value between 1 and Ntag -1 
+		//which is with overwhelming probability in Zntag*.
+		BigInteger r = BigIntegers.createRandomInRange(BigInteger.ONE, NtagMinus1, random);
+		return new Entry(r, context.powN(r));
+	}
+}
@@ -30,17 +30,23 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
 import java.security.KeyPair;
+import java.security.KeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.KeySendableData;
@@ -50,6 +56,8 @@ import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ScElGamalPublicKey.ScElGamal
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
 import edu.biu.scapi.primitives.dlog.GroupElement;
 import edu.biu.scapi.primitives.dlog.cryptopp.CryptoPpDlogZpSafePrime;
 import edu.biu.scapi.primitives.dlog.miracl.MiraclDlogECFp;
@@ -71,6 +79,11 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 	private boolean isKeySet;
 	protected BigInteger qMinusOne;				//We keep this value to save unnecessary calculations.
 	
+	//Batches smaller than this size do not build fixed base tables of g and h, but use them if they already exist.
+	private static final int MIN_BATCH_FOR_FIXED_BASE = 256;
+	
+	private ElGamalRandomnessPool randomnessPool;		//Precomputed tuples (r, g^r, h^r). May be null.
+	
 	
 	/**
 	 * Default constructor. Uses the default implementations of DlogGroup, CryptographicHash and SecureRandom.
@@ -287,10 +300,35 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 		 *		Calculate c2 = h^y * plaintext.getElement() mod p // For ElGamal on a GroupElement.
 		 *					OR KDF(h^y) XOR plaintext.getBytes()  // For ElGamal on a ByteArray.
 		 */
+		GroupElement[] powers = sampleRandomPowers();
+		return completeEncryption(powers[0], powers[1], plaintext);	
+	}
+	
+	/**
+	 * Chooses a random y<-Zq and returns {g^y, h^y}.<p>
+	 * If there is a pool of precomputed tuples for the public key of this encryption, the powers are taken from it.
+	 */
+	protected GroupElement[] sampleRandomPowers(){
+		ElGamalRandomnessPool pool = randomnessPool;
+		if (pool != null && pool.matches(dlog, publicKey)){
+			ElGamalRandomnessPool.Entry entry = pool.take();
+			return new GroupElement[]{entry.getGToR(), entry.getHToR()};
+		}
+		
 		//Chooses a random value y<-Zq.
 		BigInteger y = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
 		
-		return encrypt(plaintext, y);	
+		return new GroupElement[]{dlog.exponentiate(dlog.getGenerator(), y), dlog.exponentiate(publicKey.getH(), y)};
+	}
+	
+	/**
+	 * Sets a pool of precomputed tuples (r, g^r, h^r).<p>
+	 * If the pool matches the group and the public key of this encryption, {@link #encrypt(Plaintext)} takes a tuple from the pool 
+	 * instead of computing the exponentiations. Otherwise, the pool is ignored.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setRandomnessPool(ElGamalRandomnessPool pool){
+		randomnessPool = pool;
 	}
 	
 	/**
@@ -335,6 +373,218 @@ public abstract class ElGamalAbs implements ElGamalEnc{
 	
 	protected abstract AsymmetricCiphertext completeEncryption(GroupElement c1, GroupElement hy, Plaintext plaintext);
 	
+	/**
+	 * Returns the group element of the given ciphertext that is raised to the power of the private key during the decryption.
+	 * @param cipher the ciphertext. Must match this ElGamal type.
+	 * @return the first element of the ciphertext.
+	 * @throws IllegalArgumentException if the given ciphertext does not match this ElGamal type.
+	 */
+	protected abstract GroupElement getFirstCipherElement(AsymmetricCiphertext cipher);
+	
+	/**
+	 * Returns all the group elements of the given ciphertext. They are checked to be members of the group by the batch decryption. <p>
+	 * The default implementation returns only the first element. Ciphertexts that contain more group elements should override this function.
+	 * @param cipher the ciphertext. Must match this ElGamal type.
+	 * @return the group elements of the ciphertext.
+	 * @throws IllegalArgumentException if the given ciphertext does not match this ElGamal type.
+	 */
+	protected GroupElement[] getCipherGroupElements(AsymmetricCiphertext cipher){
+		return new GroupElement[]{getFirstCipherElement(cipher)};
+	}
+	
+	/**
+	 * Completes the decryption operation, given the first element of the ciphertext raised to the power of the private key.
+	 * @param s the first element of the ciphertext raised to the power of the private key.
+	 * @param cipher the ciphertext to decrypt.
+	 * @return the decrypted plaintext.
+	 */
+	protected abstract Plaintext completeDecryption(GroupElement s, AsymmetricCiphertext cipher);
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * Chooses a random value r_i <- Zq for every plaintext and calls {@link #encryptBatch(Plaintext[], BigInteger[], ExecutorService)}.
+	 * @param plaintexts the messages to encrypt. Each one must match this ElGamal type.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given Plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		return encryptBatch(plaintexts, sampleRandomValues(plaintexts.length), executor);
+	}
+	
+	/**
+	 * Encrypts many plaintexts at once using the given random values.<p>
+	 * 	"FOR i = 1 ... n<p>
+	 * 		Calculate c1_i = g^r_i and h^r_i<p>
+	 * 		Complete the encryption of plaintext_i using c1_i and h^r_i". <p>
+	 * The exponentiations are computed using fixed base tables of g and h when the batch is big enough, and are spread across the threads of the executor.
+	 * The completions of the encryptions are done in the calling thread, since they may use objects that can not be shared between threads.
+	 * @param plaintexts the messages to encrypt. Each one must match this ElGamal type.
+	 * @param r the random values to use in the encryptions, in the same order as the plaintexts. Each one must be in Zq.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths, one of the random values is not in Zq 
+	 * or one of the given Plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, BigInteger[] r, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		if (plaintexts.length != r.length){
+			throw new IllegalArgumentException("the number of plaintexts and random values should be equal");
+		}
+		
+		//Calculates c1_i = g^r_i and h^r_i.
+		GroupElement[][] powers = computeRandomPowers(r, executor);
+		
+		AsymmetricCiphertext[] ciphers = new AsymmetricCiphertext[plaintexts.length];
+		for (int i = 0; i < plaintexts.length; i++){
+			ciphers[i] = completeEncryption(powers[0][i], powers[1][i], plaintexts[i]);
+		}
+		return ciphers;
+	}
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * All the group elements of the ciphertexts are checked to be members of the underlying group, and then the first elements are 
+	 * raised to the power of the private key in parallel. The completions of the decryptions are done in the calling thread, since they may use objects that can not be shared between threads.
+	 * @param ciphers the ciphertexts to decrypt. Each one must match this ElGamal type.
+	 * @param executor used to compute the decryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this ElGamal type, 
+	 * or contains an element that is not a member of the underlying group.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException {
+		//If there is no private key, throws exception.
+		if (privateKey == null){
+			throw new KeyException("in order to decrypt a message, this object must be initialized with private key");
+		}
+		
+		final GroupElement[] c1 = new GroupElement[ciphers.length];
+		ArrayList<GroupElement> elements = new ArrayList<GroupElement>();
+		for (int i = 0; i < ciphers.length; i++){
+			c1[i] = getFirstCipherElement(ciphers[i]);
+			elements.addAll(Arrays.asList(getCipherGroupElements(ciphers[i])));
+		}
+		checkMembership(elements.toArray(new GroupElement[elements.size()]), executor);
+		
+		//Calculates s_i = c1_i ^ x.
+		final BigInteger x = privateKey.getX();
+		final GroupElement[] s = new GroupElement[ciphers.length];
+		ParallelBatchExecution.execute(getGroupExecutor(executor), ciphers.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					s[i] = dlog.exponentiate(c1[i], x);
+				}
+			}
+		});
+		
+		Plaintext[] plaintexts = new Plaintext[ciphers.length];
+		for (int i = 0; i < ciphers.length; i++){
+			plaintexts[i] = completeDecryption(s[i], ciphers[i]);
+		}
+		return plaintexts;
+	}
+	
+	/**
+	 * Chooses the given number of random values in Zq.
+	 * @param size number of values to choose.
+	 * @return the random values.
+	 */
+	protected BigInteger[] sampleRandomValues(int size){
+		BigInteger[] r = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			r[i] = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		}
+		return r;
+	}
+	
+	/**
+	 * Computes g^r_i and h^r_i for all the given random values.<p>
+	 * In case the batch is big enough, or the tables already exist, the exponentiations are computed using fixed base tables 
+	 * of g and h that are kept in {@link FixedBaseExponentiatorCache#getInstance()}.
+	 * @param r the exponents. Each one must be in Zq.
+	 * @param executor used to compute the exponentiations in parallel if the underlying group is thread safe. May be null.
+	 * @return two arrays: the first holds g^r_i and the second holds h^r_i.
+	 * @throws IllegalArgumentException if one of the random values is not in Zq.
+	 */
+	protected GroupElement[][] computeRandomPowers(final BigInteger[] r, ExecutorService executor){
+		for (int i = 0; i < r.length; i++){
+			//Check that the random value is in Zq.
+			if (r[i].signum() < 0 || r[i].compareTo(qMinusOne) > 0){
+				throw new IllegalArgumentException("r must be in Zq");
+			}
+		}
+		
+		final GroupElement generator = dlog.getGenerator();
+		final GroupElement h = publicKey.getH();
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		final FixedBaseExponentiator gTable;
+		final FixedBaseExponentiator hTable;
+		if (r.length >= MIN_BATCH_FOR_FIXED_BASE){
+			gTable = cache.get(dlog, generator);
+			hTable = cache.get(dlog, h);
+		} else {
+			gTable = cache.getIfPresent(dlog, generator);
+			hTable = cache.getIfPresent(dlog, h);
+		}
+		
+		final GroupElement[][] powers = new GroupElement[2][r.length];
+		ParallelBatchExecution.execute(getGroupExecutor(executor), r.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					powers[0][i] = (gTable != null) ? gTable.exponentiate(r[i]) : dlog.exponentiate(generator, r[i]);
+					powers[1][i] = (hTable != null) ? hTable.exponentiate(r[i]) : dlog.exponentiate(h, r[i]);
+				}
+			}
+		});
+		return powers;
+	}
+	
+	/**
+	 * Returns the executor that can be used for computations on the underlying group.<p>
+	 * The group is used by several threads only if it is thread safe (see {@link DlogGroup#isThreadSafe()}). 
+	 * Otherwise, null is returned so that the computation is done in the calling thread.
+	 * @param executor the executor given by the user. May be null.
+	 * @return the given executor if the group is thread safe, null otherwise.
+	 */
+	protected ExecutorService getGroupExecutor(ExecutorService executor){
+		return dlog.isThreadSafe() ? executor : null;
+	}
+	
+	/**
+	 * Checks that all the given elements are members of the underlying group. The checks are spread across the threads of the executor.
+	 * @param elements the elements to check.
+	 * @param executor used to check the elements in parallel if the underlying group is thread safe. May be null.
+	 * @throws IllegalArgumentException if one of the elements is not a member of the underlying group.
+	 */
+	protected void checkMembership(final GroupElement[] elements, ExecutorService executor){
+		final boolean[] valid = new boolean[elements.length];
+		ParallelBatchExecution.execute(getGroupExecutor(executor), elements.length, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					valid[i] = dlog.isMember(elements[i]);
+				}
+			}
+		});
+		for (int i = 0; i < elements.length; i++){
+			if (!valid[i]){
+				throw new IllegalArgumentException("GroupElement number " + i + " is not a member in the DlogGroup of type " + dlog.getGroupType());
+			}
+		}
+	}
+	
 	
 	
 }
@@ -26,6 +26,13 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
+import java.math.BigInteger;
+import java.security.KeyException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
+
 /**
  * General interface for El Gamal encryption scheme. Every concrete implementation of ElGamal should implement this interface.
  * By definition, this encryption scheme is CPA-secure and Indistinguishable.
@@ -34,5 +41,52 @@ package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
  *
  */
 public interface ElGamalEnc extends AsymmetricEnc{
+	
+	/**
+	 * Sets a pool of precomputed tuples (r, g^r, h^r).<p>
+	 * If the pool matches the group and the public key of this encryption, the encrypt function that chooses the random value itself 
+	 * takes a tuple from the pool instead of computing the exponentiations. Otherwise, the pool is ignored.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	public void setRandomnessPool(ElGamalRandomnessPool pool);
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * The exponentiations of g and h are computed using fixed base tables when the batch is big enough, 
+	 * and are spread across the threads of the given executor.<p>
+	 * The batch functions use the executor only if the underlying group is thread safe (see {@link edu.biu.scapi.primitives.dlog.DlogGroup#isThreadSafe()}). 
+	 * The groups of the native providers (such as the default Miracl and Crypto++ groups) are not, so with them the computation 
+	 * is done in the calling thread.
+	 * @param plaintexts the messages to encrypt. Each one must match this ElGamal type.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given Plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor);
+	
+	/**
+	 * Encrypts many plaintexts at once using the given random values.
+	 * @param plaintexts the messages to encrypt. Each one must match this ElGamal type.
+	 * @param r the random values to use in the encryptions, in the same order as the plaintexts. Each one must be in Zq.
+	 * @param executor used to compute the encryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths, one of the random values is not in Zq 
+	 * or one of the given Plaintexts does not match this ElGamal type.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, BigInteger[] r, ExecutorService executor);
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * The group elements of all the ciphertexts are checked to be members of the underlying group before any of them is decrypted.
+	 * @param ciphers the ciphertexts to decrypt. Each one must match this ElGamal type.
+	 * @param executor used to compute the decryptions in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts does not match this ElGamal type, 
+	 * or contains an element that is not a member of the underlying group.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) throws KeyException;
 
 }
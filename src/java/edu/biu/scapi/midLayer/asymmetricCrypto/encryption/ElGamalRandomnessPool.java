@@ -0,0 +1,153 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+
+import org.bouncycastle.util.BigIntegers;
+
+import edu.biu.scapi.generals.PrecomputationPool;
+import edu.biu.scapi.midLayer.asymmetricCrypto.keys.ElGamalPublicKey;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiator;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+
+/**
+ * This class holds precomputed tuples (r, g^r, h^r) for ElGamal encryption under one public key.<p>
+ * 
+ * An ElGamal encryption with the randomness r is (g^r, h^r*m) or (g^r, KDF(h^r) XOR m), so given a tuple the online encryption is 
+ * one group multiplication or one key derivation. The pool is given to the encryption object by 
+ * {@link ElGamalEnc#setRandomnessPool(ElGamalRandomnessPool)}, and used by the encrypt functions that choose the random value themselves.<p>
+ * 
+ * The exponentiations use the shared fixed base tables of g and h. The tables are built by pools that are big enough to amortize them.<p>
+ * 
+ * The tuples are computed on the Dlog group of the encryption scheme, which is also used by the encryption object. Therefore, 
+ * the pool is refilled in the background only if the group is thread safe (see {@link DlogGroup#isThreadSafe()}). 
+ * Otherwise, the executor is ignored and the pool is filled only by {@link #fill()} and by take when it is empty.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ElGamalRandomnessPool extends PrecomputationPool<ElGamalRandomnessPool.Entry> {
+	
+	//Minimal capacity for which the pool builds fixed base tables of g and h, instead of only using existing ones.
+	private static final int MIN_CAPACITY_FOR_FIXED_BASE = 64;
+	
+	/**
+	 * A precomputed tuple (r, g^r, h^r).
+	 */
+	public static class Entry {
+		private BigInteger r;
+		private GroupElement gToR;
+		private GroupElement hToR;
+		
+		Entry(BigInteger r, GroupElement gToR, GroupElement hToR){
+			this.r = r;
+			this.gToR = gToR;
+			this.hToR = hToR;
+		}
+		
+		/**
+		 * Returns the random exponent r.
+		 */
+		public BigInteger getR(){
+			return r;
+		}
+		
+		/**
+		 * Returns g^r.
+		 */
+		public GroupElement getGToR(){
+			return gToR;
+		}
+		
+		/**
+		 * Returns h^r.
+		 */
+		public GroupElement getHToR(){
+			return hToR;
+		}
+	}
+	
+	private DlogGroup dlog;
+	private GroupElement h;
+	private SecureRandom random;
+	private BigInteger qMinusOne;
+	private boolean buildTables;
+	
+	/**
+	 * Constructor that sets the group, the public key and the parameters of the pool. The pool is empty until it is filled.
+	 * @param dlog the Dlog group of the encryption scheme.
+	 * @param publicKey the ElGamal public key, that contains h.
+	 * @param capacity maximum number of tuples in the pool.
+	 * @param random source of randomness for the exponents.
+	 * @param executor executor that refills the pool in the background, for example {@link edu.biu.scapi.generals.ParallelBatchExecution#getSharedExecutor()}. 
+	 * May be null. Ignored if the group is not thread safe.
+	 * @throws IllegalArgumentException if the capacity is not positive.
+	 */
+	public ElGamalRandomnessPool(DlogGroup dlog, ElGamalPublicKey publicKey, int capacity, SecureRandom random, ExecutorService executor){
+		//The background refill computes on the group concurrently with the encryption object, so it is done only if the group is thread safe.
+		super(capacity, dlog.isThreadSafe() ? executor : null);
+		this.dlog = dlog;
+		this.h = publicKey.getH();
+		this.random = random;
+		qMinusOne = dlog.getOrder().subtract(BigInteger.ONE);
+		buildTables = capacity >= MIN_CAPACITY_FOR_FIXED_BASE;
+	}
+	
+	/**
+	 * Checks if this pool holds tuples for the given group and public key.
+	 * @param dlog the Dlog group of the encryption scheme.
+	 * @param publicKey the ElGamal public key of the encryption scheme.
+	 * @return true if the group is the same object and the keys have the same h; false, otherwise.
+	 */
+	public boolean matches(DlogGroup dlog, ElGamalPublicKey publicKey){
+		return this.dlog == dlog && h.equals(publicKey.getH());
+	}
+	
+	/**
+	 * Samples r and computes g^r and h^r.
+	 */
+	@Override
+	protected Entry compute(){
+		BigInteger r = BigIntegers.createRandomInRange(BigInteger.ZERO, qMinusOne, random);
+		return new Entry(r, exponentiate(dlog.getGenerator(), r), exponentiate(h, r));
+	}
+	
+	/*
+	 * Computes base^r, using the shared fixed base table of the base if there is one or if this pool builds tables.
+	 */
+	private GroupElement exponentiate(GroupElement base, BigInteger r){
+		FixedBaseExponentiatorCache cache = FixedBaseExponentiatorCache.getInstance();
+		FixedBaseExponentiator table = buildTables ? cache.get(dlog, base) : cache.getIfPresent(dlog, base);
+		if (table != null){
+			return table.exponentiate(r);
+		}
+		return dlog.exponentiate(base, r);
+	}
+}
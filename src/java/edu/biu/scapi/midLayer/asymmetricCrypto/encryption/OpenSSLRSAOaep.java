@@ -35,6 +35,10 @@ import java.security.interfaces.RSAKey;
 import java.security.interfaces.RSAPrivateCrtKey;
 import java.security.interfaces.RSAPrivateKey;
 import java.security.interfaces.RSAPublicKey;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import edu.biu.scapi.exceptions.ScapiRuntimeException;
 
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.ByteArrayAsymCiphertext;
@@ -52,6 +56,13 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 	
 	private long rsa; 					//Pointer to the Native RSA object in OpenSSL.
 	private boolean isPrivateKeySet;
+	private PrivateKey privateKey;
+	
+	//Native RSA objects used by the threads of the batch functions, kept as pairs {native object, key generation}. 
+	//Each object is used by one thread at a time and returned to the queue at the end of its range, 
+	//unless the key was changed since the object was created.
+	private ConcurrentLinkedQueue<long[]> batchEngines = new ConcurrentLinkedQueue<long[]>();
+	private AtomicLong keyGeneration = new AtomicLong();	//Incremented every time a key is set.
 	
 	//Native functions that compute the encryption scheme functionality.
 	
@@ -66,6 +77,9 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 	
 	private native byte[] doEncrypt(long rsa, byte[] plaintext);	//Encrypt the given plaintext.
 	private native byte[] doDecrypt(long rsa, byte[] ciphertext); 	//Decrypt the given plaintext.
+	//Encrypt or decrypt all the inputs in [from, to) in one native call.
+	private native byte[][] doEncryptBatch(long rsa, byte[][] plaintexts, int from, int to);
+	private native byte[][] doDecryptBatch(long rsa, byte[][] ciphertexts, int from, int to);
 	
 	//Returns the maximum length that a plaintext can be.
 	private native int getPlaintextLength(long rsa); 
@@ -123,9 +137,28 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 		//Notice! We set the public key twice - in the PublicKey member and in the native object.
 		//This can lead to many synchronization problems, so we need to be very careful not to change just one of them.
 		this.publicKey = (RSAPublicKey) publicKey;
+		this.privateKey = privateKey;
+		
+		//The native objects of the batch functions were initialized with the previous key. 
+		//Objects that are in use by a running batch are deleted when they are returned.
+		keyGeneration.incrementAndGet();
+		deleteBatchEngines();
+		
+		initNativeObject(rsa);
 		
+		if (privateKey != null){
+			isPrivateKeySet = true;
+		}
+		
+		isKeySet = true;
+	}
+	
+	/*
+	 * Initializes the given native RSA object with the keys of this object.
+	 */
+	private void initNativeObject(long rsa){
 		// Get the values of modulus (N), pubExponent (e), 
-		BigInteger pubExponent = ((RSAPublicKey) publicKey).getPublicExponent();
+		BigInteger pubExponent = publicKey.getPublicExponent();
 		BigInteger modN = ((RSAKey) publicKey).getModulus();
 		
 		//Initialize the native object with N, e.
@@ -156,11 +189,7 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 				//Initialize the native object with the RSA parameters - n, e, d.
 				initRSADecryptor(rsa, modN.toByteArray(), pubExponent.toByteArray(), privExponent.toByteArray());
 			}
-			
-			isPrivateKeySet = true;
 		}
-		
-		isKeySet = true;
 	}
 
 	/**
@@ -232,6 +261,94 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 		return new ByteArrayPlaintext(plaintext);
 	}
 	
+	@Override
+	protected boolean hasPrivateKey() {
+		return isPrivateKeySet;
+	}
+	
+	/**
+	 * Encrypts the plaintexts in [from, to) in one native call, using a native RSA object of the batch functions.
+	 * @throws ScapiRuntimeException if one of the plaintexts could not be encrypted.
+	 */
+	@Override
+	protected void encryptRange(byte[][] plaintexts, byte[][] ciphertexts, int from, int to) {
+		long[] engine = takeBatchEngine();
+		byte[][] rangeCiphertexts;
+		try {
+			rangeCiphertexts = doEncryptBatch(engine[0], plaintexts, from, to);
+		} finally {
+			returnBatchEngine(engine);
+		}
+		//The native function returns null for every plaintext that could not be encrypted.
+		for (int i = 0; i < rangeCiphertexts.length; i++){
+			if (rangeCiphertexts[i] == null){
+				throw new ScapiRuntimeException("the plaintext in index " + (from + i) + " could not be encrypted");
+			}
+		}
+		System.arraycopy(rangeCiphertexts, 0, ciphertexts, from, to - from);
+	}
+	
+	/**
+	 * Decrypts the ciphertexts in [from, to) in one native call, using a native RSA object of the batch functions.
+	 * @throws ScapiRuntimeException if one of the ciphertexts is not valid.
+	 */
+	@Override
+	protected void decryptRange(byte[][] ciphertexts, byte[][] plaintexts, int from, int to) {
+		long[] engine = takeBatchEngine();
+		byte[][] rangePlaintexts;
+		try {
+			rangePlaintexts = doDecryptBatch(engine[0], ciphertexts, from, to);
+		} finally {
+			returnBatchEngine(engine);
+		}
+		//The native function returns null for every ciphertext that could not be decrypted.
+		for (int i = 0; i < rangePlaintexts.length; i++){
+			if (rangePlaintexts[i] == null){
+				throw new ScapiRuntimeException("the ciphertext in index " + (from + i) + " is not valid");
+			}
+		}
+		System.arraycopy(rangePlaintexts, 0, plaintexts, from, to - from);
+	}
+	
+	/*
+	 * Returns a free native RSA object of the current key. If there is no such object, creates and initializes a new one.
+	 * Objects of a previous key are deleted.
+	 */
+	private long[] takeBatchEngine(){
+		//The generation is read before the object is initialized, so an object is never tagged with a newer key than its own.
+		long generation = keyGeneration.get();
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null && engine[1] != generation){
+			deleteRSA(engine[0]);
+		}
+		if (engine == null){
+			engine = new long[]{createEncryption(), generation};
+			initNativeObject(engine[0]);
+		}
+		return engine;
+	}
+	
+	/*
+	 * Returns the given native RSA object to the queue, or deletes it if the key was changed since it was created.
+	 */
+	private void returnBatchEngine(long[] engine){
+		if (engine[1] == keyGeneration.get()){
+			batchEngines.add(engine);
+		} else {
+			deleteRSA(engine[0]);
+		}
+	}
+	
+	/*
+	 * Deletes the native objects of the batch functions.
+	 */
+	private void deleteBatchEngines(){
+		long[] engine;
+		while ((engine = batchEngines.poll()) != null){
+			deleteRSA(engine[0]);
+		}
+	}
+	
 	/*
 	 * Delete the related RSA object.
 	 */
@@ -239,6 +356,7 @@ public class OpenSSLRSAOaep extends RSAOaepAbs {
 
 		// Delete from the dll the dynamic allocation of the RSA object.
 		deleteRSA(rsa);
+		deleteBatchEngines();
 
 	}	
 	
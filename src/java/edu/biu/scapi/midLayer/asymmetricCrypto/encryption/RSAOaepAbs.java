@@ -28,6 +28,7 @@ package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
 import java.math.BigInteger;
 import java.security.InvalidAlgorithmParameterException;
+import java.security.KeyException;
 import java.security.KeyPair;
 import java.security.KeyPairGenerator;
 import java.security.NoSuchAlgorithmException;
@@ -39,6 +40,10 @@ import java.security.interfaces.RSAPublicKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
 import java.security.spec.RSAKeyGenParameterSpec;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.KeySendableData;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
@@ -213,5 +218,124 @@ public abstract class RSAOaepAbs implements RSAOaepEnc {
 			throw new IllegalArgumentException("To generate the key from sendable data, the data has to be of type RSAPublicKey");
 	return (RSAPublicKey)data;
 	}
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * The plaintexts are split into one part per thread of the given executor, and each part is encrypted by {@link #encryptRange}.
+	 * @param plaintexts the plaintexts to encrypt. Each one MUST be an instance of ByteArrayPlaintext.
+	 * @param executor used to compute the encryptions in parallel. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given plaintexts is not an instance of ByteArrayPlaintext.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor){
+		//If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		
+		final byte[][] inputs = new byte[plaintexts.length][];
+		for (int i = 0; i < plaintexts.length; i++){
+			if (!(plaintexts[i] instanceof ByteArrayPlaintext)){
+				throw new IllegalArgumentException("plaintext should be instance of ByteArrayPlaintext");
+			}
+			inputs[i] = ((ByteArrayPlaintext) plaintexts[i]).getText();
+		}
+		
+		final byte[][] outputs = new byte[inputs.length][];
+		final int numParts = getNumberOfParts(inputs.length, executor);
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int fromPart, int toPart) {
+				for (int part = fromPart; part < toPart; part++){
+					encryptRange(inputs, outputs, getPartStart(inputs.length, numParts, part), getPartStart(inputs.length, numParts, part + 1));
+				}
+			}
+		});
+		
+		AsymmetricCiphertext[] ciphertexts = new AsymmetricCiphertext[outputs.length];
+		for (int i = 0; i < outputs.length; i++){
+			ciphertexts[i] = new ByteArrayAsymCiphertext(outputs[i]);
+		}
+		return ciphertexts;
+	}
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * The ciphertexts are split into one part per thread of the given executor, and each part is decrypted by {@link #decryptRange}.
+	 * @param ciphertexts the ciphertexts to decrypt. Each one MUST be an instance of ByteArrayAsymCiphertext.
+	 * @param executor used to compute the decryptions in parallel. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts is not an instance of ByteArrayAsymCiphertext.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphertexts, ExecutorService executor) throws KeyException{
+		//If there is no private key can not decrypt, throws exception.
+		if (!hasPrivateKey()){
+			throw new KeyException("in order to decrypt a message, this object must be initialized with private key");
+		}
+		
+		final byte[][] inputs = new byte[ciphertexts.length][];
+		for (int i = 0; i < ciphertexts.length; i++){
+			if (!(ciphertexts[i] instanceof ByteArrayAsymCiphertext)){
+				throw new IllegalArgumentException("The ciphertext has to be of type ByteArrayAsymCiphertext");
+			}
+			inputs[i] = ((ByteArrayAsymCiphertext) ciphertexts[i]).getBytes();
+		}
+		
+		final byte[][] outputs = new byte[inputs.length][];
+		final int numParts = getNumberOfParts(inputs.length, executor);
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int fromPart, int toPart) {
+				for (int part = fromPart; part < toPart; part++){
+					decryptRange(inputs, outputs, getPartStart(inputs.length, numParts, part), getPartStart(inputs.length, numParts, part + 1));
+				}
+			}
+		});
+		
+		Plaintext[] plaintexts = new Plaintext[outputs.length];
+		for (int i = 0; i < outputs.length; i++){
+			plaintexts[i] = new ByteArrayPlaintext(outputs[i]);
+		}
+		return plaintexts;
+	}
+	
+	/**
+	 * Checks if a private key was set.
+	 */
+	protected abstract boolean hasPrivateKey();
+	
+	/**
+	 * Encrypts the plaintexts in [from, to) and puts the ciphertexts in the same indices of the ciphertexts array.<p>
+	 * This function is called concurrently by the threads of the batch functions, so it should use an instance of the 
+	 * underlying engine that is not used by other threads at the same time.
+	 */
+	protected abstract void encryptRange(byte[][] plaintexts, byte[][] ciphertexts, int from, int to);
+	
+	/**
+	 * Decrypts the ciphertexts in [from, to) and puts the plaintexts in the same indices of the plaintexts array.<p>
+	 * This function is called concurrently by the threads of the batch functions, so it should use an instance of the 
+	 * underlying engine that is not used by other threads at the same time.
+	 * @throws ScapiRuntimeException if one of the ciphertexts is not valid.
+	 */
+	protected abstract void decryptRange(byte[][] ciphertexts, byte[][] plaintexts, int from, int to);
+	
+	/*
+	 * Returns the number of parts to split a batch of the given size into, that is one part per thread of the executor.
+	 */
+	private static int getNumberOfParts(int size, ExecutorService executor){
+		if (executor == null || size == 0){
+			return 1;
+		}
+		return Math.min(size, Runtime.getRuntime().availableProcessors());
+	}
+	
+	/*
+	 * Returns the first index of the given part.
+	 */
+	private static int getPartStart(int size, int numParts, int part){
+		return (int) ((long) size * part / numParts);
+	}
 
 }
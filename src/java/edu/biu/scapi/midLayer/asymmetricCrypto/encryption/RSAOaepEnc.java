@@ -26,6 +26,11 @@
 
 package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
 
+import java.security.KeyException;
+import java.util.concurrent.ExecutorService;
+
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.securityLevel.Cca2;
 
 /**
@@ -36,5 +41,28 @@ import edu.biu.scapi.securityLevel.Cca2;
  *
  */
 public interface RSAOaepEnc extends AsymmetricEnc, Cca2{
-
+	
+	/**
+	 * Encrypts many plaintexts at once.<p>
+	 * The plaintexts are split between the threads of the given executor. Every thread encrypts its part of the batch 
+	 * with its own instance of the underlying engine, that keeps the key between the plaintexts.
+	 * @param plaintexts the plaintexts to encrypt. Each one MUST be an instance of ByteArrayPlaintext.
+	 * @param executor used to compute the encryptions in parallel. If null, the computation is done in the calling thread.
+	 * @return the ciphertexts, in the same order as the plaintexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given plaintexts is not an instance of ByteArrayPlaintext.
+	 */
+	public AsymmetricCiphertext[] encryptBatch(Plaintext[] plaintexts, ExecutorService executor);
+	
+	/**
+	 * Decrypts many ciphertexts at once.<p>
+	 * The ciphertexts are split between the threads of the given executor. Every thread decrypts its part of the batch 
+	 * with its own instance of the underlying engine, that keeps the key and the CRT values between the ciphertexts.
+	 * @param ciphertexts the ciphertexts to decrypt. Each one MUST be an instance of ByteArrayAsymCiphertext.
+	 * @param executor used to compute the decryptions in parallel. If null, the computation is done in the calling thread.
+	 * @return the plaintexts, in the same order as the ciphertexts.
+	 * @throws KeyException if no private key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts is not an instance of ByteArrayAsymCiphertext.
+	 */
+	public Plaintext[] decryptBatch(AsymmetricCiphertext[] ciphertexts, ExecutorService executor) throws KeyException;
 }
@@ -38,6 +38,7 @@ import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.CramerShoupPrivateKey;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertextSendableData;
+import edu.biu.scapi.midLayer.ciphertext.CramerShoupCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnByteArrayCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnByteArrayCiphertext.CrShOnByteArraySendableData;
 import edu.biu.scapi.midLayer.plaintext.ByteArrayPlaintext;
@@ -195,7 +196,11 @@ public class ScCramerShoupDDHOnByteArray extends CramerShoupAbs{
 		GroupElement u2 = calcU2(r);
 		GroupElement hExpr = calcHExpR(r);
 		byte[] hrBytes = dlogGroup.mapAnyGroupElementToByteArray(hExpr);
-		byte[] e = kdf.deriveKey(hrBytes, 0, hrBytes.length, msg.length).getEncoded();
+		byte[] e;
+		//The kdf is shared by the threads of the batch functions.
+		synchronized (kdf) {
+			e = kdf.deriveKey(hrBytes, 0, hrBytes.length, msg.length).getEncoded();
+		}
 		
 		//Xores the result from the kdf with the plaintext.
 		for(int i=0; i<msg.length; i++){
@@ -253,10 +258,37 @@ public class ScCramerShoupDDHOnByteArray extends CramerShoupAbs{
 
 		checkValidity(cipher, alpha);
 		
+		return completeDecryption(cipher);
+		
+	}
+	
+	/**
+	 * Returns the byte array e of the given ciphertext.
+	 * @throws IllegalArgumentException if the given Ciphertext is not instance of CramerShoupOnByteArrayCiphertext.
+	 */
+	@Override
+	protected byte[] getEToByteArray(CramerShoupCiphertext cipher) {
+		if (!(cipher instanceof CramerShoupOnByteArrayCiphertext)){
+			throw new IllegalArgumentException("ciphertext should be instance of CramerShoupOnByteArrayCiphertext");
+		}
+		return ((CramerShoupOnByteArrayCiphertext) cipher).getE();
+	}
+	
+	/**
+	 * Calculates m = KDF(u1^z) XOR e of the given valid ciphertext.
+	 */
+	@Override
+	protected Plaintext completeDecryption(CramerShoupCiphertext cipher) {
+		byte[] e = ((CramerShoupOnByteArrayCiphertext) cipher).getE();
+		
 		//Calculates m = KDF((u1^z) XOR e. 
 		GroupElement u1ExpZ = dlogGroup.exponentiate(cipher.getU1(), privateKey.getPrivateExp5());
 		byte[] u1ExpZBytes = dlogGroup.mapAnyGroupElementToByteArray(u1ExpZ);
-		byte[] m = kdf.deriveKey(u1ExpZBytes, 0, u1ExpZBytes.length, e.length).getEncoded();
+		byte[] m;
+		//The kdf is shared by the threads of the batch functions.
+		synchronized (kdf) {
+			m = kdf.deriveKey(u1ExpZBytes, 0, u1ExpZBytes.length, e.length).getEncoded();
+		}
 		
 		//Xores the result from the kdf with the plaintext.
 		for(int i=0; i<e.length; i++){
@@ -265,7 +297,6 @@ public class ScCramerShoupDDHOnByteArray extends CramerShoupAbs{
 		
 		//Creates a plaintext object with the group element and return it.
 		return new ByteArrayPlaintext(m);
-		
 	}
 	
 	/**
@@ -37,6 +37,7 @@ import edu.biu.scapi.exceptions.SecurityLevelException;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.*;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertextSendableData;
+import edu.biu.scapi.midLayer.ciphertext.CramerShoupCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnGroupElementCiphertext;
 import edu.biu.scapi.midLayer.ciphertext.CramerShoupOnGroupElementCiphertext.CrShOnGroupElSendableData;
 import edu.biu.scapi.midLayer.plaintext.GroupElementPlaintext;
@@ -248,15 +249,36 @@ public class ScCramerShoupDDHOnGroupElement extends CramerShoupAbs {
 
 		checkValidity(cipher, alpha);
 		
+		plaintext = completeDecryption(cipher);
+		
+		return plaintext;
+	}
+	
+	/**
+	 * Returns the byte array of the group element e of the given ciphertext.
+	 * @throws IllegalArgumentException if the given Ciphertext is not instance of CramerShoupOnGroupElementCiphertext.
+	 */
+	@Override
+	protected byte[] getEToByteArray(CramerShoupCiphertext cipher) {
+		if (!(cipher instanceof CramerShoupOnGroupElementCiphertext)){
+			throw new IllegalArgumentException("ciphertext should be instance of CramerShoupOnGroupElementCiphertext");
+		}
+		return dlogGroup.mapAnyGroupElementToByteArray(((CramerShoupOnGroupElementCiphertext) cipher).getE());
+	}
+	
+	/**
+	 * Calculates m = e*((u1^z)^ -1) of the given valid ciphertext.
+	 */
+	@Override
+	protected Plaintext completeDecryption(CramerShoupCiphertext cipher) {
+		CramerShoupOnGroupElementCiphertext groupElementCipher = (CramerShoupOnGroupElementCiphertext) cipher;
 		//Calculates m = e*((u1^z)^ -1). 
 		//Instead of calculating (u1^z)^-1, we use the optimization that was calculated in initPrivateKey function and calculate u1^zInv.
-		GroupElement U1ExpInvZ = dlogGroup.exponentiate(cipher.getU1(), privateKey.getPrivateExp5());
-		GroupElement m = dlogGroup.multiplyGroupElements(cipher.getE(), U1ExpInvZ);
+		GroupElement U1ExpInvZ = dlogGroup.exponentiate(groupElementCipher.getU1(), privateKey.getPrivateExp5());
+		GroupElement m = dlogGroup.multiplyGroupElements(groupElementCipher.getE(), U1ExpInvZ);
 		
 		//Creates a plaintext object with the group element and return it.
-		plaintext = new GroupElementPlaintext(m);
-		
-		return plaintext;
+		return new GroupElementPlaintext(m);
 	}
 	
 	/**
@@ -37,10 +37,13 @@ import java.security.SecureRandom;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
 import java.util.Vector;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
 import edu.biu.scapi.exceptions.NoMaxException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPrivateKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.DamgardJurikPublicKey;
 import edu.biu.scapi.midLayer.asymmetricCrypto.keys.KeySendableData;
@@ -53,6 +56,7 @@ import edu.biu.scapi.midLayer.plaintext.BigIntegerPlainText;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.trapdoorPermutation.RSAModulus;
 import edu.biu.scapi.primitives.trapdoorPermutation.ScRSAPermutation;
+import edu.biu.scapi.tools.math.DamgardJurikContext;
 import edu.biu.scapi.tools.math.MathAlgorithms;
 
 /**
@@ -64,10 +68,21 @@ import edu.biu.scapi.tools.math.MathAlgorithms;
  */
 public class ScDamgardJurikEnc implements DamgardJurikEnc {
 	
+	//Number of parts per available processor that are aggregated in parallel by sum and innerProduct.
+	private static final int AGGREGATION_PARTS_PER_PROCESSOR = 4;
+	
 	private DamgardJurikPublicKey publicKey;
 	private DamgardJurikPrivateKey privateKey;
 	private SecureRandom random;
 	private boolean isKeySet;
+	
+	//The arithmetic contexts of the current key, by the length parameter s. They are created when the key is set (for s = 1) 
+	//or on first use (for bigger s), and use the factorization of the modulus if the private key is known.
+	private DamgardJurikContext[] contexts;
+	//The decryption exponents d of the current private key, by the length parameter s: d = 1 mod n^s and d = 0 mod t.
+	private BigInteger[] decryptionExponents;
+	//Precomputed tuples (r, r^N mod N'). May be null.
+	private DamgardJurikRandomnessPool randomnessPool;
 
 
 	/**
@@ -118,6 +133,16 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 			}
 			//Sets the private key
 			this.privateKey = (DamgardJurikPrivateKey) privateKey;
+		} else{
+			this.privateKey = null;
+		}
+		
+		//Precomputes the context of the common case s = 1, and the decryption exponent for it.
+		contexts = new DamgardJurikContext[2];
+		decryptionExponents = new BigInteger[2];
+		getContext(1);
+		if (this.privateKey != null){
+			decryptionExponents[1] = this.privateKey.getDForS1();
 		}
 		isKeySet = true;
 
@@ -234,6 +259,11 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		 * 		CHOOSE a random r in ZN*.	
 		 */
 		
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		
 		if(!(plaintext instanceof BigIntegerPlainText)){
 			throw new IllegalArgumentException("The plaintext has to be of type BigIntegerPlainText");
 		}
@@ -243,6 +273,20 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates the length parameter s.
 		int s = (x.bitLength()/(publicKey.getModulus().bitLength() - 1)) + 1;
 		
+		//If there is a pool of precomputed tuples for this key and s, takes r^N from it.
+		DamgardJurikRandomnessPool pool = randomnessPool;
+		if (pool != null && pool.matches(publicKey.getModulus(), s)){
+			DamgardJurikContext context = getContext(s);
+			
+			//Makes sure the x belongs to ZN
+			if(x.compareTo(BigInteger.ZERO) < 0 || x.compareTo(context.getNToS()) >= 0)
+				throw new IllegalArgumentException("Message too big for encryption");
+			
+			//Computes c = ((1 + n) ^x) * r ^N mod N'.
+			BigInteger c = context.multiply(context.onePlusNPow(x), pool.take().getRToN());
+			return new BigIntegerCiphertext(c);
+		}
+		
 		BigInteger Ntag = publicKey.getModulus().pow(s+1);
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		//Chooses a random r in ZNtag*, this can be done by choosing a random value between 1 and Ntag -1 
@@ -252,6 +296,17 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		return encrypt(plaintext, r);
 	}
 	
+	/**
+	 * Sets a pool of precomputed tuples (r, r^N mod N').<p>
+	 * If the pool matches the public key of this encryption and the length parameter of the plaintext, {@link #encrypt(Plaintext)} takes 
+	 * a tuple from the pool instead of computing r^N. Otherwise, the pool is ignored.
+	 * @param pool the pool to use, or null to stop using a pool.
+	 */
+	@Override
+	public void setRandomnessPool(DamgardJurikRandomnessPool pool){
+		randomnessPool = pool;
+	}
+	
 	/** 
 	 * Encrypts the given plaintext using this asymmetric encryption scheme and using the given random value.<p>
 	 * There are cases when the random value is used after the encryption, for example, in sigma protocol. 
@@ -292,13 +347,14 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates the length parameter s.
 		int s = (x.bitLength()/(publicKey.getModulus().bitLength() - 1)) + 1;
 		
-		BigInteger N = publicKey.getModulus().pow(s);
+		DamgardJurikContext context = getContext(s);
+		BigInteger N = context.getNToS();
 		
 		//Makes sure the x belongs to ZN
 		if(x.compareTo(BigInteger.ZERO) < 0 || x.compareTo(N) >= 0)
 			throw new IllegalArgumentException("Message too big for encryption");
 		
-		BigInteger Ntag = publicKey.getModulus().pow(s+1);
+		BigInteger Ntag = context.getNToSPlusOne();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the random value passed to this function is in Zq.
@@ -307,9 +363,10 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		}
 		
 		//Computes c = ((1 + n) ^x) * r ^N mod N'.
-		BigInteger  mult1= (publicKey.getModulus().add(BigInteger.ONE)).modPow(x, Ntag);
-		BigInteger mult2 = r.modPow(N, Ntag);
-		BigInteger c = (mult1.multiply(mult2)).mod(Ntag);
+		//(1 + n)^x is computed by its binomial expansion and r^N uses the factorization of n if the private key is known.
+		BigInteger  mult1= context.onePlusNPow(x);
+		BigInteger mult2 = context.powN(r);
+		BigInteger c = context.multiply(mult1, mult2);
 		
 		//Wraps the BigInteger c with BigIntegerCiphertext and returns it.
 		return new BigIntegerCiphertext(c);
@@ -362,46 +419,27 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//n is the modulus in the public key.
 		//Calculates s = |cipher| / |n|
 		int s = (djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength();
+		if (s < 1){
+			throw new IllegalArgumentException("The cipher is not in ZN'");
+		}
 
-		//Calculates N and N' based on s: N = n^s, N' = n^(s+1)
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		//Gets the context of s, that holds N = n^s, N' = n^(s+1) and the factorization of n.
+		DamgardJurikContext context = getContext(s);
+		BigInteger Ntag = context.getNToSPlusOne();
 		
 		//Makes sure the cipher belongs to ZN'
 		if(djCipher.getCipher().compareTo(BigInteger.ZERO) < 0 || djCipher.getCipher().compareTo(Ntag) >= 0)
 			throw new IllegalArgumentException("The cipher is not in ZN'");
 		
-		BigInteger d;
-		//Optimization for the calculation of d:
-		//If s == 1 used the pre-computed d which we have in the private key
-		//else, compute d using the Chinese Remainder Theorem, such that d = 1 mod N, and d = 0 mod t.
-		if(s==1){
-			d = privateKey.getDForS1();
-		}else{
-			d = generateD(N, privateKey.getT());
-		}
-		
-		//Computes (cipher ^ d) mod N'
-		BigInteger a = djCipher.getCipher().modPow(d, Ntag);
-		
-		//Computes x as the discrete logarithm of c^d to the base (1+n) modulo N. This is done by the algorithm shown above.
-		BigInteger x = BigInteger.ZERO;
-		BigInteger t1, t2;
-		BigInteger nPowJ, factorialK, temp;
-		for(int j = 1; j <= s; j++){
-			t1 = (a.mod(n.pow(j+1)).subtract(BigInteger.ONE)).divide(n);
-			t2 = x;
-			nPowJ = n.pow(j);
-			for(int k = 2; k <=j; k++){
-				x = x.subtract(BigInteger.ONE);
-				t2 = (t2.multiply(x)).mod(nPowJ);
-				factorialK = MathAlgorithms.factorialBI(k);
-				temp = (t2.multiply(n.pow(k-1))).divide(factorialK);
-				t1 = t1.subtract(temp).mod(nPowJ);
-			}
-			x = t1;
-		}
+		//Gets d such that d = 1 mod N, and d = 0 mod t. 
+		//If s == 1 this is the pre-computed d which we have in the private key, else it is computed once for each s.
+		BigInteger d = getDecryptionExponent(s);
+		
+		//Computes (cipher ^ d) mod N', modulo p^(s+1) and q^(s+1) separately.
+		BigInteger a = context.modPow(djCipher.getCipher(), d);
+		
+		//Computes x as the discrete logarithm of c^d to the base (1+n) modulo N. This is done by the algorithm shown above, using the powers of n and the inverses of the factorials cached in the context.
+		BigInteger x = context.discreteLogOnePlusN(a);
 		
 		return new BigIntegerPlainText(x);
 	}
@@ -487,10 +525,13 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates s = |cipher| / |n|.
 		int s = (djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength();
 
-		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		if (s < 1){
+			throw new IllegalArgumentException("The cipher is not in ZN'");
+		}
+
+		//Gets the context of s, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = getContext(s);
+		BigInteger Ntag = context.getNToSPlusOne();
 		
 		//Makes sure the cipher belongs to ZN'.
 		if(djCipher.getCipher().compareTo(BigInteger.ZERO) < 0 || djCipher.getCipher().compareTo(Ntag) >= 0)
@@ -502,7 +543,7 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 			throw new IllegalArgumentException("r must be in Zq");
 		}
 				
-		BigInteger c = djCipher.getCipher().multiply(r.modPow(N, Ntag)).mod(Ntag);
+		BigInteger c = context.multiply(djCipher.getCipher(), context.powN(r));
 		
 		return new BigIntegerCiphertext(c);
 	}
@@ -588,10 +629,13 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 			throw new IllegalArgumentException("Sizes of ciphertexts do not match");
 		}
 		
-		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s1);
-		BigInteger Ntag = n.pow(s1+1);
+		if (s1 < 1){
+			throw new IllegalArgumentException("cipher1 is not in ZN'");
+		}
+		
+		//Gets the context of s, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = getContext(s1);
+		BigInteger Ntag = context.getNToSPlusOne();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the r random value passed to this function is in Zntag*.
@@ -605,9 +649,9 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		if(c2.compareTo(BigInteger.ZERO) < 0 || c2.compareTo(Ntag) >= 0)
 			throw new IllegalArgumentException("cipher2 is not in ZN'");
 		
-		BigInteger c = c1.multiply(c2).mod(Ntag);
+		BigInteger c = context.multiply(c1, c2);
 		
-		c = c.multiply(r.modPow(N, Ntag)).mod(Ntag);
+		c = context.multiply(c, context.powN(r));
 		
 		//Call the other function that computes the addition.
 		return new BigIntegerCiphertext(c);
@@ -690,10 +734,14 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		//Calculates s = |cipher| / |n|.
 		int s = (djCipher).getCipher().bitLength() / publicKey.getModulus().bitLength();
 
-		//Calculates N and N' based on s: N = n^s, N' = n^(s+1).
-		BigInteger n = publicKey.getModulus();
-		BigInteger N = n.pow(s);
-		BigInteger Ntag = n.pow(s+1);
+		if (s < 1){
+			throw new IllegalArgumentException("The cipher is not in ZN'");
+		}
+
+		//Gets the context of s, that holds N = n^s and N' = n^(s+1).
+		DamgardJurikContext context = getContext(s);
+		BigInteger N = context.getNToS();
+		BigInteger Ntag = context.getNToSPlusOne();
 		BigInteger NtagMinus1 = Ntag.subtract(BigInteger.ONE);
 		
 		//Check that the r random value passed to this function is in Zntag*.
@@ -709,13 +757,214 @@ public class ScDamgardJurikEnc implements DamgardJurikEnc {
 		if(constNumber.compareTo(BigInteger.ZERO) < 0 || constNumber.compareTo(N) >= 0)
 			throw new IllegalArgumentException("The constant number is not in ZN");
 	
-		BigInteger c = djCipher.getCipher().modPow(constNumber, Ntag);
+		BigInteger c = context.modPow(djCipher.getCipher(), constNumber);
 		
-		c = c.multiply(r.modPow(N, Ntag)).mod(Ntag);
+		c = context.multiply(c, context.powN(r));
 		
 		return new BigIntegerCiphertext(c);
 	}
 	
+	/**
+	 * Given ciphers c1 = Enc(p1), ..., ck = Enc(pk) this function returns Enc(p1 + ... + pk).<p>
+	 * All ciphertexts have to have been generated with the same public key as this encryption's public key, and with the same length parameter. 
+	 * The ciphertexts are multiplied modulo N' without re-randomization, and the product is re-randomized once at the end, 
+	 * so adding k ciphertexts costs k multiplications and one exponentiation instead of k exponentiations.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException in the following cases:
+	 * 		1. If the array is empty.
+	 * 		2. If one or more of the given ciphertexts is not an instance of BigIntegerCiphertext.
+	 * 		3. If one or more of the BigInteger numbers in the given ciphertexts is not in ZN'.
+	 */
+	@Override
+	public AsymmetricCiphertext sum(AsymmetricCiphertext[] ciphers, ExecutorService executor) {
+		return sum(ciphers, chooseRandomValue(ciphers), executor);
+	}
+	
+	/**
+	 * Given ciphers c1 = Enc(p1), ..., ck = Enc(pk) this function returns Enc(p1 + ... + pk), re-randomized with the given random value.<p>
+	 * 	"COMPUTE c = c1 * ... * ck * r^N mod N'".<p>
+	 * The products of parts of the array are computed in parallel and then combined.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException in the following cases:
+	 * 		1. If the array is empty.
+	 * 		2. If one or more of the given ciphertexts is not an instance of BigIntegerCiphertext.
+	 * 		3. If one or more of the BigInteger numbers in the given ciphertexts is not in ZN'.
+	 */
+	@Override
+	public AsymmetricCiphertext sum(AsymmetricCiphertext[] ciphers, BigInteger r, ExecutorService executor) {
+		return aggregate(ciphers, null, r, executor);
+	}
+	
+	/**
+	 * Given ciphers c1 = Enc(p1), ..., ck = Enc(pk) and constants w1, ..., wk this function returns Enc(w1*p1 + ... + wk*pk).<p>
+	 * All ciphertexts have to have been generated with the same public key as this encryption's public key, and with the same length parameter. 
+	 * The exponentiations by the constants are computed as one multi-exponentiation, and the result is re-randomized once at the end.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException in the following cases:
+	 * 		1. If the arrays are empty or of different lengths.
+	 * 		2. If one or more of the given ciphertexts is not an instance of BigIntegerCiphertext.
+	 * 		3. If one or more of the BigInteger numbers in the given ciphertexts is not in ZN'.
+	 * 		4. If one or more of the constant numbers is not in ZN.
+	 */
+	@Override
+	public AsymmetricCiphertext innerProduct(AsymmetricCiphertext[] ciphers, BigInteger[] weights, ExecutorService executor) {
+		return innerProduct(ciphers, weights, chooseRandomValue(ciphers), executor);
+	}
+	
+	/**
+	 * Given ciphers c1 = Enc(p1), ..., ck = Enc(pk) and constants w1, ..., wk this function returns Enc(w1*p1 + ... + wk*pk), 
+	 * re-randomized with the given random value.<p>
+	 * 	"COMPUTE c = c1^w1 * ... * ck^wk * r^N mod N'".<p>
+	 * The multi-exponentiations of parts of the array are computed in parallel and then combined.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException in the following cases:
+	 * 		1. If the arrays are empty or of different lengths.
+	 * 		2. If one or more of the given ciphertexts is not an instance of BigIntegerCiphertext.
+	 * 		3. If one or more of the BigInteger numbers in the given ciphertexts is not in ZN'.
+	 * 		4. If one or more of the constant numbers is not in ZN.
+	 */
+	@Override
+	public AsymmetricCiphertext innerProduct(AsymmetricCiphertext[] ciphers, BigInteger[] weights, BigInteger r, ExecutorService executor) {
+		if (ciphers.length != weights.length){
+			throw new IllegalArgumentException("the number of ciphertexts and constant numbers should be equal");
+		}
+		return aggregate(ciphers, weights, r, executor);
+	}
+	
+	/*
+	 * Computes the product of ciphers[i]^weights[i] (or of ciphers[i] if weights is null) and re-randomizes it with r.
+	 */
+	private AsymmetricCiphertext aggregate(AsymmetricCiphertext[] ciphers, final BigInteger[] weights, BigInteger r, ExecutorService executor){
+		// If there is no public key can not operate the function, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to add ciphertexts this object must be initialized with public key");
+		}
+		
+		//Gets the context of s, that holds N = n^s and N' = n^(s+1). All the ciphertexts should use the length parameter of the first one.
+		final DamgardJurikContext context = getContext(getLengthParameter(ciphers));
+		BigInteger N = context.getNToS();
+		BigInteger Ntag = context.getNToSPlusOne();
+		
+		//Check that the r random value passed to this function is in Zntag*.
+		if(r.compareTo(BigInteger.ZERO) < 0 || r.compareTo(Ntag) >= 0) {
+			throw new IllegalArgumentException("r must be in ZN'");
+		}
+		
+		//Checks that all the ciphertexts belong to ZN' and all the constant numbers belong to ZN.
+		final int size = ciphers.length;
+		final BigInteger[] values = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			if (!(ciphers[i] instanceof BigIntegerCiphertext)){
+				throw new IllegalArgumentException("cipher should be instance of BigIntegerCiphertext");
+			}
+			values[i] = ((BigIntegerCiphertext) ciphers[i]).getCipher();
+			if(values[i].compareTo(BigInteger.ZERO) < 0 || values[i].compareTo(Ntag) >= 0)
+				throw new IllegalArgumentException("cipher " + i + " is not in ZN'");
+			if(weights != null && (weights[i].compareTo(BigInteger.ZERO) < 0 || weights[i].compareTo(N) >= 0))
+				throw new IllegalArgumentException("constant number " + i + " is not in ZN");
+		}
+		
+		//Computes the product of every part of the array in parallel.
+		final int numParts = (executor == null) ? 1 : Math.min(size, Runtime.getRuntime().availableProcessors() * AGGREGATION_PARTS_PER_PROCESSOR);
+		final BigInteger[] partials = new BigInteger[numParts];
+		ParallelBatchExecution.execute(executor, numParts, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int part = from; part < to; part++){
+					int start = (int) ((long) size * part / numParts);
+					int end = (int) ((long) size * (part + 1) / numParts);
+					if (weights == null){
+						BigInteger product = BigInteger.ONE;
+						for (int i = start; i < end; i++){
+							product = context.multiply(product, values[i]);
+						}
+						partials[part] = product;
+					} else{
+						partials[part] = context.multiExponentiate(values, weights, start, end);
+					}
+				}
+			}
+		});
+		
+		//Combines the partial products in a tree.
+		for (int step = 1; step < numParts; step *= 2){
+			for (int part = 0; part + step < numParts; part += 2 * step){
+				partials[part] = context.multiply(partials[part], partials[part + step]);
+			}
+		}
+		
+		//Re-randomizes the result once.
+		BigInteger c = context.multiply(partials[0], context.powN(r));
+		return new BigIntegerCiphertext(c);
+	}
+	
+	/*
+	 * Returns the length parameter s = |cipher| / |n| of the first given ciphertext.
+	 */
+	private int getLengthParameter(AsymmetricCiphertext[] ciphers){
+		if (ciphers.length == 0){
+			throw new IllegalArgumentException("there should be at least one ciphertext");
+		}
+		if (!(ciphers[0] instanceof BigIntegerCiphertext)){
+			throw new IllegalArgumentException("cipher should be instance of BigIntegerCiphertext");
+		}
+		int s = ((BigIntegerCiphertext) ciphers[0]).getCipher().bitLength() / publicKey.getModulus().bitLength();
+		if (s < 1){
+			throw new IllegalArgumentException("The cipher is not in ZN'");
+		}
+		return s;
+	}
+	
+	/*
+	 * Chooses a random r in ZNtag*, where Ntag is defined by the length parameter of the given ciphertexts.
+	 */
+	private BigInteger chooseRandomValue(AsymmetricCiphertext[] ciphers){
+		// If there is no public key can not operate the function, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to add ciphertexts this object must be initialized with public key");
+		}
+		BigInteger NtagMinus1 = getContext(getLengthParameter(ciphers)).getNToSPlusOne().subtract(BigInteger.ONE);
+		//This can be done by choosing a random value between 1 and Ntag -1 which is with overwhelming probability in Zntag*.
+		return BigIntegers.createRandomInRange(BigInteger.ONE, NtagMinus1, random);
+	}
+	
+	/**
+	 * Returns the arithmetic context of the current key for the given length parameter, and creates it on first use.<p>
+	 * If the private key is known, the context uses the factorization of the modulus, so exponentiations modulo N' are computed 
+	 * modulo p^(s+1) and q^(s+1) and combined using the Chinese Remainder Theorem.
+	 */
+	private synchronized DamgardJurikContext getContext(int s){
+		if (s >= contexts.length){
+			DamgardJurikContext[] newContexts = new DamgardJurikContext[s + 1];
+			System.arraycopy(contexts, 0, newContexts, 0, contexts.length);
+			contexts = newContexts;
+		}
+		if (contexts[s] == null){
+			BigInteger n = publicKey.getModulus();
+			if (privateKey != null){
+				contexts[s] = new DamgardJurikContext(n, s, privateKey.getP(), privateKey.getQ());
+			} else{
+				contexts[s] = DamgardJurikContext.getInstance(n, s);
+			}
+		}
+		return contexts[s];
+	}
+	
+	/**
+	 * Returns the decryption exponent d of the given length parameter, such that d = 1 mod N and d = 0 mod t, and computes it on first use.
+	 */
+	private synchronized BigInteger getDecryptionExponent(int s){
+		if (s >= decryptionExponents.length){
+			BigInteger[] newExponents = new BigInteger[s + 1];
+			System.arraycopy(decryptionExponents, 0, newExponents, 0, decryptionExponents.length);
+			decryptionExponents = newExponents;
+		}
+		if (decryptionExponents[s] == null){
+			decryptionExponents[s] = generateD(getContext(s).getNToS(), privateKey.getT());
+		}
+		return decryptionExponents[s];
+	}
+	
 	/**
 	 * This function generates a value d such that d = 1 mod N and d = 0 mod t, using the Chinese Remainder Theorem.
 	 */
@@ -226,8 +226,7 @@ public class ScElGamalKEM extends ElGamalAbs{
 		}
 	
 		//calculate a key for the symmetric encryption.
-		byte[] vBytes = dlog.mapAnyGroupElementToByteArray(v);
-		byte[] k = kdf.deriveKey(vBytes, 0, vBytes.length, symKeySize/8).getEncoded();
+		byte[] k = deriveKey(v, symKeySize/8);
 		
 		//Sets the computed key.
 		try {
@@ -272,11 +271,10 @@ public class ScElGamalKEM extends ElGamalAbs{
 
 		ElGamalKEMCiphertext ciphertext = (ElGamalKEMCiphertext) cipher;
 		//Calculates v = u^x.
-		GroupElement v = dlog.exponentiate(ciphertext.getU(), privateKey.getX());
+		GroupElement v = computeSharedElement(ciphertext.getU());
 		
 		//calculate a key for the symmetric encryption.
-		byte[] vBytes = dlog.mapAnyGroupElementToByteArray(v);
-		byte[] k = kdf.deriveKey(vBytes, 0, vBytes.length, symKeySize/8).getEncoded();
+		byte[] k = deriveKey(v, symKeySize/8);
 		
 		//Sets the symmetric key.
 		try {
@@ -290,6 +288,81 @@ public class ScElGamalKEM extends ElGamalAbs{
 		return symEncryptor.decrypt(ciphertext.getW());
 	}
 
+	/**
+	 * Derives a key of the given length from the given group element, using the underlying KDF.
+	 * @param v h^r for encryption, or u^x for decryption.
+	 * @param keyLength the length of the key, in bytes.
+	 * @return the derived key.
+	 */
+	byte[] deriveKey(GroupElement v, int keyLength){
+		byte[] vBytes = dlog.mapAnyGroupElementToByteArray(v);
+		return kdf.deriveKey(vBytes, 0, vBytes.length, keyLength).getEncoded();
+	}
+	
+	/**
+	 * Computes u^x, where x is the private key.
+	 * @param u the first element of a ciphertext.
+	 * @return u^x.
+	 * @throws KeyException if no private key was set.
+	 */
+	GroupElement computeSharedElement(GroupElement u) throws KeyException{
+		//If there is no private key, throws exception.
+		if (privateKey == null){
+			throw new KeyException("in order to decrypt a message, this object must be initialized with private key");
+		}
+		return dlog.exponentiate(u, privateKey.getX());
+	}
+	
+	/**
+	 * Returns the underlying DlogGroup.
+	 */
+	DlogGroup getDlogGroup(){
+		return dlog;
+	}
+	
+	/**
+	 * Returns the key size of the underlying symmetric encryption, in bits.
+	 */
+	int getSymKeySize(){
+		return symKeySize;
+	}
+	
+	/**
+	 * Returns the first element of the given ciphertext.
+	 * @param cipher MUST be of type ElGamalKEMCiphertext.
+	 * @return u of the given ciphertext.
+	 * @throws IllegalArgumentException if the given cipher is not instance of ElGamalKEMCiphertext.
+	 */
+	protected GroupElement getFirstCipherElement(AsymmetricCiphertext cipher){
+		//Ciphertext should be ElGamalKEM ciphertext.
+		if (!(cipher instanceof ElGamalKEMCiphertext)){
+			throw new IllegalArgumentException("ciphertext should be instance of ElGamalKEMCiphertext");
+		}
+		return ((ElGamalKEMCiphertext) cipher).getU();
+	}
+	
+	/**
+	 * Completes the decryption operation.
+	 * @param v u raised to the power of the private key.
+	 * @param cipher MUST be of type ElGamalKEMCiphertext.
+	 * @return Plaintext of type ByteArrayPlaintext which containing the decrypted message.
+	 */
+	protected Plaintext completeDecryption(GroupElement v, AsymmetricCiphertext cipher){
+		//calculate a key for the symmetric encryption.
+		byte[] k = deriveKey(v, symKeySize/8);
+		
+		//Sets the symmetric key.
+		try {
+			symEncryptor.setKey(new SecretKeySpec(k, ""));
+		} catch (InvalidKeyException e) {
+			// shouldn't occur since the size is legal.
+			e.printStackTrace();
+		}
+		
+		//Decrypt and return the message using the symmetric encryption object.
+		return symEncryptor.decrypt(((ElGamalKEMCiphertext) cipher).getW());
+	}
+
 	/**
 	 * Generates a byte array from the given plaintext. 
 	 * This function should be used when the user does not know the specific type of the Asymmetric encryption he has, 
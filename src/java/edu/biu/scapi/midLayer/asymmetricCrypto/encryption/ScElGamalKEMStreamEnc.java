@@ -0,0 +1,379 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+package edu.biu.scapi.midLayer.asymmetricCrypto.encryption;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.InvalidKeyException;
+import java.security.KeyException;
+
+import javax.crypto.IllegalBlockSizeException;
+import javax.crypto.spec.SecretKeySpec;
+
+import edu.biu.scapi.exceptions.FactoriesException;
+import edu.biu.scapi.midLayer.symmetricCrypto.mac.Mac;
+import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableData;
+import edu.biu.scapi.primitives.dlog.GroupElementSendableDataEncoding;
+import edu.biu.scapi.primitives.prf.PseudorandomPermutation;
+import edu.biu.scapi.primitives.prf.bc.BcAES;
+import edu.biu.scapi.primitives.prf.bc.BcHMAC;
+
+/**
+ * This class performs hybrid encryption of streams: El Gamal KEM for the key and encrypt-then-mac for the data.<p>
+ * 
+ * The key encapsulation is done by the given {@link ScElGamalKEM}, which holds the group, the keys and the KDF: 
+ * a random y is chosen, u = g^y is sent and KDF(h^y) gives an encryption key and a mac key. 
+ * The data is encrypted in CTR mode of the given PRP, and is split into chunks that are authenticated separately by the given Mac. 
+ * Each tag covers the whole header (u, the chunk size and the IV), the index of the chunk, a flag that marks the last chunk and the encrypted chunk, 
+ * so a modified header and reordered, dropped or truncated chunks are detected. <p>
+ * 
+ * Both encryption and decryption use memory of one chunk, whatever the length of the data is, and decryption never outputs a chunk 
+ * before its tag is verified. The format of the output stream is:
+ * <pre>
+ * u (coordinates of its sendable data, see {@link GroupElementSendableDataEncoding}), int chunk size, IV
+ * for each chunk: boolean isLast, int length, encrypted chunk, tag
+ * </pre>
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class ScElGamalKEMStreamEnc {
+	
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+	//Decryption refuses streams with bigger chunks, so a corrupted header can not make it allocate a huge buffer.
+	private static final int MAX_CHUNK_SIZE = 16 * 1024 * 1024;
+	//Maximal length (in bytes) of a coordinate of u in the header.
+	private static final int MAX_COORDINATE_SIZE = 8 * 1024;
+	
+	private ScElGamalKEM kem;				//Encapsulates the keys of the data.
+	private PseudorandomPermutation prp;	//The PRP of the CTR mode that encrypts the data.
+	private Mac mac;						//Authenticates the encrypted chunks.
+	private int macKeySize;					//Size of the mac key, in bits.
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+	
+	/**
+	 * Constructor that uses the given El Gamal KEM with AES in CTR mode and HMAC-SHA256 with a 256 bits key.
+	 * @param kem performs the key encapsulation. Its symmetric key size is used as the AES key size.
+	 */
+	public ScElGamalKEMStreamEnc(ScElGamalKEM kem){
+		this.kem = kem;
+		this.prp = new BcAES();
+		try {
+			this.mac = new BcHMAC("SHA-256");
+		} catch (FactoriesException e) {
+			// Shouldn't occur since SHA-256 is supported by BC.
+			throw new IllegalStateException(e);
+		}
+		this.macKeySize = 256;
+	}
+	
+	/**
+	 * Constructor that gets the El Gamal KEM, the PRP and the Mac to use.
+	 * @param kem performs the key encapsulation. Its symmetric key size is used as the key size of the PRP.
+	 * @param prp used in CTR mode to encrypt the data.
+	 * @param mac authenticates the encrypted chunks.
+	 * @param macKeySize size of the mac key, in bits.
+	 * @throws IllegalArgumentException if the given mac and prp are the same object, or the mac key size is not a positive multiple of 8.
+	 */
+	public ScElGamalKEMStreamEnc(ScElGamalKEM kem, PseudorandomPermutation prp, Mac mac, int macKeySize){
+		//The same object can not hold the two different keys.
+		if (mac == prp){
+			throw new IllegalArgumentException("the prp and the mac should be different objects");
+		}
+		if (macKeySize <= 0 || macKeySize % 8 != 0){
+			throw new IllegalArgumentException("mac key size should be a positive multiple of 8");
+		}
+		this.kem = kem;
+		this.prp = prp;
+		this.mac = mac;
+		this.macKeySize = macKeySize;
+	}
+	
+	/**
+	 * Sets the size of the chunks that are encrypted and authenticated together. 
+	 * Bigger chunks reduce the overhead of the tags, smaller chunks reduce the memory and the data that is held back during decryption.
+	 * @param chunkSize size of a chunk in bytes. MUST be a multiple of the block size of the PRP.
+	 * @throws IllegalArgumentException if the given size is not a positive multiple of the block size or it is too big.
+	 */
+	public void setChunkSize(int chunkSize){
+		if (chunkSize <= 0 || chunkSize > MAX_CHUNK_SIZE || chunkSize % prp.getBlockSize() != 0){
+			throw new IllegalArgumentException("chunk size should be a positive multiple of the block size, up to " + MAX_CHUNK_SIZE);
+		}
+		this.chunkSize = chunkSize;
+	}
+	
+	/**
+	 * Returns the underlying El Gamal KEM.
+	 */
+	public ScElGamalKEM getKEM(){
+		return kem;
+	}
+	
+	/**
+	 * Encrypts the data of the given input stream and writes the result to the given output stream.<p>
+	 * The input stream is read until its end. The streams are not closed.
+	 * @param in the data to encrypt.
+	 * @param out gets the encrypted data.
+	 * @throws IOException if reading or writing one of the streams failed.
+	 * @throws IllegalStateException if no public key was set.
+	 */
+	public void encrypt(InputStream in, OutputStream out) throws IOException{
+		//If there is no public key can not encrypt, throws exception.
+		if (!kem.isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		
+		//Computes u = g^y, v = h^y and the symmetric keys.
+		GroupElement[] powers = kem.sampleRandomPowers();
+		setKeys(kem.deriveKey(powers[1], getKeyMaterialSize()));
+		
+		byte[] iv = new byte[prp.getBlockSize()];
+		kem.random.nextBytes(iv);
+		
+		//Writes the header. It is also authenticated by the tag of every chunk.
+		DataOutputStream dataOut = new DataOutputStream(out);
+		byte[] header = encodeHeader(powers[0].generateSendableData(), chunkSize, iv);
+		dataOut.write(header);
+		
+		byte[] counter = iv.clone();
+		byte[] chunk = new byte[chunkSize];
+		byte[] nextChunk = new byte[chunkSize];
+		//A full chunk is written only after the first byte of the next chunk is read, since only then it is known whether it is the last chunk.
+		int length = readFully(in, chunk, 0);
+		long index = 0;
+		boolean isLast = false;
+		while (!isLast){
+			isLast = length < chunkSize;
+			int nextLength = 0;
+			if (!isLast){
+				//Checks if there is more data. 
+				int next = in.read();
+				if (next == -1){
+					isLast = true;
+				} else {
+					nextChunk[0] = (byte) next;
+					nextLength = 1 + readFully(in, nextChunk, 1);
+				}
+			}
+			
+			processCtr(chunk, length, counter);
+			byte[] tag = computeTag(header, index, isLast, chunk, length);
+			dataOut.writeBoolean(isLast);
+			dataOut.writeInt(length);
+			dataOut.write(chunk, 0, length);
+			dataOut.write(tag);
+			
+			//Swaps the buffers, so the memory does not grow with the data.
+			byte[] temp = chunk;
+			chunk = nextChunk;
+			nextChunk = temp;
+			length = nextLength;
+			index++;
+		}
+		dataOut.flush();
+	}
+	
+	/**
+	 * Decrypts the data of the given input stream and writes the result to the given output stream.<p>
+	 * Every chunk is written to the output only after its tag is verified. If a tag is not valid, an exception is thrown and the 
+	 * chunks before it remain in the output, so the output should not be used unless this function returns normally.
+	 * The streams are not closed.
+	 * @param in the encrypted data, as written by {@link #encrypt(InputStream, OutputStream)}.
+	 * @param out gets the decrypted data.
+	 * @throws KeyException if no private key was set.
+	 * @throws IOException if reading or writing one of the streams failed, if the input is not in the expected format 
+	 * or if one of the tags is not valid.
+	 */
+	public void decrypt(InputStream in, OutputStream out) throws IOException, KeyException{
+		DataInputStream dataIn = new DataInputStream(in);
+		
+		//Reads the header. Every length is checked before a buffer is allocated.
+		GroupElementSendableData uData = GroupElementSendableDataEncoding.read(dataIn, MAX_COORDINATE_SIZE);
+		if (uData == null){
+			throw new IOException("the header of the encrypted stream does not contain a group element");
+		}
+		int streamChunkSize = dataIn.readInt();
+		if (streamChunkSize <= 0 || streamChunkSize > MAX_CHUNK_SIZE){
+			throw new IOException("the header of the encrypted stream is not valid");
+		}
+		byte[] iv = new byte[prp.getBlockSize()];
+		dataIn.readFully(iv);
+		//The encoding is canonical, so encoding the read values gives the bytes of the header that were authenticated by the encryptor.
+		byte[] header = encodeHeader(uData, streamChunkSize, iv);
+		
+		//Reconstructs u (including a membership check), computes v = u^x and the symmetric keys.
+		GroupElement u;
+		try {
+			u = kem.getDlogGroup().reconstructElement(true, uData);
+		} catch (IllegalArgumentException e) {
+			throw new IOException("the header of the encrypted stream does not contain a valid group element");
+		}
+		setKeys(kem.deriveKey(kem.computeSharedElement(u), getKeyMaterialSize()));
+		
+		byte[] counter = iv.clone();
+		byte[] chunk = new byte[streamChunkSize];
+		byte[] tag = new byte[mac.getMacSize()];
+		long index = 0;
+		boolean isLast = false;
+		while (!isLast){
+			isLast = dataIn.readBoolean();
+			int length = dataIn.readInt();
+			//Only the last chunk can be shorter than the chunk size.
+			if (length < 0 || length > streamChunkSize || (!isLast && length != streamChunkSize)){
+				throw new IOException("the length of chunk " + index + " is not valid");
+			}
+			dataIn.readFully(chunk, 0, length);
+			dataIn.readFully(tag);
+			
+			//Verifies the chunk before decrypting it. The comparison is fully performed, as in the mac classes.
+			byte[] expected = computeTag(header, index, isLast, chunk, length);
+			boolean equal = true;
+			for (int i = 0; i < tag.length; i++){
+				if (expected[i] != tag[i]){
+					equal = false;
+				}
+			}
+			if (!equal){
+				throw new IOException("the tag of chunk " + index + " is not valid");
+			}
+			
+			processCtr(chunk, length, counter);
+			out.write(chunk, 0, length);
+			index++;
+		}
+		out.flush();
+	}
+	
+	/*
+	 * Returns the number of bytes to derive from the KDF: the PRP key followed by the mac key.
+	 */
+	private int getKeyMaterialSize(){
+		return kem.getSymKeySize() / 8 + macKeySize / 8;
+	}
+	
+	/*
+	 * Splits the given key material to the PRP key and the mac key and sets them.
+	 */
+	private void setKeys(byte[] keys){
+		int encKeyLength = kem.getSymKeySize() / 8;
+		byte[] encKey = new byte[encKeyLength];
+		byte[] macKey = new byte[keys.length - encKeyLength];
+		System.arraycopy(keys, 0, encKey, 0, encKeyLength);
+		System.arraycopy(keys, encKeyLength, macKey, 0, macKey.length);
+		try {
+			prp.setKey(new SecretKeySpec(encKey, ""));
+			mac.setKey(new SecretKeySpec(macKey, ""));
+		} catch (InvalidKeyException e) {
+			throw new IllegalStateException("the key sizes do not match the prp and the mac", e);
+		}
+	}
+	
+	/*
+	 * Encrypts or decrypts the given data in place, in CTR mode: data[i] ^= prp(counter + i/blockSize).
+	 * The counter is increased by the number of blocks, so the next chunk continues from the same place.
+	 */
+	private void processCtr(byte[] data, int length, byte[] counter){
+		int blockSize = prp.getBlockSize();
+		byte[] keyStream = new byte[blockSize];
+		for (int offset = 0; offset < length; offset += blockSize){
+			try {
+				prp.computeBlock(counter, 0, keyStream, 0);
+			} catch (IllegalBlockSizeException e) {
+				// Shouldn't occur since the counter is of the block size.
+				throw new IllegalStateException(e);
+			}
+			int end = Math.min(blockSize, length - offset);
+			for (int i = 0; i < end; i++){
+				data[offset + i] ^= keyStream[i];
+			}
+			
+			//Increases the counter by one.
+			for (int i = blockSize - 1; i >= 0; i--){
+				counter[i]++;
+				if (counter[i] != 0){
+					break;
+				}
+			}
+		}
+	}
+	
+	/*
+	 * Encodes the header of the encrypted stream: u, the chunk size and the IV.
+	 */
+	private static byte[] encodeHeader(GroupElementSendableData u, int chunkSize, byte[] iv){
+		ByteArrayOutputStream header = new ByteArrayOutputStream();
+		DataOutputStream headerOut = new DataOutputStream(header);
+		try {
+			GroupElementSendableDataEncoding.write(headerOut, u);
+			headerOut.writeInt(chunkSize);
+			headerOut.write(iv);
+		} catch (IOException e) {
+			// Shouldn't occur since the data is written to memory.
+			throw new IllegalStateException(e);
+		}
+		return header.toByteArray();
+	}
+	
+	/*
+	 * Computes the tag of an encrypted chunk: mac(header, index, isLast, length, chunk).
+	 */
+	private byte[] computeTag(byte[] header, long index, boolean isLast, byte[] chunk, int length){
+		ByteArrayOutputStream prefix = new ByteArrayOutputStream(header.length + 13);
+		DataOutputStream prefixOut = new DataOutputStream(prefix);
+		try {
+			prefixOut.write(header);
+			prefixOut.writeLong(index);
+			prefixOut.writeBoolean(isLast);
+			prefixOut.writeInt(length);
+		} catch (IOException e) {
+			// Shouldn't occur since the data is written to memory.
+			throw new IllegalStateException(e);
+		}
+		byte[] prefixBytes = prefix.toByteArray();
+		mac.update(prefixBytes, 0, prefixBytes.length);
+		return mac.doFinal(chunk, 0, length);
+	}
+	
+	/*
+	 * Reads from the given stream until the given array is full or the stream ends. Returns the number of bytes read.
+	 */
+	private static int readFully(InputStream in, byte[] buffer, int offset) throws IOException{
+		int total = 0;
+		while (offset + total < buffer.length){
+			int read = in.read(buffer, offset + total, buffer.length - offset - total);
+			if (read == -1){
+				break;
+			}
+			total += read;
+		}
+		return total;
+	}
+}
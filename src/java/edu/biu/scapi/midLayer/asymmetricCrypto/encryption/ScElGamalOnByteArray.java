@@ -226,6 +226,39 @@ public class ScElGamalOnByteArray extends ElGamalAbs{
 		return new ByteArrayPlaintext(m);
 	}
 
+	/**
+	 * Returns the first element of the given ciphertext.
+	 * @param cipher MUST be of type ElGamalOnByteArrayCiphertext.
+	 * @return c1 of the given ciphertext.
+	 * @throws IllegalArgumentException if the given cipher is not instance of ElGamalOnByteArrayCiphertext.
+	 */
+	protected GroupElement getFirstCipherElement(AsymmetricCiphertext cipher){
+		//Ciphertext should be ElGamal ciphertext.
+		if (!(cipher instanceof ElGamalOnByteArrayCiphertext)){
+			throw new IllegalArgumentException("ciphertext should be instance of ElGamalOnByteArrayCiphertext");
+		}
+		return ((ElGamalOnByteArrayCiphertext) cipher).getC1();
+	}
+	
+	/**
+	 * Completes the decryption operation.
+	 * @param s c1 raised to the power of the private key.
+	 * @param cipher MUST be of type ElGamalOnByteArrayCiphertext.
+	 * @return Plaintext of type ByteArrayPlaintext which containing the decrypted message.
+	 */
+	protected Plaintext completeDecryption(GroupElement s, AsymmetricCiphertext cipher){
+		byte[] sBytes = dlog.mapAnyGroupElementToByteArray(s);
+		byte[] c2 = ((ElGamalOnByteArrayCiphertext) cipher).getC2();
+		//Calculates the plaintext element m = KDF(s) ^ c2.
+		byte[] m = kdf.deriveKey(sBytes, 0, sBytes.length, c2.length).getEncoded();
+		
+		//Xores the result from the kdf with the plaintext.
+		for(int i=0; i<c2.length; i++){
+			m[i] = (byte) (m[i] ^ c2[i]);
+		}
+		return new ByteArrayPlaintext(m);
+	}
+
 	/**
 	 * Generates a byte array from the given plaintext. 
 	 * This function should be used when the user does not know the specific type of the Asymmetric encryption he has, 
@@ -31,6 +31,7 @@ import java.security.KeyException;
 import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
 
 import org.bouncycastle.util.BigIntegers;
 
@@ -46,6 +47,8 @@ import edu.biu.scapi.midLayer.plaintext.GroupElementPlaintext;
 import edu.biu.scapi.midLayer.plaintext.Plaintext;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
 import edu.biu.scapi.primitives.dlog.GroupElement;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /**
  * This class performs the El Gamal encryption scheme that perform the encryption on a GroupElement. <P>
@@ -210,6 +213,44 @@ public class ScElGamalOnGroupElement extends ElGamalAbs implements AsymMultiplic
 		return new GroupElementPlaintext(m);
 	}
 
+	/**
+	 * Returns the first element of the given ciphertext.
+	 * @param cipher MUST be of type ElGamalOnGroupElementCiphertext.
+	 * @return c1 of the given ciphertext.
+	 * @throws IllegalArgumentException if the given cipher is not instance of ElGamalOnGroupElementCiphertext.
+	 */
+	protected GroupElement getFirstCipherElement(AsymmetricCiphertext cipher){
+		//Ciphertext should be ElGamal ciphertext.
+		if (!(cipher instanceof ElGamalOnGroupElementCiphertext)){
+			throw new IllegalArgumentException("ciphertext should be instance of ElGamalOnGroupElementCiphertext");
+		}
+		return ((ElGamalOnGroupElementCiphertext) cipher).getC1();
+	}
+	
+	/**
+	 * Returns the two elements of the given ciphertext, so that both are checked by the batch decryption.
+	 * @param cipher MUST be of type ElGamalOnGroupElementCiphertext.
+	 * @return c1 and c2 of the given ciphertext.
+	 * @throws IllegalArgumentException if the given cipher is not instance of ElGamalOnGroupElementCiphertext.
+	 */
+	@Override
+	protected GroupElement[] getCipherGroupElements(AsymmetricCiphertext cipher){
+		GroupElement c1 = getFirstCipherElement(cipher);
+		return new GroupElement[]{c1, ((ElGamalOnGroupElementCiphertext) cipher).getC2()};
+	}
+	
+	/**
+	 * Completes the decryption operation.
+	 * @param sInv c1 raised to the power of the private key (q-x).
+	 * @param cipher MUST be of type ElGamalOnGroupElementCiphertext.
+	 * @return Plaintext of type GroupElementPlaintext which containing the decrypted message.
+	 */
+	protected Plaintext completeDecryption(GroupElement sInv, AsymmetricCiphertext cipher){
+		//Calculates the plaintext element m = ciphertext.getC2() * sInv.
+		GroupElement m = dlog.multiplyGroupElements(((ElGamalOnGroupElementCiphertext) cipher).getC2(), sInv);
+		return new GroupElementPlaintext(m);
+	}
+
 	/**
 	 * Generates a byte array from the given plaintext. 
 	 * This function should be used when the user does not know the specific type of the Asymmetric encryption he has, 
@@ -307,6 +348,150 @@ public class ScElGamalOnGroupElement extends ElGamalAbs implements AsymMultiplic
 		return new ElGamalOnGroupElementCiphertext(u,v);
 	}
 	
+	/**
+	 * Calculates the multiplications of many pairs of ciphertexts at once.<p>
+	 * Chooses a random value w_i <- Zq for every pair and calls {@link #multiplyBatch(AsymmetricCiphertext[], AsymmetricCiphertext[], BigInteger[], ExecutorService)}.
+	 * @param ciphers1 the first ciphertext of every pair.
+	 * @param ciphers2 the second ciphertext of every pair.
+	 * @param executor used to compute the multiplications in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the results of the multiplications, in the same order as the given pairs.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths, one of the given ciphertexts is not instance of ElGamalOnGroupElementCiphertext 
+	 * or contains an element that is not a member of the underlying DlogGroup.
+	 */
+	public AsymmetricCiphertext[] multiplyBatch(AsymmetricCiphertext[] ciphers1, AsymmetricCiphertext[] ciphers2, ExecutorService executor) {
+		return multiplyBatch(ciphers1, ciphers2, sampleRandomValues(ciphers1.length), executor);
+	}
+	
+	/**
+	 * Calculates the multiplications of many pairs of ciphertexts at once, using the given random values.<p>
+	 * 	"FOR i = 1 ... n<p>
+	 * 		c1_i = (u1, v1); c2_i = (u2, v2)<p> 
+	 * 		COMPUTE u = g^w_i*u1*u2<p>
+	 * 		COMPUTE v = h^w_i*v1*v2<p>
+	 * 		OUTPUT (u,v)". <p>
+	 * All the elements of the given ciphertexts are checked to be members of the underlying group before the computation. 
+	 * The exponentiations of g and h are computed using fixed base tables when the batch is big enough.
+	 * @param ciphers1 the first ciphertext of every pair.
+	 * @param ciphers2 the second ciphertext of every pair.
+	 * @param w the random values, in the same order as the given pairs. Each one must be in Zq.
+	 * @param executor used to compute the multiplications in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the results of the multiplications, in the same order as the given pairs.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths, one of the random values is not in Zq, 
+	 * one of the given ciphertexts is not instance of ElGamalOnGroupElementCiphertext or contains an element that is not a member of the underlying DlogGroup.
+	 */
+	public AsymmetricCiphertext[] multiplyBatch(AsymmetricCiphertext[] ciphers1, AsymmetricCiphertext[] ciphers2, BigInteger[] w, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		if (ciphers1.length != ciphers2.length || ciphers1.length != w.length){
+			throw new IllegalArgumentException("the number of ciphertexts and random values should be equal");
+		}
+		int size = ciphers1.length;
+		
+		//Gets the groupElements of the ciphers and checks that all of them are members of the group.
+		GroupElement[] elements = new GroupElement[4 * size];
+		for (int i = 0; i < size; i++){
+			if (!(ciphers1[i] instanceof ElGamalOnGroupElementCiphertext) || !(ciphers2[i] instanceof ElGamalOnGroupElementCiphertext)){
+				throw new IllegalArgumentException("ciphertexts should be instance of ElGamalCiphertext");
+			}
+			elements[4*i] = ((ElGamalOnGroupElementCiphertext) ciphers1[i]).getC1();
+			elements[4*i + 1] = ((ElGamalOnGroupElementCiphertext) ciphers1[i]).getC2();
+			elements[4*i + 2] = ((ElGamalOnGroupElementCiphertext) ciphers2[i]).getC1();
+			elements[4*i + 3] = ((ElGamalOnGroupElementCiphertext) ciphers2[i]).getC2();
+		}
+		checkMembership(elements, executor);
+		
+		return multiplyByPowers(elements, w, executor);
+	}
+	
+	/**
+	 * Re-randomizes many ciphertexts at once.<p>
+	 * Re-randomization of a ciphertext is its multiplication by a new encryption of the identity element, 
+	 * so the result is a fresh encryption of the same plaintext.
+	 * @param ciphers the ciphertexts to re-randomize.
+	 * @param executor used to compute the re-randomizations in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the re-randomized ciphertexts, in the same order as the given ciphertexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if one of the given ciphertexts is not instance of ElGamalOnGroupElementCiphertext 
+	 * or contains an element that is not a member of the underlying DlogGroup.
+	 */
+	public AsymmetricCiphertext[] reRandomizeBatch(AsymmetricCiphertext[] ciphers, ExecutorService executor) {
+		return reRandomizeBatch(ciphers, sampleRandomValues(ciphers.length), executor);
+	}
+	
+	/**
+	 * Re-randomizes many ciphertexts at once, using the given random values.<p>
+	 * 	"FOR i = 1 ... n<p>
+	 * 		c_i = (u, v)<p> 
+	 * 		OUTPUT (g^r_i*u, h^r_i*v)". <p>
+	 * All the elements of the given ciphertexts are checked to be members of the underlying group before the computation.
+	 * @param ciphers the ciphertexts to re-randomize.
+	 * @param r the random values, in the same order as the given ciphertexts. Each one must be in Zq.
+	 * @param executor used to compute the re-randomizations in parallel if the underlying group is thread safe. If null, the computation is done in the calling thread.
+	 * @return the re-randomized ciphertexts, in the same order as the given ciphertexts.
+	 * @throws IllegalStateException if no public key was set.
+	 * @throws IllegalArgumentException if the arrays are of different lengths, one of the random values is not in Zq, 
+	 * one of the given ciphertexts is not instance of ElGamalOnGroupElementCiphertext or contains an element that is not a member of the underlying DlogGroup.
+	 */
+	public AsymmetricCiphertext[] reRandomizeBatch(AsymmetricCiphertext[] ciphers, BigInteger[] r, ExecutorService executor) {
+		// If there is no public key can not encrypt, throws exception.
+		if (!isKeySet()){
+			throw new IllegalStateException("in order to encrypt a message this object must be initialized with public key");
+		}
+		if (ciphers.length != r.length){
+			throw new IllegalArgumentException("the number of ciphertexts and random values should be equal");
+		}
+		int size = ciphers.length;
+		
+		//Gets the groupElements of the ciphers and checks that all of them are members of the group.
+		GroupElement[] elements = new GroupElement[2 * size];
+		for (int i = 0; i < size; i++){
+			if (!(ciphers[i] instanceof ElGamalOnGroupElementCiphertext)){
+				throw new IllegalArgumentException("ciphertexts should be instance of ElGamalCiphertext");
+			}
+			elements[2*i] = ((ElGamalOnGroupElementCiphertext) ciphers[i]).getC1();
+			elements[2*i + 1] = ((ElGamalOnGroupElementCiphertext) ciphers[i]).getC2();
+		}
+		checkMembership(elements, executor);
+		
+		return multiplyByPowers(elements, r, executor);
+	}
+	
+	/*
+	 * Computes the ciphertexts (g^r_i * PRODUCT(u), h^r_i * PRODUCT(v)), where the elements of ciphertext i are 
+	 * elements[k*i ... k*i+k-1], ordered as u, v, u, v...
+	 */
+	private AsymmetricCiphertext[] multiplyByPowers(final GroupElement[] elements, BigInteger[] r, ExecutorService executor){
+		final int size = r.length;
+		if (size == 0){
+			return new AsymmetricCiphertext[0];
+		}
+		final int k = elements.length / size;
+		
+		//Calculates g^r_i and h^r_i.
+		final GroupElement[][] powers = computeRandomPowers(r, executor);
+		
+		final AsymmetricCiphertext[] results = new AsymmetricCiphertext[size];
+		ParallelBatchExecution.execute(getGroupExecutor(executor), size, new BatchTask() {
+			
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					GroupElement u = powers[0][i];
+					GroupElement v = powers[1][i];
+					for (int j = 0; j < k; j += 2){
+						u = dlog.multiplyGroupElements(u, elements[k*i + j]);
+						v = dlog.multiplyGroupElements(v, elements[k*i + j + 1]);
+					}
+					results[i] = new ElGamalOnGroupElementCiphertext(u, v);
+				}
+			}
+		});
+		return results;
+	}
+	
 	/** 
 	 * @see edu.biu.scapi.midLayer.asymmetricCrypto.encryption.AsymmetricEnc#generateCiphertext(edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertextSendableData)
 	 * @deprecated  As of SCAPI-V1-0-2-2 use reconstructCiphertext(AsymmetricCiphertextSendableData data)
@@ -128,6 +128,15 @@ public interface DlogGroup {
 	 */
 	public boolean validateGroup();
 	
+	/**
+	 * Checks if this group instance can be used by several threads at the same time.<p>
+	 * Batch functions that get an executor compute on the group in several threads only if this function returns true. 
+	 * Otherwise, they compute in the calling thread.
+	 * @return <code>true</code> if the group computations can run concurrently;<p>
+	 * 		   <code>false</code> otherwise.
+	 */
+	public boolean isThreadSafe();
+	
 	/**
 	 * Calculates the inverse of the given GroupElement.
 	 * @param groupElement to invert
@@ -104,6 +104,15 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		else return false;
 	}
 	
+	/**
+	 * Returns false by default, since most groups keep native state that is changed by every computation.
+	 * Groups that can be used by several threads at the same time should override this function.
+	 * @return false.
+	 */
+	public boolean isThreadSafe(){
+		return false;
+	}
+	
 	/**
 	 * Creates a random member of this Dlog group.
 	 * 
@@ -322,13 +331,17 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 	 * @return the exponentiation result
 	 */
 	public GroupElement exponentiateWithPreComputedValues(GroupElement groupElement, BigInteger exponent) {
-		//extracts from the map the GroupElementsExponentiations object corresponding to the accepted base
-		GroupElementsExponentiations exponentiations = exponentiationsMap.get(groupElement);
-	
-		// if there is no object that matches this base - create it and add it to the map
-		if (exponentiations == null) {
-			exponentiations = new GroupElementsExponentiations(groupElement);
-			exponentiationsMap.put(groupElement, exponentiations);
+		GroupElementsExponentiations exponentiations;
+		//The map is synchronized since the same group instance can be shared by several threads (see DlogGroupFactory.getSharedObject).
+		synchronized (exponentiationsMap) {
+			//extracts from the map the GroupElementsExponentiations object corresponding to the accepted base
+			exponentiations = exponentiationsMap.get(groupElement);
+		
+			// if there is no object that matches this base - create it and add it to the map
+			if (exponentiations == null) {
+				exponentiations = new GroupElementsExponentiations(groupElement);
+				exponentiationsMap.put(groupElement, exponentiations);
+			}
 		}
 		// calculates the required exponent
 		return exponentiations.getExponentiation(exponent);
@@ -340,7 +353,9 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 	 */
 	@Override
 	public void endExponentiateWithPreComputedValues(GroupElement base) {
-		exponentiationsMap.remove(base);
+		synchronized (exponentiationsMap) {
+			exponentiationsMap.remove(base);
+		}
 	}
 	
 	/**
@@ -380,7 +395,7 @@ public abstract class DlogGroupAbs implements primeOrderSubGroup{
 		 * @param size - the required exponent
 		 * @throws IllegalArgumentException
 		 */
-		private void prepareExponentiations(BigInteger size) {
+		private synchronized void prepareExponentiations(BigInteger size) {
 			//find log of the number - this is the index of the size-exponent in the exponentiation array 
 			int index = size.bitLength()-1; 
 			
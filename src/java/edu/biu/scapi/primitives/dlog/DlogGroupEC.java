@@ -41,7 +41,7 @@ import java.util.Properties;
  */
 public abstract class DlogGroupEC extends DlogGroupAbs implements DlogEllipticCurve{
 
-	private  Properties nistProperties; // properties object to hold nist parameters
+	private static Properties nistProperties; // properties object to hold nist parameters. Shared by all the instances, so the file is read once.
 	protected static final String NISTEC_PROPERTIES_FILE =  "/propertiesFiles/NISTEC.properties";
 	protected String curveName;
 	protected String fileName;
@@ -88,25 +88,34 @@ public abstract class DlogGroupEC extends DlogGroupAbs implements DlogEllipticCu
 			
 
 	protected Properties getProperties(String fileName) throws IOException{
-		Properties ecProperties = null;
-		
-		//If we had already open the NISTEC file then do not open it again, just return it.
-		if(fileName.equals(NISTEC_PROPERTIES_FILE) && nistProperties!=null){
+		//The NISTEC file is loaded once for all the instances.
+		if(fileName.equals(NISTEC_PROPERTIES_FILE)){
+			return getNistProperties();
+		}
+	
+		return loadProperties(fileName);
+	}
+	
+	/*
+	 * Returns the properties of the NISTEC file. The file is loaded on the first call.
+	 */
+	private Properties getNistProperties() throws IOException{
+		synchronized (DlogGroupEC.class){
+			//If we had already open the NISTEC file then do not open it again, just return it.
+			if(nistProperties == null){
+				nistProperties = loadProperties(NISTEC_PROPERTIES_FILE);
+			}
 			return nistProperties;
 		}
+	}
 	
-		ecProperties = new Properties();
+	private Properties loadProperties(String fileName) throws IOException{
+		Properties ecProperties = new Properties();
 		//Load the elliptic curves file
 		//Instead of loading the plain file, which only works from outside a jar file, we load it as a resource 
 		//that can also work from within a jar file. The path from which we load the properties file from is from now under bin\propertiesFiles.
 		InputStream in=  (InputStream) getClass().getResourceAsStream(fileName);
 		ecProperties.load(in);
-		 
-		//Set the member variable nistProperties to the recently loaded ecProperties file, so that next time
-		//the NIST file has to be read, the already loaded file will be returned. (See above). 
-		if(fileName.equals(NISTEC_PROPERTIES_FILE)){
-			nistProperties = ecProperties;
-		}
 
 		return ecProperties;
 	}
@@ -0,0 +1,171 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog;
+
+import java.math.BigInteger;
+
+/**
+ * This class computes exponentiations of one fixed base using a pre-computed table.<p>
+ * The table holds the values base^(j*2^(k*w)) for every window k and every j in [1, 2^w-1], where w is the window size.
+ * An exponentiation then costs one multiplication per window of the exponent and no squarings at all.<p>
+ * The table is built once in the constructor and is never changed afterwards. 
+ * Thus, one instance can be shared by many threads as long as the underlying Dlog group supports concurrent multiplications.<p>
+ * 
+ * Building the table costs about (2^w) multiplications per window, so it pays off only when the same base is raised to many exponents.  
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class FixedBaseExponentiator {
+
+	private DlogGroup dlog;				//The group the base belongs to.
+	private GroupElement base;			//The fixed base.
+	private int windowSize;				//Number of exponent bits handled by one table row.
+	private int maxBits;				//The maximal exponent length (in bits) that the table covers.
+	private GroupElement[][] table;		//table[k][j-1] = base^(j*2^(k*w)).
+	
+	/**
+	 * Constructor that builds the table for exponents up to the size of the group order, 
+	 * using a window size chosen according to the group order size.
+	 * @param dlog the group the base belongs to.
+	 * @param base the fixed base.
+	 */
+	public FixedBaseExponentiator(DlogGroup dlog, GroupElement base){
+		this(dlog, base, getDefaultWindowSize(dlog.getOrder().bitLength()));
+	}
+	
+	/**
+	 * Constructor that builds the table for exponents up to the size of the group order, using the given window size.
+	 * @param dlog the group the base belongs to.
+	 * @param base the fixed base.
+	 * @param windowSize number of exponent bits handled by one table row. Should be between 1 and 16.
+	 * @throws IllegalArgumentException if the window size is not in the valid range.
+	 */
+	public FixedBaseExponentiator(DlogGroup dlog, GroupElement base, int windowSize){
+		if (windowSize < 1 || windowSize > 16){
+			throw new IllegalArgumentException("window size should be between 1 and 16");
+		}
+		this.dlog = dlog;
+		this.base = base;
+		this.windowSize = windowSize;
+		this.maxBits = dlog.getOrder().bitLength();
+		
+		int rows = (maxBits + windowSize - 1) / windowSize;
+		int rowSize = (1 << windowSize) - 1;
+		table = new GroupElement[rows][rowSize];
+		
+		GroupElement rowBase = base;
+		for (int k = 0; k < rows; k++){
+			//table[k][j-1] = rowBase^j
+			table[k][0] = rowBase;
+			for (int j = 1; j < rowSize; j++){
+				table[k][j] = dlog.multiplyGroupElements(table[k][j-1], rowBase);
+			}
+			//The base of the next row is rowBase^(2^w) = rowBase^(2^w - 1) * rowBase.
+			rowBase = dlog.multiplyGroupElements(table[k][rowSize-1], rowBase);
+		}
+	}
+	
+	/**
+	 * Returns the number of group elements stored in a table built with the given parameters.
+	 * Can be used in order to choose a window size that fits a memory budget.
+	 * @param orderBitLength the bit length of the group order.
+	 * @param windowSize the window size.
+	 * @return the number of group elements in the table.
+	 */
+	public static long getTableSize(int orderBitLength, int windowSize){
+		long rows = (orderBitLength + windowSize - 1) / windowSize;
+		return rows * ((1L << windowSize) - 1);
+	}
+	
+	/**
+	 * Returns the window size used by default for a group order of the given bit length.
+	 * @param orderBitLength
+	 * @return the default window size.
+	 */
+	public static int getDefaultWindowSize(int orderBitLength){
+		if (orderBitLength <= 64){
+			return 3;
+		} else if (orderBitLength <= 320){
+			return 5;
+		} 
+		return 4;
+	}
+	
+	/**
+	 * @return the fixed base of this exponentiator.
+	 */
+	public GroupElement getBase(){
+		return base;
+	}
+	
+	/**
+	 * @return the Dlog group the fixed base belongs to.
+	 */
+	public DlogGroup getDlogGroup(){
+		return dlog;
+	}
+	
+	/**
+	 * @return the window size used by this exponentiator.
+	 */
+	public int getWindowSize(){
+		return windowSize;
+	}
+	
+	/**
+	 * Computes base^exponent using the pre-computed table.<p>
+	 * Exponents that are negative or longer than the group order are computed using the regular exponentiation of the group.
+	 * @param exponent
+	 * @return the exponentiation result.
+	 */
+	public GroupElement exponentiate(BigInteger exponent){
+		if (exponent.signum() < 0 || exponent.bitLength() > maxBits){
+			return dlog.exponentiate(base, exponent);
+		}
+		
+		GroupElement result = null;
+		int bitLength = exponent.bitLength();
+		for (int k = 0; k * windowSize < bitLength; k++){
+			//Extract the k-th window of the exponent.
+			int j = 0;
+			for (int i = windowSize - 1; i >= 0; i--){
+				j <<= 1;
+				if (exponent.testBit(k * windowSize + i)){
+					j |= 1;
+				}
+			}
+			if (j != 0){
+				result = (result == null) ? table[k][j-1] : dlog.multiplyGroupElements(result, table[k][j-1]);
+			}
+		}
+		
+		//exponent is zero.
+		if (result == null){
+			return dlog.getIdentity();
+		}
+		return result;
+	}
+}
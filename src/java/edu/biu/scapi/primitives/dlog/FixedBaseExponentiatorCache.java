@@ -0,0 +1,291 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog;
+
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * This class keeps fixed base tables of bases that are exponentiated many times, so that they can be shared between 
+ * all the objects that use the same base. For example, all the Pedersen commitments that use the same g and h (even in different sessions)
+ * can use the same two tables.<p>
+ * 
+ * The tables are bounded by a memory budget, given as the total number of group elements that can be stored by all tables together. 
+ * The window size of each table is the largest window size such that the table takes at most a quarter of the budget, 
+ * and when the budget is exceeded the least recently used tables are removed.<p>
+ * 
+ * A table computes with the group instance that built it. Thus, tables are shared by different instances of the same group 
+ * (same class, order and generator) only if the group is thread safe (see {@link DlogGroup#isThreadSafe()}). 
+ * The tables of other groups are kept per group instance, so they are used only together with the instance that built them.<p>
+ * 
+ * All functions of this class are thread safe. A table is built outside the lock of the cache, so building a table does not block 
+ * the threads that use other tables. Threads that ask for a table that is being built wait for it, so every table is built once.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public final class FixedBaseExponentiatorCache {
+	
+	//The default budget. Enough for a few tables with the maximal window size for groups of order up to 256 bits.
+	private static final long DEFAULT_MEMORY_BUDGET = 1 << 15;
+	
+	//The maximal window size used by the tables of this cache. 
+	//Bigger windows save only a few multiplications per exponentiation but make the table much more expensive to build.
+	private static final int MAX_WINDOW_SIZE = 6;
+	
+	//Part of the budget that a single table can take.
+	private static final int TABLES_PER_BUDGET = 4;
+	
+	private static final FixedBaseExponentiatorCache instance = new FixedBaseExponentiatorCache(DEFAULT_MEMORY_BUDGET);
+	
+	//The tables, ordered from the least recently used to the most recently used.
+	private LinkedList<FixedBaseExponentiator> tables = new LinkedList<FixedBaseExponentiator>();
+	//The tables that are being built.
+	private LinkedList<PendingTable> pendingTables = new LinkedList<PendingTable>();
+	private long memoryBudget;
+	private long usedMemory;
+	
+	/**
+	 * Constructor that sets the memory budget of this cache.
+	 * @param memoryBudget the maximal number of group elements in all the tables of this cache.
+	 * @throws IllegalArgumentException if the budget is negative.
+	 */
+	public FixedBaseExponentiatorCache(long memoryBudget){
+		setMemoryBudget(memoryBudget);
+	}
+	
+	/**
+	 * @return the cache that is shared by all SCAPI classes that use fixed base tables.
+	 */
+	public static FixedBaseExponentiatorCache getInstance(){
+		return instance;
+	}
+	
+	/**
+	 * Sets the memory budget of this cache. If the new budget is smaller than the used memory, the least recently used tables are removed.
+	 * @param memoryBudget the maximal number of group elements in all the tables of this cache.
+	 * @throws IllegalArgumentException if the budget is negative.
+	 */
+	public synchronized void setMemoryBudget(long memoryBudget){
+		if (memoryBudget < 0){
+			throw new IllegalArgumentException("the memory budget should be non negative");
+		}
+		this.memoryBudget = memoryBudget;
+		evict();
+	}
+	
+	/**
+	 * @return the maximal number of group elements in all the tables of this cache.
+	 */
+	public synchronized long getMemoryBudget(){
+		return memoryBudget;
+	}
+	
+	/**
+	 * @return the number of group elements currently stored in the tables of this cache.
+	 */
+	public synchronized long getUsedMemory(){
+		return usedMemory;
+	}
+	
+	/**
+	 * Returns the table of the given base. If there is no such table, builds it and keeps it in the cache.<p>
+	 * The table is built in the calling thread without holding the lock of the cache. 
+	 * If another thread is already building the table of the same base, this function waits for it instead of building it again.
+	 * @param dlog the group the base belongs to.
+	 * @param base the fixed base.
+	 * @return the table of the given base, or null if even the smallest table does not fit the memory budget.
+	 */
+	public FixedBaseExponentiator get(DlogGroup dlog, GroupElement base){
+		PendingTable pending;
+		boolean buildHere = false;
+		synchronized (this){
+			FixedBaseExponentiator table = getIfPresent(dlog, base);
+			if (table != null){
+				return table;
+			}
+			pending = findPending(dlog, base);
+			if (pending == null){
+				int windowSize = chooseWindowSize(dlog.getOrder().bitLength());
+				if (windowSize == 0){
+					return null;
+				}
+				pending = new PendingTable(dlog, base, windowSize);
+				pendingTables.add(pending);
+				buildHere = true;
+			}
+		}
+		
+		//The lock of the cache is released, so other threads can use the cache while the table is built.
+		if (buildHere){
+			return build(pending);
+		}
+		//Another thread builds the table. If it failed, try again (this thread may build it).
+		FixedBaseExponentiator table = pending.await();
+		return (table != null) ? table : get(dlog, base);
+	}
+	
+	/**
+	 * Returns the table of the given base, if it is in the cache.
+	 * @param dlog the group the base belongs to.
+	 * @param base the fixed base.
+	 * @return the table of the given base, or null if there is no such table.
+	 */
+	public synchronized FixedBaseExponentiator getIfPresent(DlogGroup dlog, GroupElement base){
+		Iterator<FixedBaseExponentiator> it = tables.iterator();
+		while (it.hasNext()){
+			FixedBaseExponentiator table = it.next();
+			if (isSameGroup(table.getDlogGroup(), dlog) && table.getBase().equals(base)){
+				//Move the table to the end of the list, since it is now the most recently used.
+				it.remove();
+				tables.addLast(table);
+				return table;
+			}
+		}
+		return null;
+	}
+	
+	/*
+	 * Builds the table of the given pending entry outside the lock, adds it to the cache and wakes up the threads that wait for it.
+	 */
+	private FixedBaseExponentiator build(PendingTable pending){
+		FixedBaseExponentiator table = null;
+		try {
+			table = new FixedBaseExponentiator(pending.dlog, pending.base, pending.windowSize);
+		} finally {
+			synchronized (this){
+				pendingTables.remove(pending);
+				if (table != null){
+					tables.addLast(table);
+					usedMemory += size(table);
+					evict();
+				}
+			}
+			pending.complete(table);
+		}
+		return table;
+	}
+	
+	/*
+	 * Returns the pending entry of the given base, or null if its table is not being built.
+	 */
+	private PendingTable findPending(DlogGroup dlog, GroupElement base){
+		for (PendingTable pending : pendingTables){
+			if (isSameGroup(pending.dlog, dlog) && pending.base.equals(base)){
+				return pending;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Removes all the tables of this cache.
+	 */
+	public synchronized void clear(){
+		tables.clear();
+		usedMemory = 0;
+	}
+	
+	/*
+	 * Returns the largest window size such that the table takes at most a quarter of the budget, or 0 if there is no such window size.
+	 */
+	private int chooseWindowSize(int orderBitLength){
+		for (int w = MAX_WINDOW_SIZE; w > 0; w--){
+			if (FixedBaseExponentiator.getTableSize(orderBitLength, w) * TABLES_PER_BUDGET <= memoryBudget){
+				return w;
+			}
+		}
+		return 0;
+	}
+	
+	/*
+	 * Removes the least recently used tables until the used memory fits the budget.
+	 */
+	private void evict(){
+		while (usedMemory > memoryBudget && !tables.isEmpty()){
+			usedMemory -= size(tables.removeFirst());
+		}
+	}
+	
+	private static long size(FixedBaseExponentiator table){
+		return FixedBaseExponentiator.getTableSize(table.getDlogGroup().getOrder().bitLength(), table.getWindowSize());
+	}
+	
+	/*
+	 * A table that is being built by one thread, and that other threads can wait for.
+	 */
+	private static class PendingTable {
+		private DlogGroup dlog;
+		private GroupElement base;
+		private int windowSize;
+		private FixedBaseExponentiator table;
+		private boolean done;
+		
+		PendingTable(DlogGroup dlog, GroupElement base, int windowSize){
+			this.dlog = dlog;
+			this.base = base;
+			this.windowSize = windowSize;
+		}
+		
+		synchronized void complete(FixedBaseExponentiator table){
+			this.table = table;
+			done = true;
+			notifyAll();
+		}
+		
+		/*
+		 * Waits until the table is built. Returns null if the building failed.
+		 */
+		synchronized FixedBaseExponentiator await(){
+			boolean interrupted = false;
+			while (!done){
+				try {
+					wait();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			//Keep the interrupt status for the caller.
+			if (interrupted){
+				Thread.currentThread().interrupt();
+			}
+			return table;
+		}
+	}
+	
+	/*
+	 * Returns true if a table built by one group can be used by the other. 
+	 * Different instances match only if they are thread safe, since the table computes with the instance that built it.
+	 */
+	private static boolean isSameGroup(DlogGroup a, DlogGroup b){
+		if (a == b){
+			return true;
+		}
+		if (!a.isThreadSafe() || !b.isThreadSafe()){
+			return false;
+		}
+		return a.getClass() == b.getClass() && a.getOrder().equals(b.getOrder()) && a.getGenerator().equals(b.getGenerator());
+	}
+}
@@ -0,0 +1,149 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.primitives.dlog;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * This class writes group elements (by their sendable data) and BigIntegers in a canonical binary form, and reads them back.<p>
+ * 
+ * A BigInteger is written as a four bytes (big endian) length followed by the bytes of its magnitude, without leading zeros. 
+ * A null BigInteger is written as the length -1.
+ * A group element is written as a one byte tag followed by its coordinates: x and y for elliptic curve elements and x for Zp elements.<p>
+ * 
+ * Unlike java serialization, the reading functions only create the objects of the encoding, 
+ * and every length is checked against a given bound before a buffer of that length is allocated. 
+ * Therefore, these functions can be used to read elements that were received from the other party.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public final class GroupElementSendableDataEncoding {
+
+	private static final byte TAG_NULL = 0;
+	private static final byte TAG_EC_ELEMENT = 1;
+	private static final byte TAG_ZP_ELEMENT = 2;
+	
+	private GroupElementSendableDataEncoding(){}
+	
+	/**
+	 * Writes the given non negative BigInteger as its length and magnitude.
+	 * @param out the stream to write to.
+	 * @param value the value to write. Can be null.
+	 * @throws IOException if failed to write.
+	 * @throws IllegalArgumentException if the value is negative.
+	 */
+	public static void writeBigInteger(DataOutput out, BigInteger value) throws IOException{
+		if (value == null){
+			out.writeInt(-1);
+			return;
+		}
+		if (value.signum() < 0){
+			throw new IllegalArgumentException("negative values can not be encoded");
+		}
+		byte[] bytes = value.toByteArray();
+		//Remove the sign byte, if there is one.
+		int offset = (bytes.length > 1 && bytes[0] == 0) ? 1 : 0;
+		if (value.signum() == 0){
+			offset = bytes.length;
+		}
+		out.writeInt(bytes.length - offset);
+		out.write(bytes, offset, bytes.length - offset);
+	}
+	
+	/**
+	 * Reads a BigInteger that was written by {@link #writeBigInteger(DataOutput, BigInteger)}.
+	 * @param in the stream to read from.
+	 * @param maxLength the maximal length (in bytes) of the value.
+	 * @return the read value. Can be null.
+	 * @throws IOException if failed to read or if the encoding is not valid: the length is negative (and not -1), 
+	 * greater than maxLength, or the magnitude has a leading zero.
+	 */
+	public static BigInteger readBigInteger(DataInput in, int maxLength) throws IOException{
+		int len = in.readInt();
+		if (len == -1){
+			return null;
+		}
+		if (len < 0 || len > maxLength){
+			throw new IOException("invalid length of an encoded integer: " + len);
+		}
+		byte[] bytes = new byte[len];
+		in.readFully(bytes);
+		//The encoding is canonical, so a leading zero is not allowed.
+		if (len > 0 && bytes[0] == 0){
+			throw new IOException("the encoded integer is not in canonical form");
+		}
+		return new BigInteger(1, bytes);
+	}
+	
+	/**
+	 * Writes the given group element data.
+	 * @param out the stream to write to.
+	 * @param data the data to write. Can be null.
+	 * @throws IOException if failed to write.
+	 * @throws IllegalArgumentException if the data is not of elliptic curve or Zp element.
+	 */
+	public static void write(DataOutput out, GroupElementSendableData data) throws IOException{
+		if (data == null){
+			out.writeByte(TAG_NULL);
+		} else if (data instanceof ECElementSendableData){
+			out.writeByte(TAG_EC_ELEMENT);
+			writeBigInteger(out, ((ECElementSendableData) data).getX());
+			writeBigInteger(out, ((ECElementSendableData) data).getY());
+		} else if (data instanceof ZpElementSendableData){
+			out.writeByte(TAG_ZP_ELEMENT);
+			writeBigInteger(out, ((ZpElementSendableData) data).getX());
+		} else {
+			throw new IllegalArgumentException("the given data should be of elliptic curve or Zp element");
+		}
+	}
+	
+	/**
+	 * Reads group element data that was written by {@link #write(DataOutput, GroupElementSendableData)}.<p>
+	 * The returned data is not checked to be a member of any group; The caller should reconstruct the element with membership check.
+	 * @param in the stream to read from.
+	 * @param maxLength the maximal length (in bytes) of each coordinate.
+	 * @return the read data. Can be null.
+	 * @throws IOException if failed to read or if the encoding is not valid.
+	 */
+	public static GroupElementSendableData read(DataInput in, int maxLength) throws IOException{
+		byte tag = in.readByte();
+		switch (tag){
+		case TAG_NULL:
+			return null;
+		case TAG_EC_ELEMENT:
+			BigInteger x = readBigInteger(in, maxLength);
+			BigInteger y = readBigInteger(in, maxLength);
+			return new ECElementSendableData(x, y);
+		case TAG_ZP_ELEMENT:
+			return new ZpElementSendableData(readBigInteger(in, maxLength));
+		default:
+			throw new IOException("invalid tag of an encoded group element: " + tag);
+		}
+	}
+}
@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.math.BigInteger;
 import java.security.SecureRandom;
 
+import org.bouncycastle.math.ec.ECAlgorithms;
 import org.bouncycastle.math.ec.ECCurve;
 import org.bouncycastle.math.ec.ECPoint;
 
@@ -57,6 +58,16 @@ public abstract class BcAdapterDlogEC extends DlogGroupEC
 		super(fileName, curveName, random);
 	}
 
+	/**
+	 * The Bouncy Castle groups keep only immutable curve objects, and the state of DlogGroupAbs is synchronized. 
+	 * Thus, they can be used by several threads at the same time.
+	 * @return true.
+	 */
+	@Override
+	public boolean isThreadSafe(){
+		return true;
+	}
+	
 	/*
 	 * Creates an ECPoint from the given x,y
 	 * @param x
@@ -197,6 +208,15 @@ public abstract class BcAdapterDlogEC extends DlogGroupEC
 				throw new IllegalArgumentException("groupElement doesn't match the DlogGroup");
 			}
 		}
+		//A product of two exponentiations is computed by BC's interleaved double multiplication (Shamir's trick), 
+		//which is faster than two separate exponentiations.
+		if (groupElements.length == 2 && exponentiations[0].signum() >= 0 && exponentiations[1].signum() >= 0){
+			ECPoint point1 = ((ECPointBc) groupElements[0]).getPoint();
+			ECPoint point2 = ((ECPointBc) groupElements[1]).getPoint();
+			if (!point1.isInfinity() && !point2.isInfinity()){
+				return createPoint(ECAlgorithms.sumOfTwoMultiplies(point1, exponentiations[0], point2, exponentiations[1]));
+			}
+		}
 		//Our test results show that for BC elliptic curve the LL algorithm always gives the best performances
 		return computeLL(groupElements, exponentiations);
 	}
@@ -54,6 +54,11 @@ import edu.biu.scapi.generals.Logging;
 public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RSAPermutation {
 
 	private SecureRandom random;
+	
+	//The key parameters are taken from the keys once, in setKey, and used by all the compute and invert calls.
+	private BigInteger pubExponent;		//e
+	private BigInteger privExponent;	//d. Used only if the private key is not a CRT key.
+	private BigInteger p, q, dP, dQ, qInv;	//CRT parameters. Null if the private key is not a CRT key.
 
 	public ScRSAPermutation(){
 		this(new SecureRandom());
@@ -81,6 +86,21 @@ public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RS
 		}
 
 		modulus = ((RSAPublicKey)publicKey).getModulus();
+		pubExponent = ((RSAPublicKey)publicKey).getPublicExponent();
+		
+		if (privateKey instanceof RSAPrivateCrtKey){
+			//gets the crt parameters
+			RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey)privateKey;
+			p = crtKey.getPrimeP();
+			q = crtKey.getPrimeQ();
+			dP = crtKey.getPrimeExponentP();
+			dQ = crtKey.getPrimeExponentQ();
+			qInv = crtKey.getCrtCoefficient();
+			privExponent = null;
+		} else {
+			p = q = dP = dQ = qInv = null;
+			privExponent = ((RSAPrivateKey)privateKey).getPrivateExponent();
+		}
 
 		//calls the father init that sets the keys
 		super.setKey(publicKey, privateKey);
@@ -101,6 +121,7 @@ public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RS
 		}
 
 		modulus = ((RSAPublicKey)publicKey).getModulus();
+		pubExponent = ((RSAPublicKey)publicKey).getPublicExponent();
 
 		//calls the father init that sets the key
 		super.setKey(publicKey);
@@ -167,8 +188,7 @@ public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RS
 		// gets the value of the element 
 		BigInteger element = ((RSAElement)tpEl).getElement();
 		//compute - calculates (element^e)modN
-		BigInteger result = element.modPow(
-				((RSAPublicKey)pubKey).getPublicExponent(), ((RSAPublicKey)pubKey).getModulus());
+		BigInteger result = element.modPow(pubExponent, modulus);
 		// builds the return element
 		RSAElement returnEl = new RSAElement(modulus, result, false);	//create an RSAElement without checking since "result" is the result of the computation and it should be valid.		
 		//returns the result of the computation
@@ -215,18 +235,9 @@ public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RS
 	 */
 	private BigInteger doInvert(BigInteger input)
 	{
-		if (privKey instanceof RSAPrivateCrtKey) //invert with CRT parameters
+		if (p != null) //invert with CRT parameters
 		{
 			// we have the extra factors, use the Chinese Remainder Theorem 
-			RSAPrivateCrtKey crtKey = (RSAPrivateCrtKey)privKey;
-
-			//gets the crt parameters
-			BigInteger p = crtKey.getPrimeP();
-			BigInteger q = crtKey.getPrimeQ();
-			BigInteger dP = crtKey.getPrimeExponentP();
-			BigInteger dQ = crtKey.getPrimeExponentQ();
-			BigInteger qInv = crtKey.getCrtCoefficient();
-
 			BigInteger mP, mQ, h, m;
 
 			// mP = ((input mod p) ^ dP)) mod p
@@ -247,8 +258,25 @@ public final class ScRSAPermutation extends TrapdoorPermutationAbs implements RS
 			return m;
 		}
 		else{//invert using d, modN
-			return input.modPow(
-					((RSAPrivateKey)privKey).getPrivateExponent(), ((RSAPrivateKey)pubKey).getModulus());
+			return input.modPow(privExponent, modulus);
+		}
+	}
+	
+	/**
+	 * Computes (x^e)modN on the values in the given range, without wrapping them in RSAElements.
+	 */
+	protected void computeRange(BigInteger[] x, BigInteger[] results, int from, int to){
+		for (int i = from; i < to; i++){
+			results[i] = x[i].modPow(pubExponent, modulus);
+		}
+	}
+	
+	/**
+	 * Inverts the values in the given range, without wrapping them in RSAElements.
+	 */
+	protected void invertRange(BigInteger[] y, BigInteger[] results, int from, int to){
+		for (int i = from; i < to; i++){
+			results[i] = doInvert(y[i]);
 		}
 	}
 
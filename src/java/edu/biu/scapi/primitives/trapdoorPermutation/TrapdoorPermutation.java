@@ -34,6 +34,7 @@ import java.security.PrivateKey;
 import java.security.PublicKey;
 import java.security.spec.AlgorithmParameterSpec;
 import java.security.spec.InvalidParameterSpecException;
+import java.util.concurrent.ExecutorService;
 
 /** 
  * This interface is the general interface of trapdoor permutation. Every class in this family should implement this interface.
@@ -137,6 +138,38 @@ public interface TrapdoorPermutation {
 	 */
 	public byte[] hardCoreFunction(TPElement tpEl);
 	
+	/**
+	 * Computes the operation of this trapdoor permutation on each one of the given values.<p>
+	 * The values are not wrapped in TPElements and are not checked, so it is the caller's responsibility to pass legal values 
+	 * (as in {@link #generateUncheckedTPElement(BigInteger)}).
+	 * @param x the inputs for the computation.
+	 * @param executor executor to run the computations on. If null, the computations are done in the calling thread.
+	 * @return the results of the computation, where result[i] is the computation on x[i].
+	 * @throws IllegalStateException if the keys aren't set.
+	 */
+	public BigInteger[] computeBatch(BigInteger[] x, ExecutorService executor);
+	
+	/**
+	 * Inverts the operation of this trapdoor permutation on each one of the given values.<p>
+	 * The values are not wrapped in TPElements and are not checked, so it is the caller's responsibility to pass legal values 
+	 * (as in {@link #generateUncheckedTPElement(BigInteger)}).
+	 * @param y the inputs to invert.
+	 * @param executor executor to run the inversions on. If null, the inversions are done in the calling thread.
+	 * @return the results of the invert operation, where result[i] is the inversion of y[i].
+	 * @throws KeyException if there is no private key.
+	 * @throws IllegalStateException if the keys aren't set.
+	 */
+	public BigInteger[] invertBatch(BigInteger[] y, ExecutorService executor) throws KeyException;
+	
+	/**
+	 * Computes the hard core function on each one of the given values.
+	 * @param x the inputs to the hard core function.
+	 * @param executor executor to run the computations on. If null, the computations are done in the calling thread.
+	 * @return the results of the hard core function, where result[i] is the hard core function of x[i].
+	 * @throws IllegalStateException if the keys aren't set.
+	 */
+	public byte[][] hardCoreFunctionBatch(BigInteger[] x, ExecutorService executor);
+	
 	
 	/** 
 	 * Checks if the given element is valid for this trapdoor permutation
@@ -28,10 +28,14 @@ package edu.biu.scapi.primitives.trapdoorPermutation;
 
 import java.math.BigInteger;
 import java.security.InvalidKeyException;
+import java.security.KeyException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
+import java.util.concurrent.ExecutorService;
 
 import edu.biu.scapi.exceptions.ScapiRuntimeException;
+import edu.biu.scapi.generals.ParallelBatchExecution;
+import edu.biu.scapi.generals.ParallelBatchExecution.BatchTask;
 
 /** 
  * This class implements some common functionality of trapdoor permutation.
@@ -117,13 +121,122 @@ public abstract class TrapdoorPermutationAbs implements TrapdoorPermutation {
 		 * We use this implementation both in RSA permutation and in Rabin permutation. 
 		 * Thus, We implement it in TrapdoorPermutationAbs and let derived classes override it if needed. 
 		 */
-		//gets the element value as byte array
-		BigInteger elementValue = tpEl.getElement();
-		byte[] elementBytesValue = elementValue.toByteArray();
+		return leastSignificantBytes(tpEl.getElement(), getHardCoreBytesSize());
+	
+	}
+	
+	/**
+	 * Computes the trapdoor permutation on the given values, using the given executor.
+	 * @see edu.biu.scapi.primitives.trapdoorPermutation.TrapdoorPermutation#computeBatch(BigInteger[], ExecutorService)
+	 */
+	public BigInteger[] computeBatch(final BigInteger[] x, ExecutorService executor){
+		if (!isKeySet()){
+			throw new IllegalStateException("keys aren't set");
+		}
+		
+		final BigInteger[] results = new BigInteger[x.length];
+		ParallelBatchExecution.execute(executor, x.length, new BatchTask() {
+			public void run(int from, int to) {
+				computeRange(x, results, from, to);
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Inverts the trapdoor permutation on the given values, using the given executor.
+	 * @see edu.biu.scapi.primitives.trapdoorPermutation.TrapdoorPermutation#invertBatch(BigInteger[], ExecutorService)
+	 */
+	public BigInteger[] invertBatch(final BigInteger[] y, ExecutorService executor) throws KeyException{
+		if (!isKeySet()){
+			throw new IllegalStateException("keys aren't set");
+		}
+		//If the key set was only the public key and not the private key - can't do the invert, throw exception.
+		if (privKey == null){
+			throw new KeyException("in order to invert, this object must be initialized with private key");
+		}
 		
-		//the number of bytes to get the log (N) least significant bits
+		final BigInteger[] results = new BigInteger[y.length];
+		ParallelBatchExecution.execute(executor, y.length, new BatchTask() {
+			public void run(int from, int to) {
+				invertRange(y, results, from, to);
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Computes the hard core function on the given values, using the given executor.
+	 * @see edu.biu.scapi.primitives.trapdoorPermutation.TrapdoorPermutation#hardCoreFunctionBatch(BigInteger[], ExecutorService)
+	 */
+	public byte[][] hardCoreFunctionBatch(final BigInteger[] x, ExecutorService executor){
+		if (!isKeySet()){
+			throw new IllegalStateException("keys aren't set");
+		}
+		
+		//the size is the same for all the elements, so it is calculated once.
+		final int logBytes = getHardCoreBytesSize();
+		final byte[][] results = new byte[x.length][];
+		ParallelBatchExecution.execute(executor, x.length, new BatchTask() {
+			public void run(int from, int to) {
+				for (int i = from; i < to; i++){
+					results[i] = leastSignificantBytes(x[i], logBytes);
+				}
+			}
+		});
+		return results;
+	}
+	
+	/**
+	 * Computes the permutation on the values in the indices [from, to) of x and puts the results in the same indices of results.<p>
+	 * The default implementation wraps each value in an unchecked TPElement and calls {@link #compute(TPElement)}. 
+	 * Derived classes that can work on the values directly should override it.
+	 * @param x the inputs for the computation.
+	 * @param results array to put the results in.
+	 * @param from the first index to compute (inclusive).
+	 * @param to the last index to compute (exclusive).
+	 */
+	protected void computeRange(BigInteger[] x, BigInteger[] results, int from, int to){
+		for (int i = from; i < to; i++){
+			results[i] = compute(generateUncheckedTPElement(x[i])).getElement();
+		}
+	}
+	
+	/**
+	 * Inverts the permutation on the values in the indices [from, to) of y and puts the results in the same indices of results.<p>
+	 * This function is called only after the private key was checked. 
+	 * The default implementation wraps each value in an unchecked TPElement and calls {@link #invert(TPElement)}. 
+	 * Derived classes that can work on the values directly should override it.
+	 * @param y the inputs to invert.
+	 * @param results array to put the results in.
+	 * @param from the first index to invert (inclusive).
+	 * @param to the last index to invert (exclusive).
+	 */
+	protected void invertRange(BigInteger[] y, BigInteger[] results, int from, int to){
+		try {
+			for (int i = from; i < to; i++){
+				results[i] = invert(generateUncheckedTPElement(y[i])).getElement();
+			}
+		} catch (KeyException e) {
+			//shouldn't occur since the private key was checked before calling this function.
+			throw new ScapiRuntimeException(e.getMessage());
+		}
+	}
+	
+	/*
+	 * Returns the number of bytes to get the log (N) least significant bits.
+	 */
+	private int getHardCoreBytesSize(){
 		double logBits = (modulus.bitCount()/2);  //log N bits
-		int logBytes = (int) Math.ceil(logBits/8); //log N bites in bytes
+		return (int) Math.ceil(logBits/8); //log N bites in bytes
+	}
+	
+	/*
+	 * Returns the logBytes least significant bytes of the given value.
+	 */
+	private static byte[] leastSignificantBytes(BigInteger elementValue, int logBytes){
+		//gets the element value as byte array
+		byte[] elementBytesValue = elementValue.toByteArray();
 		
 		//if the element length is less than log(N), the return byte[] should be all the element bytes
 		int size = Math.min(logBytes, elementBytesValue.length);
@@ -131,7 +244,6 @@ public abstract class TrapdoorPermutationAbs implements TrapdoorPermutation {
 		//copies the bytes to the output array
 		System.arraycopy(elementBytesValue, elementBytesValue.length-size, leastSignificantBytes, 0, size);
 		return leastSignificantBytes;
-	
 	}
 	
 
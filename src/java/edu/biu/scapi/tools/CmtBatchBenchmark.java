@@ -0,0 +1,204 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+package edu.biu.scapi.tools;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.LinkedList;
+
+import edu.biu.scapi.comm.Channel;
+import edu.biu.scapi.exceptions.CheatAttemptException;
+import edu.biu.scapi.exceptions.InvalidDlogGroupException;
+import edu.biu.scapi.exceptions.SecurityLevelException;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtBigIntegerCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCCommitmentMsg;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCDecommitmentMessage;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.CmtCommitValue;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenCommitter;
+import edu.biu.scapi.interactiveMidProtocols.commitmentScheme.pedersen.CmtPedersenReceiver;
+import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
+import edu.biu.scapi.primitives.dlog.bc.BcDlogECF2m;
+import edu.biu.scapi.primitives.dlog.bc.BcDlogECFp;
+
+/**
+ * This utility measures the Pedersen commitment with and without the shared fixed base tables of g and h.<p>
+ * It measures the time of building the tables, of committing a batch of values one by one without the tables, one by one 
+ * with the tables and using the batch function, and of verifying the decommitments one by one and using the batch function. <p>
+ * Usage: CmtBatchBenchmark [batch size] [curve name]. 
+ * The committer and the receiver run in the same process and exchange the pre-process message through an in-memory channel.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class CmtBatchBenchmark {
+	
+	public static void main(String[] args) throws IOException, ClassNotFoundException, SecurityLevelException, 
+			InvalidDlogGroupException, CheatAttemptException {
+		int batchSize = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		String curveName = (args.length > 1) ? args[1] : "K-233";
+		
+		SecureRandom random = new SecureRandom();
+		DlogGroup dlog = createGroup(curveName);
+		
+		//The receiver sends h at construction and the committer waits for it at construction.
+		Channel channel = new MemoryChannel();
+		CmtPedersenReceiver receiver = new CmtPedersenReceiver(channel, dlog, random);
+		CmtPedersenCommitter committer = new CmtPedersenCommitter(channel, dlog, random);
+		
+		//Use a cache of this benchmark, so that the tables are not shared with other code running in this process.
+		FixedBaseExponentiatorCache cache = new FixedBaseExponentiatorCache(FixedBaseExponentiatorCache.getInstance().getMemoryBudget());
+		
+		System.out.println("batch size: " + batchSize + ", curve: " + curveName);
+		System.out.println("times are in milliseconds, for the whole batch");
+		
+		CmtCommitValue[] values = new CmtCommitValue[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			values[i] = new CmtBigIntegerCommitValue(new BigInteger(dlog.getOrder().bitLength() - 1, random));
+		}
+		
+		//Warm up the JIT without the tables.
+		committer.setFixedBaseCache(null);
+		receiver.setFixedBaseCache(null);
+		commitOneByOne(committer, values, 0);
+		
+		long start = System.nanoTime();
+		commitOneByOne(committer, values, batchSize);
+		long plainCommitTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		cache.get(dlog, dlog.getGenerator());
+		long buildTime = System.nanoTime() - start;
+		
+		//Build the table of h too, by committing more values than needed to pay for the tables.
+		committer.setFixedBaseCache(cache);
+		receiver.setFixedBaseCache(cache);
+		commitOneByOne(committer, values, 2 * batchSize);
+		
+		start = System.nanoTime();
+		CmtCCommitmentMsg[] commitments = commitOneByOne(committer, values, 3 * batchSize);
+		long tableCommitTime = System.nanoTime() - start;
+		
+		long[] ids = new long[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			ids[i] = 4 * batchSize + i;
+		}
+		start = System.nanoTime();
+		committer.generateBatchCommitmentMsg(values, ids);
+		long batchCommitTime = System.nanoTime() - start;
+		
+		CmtCDecommitmentMessage[] decommitments = new CmtCDecommitmentMessage[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			decommitments[i] = committer.generateDecommitmentMsg(3 * batchSize + i);
+		}
+		
+		//Warm up the JIT of the verification.
+		receiver.verifyBatchDecommitment(commitments, decommitments);
+		
+		start = System.nanoTime();
+		boolean[] results = new boolean[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			results[i] = receiver.verifyDecommitment(commitments[i], decommitments[i]) != null;
+		}
+		long verifyTime = System.nanoTime() - start;
+		checkAll("verify", results);
+		
+		start = System.nanoTime();
+		CmtCommitValue[] verified = receiver.verifyBatchDecommitment(commitments, decommitments);
+		long verifyBatchTime = System.nanoTime() - start;
+		for (int i = 0; i < batchSize; i++){
+			results[i] = verified[i] != null;
+		}
+		checkAll("verify batch", results);
+		
+		System.out.println("building the table of one base: " + buildTime / 1000000);
+		System.out.println("commit: one by one without tables " + plainCommitTime / 1000000 + ", one by one with tables " + tableCommitTime / 1000000 
+				+ ", batch " + batchCommitTime / 1000000);
+		System.out.println("verify: one by one " + verifyTime / 1000000 + ", batch " + verifyBatchTime / 1000000);
+	}
+	
+	/*
+	 * Creates the Bouncy Castle group of the given curve. Koblitz and binary curves are over F2m, the other curves are over Fp.
+	 */
+	private static DlogGroup createGroup(String curveName) throws IOException {
+		if (curveName.startsWith("K-") || curveName.startsWith("B-")){
+			return new BcDlogECF2m(curveName);
+		}
+		return new BcDlogECFp(curveName);
+	}
+	
+	/*
+	 * Commits the given values one by one, using the ids that start at the given id.
+	 */
+	private static CmtCCommitmentMsg[] commitOneByOne(CmtPedersenCommitter committer, CmtCommitValue[] values, long firstId){
+		CmtCCommitmentMsg[] commitments = new CmtCCommitmentMsg[values.length];
+		for (int i = 0; i < values.length; i++){
+			commitments[i] = committer.generateCommitmentMsg(values[i], firstId + i);
+		}
+		return commitments;
+	}
+	
+	/*
+	 * Prints a warning if one of the results is false.
+	 */
+	private static void checkAll(String name, boolean[] results){
+		for (int i = 0; i < results.length; i++){
+			if (!results[i]){
+				System.out.println(name + ": WARNING - the result in index " + i + " is wrong");
+				return;
+			}
+		}
+	}
+	
+	/*
+	 * A channel that keeps the sent messages in memory. The same object is used by both parties.
+	 */
+	private static class MemoryChannel implements Channel {
+		private LinkedList<Serializable> messages = new LinkedList<Serializable>();
+		private boolean isClosed;
+		
+		public void send(Serializable data) {
+			messages.addLast(data);
+		}
+
+		public Serializable receive() throws IOException {
+			if (messages.isEmpty()){
+				throw new IOException("there is no message to receive");
+			}
+			return messages.removeFirst();
+		}
+
+		public void close() {
+			isClosed = true;
+		}
+
+		public boolean isClosed() {
+			return isClosed;
+		}
+	}
+}
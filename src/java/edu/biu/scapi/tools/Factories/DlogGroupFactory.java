@@ -33,12 +33,22 @@
 
 package edu.biu.scapi.tools.Factories;
 
+import java.util.concurrent.ConcurrentHashMap;
+
 import edu.biu.scapi.exceptions.FactoriesException;
 import edu.biu.scapi.primitives.dlog.DlogGroup;
+import edu.biu.scapi.primitives.dlog.FixedBaseExponentiatorCache;
 
 /**
  * DlogGroupFactory is in charge of creating instances of different Dlog groups. Its implemented as a singleton.
- * Once you have an instance of the factory, you can create a Dlog group by means of calling one of the two getObject methods provided.
+ * Once you have an instance of the factory, you can create a Dlog group by means of calling one of the two getObject methods provided.<p>
+ * 
+ * Creating a group (especially an elliptic curve group, which builds the native curve) is expensive, so the factory also keeps 
+ * a registry of shared groups. The getSharedObject methods create each group once, together with the fixed base table of its generator, 
+ * and return the same instance on the following calls. The warmUp method creates the shared groups in advance, for example on start up.
+ * Since a shared group is used by several threads, only thread safe groups can be shared: the Bouncy Castle groups (provider "BC"). 
+ * The Miracl groups use a single native Miracl object, and the Crypto++ and OpenSSL groups keep native work space in the group object, 
+ * so they are not thread safe and the factory refuses to share them (see {@link DlogGroup#isThreadSafe()}).
  * @author Moriya
  *
  */
@@ -46,6 +56,9 @@ public final class DlogGroupFactory {
 	
 	private FactoriesUtility factoriesUtility;
 	private static DlogGroupFactory instance = new DlogGroupFactory();
+	
+	//The shared groups, by the provider and the algorithm name.
+	private ConcurrentHashMap<String, DlogGroup> sharedGroups = new ConcurrentHashMap<String, DlogGroup>();
 
 	
 	/*
@@ -89,7 +102,93 @@ public final class DlogGroupFactory {
 		
 		return (DlogGroup) factoriesUtility.getObject(algName);
 	}
-
+	
+	/**
+	 * Returns the shared DlogGroup object of the given algorithm name and provider. 
+	 * The group is created on the first call, together with the fixed base table of its generator in {@link FixedBaseExponentiatorCache}; 
+	 * the following calls return the same instance.<p>
+	 * 
+	 * The returned group is shared by all the callers and can be used by several threads at the same time, so only thread safe groups 
+	 * can be shared; Currently these are the Bouncy Castle groups (provider "BC"). 
+	 * The table of the generator is kept in the shared cache and not in the group, so calling endExponentiateWithPreComputedValues 
+	 * on the shared group does not remove it. Callers should not call it for bases they did not prepare themselves.
+	 * @param algName is the name of a specific DlogGroup, as in {@link #getObject(String, String)}.
+	 * @param provider the required provider name
+	 * @return the shared DlogGroup object that was determined by the algName + provider
+	 * @throws FactoriesException 
+	 * @throws IllegalArgumentException if the group of the given provider is not thread safe.
+	 */
+	public DlogGroup getSharedObject(String algName, String provider) throws FactoriesException {
+		
+		return getShared(provider + ":" + algName, algName, provider);
+	}
+	
+	/**
+	 * Returns the shared DlogGroup object of the given algorithm name, from the default provider chosen by SCAPI.
+	 * See {@link #getSharedObject(String, String)} for details. 
+	 * Note that the default providers of the Dlog groups (Miracl and Crypto++) are not thread safe, so their groups can not be shared.
+	 * @param algName is the name of a specific DlogGroup, as in {@link #getObject(String)}.
+	 * @return the shared DlogGroup object that was determined by the algName + the default provider for that algorithm
+	 * @throws FactoriesException 
+	 * @throws IllegalArgumentException if the group of the default provider is not thread safe.
+	 */
+	public DlogGroup getSharedObject(String algName) throws FactoriesException {
+		
+		return getShared(algName, algName, null);
+	}
+	
+	/**
+	 * Creates the shared groups of the given algorithm names (from the default providers) and the fixed base tables of their generators, 
+	 * so that the following calls to getSharedObject with these names return immediately.
+	 * @param algNames names of DlogGroups, as in {@link #getObject(String)}.
+	 * @throws FactoriesException 
+	 * @throws IllegalArgumentException if the group of one of the default providers is not thread safe.
+	 */
+	public void warmUp(String... algNames) throws FactoriesException {
+		
+		for (int i = 0; i < algNames.length; i++){
+			getSharedObject(algNames[i]);
+		}
+	}
+	
+	/**
+	 * Removes all the shared groups. The following calls to getSharedObject create new instances.
+	 */
+	public void clearSharedObjects() {
+		
+		sharedGroups.clear();
+	}
+	
+	/*
+	 * Returns the shared group of the given key. If there is no such group, creates it, builds the table of its generator and keeps it in the registry.
+	 * The group is created at most once, since the creation is done under a lock and the registry is checked again before creating.
+	 * A group that is not thread safe is not kept in the registry.
+	 */
+	private DlogGroup getShared(String key, String algName, String provider) throws FactoriesException {
+		DlogGroup dlog = sharedGroups.get(key);
+		if (dlog != null){
+			return dlog;
+		}
+		
+		synchronized (sharedGroups){
+			dlog = sharedGroups.get(key);
+			if (dlog == null){
+				if (provider == null){
+					dlog = getObject(algName);
+				} else {
+					dlog = getObject(algName, provider);
+				}
+				if (!dlog.isThreadSafe()){
+					throw new IllegalArgumentException(dlog.getClass().getSimpleName() + " is not thread safe, so it can not be shared");
+				}
+				//builds the table of the generator in the shared cache, so that every user of this group finds it there.
+				FixedBaseExponentiatorCache.getInstance().get(dlog, dlog.getGenerator());
+				sharedGroups.put(key, dlog);
+			}
+		}
+		return dlog;
+	}
+	
 	/** 
 	 * This function creates (if needed) and returns an instance of this factory.
 	 * @return the singleton instance.
@@ -0,0 +1,213 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+
+package edu.biu.scapi.tools;
+
+import java.security.KeyException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature.BcRSAPss;
+import edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature.CryptoPPRSAPss;
+import edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature.OpenSSLRSAPss;
+import edu.biu.scapi.midLayer.asymmetricCrypto.digitalSignature.RSABasedSignature;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.BcRSAOaep;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.CryptoPPRSAOaep;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.OpenSSLRSAOaep;
+import edu.biu.scapi.midLayer.asymmetricCrypto.encryption.RSAOaepEnc;
+import edu.biu.scapi.midLayer.ciphertext.AsymmetricCiphertext;
+import edu.biu.scapi.midLayer.plaintext.Plaintext;
+import edu.biu.scapi.midLayer.signature.Signature;
+
+/**
+ * This utility compares the RSA PSS and RSA OAEP implementations of BC, Crypto++ and OpenSSL.<p>
+ * For every implementation it measures the time of signing, verifying, encrypting and decrypting a batch of messages 
+ * one by one and using the batch functions with a thread pool. <p>
+ * Usage: RSABatchBenchmark [batch size] [modulus bits]. 
+ * A native implementation whose library can not be loaded is skipped.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class RSABatchBenchmark {
+	
+	private static final String[] BACKENDS = {"BC", "CryptoPP", "OpenSSL"};
+	
+	public static void main(String[] args) throws NoSuchAlgorithmException, KeyException {
+		int batchSize = (args.length > 0) ? Integer.parseInt(args[0]) : 1000;
+		int modulusBits = (args.length > 1) ? Integer.parseInt(args[1]) : 2048;
+		
+		SecureRandom random = new SecureRandom();
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(modulusBits, random);
+		KeyPair pair = generator.generateKeyPair();
+		
+		ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+		try {
+			System.out.println("batch size: " + batchSize + ", modulus bits: " + modulusBits + ", threads: " + Runtime.getRuntime().availableProcessors());
+			System.out.println("times are in milliseconds, for the whole batch");
+			for (int i = 0; i < BACKENDS.length; i++){
+				try {
+					benchmarkSignature(BACKENDS[i], createSignature(BACKENDS[i], pair), batchSize, random, executor);
+					benchmarkEncryption(BACKENDS[i], createEncryption(BACKENDS[i], pair), batchSize, random, executor);
+				} catch (UnsatisfiedLinkError e) {
+					System.out.println(BACKENDS[i] + ": skipped, the native library could not be loaded (" + e.getMessage() + ")");
+				}
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+	
+	/*
+	 * Creates the RSA PSS object of the given backend and sets it with the given keys.
+	 */
+	private static RSABasedSignature createSignature(String backend, KeyPair pair) throws KeyException {
+		RSABasedSignature signature;
+		if (backend.equals("BC")){
+			signature = new BcRSAPss();
+		} else if (backend.equals("CryptoPP")){
+			signature = new CryptoPPRSAPss();
+		} else {
+			signature = new OpenSSLRSAPss();
+		}
+		signature.setKey(pair.getPublic(), pair.getPrivate());
+		return signature;
+	}
+	
+	/*
+	 * Creates the RSA OAEP object of the given backend and sets it with the given keys.
+	 */
+	private static RSAOaepEnc createEncryption(String backend, KeyPair pair) throws KeyException {
+		RSAOaepEnc encryption;
+		if (backend.equals("BC")){
+			encryption = new BcRSAOaep();
+		} else if (backend.equals("CryptoPP")){
+			encryption = new CryptoPPRSAOaep();
+		} else {
+			encryption = new OpenSSLRSAOaep();
+		}
+		encryption.setKey(pair.getPublic(), pair.getPrivate());
+		return encryption;
+	}
+	
+	private static void benchmarkSignature(String backend, RSABasedSignature signature, int batchSize, SecureRandom random, 
+			ExecutorService executor) throws KeyException {
+		byte[][] msgs = new byte[batchSize][32];
+		for (int i = 0; i < batchSize; i++){
+			random.nextBytes(msgs[i]);
+		}
+		
+		//Warm up the JIT and the native objects of the batch functions.
+		signature.verifyBatch(signature.signBatch(msgs, executor), msgs, executor);
+		
+		long start = System.nanoTime();
+		Signature[] signatures = new Signature[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			signatures[i] = signature.sign(msgs[i], 0, msgs[i].length);
+		}
+		long signTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < batchSize; i++){
+			signature.verify(signatures[i], msgs[i], 0, msgs[i].length);
+		}
+		long verifyTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		signatures = signature.signBatch(msgs, executor);
+		long signBatchTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		boolean[] results = signature.verifyBatch(signatures, msgs, executor);
+		long verifyBatchTime = System.nanoTime() - start;
+		
+		checkAll(backend + " RSA PSS", results);
+		print(backend + " RSA PSS sign", signTime, signBatchTime);
+		print(backend + " RSA PSS verify", verifyTime, verifyBatchTime);
+	}
+	
+	private static void benchmarkEncryption(String backend, RSAOaepEnc encryption, int batchSize, SecureRandom random, 
+			ExecutorService executor) throws KeyException {
+		Plaintext[] plaintexts = new Plaintext[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			byte[] msg = new byte[32];
+			random.nextBytes(msg);
+			plaintexts[i] = encryption.generatePlaintext(msg);
+		}
+		
+		//Warm up the JIT and the native objects of the batch functions.
+		encryption.decryptBatch(encryption.encryptBatch(plaintexts, executor), executor);
+		
+		long start = System.nanoTime();
+		AsymmetricCiphertext[] ciphertexts = new AsymmetricCiphertext[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			ciphertexts[i] = encryption.encrypt(plaintexts[i]);
+		}
+		long encryptTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		for (int i = 0; i < batchSize; i++){
+			encryption.decrypt(ciphertexts[i]);
+		}
+		long decryptTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		ciphertexts = encryption.encryptBatch(plaintexts, executor);
+		long encryptBatchTime = System.nanoTime() - start;
+		
+		start = System.nanoTime();
+		Plaintext[] decrypted = encryption.decryptBatch(ciphertexts, executor);
+		long decryptBatchTime = System.nanoTime() - start;
+		
+		boolean[] results = new boolean[batchSize];
+		for (int i = 0; i < batchSize; i++){
+			results[i] = decrypted[i].equals(plaintexts[i]);
+		}
+		checkAll(backend + " RSA OAEP", results);
+		print(backend + " RSA OAEP encrypt", encryptTime, encryptBatchTime);
+		print(backend + " RSA OAEP decrypt", decryptTime, decryptBatchTime);
+	}
+	
+	/*
+	 * Prints a warning if one of the batch results is false.
+	 */
+	private static void checkAll(String name, boolean[] results){
+		for (int i = 0; i < results.length; i++){
+			if (!results[i]){
+				System.out.println(name + ": WARNING - the batch result in index " + i + " is wrong");
+				return;
+			}
+		}
+	}
+	
+	private static void print(String name, long singleTime, long batchTime){
+		System.out.println(name + ": one by one " + singleTime / 1000000 + ", batch " + batchTime / 1000000);
+	}
+}
@@ -0,0 +1,422 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.tools.math;
+
+import java.math.BigInteger;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * This class holds the arithmetic of the Damgard-Jurik cryptosystem modulo n^(s+1), for a fixed modulus n and length parameter s.<p>
+ * 
+ * The powers n^s and n^(s+1) and all the other values that depend only on the modulus are computed once, in the constructor, 
+ * so the same context can be used for many computations with the same key.<p>
+ * 
+ * If the context is created with the factorization n = p*q, exponentiations modulo n^(s+1) are computed modulo p^(s+1) and q^(s+1) 
+ * with exponents reduced by the orders of these groups, and the results are combined using the Chinese Remainder Theorem. 
+ * This is about four times faster than one exponentiation modulo n^(s+1), but it can be used only by the party that holds the private key.<p>
+ * 
+ * Objects of this class are immutable and can be used by several threads concurrently.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class DamgardJurikContext {
+	
+	//Maximum number of bases that are combined in one bucket multi-exponentiation.
+	private static final int MULTI_EXP_GROUP_SIZE = 4096;
+	//Maximum window size of the bucket multi-exponentiation. Each window needs 2^w - 1 buckets.
+	private static final int MULTI_EXP_MAX_WINDOW = 16;
+	//Minimal number of bases for which the bucket method is faster than separate exponentiations.
+	private static final int MULTI_EXP_MIN_SIZE = 128;
+	
+	//Maximum number of public contexts kept by getInstance.
+	private static final int CACHE_SIZE = 16;
+	
+	//Public contexts that were created by getInstance, by modulus and length parameter. The least recently used context is removed first.
+	private static final Map<String, DamgardJurikContext> cache = new LinkedHashMap<String, DamgardJurikContext>(CACHE_SIZE, 0.75f, true){
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, DamgardJurikContext> eldest) {
+			return size() > CACHE_SIZE;
+		}
+	};
+	
+	private BigInteger n;			// The modulus.
+	private int s;					// The length parameter.
+	private BigInteger nToS;		// N = n^s.
+	private BigInteger nToSPlusOne;	// N' = n^(s+1).
+	private BigInteger[] nPowers;	// nPowers[k] = n^k for k = 0,...,s.
+	private BigInteger[] factorialInverses;	// factorialInverses[k] = (k!)^(-1) mod n^s for k = 0,...,s.
+	
+	//The following values are set only if the factorization of n is known.
+	private BigInteger p, q;
+	private BigInteger pToSPlusOne, qToSPlusOne;	// p^(s+1) and q^(s+1).
+	private BigInteger orderP, orderQ;				// The orders of Z*(p^(s+1)) and Z*(q^(s+1)): p^s*(p-1) and q^s*(q-1).
+	private BigInteger qToSPlusOneInv;				// (q^(s+1))^(-1) mod p^(s+1).
+	private BigInteger qInv;						// q^(-1) mod p.
+	
+	/**
+	 * Creates a context for the given public modulus.
+	 * @param n the modulus of the public key.
+	 * @param s the length parameter.
+	 * @throws IllegalArgumentException if s is not positive.
+	 */
+	public DamgardJurikContext(BigInteger n, int s){
+		if (s < 1){
+			throw new IllegalArgumentException("the length parameter should be positive");
+		}
+		this.n = n;
+		this.s = s;
+		nPowers = new BigInteger[s + 1];
+		nPowers[0] = BigInteger.ONE;
+		for (int k = 1; k <= s; k++){
+			nPowers[k] = nPowers[k - 1].multiply(n);
+		}
+		nToS = nPowers[s];
+		nToSPlusOne = nToS.multiply(n);
+		
+		//k! is invertible modulo n^s since all the prime factors of n are bigger than s.
+		factorialInverses = new BigInteger[s + 1];
+		BigInteger factorial = BigInteger.ONE;
+		for (int k = 0; k <= s; k++){
+			if (k > 1){
+				factorial = factorial.multiply(BigInteger.valueOf(k));
+			}
+			factorialInverses[k] = factorial.modInverse(nToS);
+		}
+	}
+	
+	/**
+	 * Creates a context for the given modulus, that uses its factorization to compute exponentiations.
+	 * @param n the modulus of the public key.
+	 * @param s the length parameter.
+	 * @param p a prime factor of n.
+	 * @param q the other prime factor of n.
+	 * @throws IllegalArgumentException if s is not positive or if p*q is not equal to n.
+	 */
+	public DamgardJurikContext(BigInteger n, int s, BigInteger p, BigInteger q){
+		this(n, s);
+		if (!p.multiply(q).equals(n)){
+			throw new IllegalArgumentException("p*q should be equal to n");
+		}
+		this.p = p;
+		this.q = q;
+		BigInteger pToS = p.pow(s);
+		BigInteger qToS = q.pow(s);
+		pToSPlusOne = pToS.multiply(p);
+		qToSPlusOne = qToS.multiply(q);
+		orderP = pToS.multiply(p.subtract(BigInteger.ONE));
+		orderQ = qToS.multiply(q.subtract(BigInteger.ONE));
+		qToSPlusOneInv = qToSPlusOne.modInverse(pToSPlusOne);
+		qInv = q.modInverse(p);
+	}
+	
+	/**
+	 * Returns a context for the given public modulus. 
+	 * Contexts are kept in a small cache, so repeated calls with the same modulus do not compute the powers of n again.
+	 * @param n the modulus of the public key.
+	 * @param s the length parameter.
+	 * @return a context without the factorization of n.
+	 * @throws IllegalArgumentException if s is not positive.
+	 */
+	public static DamgardJurikContext getInstance(BigInteger n, int s){
+		String key = s + ":" + n.toString(16);
+		synchronized (cache) {
+			DamgardJurikContext context = cache.get(key);
+			if (context == null){
+				context = new DamgardJurikContext(n, s);
+				cache.put(key, context);
+			}
+			return context;
+		}
+	}
+	
+	/**
+	 * Returns true if this context was created for the given modulus and length parameter.
+	 */
+	public boolean matches(BigInteger n, int s){
+		return this.s == s && this.n.equals(n);
+	}
+	
+	/**
+	 * Returns true if this context knows the factorization of n and uses the Chinese Remainder Theorem.
+	 */
+	public boolean hasFactorization(){
+		return p != null;
+	}
+	
+	/**
+	 * Returns the modulus n.
+	 */
+	public BigInteger getN(){
+		return n;
+	}
+	
+	/**
+	 * Returns the length parameter s.
+	 */
+	public int getS(){
+		return s;
+	}
+	
+	/**
+	 * Returns N = n^s.
+	 */
+	public BigInteger getNToS(){
+		return nToS;
+	}
+	
+	/**
+	 * Returns N' = n^(s+1).
+	 */
+	public BigInteger getNToSPlusOne(){
+		return nToSPlusOne;
+	}
+	
+	/**
+	 * Computes base^exponent mod n^(s+1). The exponent may be negative, in which case base should be invertible.
+	 * @param base element of Z*(n^(s+1)).
+	 * @param exponent the exponent.
+	 * @return base^exponent mod n^(s+1).
+	 */
+	public BigInteger modPow(BigInteger base, BigInteger exponent){
+		if (p == null){
+			return base.modPow(exponent, nToSPlusOne);
+		}
+		BigInteger baseP = base.mod(pToSPlusOne);
+		BigInteger baseQ = base.mod(qToSPlusOne);
+		//The exponents can be reduced only if the base is in the group. Otherwise, the base reveals the factorization and it is not worth optimizing.
+		if (baseP.mod(p).signum() == 0 || baseQ.mod(q).signum() == 0){
+			return base.modPow(exponent, nToSPlusOne);
+		}
+		BigInteger resultP = baseP.modPow(exponent.mod(orderP), pToSPlusOne);
+		BigInteger resultQ = baseQ.modPow(exponent.mod(orderQ), qToSPlusOne);
+		//Garner's recombination: result = resultQ + q^(s+1) * ((resultP - resultQ) * (q^(s+1))^(-1) mod p^(s+1)).
+		BigInteger h = resultP.subtract(resultQ).multiply(qToSPlusOneInv).mod(pToSPlusOne);
+		return resultQ.add(qToSPlusOne.multiply(h));
+	}
+	
+	/**
+	 * Computes base^N mod n^(s+1), where N = n^s. This is the randomness part of an encryption and the first message of the Damgard-Jurik sigma protocols.
+	 * @param base element of Z*(n^(s+1)).
+	 * @return base^N mod n^(s+1).
+	 */
+	public BigInteger powN(BigInteger base){
+		return modPow(base, nToS);
+	}
+	
+	/**
+	 * Computes (1+n)^x mod n^(s+1). <p>
+	 * Since n^(s+1) = 0 mod n^(s+1), the binomial expansion of (1+n)^x has only s+1 non zero terms: sum(C(x,k)*n^k, k = 0..s).
+	 * This function computes this sum instead of an exponentiation, so it is fast even without the factorization of n.
+	 * @param x the exponent. May be negative.
+	 * @return (1+n)^x mod n^(s+1).
+	 */
+	public BigInteger onePlusNPow(BigInteger x){
+		//The order of 1+n is n^s.
+		x = x.mod(nToS);
+		BigInteger result = BigInteger.ONE;
+		BigInteger numerator = BigInteger.ONE;		// x*(x-1)*...*(x-k+1)
+		BigInteger factorial = BigInteger.ONE;		// k!
+		for (int k = 1; k <= s; k++){
+			numerator = numerator.multiply(x.subtract(BigInteger.valueOf(k - 1)));
+			factorial = factorial.multiply(BigInteger.valueOf(k));
+			if (numerator.signum() == 0){
+				break;
+			}
+			BigInteger binomial = numerator.divide(factorial);
+			result = result.add(binomial.mod(nPowers[s + 1 - k]).multiply(nPowers[k]));
+		}
+		return result.mod(nToSPlusOne);
+	}
+	
+	/**
+	 * Computes the discrete logarithm of the given value to the base (1+n), that is, the value x in Z(n^s) such that a = (1+n)^x mod n^(s+1).<p>
+	 * This is the plaintext extraction of the Damgard-Jurik decryption. It uses the algorithm of Damgard and Jurik, that recovers x mod n^j 
+	 * for j = 1,...,s, with the powers of n and the inverses of the factorials that were computed in the constructor.
+	 * @param a a power of (1+n) modulo n^(s+1).
+	 * @return x such that a = (1+n)^x mod n^(s+1).
+	 */
+	public BigInteger discreteLogOnePlusN(BigInteger a){
+		BigInteger x = BigInteger.ZERO;
+		for (int j = 1; j <= s; j++){
+			BigInteger nPowJ = nPowers[j];
+			//t1 = L(a mod n^(j+1)) = ((a mod n^(j+1)) - 1) / n.
+			BigInteger t1 = a.mod(nPowJ.multiply(n)).subtract(BigInteger.ONE).divide(n);
+			BigInteger t2 = x;
+			for (int k = 2; k <= j; k++){
+				x = x.subtract(BigInteger.ONE);
+				t2 = t2.multiply(x).mod(nPowJ);
+				//t1 = t1 - t2 * n^(k-1) / k! mod n^j.
+				BigInteger temp = t2.multiply(nPowers[k - 1]).multiply(factorialInverses[k]);
+				t1 = t1.subtract(temp).mod(nPowJ);
+			}
+			x = t1;
+		}
+		return x;
+	}
+	
+	/**
+	 * Computes base^exponent mod n, using the factorization of n if it is known.
+	 * @param base element of Z*n.
+	 * @param exponent non negative exponent.
+	 * @return base^exponent mod n.
+	 */
+	public BigInteger modPowN(BigInteger base, BigInteger exponent){
+		if (p == null){
+			return base.modPow(exponent, n);
+		}
+		BigInteger baseP = base.mod(p);
+		BigInteger baseQ = base.mod(q);
+		if (baseP.signum() == 0 || baseQ.signum() == 0){
+			return base.modPow(exponent, n);
+		}
+		BigInteger resultP = baseP.modPow(exponent.mod(p.subtract(BigInteger.ONE)), p);
+		BigInteger resultQ = baseQ.modPow(exponent.mod(q.subtract(BigInteger.ONE)), q);
+		BigInteger h = resultP.subtract(resultQ).multiply(qInv).mod(p);
+		return resultQ.add(q.multiply(h));
+	}
+	
+	/**
+	 * Computes the product of bases[i]^exponents[i] mod n^(s+1) for i in [from, to).<p>
+	 * The bases are processed in groups, and the multi-exponentiation of each group is computed with the bucket method (Pippenger): 
+	 * the exponents are split into windows of w bits, and for each window every base is multiplied into the bucket of its digit. 
+	 * This needs about (bits/w)*(size + 2^(w+1)) multiplications instead of a full exponentiation per base.<p>
+	 * If the factorization of n is known or there are only a few bases, the exponentiations are computed separately using {@link #modPow(BigInteger, BigInteger)}, 
+	 * which is faster in these cases.
+	 * @param bases elements of Z*(n^(s+1)).
+	 * @param exponents non negative exponents.
+	 * @param from the first index to use (inclusive).
+	 * @param to the last index to use (exclusive).
+	 * @return the product of bases[i]^exponents[i] mod n^(s+1).
+	 * @throws IllegalArgumentException if one of the exponents is negative.
+	 */
+	public BigInteger multiExponentiate(BigInteger[] bases, BigInteger[] exponents, int from, int to){
+		BigInteger result = BigInteger.ONE;
+		if (p != null || to - from < MULTI_EXP_MIN_SIZE){
+			for (int i = from; i < to; i++){
+				if (exponents[i].signum() < 0){
+					throw new IllegalArgumentException("the exponents should be non negative");
+				}
+				result = multiply(result, modPow(bases[i], exponents[i]));
+			}
+			return result;
+		}
+		for (int groupStart = from; groupStart < to; groupStart += MULTI_EXP_GROUP_SIZE){
+			int groupEnd = Math.min(to, groupStart + MULTI_EXP_GROUP_SIZE);
+			result = multiply(result, bucketMultiExponentiate(bases, exponents, groupStart, groupEnd));
+		}
+		return result;
+	}
+	
+	/*
+	 * Computes the product of bases[i]^exponents[i] mod n^(s+1) for i in [from, to) using the bucket method.
+	 */
+	private BigInteger bucketMultiExponentiate(BigInteger[] bases, BigInteger[] exponents, int from, int to){
+		int size = to - from;
+		int maxBits = 0;
+		for (int i = from; i < to; i++){
+			if (exponents[i].signum() < 0){
+				throw new IllegalArgumentException("the exponents should be non negative");
+			}
+			maxBits = Math.max(maxBits, exponents[i].bitLength());
+		}
+		if (maxBits == 0){
+			return BigInteger.ONE;
+		}
+		
+		//Chooses the window size that minimizes the number of multiplications.
+		int w = 1;
+		long bestCost = Long.MAX_VALUE;
+		for (int c = 1; c <= MULTI_EXP_MAX_WINDOW; c++){
+			long cost = (long) ((maxBits + c - 1) / c) * (size + (2L << c));
+			if (cost < bestCost){
+				bestCost = cost;
+				w = c;
+			}
+		}
+		
+		BigInteger[] reducedBases = new BigInteger[size];
+		for (int i = 0; i < size; i++){
+			reducedBases[i] = bases[from + i].mod(nToSPlusOne);
+		}
+		
+		BigInteger result = BigInteger.ONE;
+		BigInteger[] buckets = new BigInteger[1 << w];
+		int numWindows = (maxBits + w - 1) / w;
+		for (int window = numWindows - 1; window >= 0; window--){
+			for (int j = 0; j < w && window != numWindows - 1; j++){
+				result = multiply(result, result);
+			}
+			
+			//Puts every base in the bucket of its digit in the current window.
+			for (int k = 1; k < buckets.length; k++){
+				buckets[k] = null;
+			}
+			for (int i = 0; i < size; i++){
+				int digit = 0;
+				for (int j = w - 1; j >= 0; j--){
+					digit = (digit << 1) | (exponents[from + i].testBit(window * w + j) ? 1 : 0);
+				}
+				if (digit != 0){
+					buckets[digit] = (buckets[digit] == null) ? reducedBases[i] : multiply(buckets[digit], reducedBases[i]);
+				}
+			}
+			
+			//Computes the product of buckets[k]^k using running products: sum = PRODUCT(acc_k), where acc_k = PRODUCT(buckets[j]) for j >= k.
+			BigInteger acc = null;
+			BigInteger sum = null;
+			for (int k = buckets.length - 1; k >= 1; k--){
+				if (buckets[k] != null){
+					acc = (acc == null) ? buckets[k] : multiply(acc, buckets[k]);
+				}
+				if (acc != null){
+					sum = (sum == null) ? acc : multiply(sum, acc);
+				}
+			}
+			if (sum != null){
+				result = multiply(result, sum);
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Computes a*b mod n^(s+1).
+	 */
+	public BigInteger multiply(BigInteger a, BigInteger b){
+		return a.multiply(b).mod(nToSPlusOne);
+	}
+	
+	/**
+	 * Computes a^(-1) mod n^(s+1).
+	 * @throws ArithmeticException if a is not invertible.
+	 */
+	public BigInteger inverse(BigInteger a){
+		return a.modInverse(nToSPlusOne);
+	}
+}
@@ -0,0 +1,581 @@
+/**
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+* Copyright (c) 2012 - SCAPI (http://crypto.biu.ac.il/scapi)
+* This file is part of the SCAPI project.
+* DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+* 
+* Permission is hereby granted, free of charge, to any person obtaining a copy of this software and associated documentation files (the "Software"),
+* to deal in the Software without restriction, including without limitation the rights to use, copy, modify, merge, publish, distribute, sublicense, 
+* and/or sell copies of the Software, and to permit persons to whom the Software is furnished to do so, subject to the following conditions:
+* 
+* The above copyright notice and this permission notice shall be included in all copies or substantial portions of the Software.
+* 
+* THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS
+* FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER LIABILITY,
+* WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+* 
+* We request that any publication and/or code referring to and/or based on SCAPI contain an appropriate citation to SCAPI, including a reference to
+* http://crypto.biu.ac.il/SCAPI.
+* 
+* SCAPI uses Crypto++, Miracl, NTL and Bouncy Castle. Please see these projects for any further licensing issues.
+* %%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%%
+* 
+*/
+package edu.biu.scapi.tools.math;
+
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * This class implements arithmetic in the field GF(2^t) and in the ring of polynomials over this field, without native code.<p>
+ * 
+ * The field is defined by a sparse irreducible polynomial f of degree t, chosen by the same rule as NTL's BuildSparseIrred: 
+ * the trinomial x^t+x^k+1 with the smallest k if such a trinomial exists, and otherwise the pentanomial x^t+x^k3+x^k2+x^k1+1 with the smallest (k3,k2,k1).<p>
+ * 
+ * A field element is represented by a long array of (t+63)/64 words, where bit i of word j is the coefficient of x^(64j+i). 
+ * Multiplication uses carry-less multiplication of the words, followed by a reduction that uses the sparsity of f.
+ * The byte representation of an element is the one of NTL: byte j holds the coefficients of x^(8j),...,x^(8j+7).<p>
+ * 
+ * A polynomial over the field is represented by an array of its coefficients, where the i-th element is the coefficient of y^i.<p>
+ * 
+ * Objects of this class are immutable and can be used by several threads concurrently. Elements returned by the functions are always new arrays.
+ * 
+ * @author Cryptography and Computer Security Research Group Department of Computer Science Bar-Ilan University
+ *
+ */
+public class GF2EField {
+
+	//Exponents of the irreducible polynomials that were already found, by degree.
+	private static final HashMap<Integer, int[]> irreduciblePolynomials = new HashMap<Integer, int[]>();
+	
+	private int t;			//The degree of the field.
+	private int words;		//Number of words in an element.
+	private int[] exps;		//The exponents of the low terms of f, in decreasing order. The last one is always 0.
+	
+	/**
+	 * Constructor that creates the field GF(2^t).
+	 * @param t the degree of the field.
+	 * @throws IllegalArgumentException if t is smaller than 2.
+	 */
+	public GF2EField(int t){
+		if (t < 2){
+			throw new IllegalArgumentException("the degree of the field should be at least 2");
+		}
+		this.t = t;
+		words = (t + 63) >>> 6;
+		exps = getIrreduciblePolynomial(t);
+	}
+	
+	/**
+	 * Returns the degree t of the field.
+	 */
+	public int getDegree(){
+		return t;
+	}
+	
+	/**
+	 * Returns the exponents of the irreducible polynomial that defines the field, except the leading exponent t.
+	 * For example, for x^80+x^9+x^4+x^2+1 the returned array is {9, 4, 2, 0}.
+	 */
+	public int[] getIrreduciblePolynomial(){
+		return exps.clone();
+	}
+	
+	/**
+	 * Returns the number of bytes in the byte representation of an element.
+	 */
+	public int getByteLength(){
+		return (t + 7) >>> 3;
+	}
+	
+	/**
+	 * Returns the zero element.
+	 */
+	public long[] zero(){
+		return new long[words];
+	}
+	
+	/**
+	 * Returns the unit element.
+	 */
+	public long[] one(){
+		long[] one = new long[words];
+		one[0] = 1;
+		return one;
+	}
+	
+	/**
+	 * Returns the element whose coefficients are the bits of the given index, as NTL converts the index i of a point to a field element.
+	 * @param index non negative integer.
+	 * @return the element that represents the index.
+	 */
+	public long[] fromIndex(int index){
+		long[] element = new long[Math.max(words, 1)];
+		element[0] = index & 0xFFFFFFFFL;
+		return reduce(element);
+	}
+	
+	/**
+	 * Samples a uniformly random element.
+	 * @param random source of randomness.
+	 * @return the sampled element.
+	 */
+	public long[] random(SecureRandom random){
+		long[] element = new long[words];
+		for (int i = 0; i < words; i++){
+			element[i] = random.nextLong();
+		}
+		int topBits = t & 63;
+		if (topBits != 0){
+			element[words - 1] &= (1L << topBits) - 1;
+		}
+		return element;
+	}
+	
+	/**
+	 * Converts the given bytes to a field element. The bytes are reduced modulo f if they represent a polynomial of degree t or more.
+	 * @param bytes the coefficients of the element, where byte j holds the coefficients of x^(8j),...,x^(8j+7).
+	 * @return the element.
+	 */
+	public long[] fromBytes(byte[] bytes){
+		long[] element = new long[Math.max(words, (bytes.length + 7) >>> 3)];
+		for (int i = 0; i < bytes.length; i++){
+			element[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+		}
+		return reduce(element);
+	}
+	
+	/**
+	 * Converts the given element to bytes. The returned array is always of {@link #getByteLength()} bytes, 
+	 * where byte j holds the coefficients of x^(8j),...,x^(8j+7).
+	 * @param element field element.
+	 * @return the bytes of the element.
+	 */
+	public byte[] toBytes(long[] element){
+		byte[] bytes = new byte[getByteLength()];
+		for (int i = 0; i < bytes.length; i++){
+			bytes[i] = (byte) (element[i >>> 3] >>> ((i & 7) << 3));
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Returns true if the given element is zero.
+	 */
+	public boolean isZero(long[] a){
+		for (int i = 0; i < words; i++){
+			if (a[i] != 0){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns true if the given elements are equal.
+	 */
+	public boolean equals(long[] a, long[] b){
+		for (int i = 0; i < words; i++){
+			if (a[i] != b[i]){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Returns a+b. Since the characteristic of the field is 2, this is also a-b.
+	 */
+	public long[] add(long[] a, long[] b){
+		long[] c = new long[words];
+		for (int i = 0; i < words; i++){
+			c[i] = a[i] ^ b[i];
+		}
+		return c;
+	}
+	
+	/**
+	 * Returns a*b.
+	 */
+	public long[] multiply(long[] a, long[] b){
+		long[] product = new long[2 * words];
+		long[] table = new long[16];
+		for (int i = 0; i < words; i++){
+			if (a[i] == 0){
+				continue;
+			}
+			buildTable(a[i], table);
+			for (int j = 0; j < words; j++){
+				multiplyWord(a[i], table, b[j], product, i + j);
+			}
+		}
+		return reduce(product);
+	}
+	
+	/**
+	 * Returns a^2.
+	 */
+	public long[] square(long[] a){
+		return multiply(a, a);
+	}
+	
+	/**
+	 * Returns the inverse of a, computed as a^(2^t-2).
+	 * @throws IllegalArgumentException if a is zero.
+	 */
+	public long[] inverse(long[] a){
+		if (isZero(a)){
+			throw new IllegalArgumentException("zero has no inverse");
+		}
+		//a^(2^t-2) = a^2 * a^4 * ... * a^(2^(t-1)).
+		long[] result = one();
+		long[] power = a;
+		for (int i = 1; i < t; i++){
+			power = square(power);
+			result = multiply(result, power);
+		}
+		return result;
+	}
+	
+	/**
+	 * Inverts all the given elements using one inversion and 3(n-1) multiplications (Montgomery's trick).
+	 * @param elements the elements to invert.
+	 * @return array where the i-th element is the inverse of the i-th given element.
+	 * @throws IllegalArgumentException if one of the elements is zero.
+	 */
+	public long[][] batchInverse(long[][] elements){
+		int n = elements.length;
+		long[][] inverses = new long[n][];
+		if (n == 0){
+			return inverses;
+		}
+		//prefix[i] = elements[0]*...*elements[i].
+		long[][] prefix = new long[n][];
+		prefix[0] = elements[0];
+		for (int i = 1; i < n; i++){
+			prefix[i] = multiply(prefix[i - 1], elements[i]);
+		}
+		long[] inverse = inverse(prefix[n - 1]);
+		for (int i = n - 1; i > 0; i--){
+			inverses[i] = multiply(inverse, prefix[i - 1]);
+			inverse = multiply(inverse, elements[i]);
+		}
+		inverses[0] = inverse;
+		return inverses;
+	}
+	
+	/**
+	 * Returns the degree of the given polynomial over the field, or -1 if it is the zero polynomial.
+	 */
+	public int degree(long[][] polynomial){
+		for (int i = polynomial.length - 1; i >= 0; i--){
+			if (!isZero(polynomial[i])){
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Evaluates the given polynomial on the given point, using Horner's rule.
+	 * @param polynomial the coefficients of the polynomial.
+	 * @param x the point.
+	 * @return the value of the polynomial on x.
+	 */
+	public long[] evaluate(long[][] polynomial, long[] x){
+		long[] result = zero();
+		for (int i = polynomial.length - 1; i >= 0; i--){
+			result = add(multiply(result, x), polynomial[i]);
+		}
+		return result;
+	}
+	
+	/**
+	 * Evaluates the given polynomial on all the given points.
+	 * @param polynomial the coefficients of the polynomial.
+	 * @param points the points.
+	 * @return array where the i-th element is the value of the polynomial on the i-th point.
+	 */
+	public long[][] evaluate(long[][] polynomial, long[][] points){
+		long[][] values = new long[points.length][];
+		for (int i = 0; i < points.length; i++){
+			values[i] = evaluate(polynomial, points[i]);
+		}
+		return values;
+	}
+	
+	/**
+	 * Computes the polynomial Q of degree at most n-1 such that Q(xs[i]) = ys[i] for all the given n points.<p>
+	 * The computation uses Lagrange interpolation with O(n^2) field multiplications and one field inversion:
+	 * The product P(y) = (y-xs[0])*...*(y-xs[n-1]) is computed once, the Lagrange denominators are the values of P' on the points, 
+	 * they are inverted together, and each Lagrange basis polynomial P(y)/(y-xs[i]) is computed by synthetic division.
+	 * @param xs the x coordinates of the points. Must be distinct.
+	 * @param ys the y coordinates of the points.
+	 * @return the coefficients of Q. The returned array has n elements, and the highest ones may be zero.
+	 * @throws IllegalArgumentException if the arrays have different lengths or the x coordinates are not distinct.
+	 */
+	public long[][] interpolate(long[][] xs, long[][] ys){
+		int n = xs.length;
+		if (ys.length != n){
+			throw new IllegalArgumentException("the number of x coordinates is different from the number of y coordinates");
+		}
+		long[][] result = new long[n][];
+		for (int i = 0; i < n; i++){
+			result[i] = zero();
+		}
+		if (n == 0){
+			return result;
+		}
+		
+		//Compute P(y) = (y-xs[0])*...*(y-xs[n-1]). It has n+1 coefficients and the leading one is 1.
+		long[][] p = new long[n + 1][];
+		p[0] = one();
+		for (int i = 1; i <= n; i++){
+			p[i] = zero();
+		}
+		for (int j = 0; j < n; j++){
+			//Multiply the current product, of degree j, by (y + xs[j]).
+			for (int i = j + 1; i > 0; i--){
+				p[i] = add(p[i - 1], multiply(p[i], xs[j]));
+			}
+			p[0] = multiply(p[0], xs[j]);
+		}
+		
+		//The Lagrange denominator of point i is the product of (xs[i]-xs[j]) for all j!=i, which is P'(xs[i]).
+		//In characteristic 2, the derivative of y^i is y^(i-1) if i is odd and 0 otherwise.
+		long[][] derivative = new long[n][];
+		for (int i = 0; i < n; i++){
+			derivative[i] = ((i & 1) == 0) ? p[i + 1] : zero();
+		}
+		long[][] denominators = evaluate(derivative, xs);
+		for (int i = 0; i < n; i++){
+			if (isZero(denominators[i])){
+				throw new IllegalArgumentException("the x coordinates should be distinct");
+			}
+		}
+		long[][] weights = batchInverse(denominators);
+		
+		//Add ys[i]/P'(xs[i]) * P(y)/(y-xs[i]) for each point.
+		for (int j = 0; j < n; j++){
+			long[] weight = multiply(ys[j], weights[j]);
+			if (isZero(weight)){
+				continue;
+			}
+			//Synthetic division of P by (y + xs[j]). q is the current coefficient of the quotient, from the highest one.
+			long[] q = p[n];
+			for (int i = n - 1; i >= 0; i--){
+				result[i] = add(result[i], multiply(weight, q));
+				if (i > 0){
+					q = add(p[i], multiply(xs[j], q));
+				}
+			}
+		}
+		return result;
+	}
+	
+	/*
+	 * Fills the table with the products of x by all the polynomials of degree less than 4, modulo 2^64.
+	 */
+	private static void buildTable(long x, long[] table){
+		table[0] = 0;
+		table[1] = x;
+		for (int i = 2; i < 16; i += 2){
+			table[i] = table[i >>> 1] << 1;
+			table[i + 1] = table[i] ^ x;
+		}
+	}
+	
+	/*
+	 * Computes the carry-less product of x and y and xors it into out[offset], out[offset+1].
+	 * The table should be built from x by buildTable.
+	 */
+	private static void multiplyWord(long x, long[] table, long y, long[] out, int offset){
+		long lo = 0;
+		long hi = 0;
+		//Go over y in windows of 4 bits, from the highest one.
+		for (int i = 60; i >= 0; i -= 4){
+			hi = (hi << 4) | (lo >>> 60);
+			lo = (lo << 4) ^ table[(int) (y >>> i) & 15];
+		}
+		//The table does not contain the bits of x*w that overflow 64 bits. Add them to the high word.
+		hi ^= ((y & 0xEEEEEEEEEEEEEEEEL) >>> 1) & (x >> 63);
+		hi ^= ((y & 0xCCCCCCCCCCCCCCCCL) >>> 2) & ((x << 1) >> 63);
+		hi ^= ((y & 0x8888888888888888L) >>> 3) & ((x << 2) >> 63);
+		out[offset] ^= lo;
+		out[offset + 1] ^= hi;
+	}
+	
+	/*
+	 * Reduces the given polynomial modulo f and returns an element of the field. The given array is changed.
+	 */
+	private long[] reduce(long[] a){
+		return reduce(a, t, exps, words);
+	}
+	
+	/*
+	 * Reduces the given polynomial modulo x^t + sum(x^exps[i]) and returns the result as an array of the given number of words. 
+	 * The given array is changed.
+	 */
+	private static long[] reduce(long[] a, int t, int[] exps, int words){
+		while (degree(a) >= t){
+			//Split a into a = high*x^t + low, and replace high*x^t by high*(x^t - f).
+			long[] high = shiftRight(a, t);
+			clearFrom(a, t);
+			for (int i = 0; i < exps.length; i++){
+				xorShiftedLeft(a, high, exps[i]);
+			}
+		}
+		if (a.length == words){
+			return a;
+		}
+		return Arrays.copyOf(a, words);
+	}
+	
+	/*
+	 * Returns the degree of the given binary polynomial, or -1 if it is zero.
+	 */
+	private static int degree(long[] a){
+		for (int i = a.length - 1; i >= 0; i--){
+			if (a[i] != 0){
+				return (i << 6) + 63 - Long.numberOfLeadingZeros(a[i]);
+			}
+		}
+		return -1;
+	}
+	
+	/*
+	 * Returns a / x^shift.
+	 */
+	private static long[] shiftRight(long[] a, int shift){
+		int wordShift = shift >>> 6;
+		int bitShift = shift & 63;
+		long[] result = new long[Math.max(a.length - wordShift, 0)];
+		for (int i = 0; i < result.length; i++){
+			long word = a[i + wordShift] >>> bitShift;
+			if (bitShift != 0 && i + wordShift + 1 < a.length){
+				word |= a[i + wordShift + 1] << (64 - bitShift);
+			}
+			result[i] = word;
+		}
+		return result;
+	}
+	
+	/*
+	 * Clears all the bits of a from the given bit.
+	 */
+	private static void clearFrom(long[] a, int bit){
+		int word = bit >>> 6;
+		if (word >= a.length){
+			return;
+		}
+		a[word] &= (1L << (bit & 63)) - 1;
+		for (int i = word + 1; i < a.length; i++){
+			a[i] = 0;
+		}
+	}
+	
+	/*
+	 * Computes a ^= b * x^shift. The bits that exceed the length of a are ignored; the callers make sure there are none.
+	 */
+	private static void xorShiftedLeft(long[] a, long[] b, int shift){
+		int wordShift = shift >>> 6;
+		int bitShift = shift & 63;
+		for (int i = 0; i < b.length && i + wordShift < a.length; i++){
+			a[i + wordShift] ^= b[i] << bitShift;
+			if (bitShift != 0 && i + wordShift + 1 < a.length){
+				a[i + wordShift + 1] ^= b[i] >>> (64 - bitShift);
+			}
+		}
+	}
+	
+	/*
+	 * Returns the exponents of the sparse irreducible polynomial of degree t, finding it if needed.
+	 */
+	private static int[] getIrreduciblePolynomial(int t){
+		synchronized (irreduciblePolynomials) {
+			int[] exps = irreduciblePolynomials.get(t);
+			if (exps == null){
+				exps = findSparseIrreducible(t);
+				irreduciblePolynomials.put(t, exps);
+			}
+			return exps;
+		}
+	}
+	
+	/*
+	 * Finds the trinomial x^t+x^k+1 with the smallest k, or if there is no such trinomial, 
+	 * the pentanomial x^t+x^k3+x^k2+x^k1+1 with the smallest (k3,k2,k1).
+	 */
+	private static int[] findSparseIrreducible(int t){
+		for (int k = 1; k <= t / 2; k++){
+			int[] exps = new int[]{k, 0};
+			if (isIrreducible(t, exps)){
+				return exps;
+			}
+		}
+		for (int k3 = 3; k3 < t; k3++){
+			for (int k2 = 2; k2 < k3; k2++){
+				for (int k1 = 1; k1 < k2; k1++){
+					int[] exps = new int[]{k3, k2, k1, 0};
+					if (isIrreducible(t, exps)){
+						return exps;
+					}
+				}
+			}
+		}
+		throw new IllegalArgumentException("there is no irreducible trinomial or pentanomial of degree " + t);
+	}
+	
+	/*
+	 * Checks if x^t + sum(x^exps[i]) is irreducible, using Ben-Or's test: 
+	 * f of degree t is irreducible iff gcd(f, x^(2^i) - x) = 1 for all i = 1,...,t/2.
+	 */
+	private static boolean isIrreducible(int t, int[] exps){
+		int words = (t + 63) >>> 6;
+		long[] f = new long[(t >>> 6) + 1];
+		f[t >>> 6] |= 1L << (t & 63);
+		for (int i = 0; i < exps.length; i++){
+			f[exps[i] >>> 6] |= 1L << (exps[i] & 63);
+		}
+		
+		long[] table = new long[16];
+		long[] power = new long[words];		//x^(2^i) mod f
+		power[0] = 2;
+		for (int i = 1; i <= t / 2; i++){
+			//Square the power.
+			long[] product = new long[2 * words];
+			for (int j = 0; j < words; j++){
+				buildTable(power[j], table);
+				multiplyWord(power[j], table, power[j], product, 2 * j);
+			}
+			power = reduce(product, t, exps, words);
+			
+			long[] powerMinusX = power.clone();
+			powerMinusX[0] ^= 2;
+			if (degree(gcd(f.clone(), powerMinusX)) > 0){
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * Returns the greatest common divisor of the given binary polynomials. The given arrays are changed.
+	 */
+	private static long[] gcd(long[] a, long[] b){
+		while (degree(b) >= 0){
+			//a = a mod b
+			int degB = degree(b);
+			int degA;
+			while ((degA = degree(a)) >= degB){
+				xorShiftedLeft(a, b, degA - degB);
+			}
+			long[] temp = a;
+			a = b;
+			b = temp;
+		}
+		return a;
+	}
+}
@@ -234,6 +234,108 @@ JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryp
 
 }
 
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_encryption_CryptoPPRSAOaep
+ * Method:    doEncryptBatch
+ * Signature: (J[[BII)[[B
+ * Encrypts the plaintexts in [from, to). A plaintext that is too long gets a null ciphertext.
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_CryptoPPRSAOaep_doEncryptBatch
+  (JNIEnv * env, jobject, jlong encryptor, jobjectArray msgs, jint from, jint to){
+
+	RSAES_OAEP_SHA_Encryptor * encryptorLocal = (RSAES_OAEP_SHA_Encryptor * )encryptor;
+
+	jobjectArray ciphertexts = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+
+	//Sanity checks of size of plaintext
+	if(encryptorLocal->FixedMaxPlaintextLength() ==0) 
+		return ciphertexts;
+
+	// Create cipher text space, that is used by all the plaintexts
+	size_t cipherSize = encryptorLocal->FixedCiphertextLength();
+	assert( 0 != cipherSize );
+	byte *ciphertext = new byte[cipherSize];
+
+	// One random pool for all the encryptions
+	AutoSeededRandomPool randPool;
+
+	for (int i = from; i < to; i++){
+		jbyteArray msg = (jbyteArray) env->GetObjectArrayElement(msgs, i);
+		size_t msgLength = env->GetArrayLength(msg);
+
+		if(msgLength <= encryptorLocal->FixedMaxPlaintextLength()){
+			//declare a byte array in c++ where to hold the input msg
+			byte *plaintext = (byte*)env->GetByteArrayElements(msg, 0);
+
+			// Actually perform encryption
+			encryptorLocal->Encrypt( randPool, plaintext, msgLength, ciphertext );
+
+			//create a JNI byte array from the ciphertext
+			jbyteArray retCipher= env->NewByteArray(cipherSize);
+			env->SetByteArrayRegion(retCipher, 0, cipherSize, (jbyte*)ciphertext);
+			env->SetObjectArrayElement(ciphertexts, i - from, retCipher);
+
+			env->ReleaseByteArrayElements(msg, (jbyte*) plaintext, JNI_ABORT);
+			env->DeleteLocalRef(retCipher);
+		}
+		env->DeleteLocalRef(msg);
+	}
+
+	delete [] ciphertext;
+	return ciphertexts;
+}
+
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_encryption_CryptoPPRSAOaep
+ * Method:    doDecryptBatch
+ * Signature: (J[[BII)[[B
+ * Decrypts the ciphertexts in [from, to). A ciphertext that is not valid gets a null plaintext.
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_CryptoPPRSAOaep_doDecryptBatch
+  (JNIEnv * env, jobject, jlong decryptor, jobjectArray ciphers, jint from, jint to){
+
+	RSAES_OAEP_SHA_Decryptor * decryptorLocal = (RSAES_OAEP_SHA_Decryptor * )decryptor;
+
+	jobjectArray plaintexts = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+
+	//Sanity checks
+	if(decryptorLocal->FixedCiphertextLength() ==0 )
+		return plaintexts;
+
+	// Create recovered text space, that is used by all the ciphertexts
+	size_t maxMsgLength = decryptorLocal->FixedMaxPlaintextLength();
+	assert( 0 != maxMsgLength );
+	byte *recovered = new byte[maxMsgLength];
+
+	// One random pool for all the decryptions
+	AutoSeededRandomPool randPool;
+
+	for (int i = from; i < to; i++){
+		jbyteArray cipher = (jbyteArray) env->GetObjectArrayElement(ciphers, i);
+		size_t cipherLength = env->GetArrayLength(cipher);
+
+		if(cipherLength <= decryptorLocal->FixedCiphertextLength()){
+			//declare a byte array in c++ where to hold the input cipher
+			byte *ciphertext = (byte*)env->GetByteArrayElements(cipher, 0);
+
+			// Decrypt
+			DecodingResult result = decryptorLocal->Decrypt( randPool, ciphertext, cipherLength, recovered );
+			env->ReleaseByteArrayElements(cipher, (jbyte*) ciphertext, JNI_ABORT);
+
+			if(result.isValidCoding && result.messageLength <= maxMsgLength){
+				//create a JNI byte array from the recovered message
+				jbyteArray retRecovered= env->NewByteArray(result.messageLength);
+				env->SetByteArrayRegion(retRecovered, 0, result.messageLength, (jbyte*)recovered);
+				env->SetObjectArrayElement(plaintexts, i - from, retRecovered);
+				env->DeleteLocalRef(retRecovered);
+			}
+		}
+		env->DeleteLocalRef(cipher);
+	}
+
+	delete [] recovered;
+	return plaintexts;
+}
 
 JNIEXPORT jint JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_CryptoPPRSAOaep_getPlaintextLength
   (JNIEnv *, jobject, jlong encryptor){
@@ -225,6 +225,90 @@ JNIEXPORT jboolean JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalS
 
 }
 
+/*
+ * function doSignBatch	: Signs the messages in [from, to) and returns the signatures
+ * param signer			: The pointer to the signing object 
+ * param msgs			: messages to sign
+ * param from			: the index of the first message to sign
+ * param to				: the index after the last message to sign
+ * return jobjectArray	: the generated signatures, one for each message in [from, to)
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_doSignBatch
+  (JNIEnv *env, jobject, jlong signer, jobjectArray msgs, jint from, jint to){
+
+	// cast the signer pointer to the actual signer object
+	RSASSA_PKCS1v15_SHA_Signer * signerLocal = (RSASSA_PKCS1v15_SHA_Signer * )signer;
+
+	// Create signature space, that is used by all the messages
+	size_t maxSigSize = signerLocal->MaxSignatureLength();
+	byte *signature = new byte[maxSigSize];
+
+	// One random pool for all the signatures
+	AutoSeededRandomPool randPool;
+
+	jobjectArray signatures = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+	for (int i = from; i < to; i++){
+		jbyteArray msg = (jbyteArray) env->GetObjectArrayElement(msgs, i);
+		byte *msgBytes = (byte*)env->GetByteArrayElements(msg, 0);
+		int length = env->GetArrayLength(msg);
+
+		// Actually perform sign
+		size_t actualSigSize = signerLocal->SignMessage(randPool, msgBytes, length, signature);
+
+		//create a JNI byte array from the signature
+		jbyteArray retSignature = env->NewByteArray(actualSigSize);
+		env->SetByteArrayRegion(retSignature, 0, actualSigSize, (jbyte*)signature);
+		env->SetObjectArrayElement(signatures, i - from, retSignature);
+
+		//release the local references so a large batch does not exhaust the local reference table
+		env->ReleaseByteArrayElements(msg, (jbyte*) msgBytes, JNI_ABORT);
+		env->DeleteLocalRef(retSignature);
+		env->DeleteLocalRef(msg);
+	}
+
+	delete [] signature;
+	return signatures;
+}
+
+/*
+ * function doVerifyBatch	: Verifies the signatures in [from, to) 
+ * param verifier			: The pointer to the verification object 
+ * param signatures			: signatures to verify
+ * param msgs				: messages
+ * param from				: the index of the first signature to verify
+ * param to					: the index after the last signature to verify
+ * return jbooleanArray		: for each signature in [from, to), true if it is valid. false otherwise.
+ */
+JNIEXPORT jbooleanArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_doVerifyBatch
+  (JNIEnv *env, jobject, jlong verifier, jobjectArray signatures, jobjectArray msgs, jint from, jint to){
+
+	// cast the verifier pointer to the actual verifier object
+	RSASSA_PKCS1v15_SHA_Verifier* verifierLocal = (RSASSA_PKCS1v15_SHA_Verifier*) verifier;
+
+	jboolean *results = new jboolean[to - from];
+	for (int i = from; i < to; i++){
+		jbyteArray msg = (jbyteArray) env->GetObjectArrayElement(msgs, i);
+		jbyteArray signature = (jbyteArray) env->GetObjectArrayElement(signatures, i);
+
+		//declare a byte arrays in c++ where to hold the input msg and signature
+		byte *msgBytes = (byte*)env->GetByteArrayElements(msg, 0);
+		byte *sigBytes = (byte*)env->GetByteArrayElements(signature, 0);
+
+		//verifies the signature.
+		results[i - from] = verifierLocal->VerifyMessage(msgBytes, env->GetArrayLength(msg), sigBytes, env->GetArrayLength(signature));
+
+		env->ReleaseByteArrayElements(msg, (jbyte*) msgBytes, JNI_ABORT);
+		env->ReleaseByteArrayElements(signature, (jbyte*) sigBytes, JNI_ABORT);
+		env->DeleteLocalRef(msg);
+		env->DeleteLocalRef(signature);
+	}
+
+	//create a JNI boolean array from the results
+	jbooleanArray retResults = env->NewBooleanArray(to - from);
+	env->SetBooleanArrayRegion(retResults, 0, to - from, results);
+	delete [] results;
+	return retResults;
+}
 
 JNIEXPORT void JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_deleteRSA
   (JNIEnv *, jobject, jlong signer, jlong verifier){
@@ -88,6 +88,22 @@ JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digita
 JNIEXPORT jboolean JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_doVerify
   (JNIEnv *, jobject, jlong, jbyteArray, jbyteArray, jint);
 
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss
+ * Method:    doSignBatch
+ * Signature: (J[[BII)[[B
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_doSignBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jint, jint);
+
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss
+ * Method:    doVerifyBatch
+ * Signature: (J[[B[[BII)[Z
+ */
+JNIEXPORT jbooleanArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss_doVerifyBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jobjectArray, jint, jint);
+
 /*
  * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_CryptoPPRSAPss
  * Method:    deleteRSA
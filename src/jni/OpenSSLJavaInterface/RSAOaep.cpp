@@ -206,6 +206,92 @@ JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryp
 	  return result;
 }
 
+/*
+ * function doEncryptBatch		: Encrypts the plaintexts in [from, to).
+ * param rsa					: A pointer to the RSA object.
+ * param plaintexts				: The plaintexts to encrypt.
+ * param from					: The index of the first plaintext to encrypt.
+ * param to						: The index after the last plaintext to encrypt.
+ * return jobjectArray			: The encrypted bytes of every plaintext in [from, to).
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep_doEncryptBatch
+  (JNIEnv * env, jobject, jlong rsa, jobjectArray plaintexts, jint from, jint to){
+	  //Seed the random geneartor once for all the plaintexts.
+#ifdef _WIN32
+	  RAND_screen(); // only defined for windows, reseeds from screen contents
+#else
+	  RAND_poll(); // reseeds using hardware state (clock, interrupts, etc).
+#endif
+
+	  //Allocate one byte array to hold the output of all the plaintexts.
+	  int size = RSA_size((RSA *) rsa);
+	  unsigned char* ret = new unsigned char[size]; 
+
+	  jobjectArray ciphertexts = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+	  for (int i = from; i < to; i++){
+		  //Convert the given data into c++ notation.
+		  jbyteArray plaintextBytes = (jbyteArray) env->GetObjectArrayElement(plaintexts, i);
+		  jbyte* plaintext  = (jbyte*) env->GetByteArrayElements(plaintextBytes, 0);
+
+		  //Encrypt the plaintext. If the encryption failed, the ciphertext remains null.
+		  int length = RSA_public_encrypt(env->GetArrayLength(plaintextBytes), (unsigned char*) plaintext, (unsigned char*)ret, (RSA *) rsa, RSA_PKCS1_OAEP_PADDING);
+		  if (length != -1){
+			  //Build jbyteArray from the byteArray.
+			  jbyteArray result = env ->NewByteArray(length);
+			  env->SetByteArrayRegion(result, 0, length, (jbyte*)ret);
+			  env->SetObjectArrayElement(ciphertexts, i - from, result);
+			  env->DeleteLocalRef(result);
+		  }
+
+		  //Release the allocated memory.
+		  env->ReleaseByteArrayElements(plaintextBytes, plaintext, JNI_ABORT);
+		  env->DeleteLocalRef(plaintextBytes);
+	  }
+
+	  delete [] ret;
+	  return ciphertexts;
+}
+
+/*
+ * function doDecryptBatch		: Decrypts the ciphertexts in [from, to).
+ * param rsa					: A pointer to the RSA object.
+ * param ciphertexts			: The ciphertexts to decrypt.
+ * param from					: The index of the first ciphertext to decrypt.
+ * param to						: The index after the last ciphertext to decrypt.
+ * return jobjectArray			: The decrypted bytes of every ciphertext in [from, to). 
+ *								  A ciphertext that is not valid gets a null plaintext.
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep_doDecryptBatch
+  (JNIEnv *env, jobject, jlong rsa, jobjectArray ciphertexts, jint from, jint to){
+	  //Allocate one byte array to hold the output of all the ciphertexts.
+	  int size = RSA_size((RSA *) rsa);
+	  unsigned char* ret = new unsigned char[size]; 
+
+	  jobjectArray plaintexts = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+	  for (int i = from; i < to; i++){
+		  //Convert the given data into c++ notation.
+		  jbyteArray ciphertext = (jbyteArray) env->GetObjectArrayElement(ciphertexts, i);
+		  jbyte* cipher  = (jbyte*) env->GetByteArrayElements(ciphertext, 0);
+
+		  //Decrypt the ciphertext. The returned length is -1 if the ciphertext is not valid.
+		  int length = RSA_private_decrypt(env->GetArrayLength(ciphertext), (unsigned char*) cipher, (unsigned char*)ret, (RSA *) rsa, RSA_PKCS1_OAEP_PADDING);
+		  if (length != -1){
+			  //Build jbyteArray from the byteArray.
+			  jbyteArray result = env ->NewByteArray(length);
+			  env->SetByteArrayRegion(result, 0, length, (jbyte*)ret);
+			  env->SetObjectArrayElement(plaintexts, i - from, result);
+			  env->DeleteLocalRef(result);
+		  }
+
+		  //Release the allocated memory.
+		  env->ReleaseByteArrayElements(ciphertext, cipher, JNI_ABORT);
+		  env->DeleteLocalRef(ciphertext);
+	  }
+
+	  delete [] ret;
+	  return plaintexts;
+}
+
 /*
  * function getPlaintextLength			: Returns the maximum size that can be encrypted using RSA OAEP encryption scheme.
  * param rsa							: A pointer to the RSA object.
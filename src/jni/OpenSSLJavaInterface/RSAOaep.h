@@ -80,6 +80,22 @@ JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryp
 JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep_doDecrypt
   (JNIEnv *, jobject, jlong, jbyteArray);
 
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep
+ * Method:    doEncryptBatch
+ * Signature: (J[[BII)[[B
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep_doEncryptBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jint, jint);
+
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep
+ * Method:    doDecryptBatch
+ * Signature: (J[[BII)[[B
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep_doDecryptBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jint, jint);
+
 /*
  * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_encryption_OpenSSLRSAOaep
  * Method:    getPlaintextLength
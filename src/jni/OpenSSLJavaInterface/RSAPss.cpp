@@ -215,6 +215,97 @@ JNIEXPORT jboolean JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalS
 	  return verified;
 }
 
+/*
+ * function doSignBatch			: Signs the messages in [from, to).
+ * param rsa					: A pointer to the RSA object.
+ * param msgs					: The messages to sign.
+ * param from					: The index of the first message to sign.
+ * param to						: The index after the last message to sign.
+ * return jobjectArray			: The signatures bytes, one for each message in [from, to).
+ *								  A message that could not be signed gets a null signature.
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_doSignBatch
+  (JNIEnv *env, jobject, jlong rsa, jobjectArray msgs, jint from, jint to){
+	  //Allocate one byte array to hold the output of all the messages.
+	  int size = RSA_size((RSA *) rsa);
+	  unsigned char* sig = new unsigned char[size]; 
+
+	  jobjectArray signatures = env->NewObjectArray(to - from, env->FindClass("[B"), NULL);
+	  for (int i = from; i < to; i++){
+		  //Convert the message into c++ notation.
+		  jbyteArray msg = (jbyteArray) env->GetObjectArrayElement(msgs, i);
+		  jbyte* message  = (jbyte*) env->GetByteArrayElements(msg, 0);
+
+		  //Sign the message. If the signing failed, the signature remains null.
+		  int length = RSA_private_encrypt(env->GetArrayLength(msg), (unsigned char*)message, sig, (RSA*) rsa, RSA_PKCS1_PADDING);
+		  if (length != -1){
+			  //Build jbyteArray from the byteArray.
+			  jbyteArray result = env ->NewByteArray(length);
+			  env->SetByteArrayRegion(result, 0, length, (jbyte*)sig);
+			  env->SetObjectArrayElement(signatures, i - from, result);
+			  env->DeleteLocalRef(result);
+		  }
+
+		  //Release the local references, so a large batch does not exhaust the local reference table.
+		  env->ReleaseByteArrayElements(msg, message, JNI_ABORT);
+		  env->DeleteLocalRef(msg);
+	  }
+
+	  delete [] sig;
+	  return signatures;
+}
+
+/*
+ * function doVerifyBatch		: Verifies the signatures in [from, to) with the messages in the same indices.
+ * param rsa					: A pointer to the RSA object.
+ * param signatures				: The signatures to verify.
+ * param msgs					: The signed messages.
+ * param from					: The index of the first signature to verify.
+ * param to						: The index after the last signature to verify.
+ * return jbooleanArray			: For each signature in [from, to), true if it is valid. False, otherwise.
+ */
+JNIEXPORT jbooleanArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_doVerifyBatch
+  (JNIEnv *env, jobject, jlong rsa, jobjectArray signatures, jobjectArray msgs, jint from, jint to){
+	  //Allocate one byte array to hold the recovered message of all the signatures.
+	  int size = RSA_size((RSA *) rsa);
+	  unsigned char* recovered = new unsigned char[size]; 
+
+	  jboolean* results = new jboolean[to - from];
+	  for (int i = from; i < to; i++){
+		  //Convert the given data into c++ notation.
+		  jbyteArray msg = (jbyteArray) env->GetObjectArrayElement(msgs, i);
+		  jbyteArray signature = (jbyteArray) env->GetObjectArrayElement(signatures, i);
+		  jbyte* message  = (jbyte*) env->GetByteArrayElements(msg, 0);
+		  jbyte* sig  = (jbyte*) env->GetByteArrayElements(signature, 0);
+		  int length = env->GetArrayLength(msg);
+
+		  //recover the message from the signature.
+		  int recoveredLength = RSA_public_decrypt(env->GetArrayLength(signature), (unsigned char*)sig, recovered, (RSA*) rsa, RSA_PKCS1_PADDING);
+
+		  //Check that the recovered message is equal to the given message.
+		  bool verified = (recoveredLength == length);
+		  for (int j=0; verified && j<length; j++){
+			  if (recovered[j] != (unsigned char) message[j]){
+				  verified = false;
+			  }
+		  }
+		  results[i - from] = verified;
+
+		  //Release the allocated memory.
+		  env->ReleaseByteArrayElements(msg, message, JNI_ABORT);
+		  env->ReleaseByteArrayElements(signature, sig, JNI_ABORT);
+		  env->DeleteLocalRef(msg);
+		  env->DeleteLocalRef(signature);
+	  }
+
+	  //Build jbooleanArray from the results.
+	  jbooleanArray retResults = env->NewBooleanArray(to - from);
+	  env->SetBooleanArrayRegion(retResults, 0, to - from, results);
+	  delete [] results;
+	  delete [] recovered;
+	  return retResults;
+}
+
 /*
  * function deleteRSA			: Deletes the native RSA object.
  * param rsa					: A pointer to the RSA object.
@@ -222,4 +313,4 @@ JNIEXPORT jboolean JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalS
 JNIEXPORT void JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_deleteRSA
   (JNIEnv *, jobject, jlong rsa){
 	  RSA_free((RSA *)rsa);
-}
\ No newline at end of file
+}
\ No newline at end of file
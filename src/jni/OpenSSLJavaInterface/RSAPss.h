@@ -80,6 +80,22 @@ JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digita
 JNIEXPORT jboolean JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_doVerify
   (JNIEnv *, jobject, jlong, jbyteArray, jbyteArray, jint, jint);
 
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss
+ * Method:    doSignBatch
+ * Signature: (J[[BII)[[B
+ */
+JNIEXPORT jobjectArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_doSignBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jint, jint);
+
+/*
+ * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss
+ * Method:    doVerifyBatch
+ * Signature: (J[[B[[BII)[Z
+ */
+JNIEXPORT jbooleanArray JNICALL Java_edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss_doVerifyBatch
+  (JNIEnv *, jobject, jlong, jobjectArray, jobjectArray, jint, jint);
+
 /*
  * Class:     edu_biu_scapi_midLayer_asymmetricCrypto_digitalSignature_OpenSSLRSAPss
  * Method:    deleteRSA
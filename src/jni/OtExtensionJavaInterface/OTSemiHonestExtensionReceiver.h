@@ -32,6 +32,30 @@ JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otE
   (JNIEnv *, jobject, jlong);
 
 
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver
+ * Method:    initOtReceiverFromState
+ * Signature: (Ljava/lang/String;III[BI)J
+ */
+JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_initOtReceiverFromState
+  (JNIEnv *, jobject, jstring, jint, jint, jint, jbyteArray, jint);
+
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver
+ * Method:    getBaseOTKeys
+ * Signature: (J)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_getBaseOTKeys
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver
+ * Method:    runOtAsReceiverOnBuffers
+ * Signature: (JLjava/nio/ByteBuffer;IILjava/nio/ByteBuffer;Ljava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_runOtAsReceiverOnBuffers
+  (JNIEnv *, jobject, jlong, jobject, jint, jint, jobject, jstring);
+
 #ifdef __cplusplus
 }
 #endif
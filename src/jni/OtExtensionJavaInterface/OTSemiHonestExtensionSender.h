@@ -31,6 +31,38 @@ JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otE
 JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_deleteSender
   (JNIEnv *, jobject, jlong);
 
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender
+ * Method:    initOtSenderFromState
+ * Signature: (Ljava/lang/String;III[B[BI)J
+ */
+JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_initOtSenderFromState
+  (JNIEnv *, jobject, jstring, jint, jint, jint, jbyteArray, jbyteArray, jint);
+
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender
+ * Method:    getBaseOTChoices
+ * Signature: (J)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_getBaseOTChoices
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender
+ * Method:    getBaseOTKeys
+ * Signature: (J)[B
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_getBaseOTKeys
+  (JNIEnv *, jobject, jlong);
+
+/*
+ * Class:     edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender
+ * Method:    runOtAsSenderOnBuffers
+ * Signature: (JLjava/nio/ByteBuffer;Ljava/nio/ByteBuffer;Ljava/nio/ByteBuffer;IILjava/lang/String;)V
+ */
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_runOtAsSenderOnBuffers
+  (JNIEnv *, jobject, jlong, jobject, jobject, jobject, jint, jint, jstring);
+
 #ifdef __cplusplus
 }
 #endif
@@ -8,59 +8,81 @@
 
 //#define OTTiming
 
-BOOL Init(int numOfThreads)
+/*
+ * Creates the state of a new session. Every session has its own sockets, base OT object and base OT keys, 
+ * so several sessions can exist at the same time.
+ */
+OTExtensionSession* CreateSession(int koblitzOrZpSize, int numOfThreads)
 {
+	OTExtensionSession* session = new OTExtensionSession();
+	//koblitz 163 is used if the requested group is not supported
+	session->useECC = true;
+	session->secParam = 163;
+	SetSecurityParameters(session, koblitzOrZpSize);
+
 	// Random numbers
 	SHA_CTX sha;
 	OTEXT_HASH_INIT(&sha);
 	OTEXT_HASH_UPDATE(&sha, (BYTE*) &m_nPID, sizeof(m_nPID));
 	OTEXT_HASH_UPDATE(&sha, (BYTE*) m_nSeed, sizeof(m_nSeed));
-	OTEXT_HASH_FINAL(&sha, m_aSeed);
-
-	m_nCounter = 0;
+	OTEXT_HASH_FINAL(&sha, session->seed);
 
 	//Number of threads that will be used in OT extension
-	m_nNumOTThreads = numOfThreads;
+	session->numOfThreads = numOfThreads;
 
-	m_vSockets.resize(m_nNumOTThreads);
+	session->sockets.resize(numOfThreads);
 
-	bot = new NaorPinkas(m_nSecParam, m_aSeed, m_bUseECC);
+	session->bot = new NaorPinkas(session->secParam, session->seed, session->useECC);
+	session->keySeeds = NULL;
+	session->keySeedMtx = NULL;
+	session->sender = NULL;
+	session->receiver = NULL;
 
-	return TRUE;
+	return session;
 }
 
-BOOL Cleanup()
+/*
+ * Deletes the OT object of the given session, closes the sockets of the session and releases its state.
+ * The other sessions are not affected.
+ */
+void DeleteSession(OTExtensionSession* session)
 {
-	for(int i = 0; i < m_nNumOTThreads; i++)
+	delete session->sender;
+	delete session->receiver;
+	for(int i = 0; i < session->numOfThreads; i++)
 	{
-		m_vSockets[i].Close();
+		session->sockets[i].Close();
 	}
-	return true;
+	delete session->bot;
+	free(session->keySeeds);
+	free(session->keySeedMtx);
+	session->U.delCBitVector();
+	delete session;
 }
 
 
-BOOL Connect()
+BOOL Connect(OTExtensionSession* session, const char* address, USHORT port)
 {
 	BOOL bFail = FALSE;
 	LONG lTO = CONNECT_TIMEO_MILISEC;
 
 #ifndef BATCH
-	//cout << "Connecting to party "<< !m_nPID << ": " << m_nAddr << ", " << m_nPort << endl;
+	//cout << "Connecting to party "<< !m_nPID << ": " << address << ", " << port << endl;
 #endif
-	for(int k = m_nNumOTThreads-1; k >= 0 ; k--)
+	for(int k = session->numOfThreads-1; k >= 0 ; k--)
 	{
 		for( int i=0; i<RETRY_CONNECT; i++ )
 		{
-			if( !m_vSockets[k].Socket() ) 
+			if( !session->sockets[k].Socket() ) 
 			{	
 				printf("Socket failure: ");
 				goto connect_failure; 
 			}
 			
-			if( m_vSockets[k].Connect( m_nAddr, m_nPort, lTO))
+			if( session->sockets[k].Connect( address, port, lTO))
 			{
 				// send pid when connected
-				m_vSockets[k].Send( &k, sizeof(int) );
+				session->sockets[k].Send( &k, sizeof(int) );
 		#ifndef BATCH
 			//	cout << " (" << !m_nPID << ") (" << k << ") connected" << endl;
 		#endif
@@ -74,7 +96,7 @@ BOOL Connect()
 					break;
 				}
 				SleepMiliSec(10);
-				m_vSockets[k].Close();
+				session->sockets[k].Close();
 			}
 			SleepMiliSec(20);
 			if(i+1 == RETRY_CONNECT)
@@ -90,25 +112,25 @@ connect_failure:
 
 
 
-BOOL Listen()
+BOOL Listen(OTExtensionSession* session, const char* address, USHORT port)
 {
 #ifndef BATCH
-	//cout << "Listening: " << m_nAddr << ":" << m_nPort << ", with size: " << m_nNumOTThreads << endl;
+	//cout << "Listening: " << address << ":" << port << ", with size: " << session->numOfThreads << endl;
 #endif
-	if( !m_vSockets[0].Socket() ) 
+	if( !session->sockets[0].Socket() ) 
 	{
 		goto listen_failure;
 	}
-	if( !m_vSockets[0].Bind(m_nPort, m_nAddr) )
+	if( !session->sockets[0].Bind(port, address) )
 		goto listen_failure;
-	if( !m_vSockets[0].Listen() )
+	if( !session->sockets[0].Listen() )
 		goto listen_failure;
 
-	for( int i = 0; i<m_nNumOTThreads; i++ ) //twice the actual number, due to double sockets for OT
+	for( int i = 0; i<session->numOfThreads; i++ ) //twice the actual number, due to double sockets for OT
 	{
 		CSocket sock;
 		//cout << "New round! " << endl;
-		if( !m_vSockets[0].Accept(sock) )
+		if( !session->sockets[0].Accept(sock) )
 		{
 			cerr << "Error in accept" << endl;
 			goto listen_failure;
@@ -117,7 +139,7 @@ BOOL Listen()
 		UINT threadID;
 		sock.Receive(&threadID, sizeof(int));
 
-		if( threadID >= m_nNumOTThreads )
+		if( threadID >= session->numOfThreads )
 		{
 			sock.Close();
 			i--;
@@ -128,7 +150,7 @@ BOOL Listen()
 		//cout <<  " (" << m_nPID <<") (" << threadID << ") connection accepted" << endl;
 	#endif
 		// locate the socket appropriately
-		m_vSockets[threadID].AttachFrom(sock);
+		session->sockets[threadID].AttachFrom(sock);
 		sock.Detach();
 	}
 
@@ -145,80 +167,171 @@ listen_failure:
 
 
 
-OTExtensionSender* InitOTSender(const char* address, int port, int numOfThreads)
+OTExtensionSession* InitOTSender(const char* address, int port, int koblitzOrZpSize, int numOfThreads)
 {
 	int nSndVals = 2;
 #ifdef OTTiming
 	timeval np_begin, np_end;
 #endif
-	m_nPort = (USHORT) port;
-	m_nAddr = address;
-	vKeySeeds = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS);
-	
 	//Initialize values
-	Init(numOfThreads);
+	OTExtensionSession* session = CreateSession(koblitzOrZpSize, numOfThreads);
+	session->keySeeds = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS);
 	
 	//Server listen
-	Listen();
+	Listen(session, address, (USHORT) port);
 	
 #ifdef OTTiming
 	gettimeofday(&np_begin, NULL);
 #endif	
 
-	PrecomputeNaorPinkasSender();
+	PrecomputeNaorPinkasSender(session);
 
 #ifdef OTTiming
 	gettimeofday(&np_end, NULL);
 	printf("Time for performing the NP base-OTs: %f seconds\n", getMillies(np_begin, np_end));
 #endif	
 
-	return new OTExtensionSender (nSndVals, m_vSockets.data(), U, vKeySeeds);
+	session->sender = new OTExtensionSender (nSndVals, session->sockets.data(), session->U, session->keySeeds);
+	return session;
 }
 
-OTExtensionReceiver* InitOTReceiver(const char* address, int port, int numOfThreads)
+OTExtensionSession* InitOTReceiver(const char* address, int port, int koblitzOrZpSize, int numOfThreads)
 {
 	int nSndVals = 2;
 	timeval np_begin, np_end;
-	m_nPort = (USHORT) port;
-	m_nAddr = address;
-	//vKeySeedMtx = (AES_KEY*) malloc(sizeof(AES_KEY)*NUM_EXECS_NAOR_PINKAS * nSndVals);
-	vKeySeedMtx = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS * nSndVals);
 	//Initialize values
-	Init(numOfThreads);
+	OTExtensionSession* session = CreateSession(koblitzOrZpSize, numOfThreads);
+	session->keySeedMtx = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS * nSndVals);
 	
 	//Client connect
-	Connect();
+	Connect(session, address, (USHORT) port);
 	
 #ifdef OTTiming
 	gettimeofday(&np_begin, NULL);
 #endif
 	
-	PrecomputeNaorPinkasReceiver();
+	PrecomputeNaorPinkasReceiver(session);
 	
 #ifdef OTTiming
 	gettimeofday(&np_end, NULL);
 	printf("Time for performing the NP base-OTs: %f seconds\n", getMillies(np_begin, np_end));
 #endif	
 
-	return new OTExtensionReceiver(nSndVals, m_vSockets.data(), vKeySeedMtx, m_aSeed);
+	session->receiver = new OTExtensionReceiver(nSndVals, session->sockets.data(), session->keySeedMtx, session->seed);
+	return session;
+}
+
+/*
+ * Creates the sender using the choice bits and keys of previous base OTs, instead of running the base OTs.
+ * The keys are re-derived using the given session index, so that the extension pads of different sessions are independent.
+ */
+OTExtensionSession* InitOTSenderFromState(const char* address, int port, int koblitzOrZpSize, int numOfThreads, BYTE* choices, BYTE* keys, int sessionIndex)
+{
+	int nSndVals = 2;
+	//Initialize values
+	OTExtensionSession* session = CreateSession(koblitzOrZpSize, numOfThreads);
+	session->keySeeds = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS);
+	
+	//Server listen
+	Listen(session, address, (USHORT) port);
+	
+	//Set the saved choice bits and keys instead of running the Naor-Pinkas base OTs
+	session->U.Create(NUM_EXECS_NAOR_PINKAS);
+	for(int i = 0; i < (NUM_EXECS_NAOR_PINKAS + 7) / 8; i++)
+	{
+		session->U.SetByte(i, choices[i]);
+	}
+	memcpy(session->keySeeds, keys, AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS);
+	DeriveBaseOTKeys(session->keySeeds, NUM_EXECS_NAOR_PINKAS, sessionIndex);
+
+	session->sender = new OTExtensionSender (nSndVals, session->sockets.data(), session->U, session->keySeeds);
+	return session;
+}
+
+/*
+ * Creates the receiver using the keys of previous base OTs, instead of running the base OTs.
+ * The keys are re-derived using the given session index, so that the extension pads of different sessions are independent.
+ */
+OTExtensionSession* InitOTReceiverFromState(const char* address, int port, int koblitzOrZpSize, int numOfThreads, BYTE* keys, int sessionIndex)
+{
+	int nSndVals = 2;
+	//Initialize values
+	OTExtensionSession* session = CreateSession(koblitzOrZpSize, numOfThreads);
+	session->keySeedMtx = (BYTE*) malloc(AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS * nSndVals);
+	
+	//Client connect
+	Connect(session, address, (USHORT) port);
+	
+	//Set the saved keys instead of running the Naor-Pinkas base OTs
+	memcpy(session->keySeedMtx, keys, AES_KEY_BYTES*NUM_EXECS_NAOR_PINKAS * nSndVals);
+	DeriveBaseOTKeys(session->keySeedMtx, NUM_EXECS_NAOR_PINKAS * nSndVals, sessionIndex);
+
+	session->receiver = new OTExtensionReceiver(nSndVals, session->sockets.data(), session->keySeedMtx, session->seed);
+	return session;
+}
+
+/*
+ * Replaces each key with the hash of the key and the session index.
+ * The index is hashed as 4 bytes in big endian order, so parties on machines with different byte orders derive the same keys.
+ * The sender and the receiver apply the same derivation, so the correlation between their keys is kept.
+ */
+void DeriveBaseOTKeys(BYTE* keys, int numOfKeys, int sessionIndex)
+{
+	BYTE digest[SHA1_BYTES];
+	BYTE index[4];
+	unsigned int value = (unsigned int) sessionIndex;
+	index[0] = (BYTE) (value >> 24);
+	index[1] = (BYTE) (value >> 16);
+	index[2] = (BYTE) (value >> 8);
+	index[3] = (BYTE) value;
+	SHA_CTX sha;
+	for(int i = 0; i < numOfKeys; i++)
+	{
+		OTEXT_HASH_INIT(&sha);
+		OTEXT_HASH_UPDATE(&sha, keys + i * AES_KEY_BYTES, AES_KEY_BYTES);
+		OTEXT_HASH_UPDATE(&sha, index, sizeof(index));
+		OTEXT_HASH_FINAL(&sha, digest);
+		memcpy(keys + i * AES_KEY_BYTES, digest, AES_KEY_BYTES);
+	}
+}
+
+/*
+ * Sets the security parameters of the given session according to the requested group.
+ */
+void SetSecurityParameters(OTExtensionSession* session, int koblitzOrZpSize)
+{
+	//use ECC koblitz
+	if(koblitzOrZpSize==163 || koblitzOrZpSize==233 || koblitzOrZpSize==283){
+
+		session->useECC = true;
+		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
+		session->secParam = koblitzOrZpSize;
+	}
+	//use Zp
+	else if(koblitzOrZpSize==1024 || koblitzOrZpSize==2048 || koblitzOrZpSize==3072){
+
+		session->useECC = false;
+		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
+		session->secParam = koblitzOrZpSize;
+	}
 }
 
-BOOL PrecomputeNaorPinkasSender()
+BOOL PrecomputeNaorPinkasSender(OTExtensionSession* session)
 {
 
 	int nSndVals = 2;
 	BYTE* pBuf = new BYTE[NUM_EXECS_NAOR_PINKAS * SHA1_BYTES]; 
 	int log_nVals = (int) ceil(log((double)nSndVals)/log(2.0)), cnt = 0;
 	
-	U.Create(NUM_EXECS_NAOR_PINKAS*log_nVals, m_aSeed, cnt);
+	session->U.Create(NUM_EXECS_NAOR_PINKAS*log_nVals, session->seed, cnt);
 	
-	bot->Receiver(nSndVals, NUM_EXECS_NAOR_PINKAS, U, m_vSockets[0], pBuf);
+	session->bot->Receiver(nSndVals, NUM_EXECS_NAOR_PINKAS, session->U, session->sockets[0], pBuf);
 	
 	//Key expansion
 	BYTE* pBufIdx = pBuf;
 	for(int i=0; i<NUM_EXECS_NAOR_PINKAS; i++ ) //80 HF calls for the Naor Pinkas protocol
 	{
-		memcpy(vKeySeeds + i * AES_KEY_BYTES, pBufIdx, AES_KEY_BYTES);
+		memcpy(session->keySeeds + i * AES_KEY_BYTES, pBufIdx, AES_KEY_BYTES);
 		pBufIdx+=SHA1_BYTES;
 	} 
  	delete [] pBuf;	
@@ -226,7 +339,7 @@ BOOL PrecomputeNaorPinkasSender()
  	return true;
 }
 
-BOOL PrecomputeNaorPinkasReceiver()
+BOOL PrecomputeNaorPinkasReceiver(OTExtensionSession* session)
 {
 	int nSndVals = 2;
 	
@@ -235,13 +348,13 @@ BOOL PrecomputeNaorPinkasReceiver()
 	
 	//=================================================	
 	// N-P sender: send: C0 (=g^r), C1, C2, C3 
-	bot->Sender(nSndVals, NUM_EXECS_NAOR_PINKAS, m_vSockets[0], pBuf);
+	session->bot->Sender(nSndVals, NUM_EXECS_NAOR_PINKAS, session->sockets[0], pBuf);
 	
 	//Key expansion
 	BYTE* pBufIdx = pBuf;
 	for(int i=0; i<NUM_EXECS_NAOR_PINKAS * nSndVals; i++ )
 	{
-		memcpy(vKeySeedMtx + i * AES_KEY_BYTES, pBufIdx, AES_KEY_BYTES);
+		memcpy(session->keySeedMtx + i * AES_KEY_BYTES, pBufIdx, AES_KEY_BYTES);
 		pBufIdx += SHA1_BYTES;
 	}
 	
@@ -251,7 +364,7 @@ BOOL PrecomputeNaorPinkasReceiver()
 }
 
 
-BOOL ObliviouslySend(OTExtensionSender* sender, CBitVector& X1, CBitVector& X2, int numOTs, int bitlength, BYTE version, CBitVector& delta)
+BOOL ObliviouslySend(OTExtensionSession* session, CBitVector& X1, CBitVector& X2, int numOTs, int bitlength, BYTE version, CBitVector& delta, MaskingFunction* maskFct)
 {
 	bool success = FALSE;
 	int nSndVals = 2; //Perform 1-out-of-2 OT
@@ -264,7 +377,7 @@ BOOL ObliviouslySend(OTExtensionSender* sender, CBitVector& X1, CBitVector& X2,
 	gettimeofday(&ot_begin, NULL);
 #endif
 	// Execute OT sender routine 	
-	success = sender->send(numOTs, bitlength, X1, X2, delta, version, m_nNumOTThreads, m_fMaskFct);
+	success = session->sender->send(numOTs, bitlength, X1, X2, delta, version, session->numOfThreads, maskFct);
 	
 #ifdef OTTiming
 	gettimeofday(&ot_end, NULL);
@@ -273,7 +386,7 @@ BOOL ObliviouslySend(OTExtensionSender* sender, CBitVector& X1, CBitVector& X2,
 	return success;
 }
 
-BOOL ObliviouslyReceive(OTExtensionReceiver* receiver, CBitVector& choices, CBitVector& ret, int numOTs, int bitlength, BYTE version)
+BOOL ObliviouslyReceive(OTExtensionSession* session, CBitVector& choices, CBitVector& ret, int numOTs, int bitlength, BYTE version, MaskingFunction* maskFct)
 {
 	bool success = FALSE;
 
@@ -282,7 +395,7 @@ BOOL ObliviouslyReceive(OTExtensionReceiver* receiver, CBitVector& choices, CBit
 	gettimeofday(&ot_begin, NULL);
 #endif
 	// Execute OT receiver routine 	
-	success = receiver->receive(numOTs, bitlength, choices, ret, version, m_nNumOTThreads, m_fMaskFct);
+	success = session->receiver->receive(numOTs, bitlength, choices, ret, version, session->numOfThreads, maskFct);
 	
 #ifdef OTTiming
 	gettimeofday(&ot_end, NULL);
@@ -294,6 +407,131 @@ BOOL ObliviouslyReceive(OTExtensionReceiver* receiver, CBitVector& choices, CBit
 
 
 
+/*
+ * Translates the version name given from java to the native version.
+ */
+BYTE GetVersion(JNIEnv *env, jstring version)
+{
+	BYTE ver = G_OT;
+	//get the string from java
+	const char* str = env->GetStringUTFChars( version, NULL );
+
+	if(strcmp (str,"general") == 0)
+		ver = G_OT;
+	else if(strcmp (str,"correlated") == 0)
+		ver = C_OT;
+	else if(strcmp (str,"random") == 0)
+		ver = R_OT;
+
+	env->ReleaseStringUTFChars(version, str);
+	return ver;
+}
+
+/*
+ * Runs the ot extension as the receiver.
+ * 
+ * param sigmaArr : Holds the receiver input of each ot, one byte per ot.
+ * param out : Will be filled with the result of the ot extension in one dimensional array. That is, 
+ *			   The i'th result will be placed in the position i*bitLength/8.
+ */
+void RunOtAsReceiver(OTExtensionSession* session, BYTE* sigmaArr, int numOfOts, int bitLength, BYTE* out, BYTE ver)
+{
+	CBitVector choices, response;
+	MaskingFunction* maskFct = NULL;
+
+	if(ver == C_OT){
+		maskFct = new XORMasking(bitLength);
+	}
+
+	choices.Create(numOfOts);
+
+	//Pre-generate the respose vector for the results
+	response.Create(numOfOts, bitLength);
+
+	//copy the sigma values received from java
+	for(int i=0; i<numOfOts;i++){
+
+		choices.SetBit((i/8)*8 + 7-(i%8), sigmaArr[i]);
+	}
+
+	//run the ot extension as the receiver
+	ObliviouslyReceive(session, choices, response, numOfOts, bitLength, ver, maskFct);
+
+	//prepare the out array
+	for(int i = 0; i < numOfOts*bitLength/8; i++)
+	{
+		//copy each byte result to out
+		out[i] = response.GetByte(i);
+	}
+
+	//free the pointer of choises and reponse
+	choices.delCBitVector();
+	response.delCBitVector();
+
+	if(ver == C_OT){
+		delete maskFct;
+	}
+}
+
+/*
+ * Runs the ot extension as the sender.
+ * 
+ * param x1Arr : Holds all the x1,i for each ot one element after the other. In the correlated and random versions it is filled with the output.
+ * param x2Arr : Holds all the x2,i for each ot one element after the other. In the correlated and random versions it is filled with the output.
+ * param deltaArr : Holds the delta of each ot. Used only in the correlated version.
+ */
+void RunOtAsSender(OTExtensionSession* session, BYTE* x1Arr, BYTE* x2Arr, BYTE* deltaArr, int numOfOts, int bitLength, BYTE ver)
+{
+	CBitVector delta, X1, X2;
+	MaskingFunction* maskFct = NULL;
+	//Create X1 and X2 as two arrays with "numOTs" entries of "bitlength" bit-values
+	X1.Create(numOfOts, bitLength);
+	X2.Create(numOfOts, bitLength);
+
+	if(ver == G_OT){
+		//copy the values given from java
+		for(int i = 0; i < numOfOts*bitLength/8; i++)
+		{
+			X1.SetByte(i, x1Arr[i]);
+			X2.SetByte(i, x2Arr[i]);
+		}
+	}
+	else if(ver == C_OT){
+		maskFct = new XORMasking(bitLength);
+
+		delta.Create(numOfOts, bitLength);
+
+		//set the delta values given from java
+		for(int i = 0; i < numOfOts*bitLength/8; i++)
+		{
+			delta.SetByte(i, deltaArr[i]);
+		}
+	}
+	//else if(ver==R_OT){} no need to set any values. There is no input for x0 and x1 and no input for delta
+
+	//run the ot extension as the sender
+	ObliviouslySend(session, X1, X2, numOfOts, bitLength, ver, delta, maskFct);
+
+	if(ver != G_OT){//we need to copy x0 and x1
+
+		//get the values from the ot and copy them to x1Arr, x2Arr
+		for(int i = 0; i < numOfOts*bitLength/8; i++)
+		{
+			x1Arr[i] = X1.GetByte(i);
+			x2Arr[i] = X2.GetByte(i);
+		}
+
+		if(ver == C_OT){
+			delete maskFct;
+		}
+	}
+
+	X1.delCBitVector();
+	X2.delCBitVector();
+	delta.delCBitVector();
+}
+
+
 //-----------------------------------------------------------------------------------------------------//
 //-------- JNI functions that will be called by the java application that will load this dll ----------//
 //-----------------------------------------------------------------------------------------------------//
@@ -303,29 +541,17 @@ BOOL ObliviouslyReceive(OTExtensionReceiver* receiver, CBitVector& choices, CBit
  * 
  * param ipAddress : The ip address of the receiver computer for connection
  * param port : The port to be used for sending/receiving data over the network
- * returns : A pointer to the receiver object that was created and later be used to run the protcol
+ * returns : A pointer to the session of the receiver that was created and later be used to run the protcol
  */
 JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_initOtReceiver
   (JNIEnv *env, jobject, jstring ipAddress, jint port, jint koblitzOrZpSize, jint numOfthreads){
 
 
-	  //use ECC koblitz
-	if(koblitzOrZpSize==163 || koblitzOrZpSize==233 || koblitzOrZpSize==283){
-
-		m_bUseECC = true;
-		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
-		m_nSecParam = koblitzOrZpSize;
-	}
-	//use Zp
-	else if(koblitzOrZpSize==1024 || koblitzOrZpSize==2048 || koblitzOrZpSize==3072){
-
-		m_bUseECC = false;
-		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
-		m_nSecParam = koblitzOrZpSize;
-	}
 	  //get the string from java
 	const char* adrr = env->GetStringUTFChars( ipAddress, NULL );
-	return (jlong) InitOTReceiver(adrr, port, numOfthreads);
+	OTExtensionSession* session = InitOTReceiver(adrr, port, koblitzOrZpSize, numOfthreads);
+	env->ReleaseStringUTFChars(ipAddress, adrr);
+	return (jlong) session;
 
 }
 
@@ -341,60 +567,30 @@ JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_ot
 JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_runOtAsReceiver
   (JNIEnv *env, jobject, jlong receiver, jbyteArray sigma, jint numOfOts, jint bitLength, jbyteArray output, jstring version){
 
-	  BYTE ver;
-	//get the string from java
-	const char* str = env->GetStringUTFChars( version, NULL );
-
-	//supports all of the SHA hashes. Get the name of the required hash and instanciate that hash.
-	if(strcmp (str,"general") == 0)
-		ver = G_OT;
-	if(strcmp (str,"correlated") == 0){
-		ver = C_OT;
-		m_fMaskFct = new XORMasking(bitLength);
-	}
-	if(strcmp (str,"random") == 0)
-		ver = R_OT;
-
-	
-	  CBitVector choices, response;
-
-	choices.Create(numOfOts);
+	BYTE ver = GetVersion(env, version);
 
 	jbyte *sigmaArr = env->GetByteArrayElements(sigma, 0);
 	jbyte *out = env->GetByteArrayElements(output, 0);
 
-
-	//Pre-generate the respose vector for the results
-	response.Create(numOfOts, bitLength);
-
-	//copy the sigma values received from java
-	for(int i=0; i<numOfOts;i++){
-
-		choices.SetBit((i/8)*8 + 7-(i%8), sigmaArr[i]);
-		//choices.SetBit(i, sigmaArr[i]);
-	}
-
-		//run the ot extension as the receiver
-	ObliviouslyReceive((OTExtensionReceiver*) receiver , choices, response, numOfOts, bitLength, ver);
-
-		//prepare the out array
-	for(int i = 0; i < numOfOts*bitLength/8; i++)
-	{
-		//copy each byte result to out
-		out[i] = response.GetByte(i);
-	}
+	RunOtAsReceiver((OTExtensionSession*) receiver, (BYTE*) sigmaArr, numOfOts, bitLength, (BYTE*) out, ver);
 
 	//make sure to release the memory created in c++. The JVM will not release it automatically.
 	env->ReleaseByteArrayElements(sigma,sigmaArr,0);
 	env->ReleaseByteArrayElements(output,out,0);
+}
 
-	//free the pointer of choises and reponse
-	choices.delCBitVector();
-	response.delCBitVector();
+/*
+ * Function runOtAsReceiverOnBuffers : The same as runOtAsReceiver, but works directly on the memory of java direct buffers.
+ */
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_runOtAsReceiverOnBuffers
+  (JNIEnv *env, jobject, jlong receiver, jobject sigma, jint numOfOts, jint bitLength, jobject output, jstring version){
 
-	if(ver == C_OT){
-		delete m_fMaskFct;
-	}
+	BYTE ver = GetVersion(env, version);
+
+	BYTE* sigmaArr = (BYTE*) env->GetDirectBufferAddress(sigma);
+	BYTE* out = (BYTE*) env->GetDirectBufferAddress(output);
+
+	RunOtAsReceiver((OTExtensionSession*) receiver, sigmaArr, numOfOts, bitLength, out, ver);
 }
 
 
@@ -403,28 +599,16 @@ JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otE
  * 
  * param ipAddress : The ip address of the sender computer for connection
  * param port : The port to be used for sending/receiving data over the network
- * returns : A pointer to the receiver object that was created and later be used to run the protcol
+ * returns : A pointer to the session of the sender that was created and later be used to run the protcol
  */
 JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_initOtSender
   (JNIEnv *env, jobject,jstring ipAddress, jint port, jint koblitzOrZpSize, jint numOfThreads){
 
-	  //use ECC koblitz
-	if(koblitzOrZpSize==163 || koblitzOrZpSize==233 || koblitzOrZpSize==283){
-
-		m_bUseECC = true;
-		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
-		m_nSecParam = koblitzOrZpSize;
-	}
-	//use Zp
-	else if(koblitzOrZpSize==1024 || koblitzOrZpSize==2048 || koblitzOrZpSize==3072){
-
-		m_bUseECC = false;
-		//The security parameter (163,233,283 for ECC or 1024, 2048, 3072 for FFC)
-		m_nSecParam = koblitzOrZpSize;
-	}
 	  //get the string from java
 	const char* adrr = env->GetStringUTFChars( ipAddress, NULL );
-	return (jlong) InitOTSender(adrr, port, numOfThreads);
+	OTExtensionSession* session = InitOTSender(adrr, port, koblitzOrZpSize, numOfThreads);
+	env->ReleaseStringUTFChars(ipAddress, adrr);
+	return (jlong) session;
 
 }
 
@@ -438,110 +622,141 @@ JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_ot
 JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_runOtAsSender
   (JNIEnv *env, jobject, jlong sender, jbyteArray x1, jbyteArray x2, jbyteArray deltaFromJava, jint numOfOts, jint bitLength, jstring version){
 
-	//The masking function with which the values that are sent in the last communication step are processed
 	//Choose OT extension version: G_OT, C_OT or R_OT
-	BYTE ver;
-
-
-	//get the string from java
-	const char* str = env->GetStringUTFChars( version, NULL );
-
-	//supports all of the SHA hashes. Get the name of the required hash and instanciate that hash.
-	if(strcmp (str,"general") == 0)
-		ver = G_OT;
-	else if(strcmp (str,"correlated") == 0)
-		ver = C_OT;
-	else if(strcmp (str,"random") == 0)
-		ver = R_OT;
-
+	BYTE ver = GetVersion(env, version);
 
 	jbyte *x1Arr = env->GetByteArrayElements(x1, 0);
 	jbyte *x2Arr= env->GetByteArrayElements(x2, 0);
-	jbyte *deltaArr;
-	
-
-
-	CBitVector delta, X1, X2;
-	//Create X1 and X2 as two arrays with "numOTs" entries of "bitlength" bit-values
-	X1.Create(numOfOts, bitLength);
-	X2.Create(numOfOts, bitLength);
-
-
-
-	if(ver ==G_OT){
-		
-		
+	jbyte *deltaArr = NULL;
+	if(ver == C_OT){
+		//get the delta from java
+		deltaArr = env->GetByteArrayElements(deltaFromJava, 0);
+	}
 
-		//copy the values given from java
-		for(int i = 0; i < numOfOts*bitLength/8; i++)
-		{
-			X1.SetByte(i, x1Arr[i]);
-			X2.SetByte(i, x2Arr[i]);			
-		}
+	RunOtAsSender((OTExtensionSession*) sender, (BYTE*) x1Arr, (BYTE*) x2Arr, (BYTE*) deltaArr, numOfOts, bitLength, ver);
 
+	//make sure to release the memory created in c++. The JVM will not release it automatically.
+	if(ver == C_OT){
+		env->ReleaseByteArrayElements(deltaFromJava,deltaArr,0);
 	}
+	env->ReleaseByteArrayElements(x1,x1Arr,0);
+	env->ReleaseByteArrayElements(x2,x2Arr,0);
+}
 
-	else if(ver == C_OT){
-
-		//get the delta from java
+/*
+ * Function runOtAsSenderOnBuffers : The same as runOtAsSender, but works directly on the memory of java direct buffers.
+ */
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_runOtAsSenderOnBuffers
+  (JNIEnv *env, jobject, jlong sender, jobject x1, jobject x2, jobject deltaFromJava, jint numOfOts, jint bitLength, jstring version){
 
+	BYTE ver = GetVersion(env, version);
 
-		deltaArr = env->GetByteArrayElements(deltaFromJava, 0);
+	BYTE* x1Arr = (BYTE*) env->GetDirectBufferAddress(x1);
+	BYTE* x2Arr = (BYTE*) env->GetDirectBufferAddress(x2);
+	BYTE* deltaArr = NULL;
+	if(ver == C_OT){
+		deltaArr = (BYTE*) env->GetDirectBufferAddress(deltaFromJava);
+	}
 
-		m_fMaskFct = new XORMasking(bitLength);
+	RunOtAsSender((OTExtensionSession*) sender, x1Arr, x2Arr, deltaArr, numOfOts, bitLength, ver);
+}
 
-		delta.Create(numOfOts, bitLength);
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_deleteSender
+  (JNIEnv *, jobject, jlong sender){
+	  //delete the sender and close the connections of this session only
+	  DeleteSession((OTExtensionSession*) sender);
+}
 
-		//set the delta values given from java
-		for(int i = 0; i < numOfOts*bitLength/8; i++)
-		{
-			delta.SetByte(i, deltaArr[i]);		
-		}
+JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_deleteReceiver
+  (JNIEnv *, jobject, jlong receiver){
+	  //delete the receiver and close the connections of this session only
+	  DeleteSession((OTExtensionSession*) receiver);
+}
 
-		//creates delta as an array with "numOTs" entries of "bitlength" bit-values and fills delta with random values
-		//delta.Create(numOfOts, bitLength, m_aSeed, m_nCounter);
-		
-	}
+/*
+ * Function initOtSenderFromState : This function initializes the sender object using the result of previous base OTs and creates the connection with the receiver
+ * 
+ * param choices : The choice bits of the base OTs
+ * param keys : The keys of the base OTs
+ * param sessionIndex : The index used to re-derive the keys. Must be the same as the receiver's index.
+ * returns : A pointer to the session of the sender that was created and later be used to run the protcol
+ */
+JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_initOtSenderFromState
+  (JNIEnv *env, jobject, jstring ipAddress, jint port, jint koblitzOrZpSize, jint numOfThreads, jbyteArray choices, jbyteArray keys, jint sessionIndex){
 
-	//else if(ver==R_OT){} no need to set any values. There is no input for x0 and x1 and no input for delta
+	//get the values from java
+	const char* adrr = env->GetStringUTFChars( ipAddress, NULL );
+	jbyte* choicesArr = env->GetByteArrayElements(choices, 0);
+	jbyte* keysArr = env->GetByteArrayElements(keys, 0);
 	
-	//run the ot extension as the sender
-	ObliviouslySend((OTExtensionSender*) sender, X1, X2, numOfOts, bitLength, ver, delta);
-
-	if(ver != G_OT){//we need to copy x0 and x1 
+	OTExtensionSession* session = InitOTSenderFromState(adrr, port, koblitzOrZpSize, numOfThreads, (BYTE*) choicesArr, (BYTE*) keysArr, sessionIndex);
+	
+	//release the java arrays without copying back
+	env->ReleaseStringUTFChars(ipAddress, adrr);
+	env->ReleaseByteArrayElements(choices, choicesArr, JNI_ABORT);
+	env->ReleaseByteArrayElements(keys, keysArr, JNI_ABORT);
+	return (jlong) session;
+}
 
-		//get the values from the ot and copy them to x1Arr, x2Arr wich later on will be copied to the java values x1 and x2
-		for(int i = 0; i < numOfOts*bitLength/8; i++)
-		{
-			//copy each byte result to out
-			x1Arr[i] = X1.GetByte(i);
-			x2Arr[i] = X2.GetByte(i);
+/*
+ * Function initOtReceiverFromState : This function initializes the receiver object using the result of previous base OTs and creates the connection with the sender
+ * 
+ * param keys : The keys of the base OTs
+ * param sessionIndex : The index used to re-derive the keys. Must be the same as the sender's index.
+ * returns : A pointer to the session of the receiver that was created and later be used to run the protcol
+ */
+JNIEXPORT jlong JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_initOtReceiverFromState
+  (JNIEnv *env, jobject, jstring ipAddress, jint port, jint koblitzOrZpSize, jint numOfThreads, jbyteArray keys, jint sessionIndex){
 
-		}
+	//get the values from java
+	const char* adrr = env->GetStringUTFChars( ipAddress, NULL );
+	jbyte* keysArr = env->GetByteArrayElements(keys, 0);
+	
+	OTExtensionSession* session = InitOTReceiverFromState(adrr, port, koblitzOrZpSize, numOfThreads, (BYTE*) keysArr, sessionIndex);
+	
+	//release the java array without copying back
+	env->ReleaseStringUTFChars(ipAddress, adrr);
+	env->ReleaseByteArrayElements(keys, keysArr, JNI_ABORT);
+	return (jlong) session;
+}
 
-		if(ver==C_OT){
-			env->ReleaseByteArrayElements(deltaFromJava,deltaArr,0);
+/*
+ * Function getBaseOTChoices : returns the choice bits of the base OTs of the sender.
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_getBaseOTChoices
+  (JNIEnv *env, jobject, jlong sender){
 
-			delete m_fMaskFct;
-		}
+	int size = (NUM_EXECS_NAOR_PINKAS + 7) / 8;
+	jbyteArray result = env->NewByteArray(size);
+	jbyte* resultArr = env->GetByteArrayElements(result, 0);
+	for(int i = 0; i < size; i++)
+	{
+		resultArr[i] = ((OTExtensionSession*) sender)->U.GetByte(i);
 	}
+	env->ReleaseByteArrayElements(result, resultArr, 0);
+	return result;
+}
 
-	//make sure to release the memory created in c++. The JVM will not release it automatically.
-	env->ReleaseByteArrayElements(x1,x1Arr,0);
-	env->ReleaseByteArrayElements(x2,x2Arr,0);
-
-	X1.delCBitVector();
-	X2.delCBitVector();
-	delta.delCBitVector();
+/*
+ * Function getBaseOTKeys : returns the keys of the base OTs of the sender.
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_getBaseOTKeys
+  (JNIEnv *env, jobject, jlong sender){
 
+	int size = AES_KEY_BYTES * NUM_EXECS_NAOR_PINKAS;
+	jbyteArray result = env->NewByteArray(size);
+	env->SetByteArrayRegion(result, 0, size, (jbyte*) ((OTExtensionSession*) sender)->keySeeds);
+	return result;
 }
 
-JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionSender_deleteSender
-  (JNIEnv *, jobject, jlong sender){
-	  delete (OTExtensionSender*) sender;
-}
+/*
+ * Function getBaseOTKeys : returns the keys of the base OTs of the receiver.
+ */
+JNIEXPORT jbyteArray JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_getBaseOTKeys
+  (JNIEnv *env, jobject, jlong receiver){
 
-JNIEXPORT void JNICALL Java_edu_biu_scapi_interactiveMidProtocols_ot_otBatch_otExtension_OTSemiHonestExtensionReceiver_deleteReceiver
-  (JNIEnv *, jobject, jlong receiver){
-	  delete (OTExtensionReceiver*) receiver;
+	int size = AES_KEY_BYTES * NUM_EXECS_NAOR_PINKAS * 2;
+	jbyteArray result = env->NewByteArray(size);
+	env->SetByteArrayRegion(result, 0, size, (jbyte*) ((OTExtensionSession*) receiver)->keySeedMtx);
+	return result;
 }
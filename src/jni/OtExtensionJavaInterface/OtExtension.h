@@ -30,43 +30,52 @@ using namespace std;
 
 static const char* m_nSeed = "437398417012387813714564100";
 
-USHORT		m_nPort = 7766;
-const char* m_nAddr ;// = "localhost";
+/*
+ * The native state of one OT extension session. The java sender and receiver hold a pointer to this struct, 
+ * so sessions that exist at the same time do not share sockets or base OT values.
+ */
+struct OTExtensionSession
+{
+	// Network Communication
+	vector<CSocket> sockets;		// one socket per thread
+	int numOfThreads;
+	int secParam;					// 163,233,283 for ECC or 1024, 2048, 3072 for FFC
+	bool useECC;
+	
+	// SHA PRG
+	BYTE seed[SHA1_BYTES];
+	
+	// Naor-Pinkas OT
+	BaseOT* bot;
+	CBitVector U;					// choice bits of the base OTs (sender only)
+	BYTE* keySeeds;					// keys of the base OTs (sender only)
+	BYTE* keySeedMtx;				// both keys of each base OT (receiver only)
+	
+	// Only one of them is set, according to the side of the session
+	OTExtensionSender* sender;
+	OTExtensionReceiver* receiver;
+};
+
+OTExtensionSession* CreateSession(int koblitzOrZpSize, int numOfThreads);
+void DeleteSession(OTExtensionSession* session);
+BOOL Connect(OTExtensionSession* session, const char* address, USHORT port);
+BOOL Listen(OTExtensionSession* session, const char* address, USHORT port);
+
+OTExtensionSession* InitOTSender(const char* address, int port, int koblitzOrZpSize, int numOfThreads);
+OTExtensionSession* InitOTReceiver(const char* address, int port, int koblitzOrZpSize, int numOfThreads);
+OTExtensionSession* InitOTSenderFromState(const char* address, int port, int koblitzOrZpSize, int numOfThreads, BYTE* choices, BYTE* keys, int sessionIndex);
+OTExtensionSession* InitOTReceiverFromState(const char* address, int port, int koblitzOrZpSize, int numOfThreads, BYTE* keys, int sessionIndex);
+void DeriveBaseOTKeys(BYTE* keys, int numOfKeys, int sessionIndex);
+void SetSecurityParameters(OTExtensionSession* session, int koblitzOrZpSize);
+void RunOtAsSender(OTExtensionSession* session, BYTE* x1Arr, BYTE* x2Arr, BYTE* deltaArr, int numOfOts, int bitLength, BYTE ver);
+void RunOtAsReceiver(OTExtensionSession* session, BYTE* sigmaArr, int numOfOts, int bitLength, BYTE* out, BYTE ver);
+
+BOOL PrecomputeNaorPinkasSender(OTExtensionSession* session);
+BOOL PrecomputeNaorPinkasReceiver(OTExtensionSession* session);
+BOOL ObliviouslyReceive(OTExtensionSession* session, CBitVector& choices, CBitVector& ret, int numOTs, int bitlength, BYTE version, MaskingFunction* maskFct);
+BOOL ObliviouslySend(OTExtensionSession* session, CBitVector& X1, CBitVector& X2, int numOTs, int bitlength, BYTE version, CBitVector& delta, MaskingFunction* maskFct);
 
-BOOL Init();
-BOOL Cleanup();
-BOOL Connect();
-BOOL Listen();
-
-OTExtensionSender* InitOTSender(const char* address, int port);
-OTExtensionReceiver* InitOTReceiver(const char* address, int port);
-
-BOOL PrecomputeNaorPinkasSender();
-BOOL PrecomputeNaorPinkasReceiver();
-BOOL ObliviouslyReceive(OTExtensionReceiver* receiver, CBitVector& choices, CBitVector& ret, int numOTs, int bitlength, BYTE version);
-BOOL ObliviouslySend(OTExtensionSender* sender, CBitVector& X1, CBitVector& X2, int numOTs, int bitlength, BYTE version, CBitVector& delta);
-
-// Network Communication
-vector<CSocket> m_vSockets;
 int m_nPID; // thread id
-int m_nSecParam; 
-bool m_bUseECC;
-int m_nBitLength;
-int m_nMod;
-MaskingFunction* m_fMaskFct;
-
-// Naor-Pinkas OT
-BaseOT* bot;
-
-CBitVector U; 
-BYTE *vKeySeeds;
-BYTE *vKeySeedMtx;
-
-int m_nNumOTThreads;
-
-// SHA PRG
-BYTE				m_aSeed[SHA1_BYTES];
-int			m_nCounter;
 double			rndgentime;
 
 